@@ -58,15 +58,32 @@ public class ClassificationTask implements Task {
 	private final ReasonerConfiguration reasonerConfig_;
 	private final Metrics metrics_ = new Metrics();
 
+	/**
+	 * @param args
+	 *            the ontology file, optionally followed by the number of
+	 *            workers and by {@code true} or {@code false} to enable or
+	 *            disable work stealing
+	 */
 	public ClassificationTask(String[] args) {
 		ontologyFile_ = args[0];
 		reasonerConfig_ = BenchmarkUtils.getReasonerConfiguration(args);
+		if (args.length > 2) {
+			reasonerConfig_.setParameter(ReasonerConfiguration.WORK_STEALING,
+					args[2]);
+		}
 	}
 
 	@Override
 	public String getName() {
 		return "EL classification ["
-				+ ontologyFile_.substring(ontologyFile_.lastIndexOf('/')) + "]";
+				+ ontologyFile_.substring(ontologyFile_.lastIndexOf('/'))
+				+ ", "
+				+ reasonerConfig_
+						.getParameter(ReasonerConfiguration.NUM_OF_WORKING_THREADS)
+				+ " workers"
+				+ (reasonerConfig_
+						.getParameterAsBoolean(ReasonerConfiguration.WORK_STEALING) ? ", work stealing"
+						: "") + "]";
 	}
 
 	@Override
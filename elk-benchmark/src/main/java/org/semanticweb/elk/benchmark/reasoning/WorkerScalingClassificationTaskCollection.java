@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * ELK Benchmarking Package
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.benchmark.reasoning;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.semanticweb.elk.benchmark.Metrics;
+import org.semanticweb.elk.benchmark.Task;
+import org.semanticweb.elk.benchmark.TaskCollection;
+import org.semanticweb.elk.benchmark.TaskException;
+import org.semanticweb.elk.benchmark.TaskVisitor;
+import org.semanticweb.elk.benchmark.VisitorTaskCollection;
+
+/**
+ * Classifies the same ontology with increasing numbers of workers (1, 2, 4,
+ * ... up to the given maximum), each time once with the shared queue of
+ * active contexts and once with work stealing, to obtain the scaling curves
+ * of both schedulers.
+ * 
+ * The arguments are the ontology file and, optionally, the maximal number of
+ * workers (64 by default).
+ * 
+ * @author agent
+ */
+public class WorkerScalingClassificationTaskCollection implements
+		TaskCollection, VisitorTaskCollection {
+
+	private static final int DEFAULT_MAX_WORKERS_ = 64;
+
+	private final String ontologyFile_;
+
+	private final int maxWorkers_;
+
+	public WorkerScalingClassificationTaskCollection(String[] args) {
+		ontologyFile_ = args[0];
+		maxWorkers_ = args.length > 1 ? Integer.valueOf(args[1])
+				: DEFAULT_MAX_WORKERS_;
+	}
+
+	@Override
+	public Collection<Task> getTasks() throws TaskException {
+		Collection<Task> tasks = new ArrayList<Task>();
+
+		for (int workers = 1; workers <= maxWorkers_; workers *= 2) {
+			for (boolean workStealing : new boolean[] { false, true }) {
+				tasks.add(new ClassificationTask(new String[] { ontologyFile_,
+						String.valueOf(workers), String.valueOf(workStealing) }));
+			}
+		}
+
+		return tasks;
+	}
+
+	@Override
+	public void visitTasks(TaskVisitor visitor) throws TaskException {
+		for (Task task : getTasks()) {
+			visitor.visit(task);
+		}
+	}
+
+	@Override
+	public Metrics getMetrics() {
+		return null;
+	}
+
+	@Override
+	public void dispose() {
+	}
+
+}
@@ -38,10 +38,14 @@ import joptsimple.OptionSpec;
 
 import org.apache.log4j.Level;
 import org.semanticweb.elk.loading.AxiomLoader;
+import org.semanticweb.elk.loading.Owl2MappedFileLoader;
+import org.semanticweb.elk.loading.Owl2ParallelFileLoader;
 import org.semanticweb.elk.loading.Owl2StreamLoader;
 import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.managers.ConcurrentElkEntityRecycler;
 import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
 import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
 import org.semanticweb.elk.reasoner.ElkInconsistentOntologyException;
@@ -88,6 +92,12 @@ public class Main {
 				.withRequiredArg().ofType(File.class).describedAs("taxonomy");
 		OptionSpec<Void> printHash = parser.acceptsAll(asList("print-hash"),
 				"print taxonomy hash to log");
+		OptionSpec<Void> mappedInput = parser.acceptsAll(asList("mmap"),
+				"read the input ontology file using memory mapping");
+		OptionSpec<Integer> nParsers = parser
+				.acceptsAll(asList("parsers"),
+						"number of threads parsing the input ontology file")
+				.withRequiredArg().ofType(Integer.class);
 
 		// reasoning tasks
 		OptionSpec<Void> classify = parser.acceptsAll(asList("classify", "c"),
@@ -173,9 +183,20 @@ public class Main {
 
 		// create reasoner
 		ReasonerFactory reasoningFactory = new ReasonerFactory();
-		Owl2ParserFactory parserFactory = new Owl2FunctionalStyleParserFactory();
-		AxiomLoader loader = new Owl2StreamLoader(parserFactory,
-				options.valueOf(inputFile));
+		// parsers share equal entities and IRIs
+		Owl2ParserFactory parserFactory = new Owl2FunctionalStyleParserFactory(
+				new ElkObjectFactoryImpl(new ConcurrentElkEntityRecycler()));
+		AxiomLoader loader;
+		if (options.has(nParsers))
+			loader = new Owl2ParallelFileLoader(parserFactory,
+					options.valueOf(inputFile), options.valueOf(nParsers),
+					Owl2ParallelFileLoader.DEFAULT_CHUNK_SIZE);
+		else if (options.has(mappedInput))
+			loader = new Owl2MappedFileLoader(parserFactory,
+					options.valueOf(inputFile));
+		else
+			loader = new Owl2StreamLoader(parserFactory,
+					options.valueOf(inputFile));
 		Reasoner reasoner = reasoningFactory.createReasoner(loader,
 				new LoggingStageExecutor(), configuration);
 
@@ -0,0 +1,191 @@
+/*
+ * #%L
+ * ELK Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.microbenchmark.collections;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
+
+/**
+ * Measures the basic operations of {@link ArrayHashSet} and
+ * {@link ArrayHashMap}, which are used for storing subsumers and other
+ * conclusions in contexts, and, through them, the linear probing procedures
+ * shared by these collections. Every benchmark processes all keys of a fixed
+ * set of keys, whose hash codes are generated from a fixed seed, so the
+ * results of different runs are comparable.
+ * 
+ * @author agent
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayHashBenchmark {
+
+	/**
+	 * A key with a fixed hash code, so that the layout of the collections
+	 * does not depend on identity hash codes
+	 */
+	static final class Key {
+
+		private final int hash_;
+
+		Key(int hash) {
+			this.hash_ = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash_;
+		}
+
+	}
+
+	@State(Scope.Thread)
+	public static class Keys {
+
+		@Param({ "16", "256", "4096" })
+		int size;
+
+		/**
+		 * the keys to be inserted
+		 */
+		Key[] present;
+
+		/**
+		 * keys that are never inserted
+		 */
+		Key[] absent;
+
+		/**
+		 * the set containing {@link #present}
+		 */
+		ArrayHashSet<Key> set;
+
+		/**
+		 * the map containing {@link #present}
+		 */
+		ArrayHashMap<Key, Key> map;
+
+		@Setup
+		public void setUp() {
+			Random random = new Random(size);
+			present = new Key[size];
+			absent = new Key[size];
+			set = new ArrayHashSet<Key>();
+			map = new ArrayHashMap<Key, Key>();
+			for (int i = 0; i < size; i++) {
+				present[i] = new Key(random.nextInt());
+				absent[i] = new Key(random.nextInt());
+				set.add(present[i]);
+				map.put(present[i], present[i]);
+			}
+		}
+
+	}
+
+	@Benchmark
+	public ArrayHashSet<Key> setAdd(Keys keys) {
+		ArrayHashSet<Key> result = new ArrayHashSet<Key>();
+		for (Key key : keys.present) {
+			result.add(key);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public int setContainsPresent(Keys keys) {
+		int found = 0;
+		for (Key key : keys.present) {
+			if (keys.set.contains(key))
+				found++;
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int setContainsAbsent(Keys keys) {
+		int found = 0;
+		for (Key key : keys.absent) {
+			if (keys.set.contains(key))
+				found++;
+		}
+		return found;
+	}
+
+	@Benchmark
+	public ArrayHashSet<Key> setAddRemove(Keys keys) {
+		ArrayHashSet<Key> result = new ArrayHashSet<Key>();
+		for (Key key : keys.present) {
+			result.add(key);
+		}
+		for (Key key : keys.present) {
+			result.remove(key);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public ArrayHashMap<Key, Key> mapPut(Keys keys) {
+		ArrayHashMap<Key, Key> result = new ArrayHashMap<Key, Key>();
+		for (Key key : keys.present) {
+			result.put(key, key);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public int mapGetPresent(Keys keys) {
+		int found = 0;
+		for (Key key : keys.present) {
+			if (keys.map.get(key) != null)
+				found++;
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int mapGetAbsent(Keys keys) {
+		int found = 0;
+		for (Key key : keys.absent) {
+			if (keys.map.get(key) != null)
+				found++;
+		}
+		return found;
+	}
+
+}
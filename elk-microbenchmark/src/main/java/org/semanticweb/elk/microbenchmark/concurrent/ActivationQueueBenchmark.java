@@ -0,0 +1,191 @@
+/*
+ * #%L
+ * ELK Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.microbenchmark.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.util.concurrent.collections.ActivationQueue;
+import org.semanticweb.elk.util.concurrent.collections.ActivationStack;
+
+/**
+ * Compares {@link ActivationStack} and {@link ActivationQueue}, which are used
+ * for the unprocessed conclusions of contexts. The "burst" benchmarks insert
+ * a given number of elements into an empty collection and then take all of
+ * them, which corresponds to one activation of a context; run them with
+ * {@code -prof gc} to compare the allocation rates. The "handoff" benchmarks
+ * insert elements from several threads while one thread takes them. The
+ * "contended" benchmark inserts and takes elements of the same
+ * {@link ActivationStack} from several threads; it has no counterpart for
+ * {@link ActivationQueue}, which supports only one consumer.
+ * 
+ * @author agent
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActivationQueueBenchmark {
+
+	/**
+	 * the maximal number of elements waiting in the handoff benchmarks
+	 */
+	static final int MAX_BACKLOG = 1 << 14;
+
+	static final Object ELEMENT = new Object();
+
+	@State(Scope.Thread)
+	public static class Burst {
+
+		@Param({ "1", "4", "16", "256" })
+		int size;
+
+		final ActivationStack<Object> stack = new ActivationStack<Object>();
+
+		final ActivationQueue<Object> queue = new ActivationQueue<Object>();
+
+	}
+
+	@State(Scope.Group)
+	public static class Handoff {
+
+		ActivationStack<Object> stack;
+
+		ActivationQueue<Object> queue;
+
+		final AtomicInteger backlog = new AtomicInteger();
+
+		@Setup
+		public void setUp() {
+			stack = new ActivationStack<Object>();
+			queue = new ActivationQueue<Object>();
+			backlog.set(0);
+		}
+
+		/**
+		 * @return {@code true} if the producer may insert a new element
+		 */
+		boolean canInsert() {
+			if (backlog.get() < MAX_BACKLOG)
+				return true;
+			// else
+			Thread.yield();
+			return false;
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class Shared {
+
+		final ActivationStack<Object> stack = new ActivationStack<Object>();
+
+	}
+
+	@Benchmark
+	public int burstStack(Burst state) {
+		for (int i = 0; i < state.size; i++) {
+			state.stack.push(ELEMENT);
+		}
+		int taken = 0;
+		while (state.stack.pop() != null) {
+			taken++;
+		}
+		return taken;
+	}
+
+	@Benchmark
+	public int burstQueue(Burst state) {
+		for (int i = 0; i < state.size; i++) {
+			state.queue.push(ELEMENT);
+		}
+		int taken = 0;
+		while (state.queue.pop() != null) {
+			taken++;
+		}
+		return taken;
+	}
+
+	@Benchmark
+	@Group("handoffStack")
+	@GroupThreads(3)
+	public boolean handoffStackPush(Handoff state) {
+		if (!state.canInsert())
+			return false;
+		state.backlog.incrementAndGet();
+		return state.stack.push(ELEMENT);
+	}
+
+	@Benchmark
+	@Group("handoffStack")
+	@GroupThreads(1)
+	public Object handoffStackPop(Handoff state) {
+		Object result = state.stack.pop();
+		if (result != null)
+			state.backlog.decrementAndGet();
+		return result;
+	}
+
+	@Benchmark
+	@Group("handoffQueue")
+	@GroupThreads(3)
+	public boolean handoffQueuePush(Handoff state) {
+		if (!state.canInsert())
+			return false;
+		state.backlog.incrementAndGet();
+		return state.queue.push(ELEMENT);
+	}
+
+	@Benchmark
+	@Group("handoffQueue")
+	@GroupThreads(1)
+	public Object handoffQueuePop(Handoff state) {
+		Object result = state.queue.pop();
+		if (result != null)
+			state.backlog.decrementAndGet();
+		return result;
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Object contendedStack(Shared state) {
+		state.stack.push(ELEMENT);
+		return state.stack.pop();
+	}
+
+}
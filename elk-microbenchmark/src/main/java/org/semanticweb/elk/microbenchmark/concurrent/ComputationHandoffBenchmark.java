@@ -0,0 +1,148 @@
+/*
+ * #%L
+ * ELK Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.microbenchmark.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.util.concurrent.computation.ComputationExecutor;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentComputationWithInputs;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessorFactory;
+import org.semanticweb.elk.util.concurrent.computation.SimpleInterrupter;
+
+/**
+ * Measures the throughput of handing inputs over from the submitting thread
+ * to the workers of a {@link ConcurrentComputationWithInputs}. The processing
+ * of inputs is trivial, so the results are dominated by the cost of the
+ * buffer between the submitting thread and the workers. Every invocation
+ * starts the computation, submits a fixed number of inputs, and waits until
+ * the computation is finished.
+ * 
+ * @author agent
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComputationHandoffBenchmark {
+
+	/**
+	 * the number of inputs submitted in every invocation
+	 */
+	static final int INPUTS = 1 << 12;
+
+	/**
+	 * An {@link InputProcessorFactory} whose processors sum up the inputs
+	 */
+	static class SummingFactory extends SimpleInterrupter implements
+			InputProcessorFactory<Integer, InputProcessor<Integer>> {
+
+		final AtomicLong sum = new AtomicLong();
+
+		@Override
+		public InputProcessor<Integer> getEngine() {
+			return new InputProcessor<Integer>() {
+
+				private long sum_ = 0;
+
+				private Integer next_ = null;
+
+				@Override
+				public void submit(Integer job) {
+					next_ = job;
+				}
+
+				@Override
+				public void process() {
+					if (next_ != null) {
+						sum_ += next_;
+						next_ = null;
+					}
+				}
+
+				@Override
+				public void finish() {
+					sum.addAndGet(sum_);
+				}
+			};
+		}
+
+		@Override
+		public void finish() {
+			// nothing to do
+		}
+
+	}
+
+	@Param({ "1", "2", "4" })
+	int workers;
+
+	ComputationExecutor executor;
+
+	final SummingFactory factory = new SummingFactory();
+
+	final Integer[] inputs = new Integer[INPUTS];
+
+	@Setup
+	public void setUp() {
+		executor = new ComputationExecutor(workers, "elk-benchmark");
+		for (int i = 0; i < INPUTS; i++) {
+			inputs[i] = i;
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(INPUTS)
+	public long handoff() throws InterruptedException {
+		ConcurrentComputationWithInputs<Integer, SummingFactory> computation = new ConcurrentComputationWithInputs<Integer, SummingFactory>(
+				factory, executor, workers);
+		computation.start();
+		for (Integer input : inputs) {
+			computation.submit(input);
+		}
+		computation.finish();
+		return factory.sum.get();
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * #%L
+ * ELK Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.microbenchmark.indexing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
+import org.semanticweb.elk.owl.interfaces.ElkEquivalentClassesAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.reasoner.indexing.caching.ModifiableIndexedObjectCache;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverter;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverter;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.DifferentialIndex;
+import org.semanticweb.elk.util.collections.entryset.EntryCollection;
+
+/**
+ * Measures indexing of {@link ElkAxiom}s into a new index and the resolution
+ * of the class expressions of already indexed {@link ElkAxiom}s in the
+ * {@link ModifiableIndexedObjectCache}. The {@link ElkAxiom}s resemble the
+ * definitions of medical terminologies: every atomic class has several
+ * existential restrictions, some of them nested in conjunctions, and a few
+ * property chains are used. The heap occupied by the index is measured by
+ * {@link IndexedObjectCacheFootprint}.
+ * 
+ * @author agent
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexedObjectCacheBenchmark {
+
+
+	/**
+	 * the number of object properties in the fixture ontology
+	 */
+	static final int PROPERTY_COUNT = 64;
+
+	/**
+	 * the number of atomic classes in the fixture ontology; use, e.g.,
+	 * {@code -p ontologySize=200000} for inputs of the size of SNOMED CT
+	 */
+	@Param({ "20000" })
+	int ontologySize;
+
+	/**
+	 * whether the complex class expressions are stored in a hash consing
+	 * table instead of an {@link EntryCollection}
+	 */
+	@Param({ "false", "true" })
+	boolean hashConsing;
+
+	List<ElkAxiom> axioms;
+
+	List<ElkClassExpression> expressions;
+
+	DifferentialIndex index;
+
+	ElkPolarityExpressionConverter resolver;
+
+	static List<ElkAxiom> generate(int size) {
+		ElkObjectFactory factory = new ElkObjectFactoryImpl();
+		ElkClass[] classes = new ElkClass[size];
+		for (int i = 0; i < size; i++)
+			classes[i] = factory.getClass(new ElkFullIri("http://example.org/A"
+					+ i));
+		ElkObjectProperty[] properties = new ElkObjectProperty[PROPERTY_COUNT];
+		for (int i = 0; i < PROPERTY_COUNT; i++)
+			properties[i] = factory.getObjectProperty(new ElkFullIri(
+					"http://example.org/R" + i));
+		List<ElkAxiom> result = new ArrayList<ElkAxiom>(4 * size);
+		for (int i = 0; i < size; i++) {
+			ElkClassExpression first = factory.getObjectSomeValuesFrom(
+					properties[i % PROPERTY_COUNT], classes[(7 * i + 1) % size]);
+			ElkClassExpression second = factory.getObjectSomeValuesFrom(
+					properties[(i * 5) % PROPERTY_COUNT], factory
+							.getObjectIntersectionOf(classes[(i + 3) % size],
+									factory.getObjectSomeValuesFrom(
+											properties[i % 3],
+											classes[(13 * i) % size])));
+			if (i > 0)
+				result.add(factory.getSubClassOfAxiom(classes[i],
+						classes[(i - 1) / 2]));
+			result.add(factory.getSubClassOfAxiom(classes[i], first));
+			result.add(factory.getEquivalentClassesAxiom(classes[i], factory
+					.getObjectIntersectionOf(classes[(i - 1 + size) % size],
+							first, second)));
+		}
+		for (int i = 0; i < PROPERTY_COUNT; i += 8) {
+			result.add(factory.getSubObjectPropertyOfAxiom(factory
+					.getObjectPropertyChain(Arrays.asList(properties[i],
+							properties[i + 1])), properties[i]));
+		}
+		return result;
+	}
+
+	static DifferentialIndex index(List<ElkAxiom> axioms, boolean hashConsing) {
+		DifferentialIndex result = new DifferentialIndex(hashConsing);
+		ElkAxiomConverter inserter = new ElkAxiomConverterImpl(result, 1);
+		for (ElkAxiom axiom : axioms)
+			axiom.accept(inserter);
+		return result;
+	}
+
+	/**
+	 * @return the class expressions on the right-hand sides of the given
+	 *         {@link ElkAxiom}s produced by {@link #generate(int)}
+	 */
+	static List<ElkClassExpression> getDefinitions(List<ElkAxiom> axioms) {
+		List<ElkClassExpression> result = new ArrayList<ElkClassExpression>();
+		for (ElkAxiom axiom : axioms) {
+			if (axiom instanceof ElkEquivalentClassesAxiom)
+				result.addAll(((ElkEquivalentClassesAxiom) axiom)
+						.getClassExpressions());
+		}
+		return result;
+	}
+
+	@Setup
+	public void setUp() {
+		axioms = generate(ontologySize);
+		expressions = getDefinitions(axioms);
+		index = index(axioms, hashConsing);
+		resolver = new ElkPolarityExpressionConverterImpl(index);
+	}
+
+	@Benchmark
+	public DifferentialIndex index() {
+		return index(axioms, hashConsing);
+	}
+
+	@Benchmark
+	public void resolve(Blackhole blackhole) {
+		for (ElkClassExpression expression : expressions)
+			blackhole.consume(expression.accept(resolver));
+	}
+
+}
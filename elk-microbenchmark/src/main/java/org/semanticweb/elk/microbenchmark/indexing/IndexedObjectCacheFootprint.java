@@ -0,0 +1,101 @@
+/*
+ * #%L
+ * ELK Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.microbenchmark.indexing;
+
+import java.util.List;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.reasoner.indexing.caching.ModifiableIndexedObjectCacheImpl;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.DifferentialIndex;
+import org.semanticweb.elk.util.collections.entryset.EntryCollection;
+
+/**
+ * Measures the heap retained by the index of the ontologies generated by
+ * {@link IndexedObjectCacheBenchmark}: the used heap is measured after
+ * garbage collection before and after the axioms are indexed, once with the
+ * complex class expressions stored in an {@link EntryCollection} and once in a
+ * hash consing table, see
+ * {@link ModifiableIndexedObjectCacheImpl#ModifiableIndexedObjectCacheImpl(int, boolean)}
+ * . JMH does not
+ * report retained memory, so this is a separate program; run it with
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar org.semanticweb.elk.microbenchmark.indexing.IndexedObjectCacheFootprint [sizes]
+ * </pre>
+ * 
+ * where the sizes are the numbers of atomic classes of the generated
+ * ontologies. The values are more stable if the heap is fixed, e.g., using
+ * {@code -Xms4g -Xmx4g}.
+ * 
+ * @author agent
+ * 
+ */
+public class IndexedObjectCacheFootprint {
+
+	/**
+	 * the number of garbage collections requested before measuring the used
+	 * heap
+	 */
+	private static final int GC_COUNT_ = 5;
+
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length == 0)
+			args = new String[] { "20000", "200000" };
+		for (String arg : args) {
+			int size = Integer.parseInt(arg);
+			List<ElkAxiom> axioms = IndexedObjectCacheBenchmark
+					.generate(size);
+			System.out.println("classes: " + size);
+			measure(axioms, false);
+			measure(axioms, true);
+		}
+	}
+
+	static void measure(List<ElkAxiom> axioms, boolean hashConsing)
+			throws InterruptedException {
+		long before = getUsedHeap();
+		DifferentialIndex index = IndexedObjectCacheBenchmark.index(axioms,
+				hashConsing);
+		long after = getUsedHeap();
+		int expressionCount = index.getClassExpressions().size();
+		long retained = after - before;
+		System.out.println("  hash consing: " + hashConsing
+				+ ", indexed expressions: " + expressionCount
+				+ ", index heap: " + (retained >> 20)
+				+ " MB, per expression: " + (retained / expressionCount)
+				+ " bytes");
+	}
+
+	/**
+	 * @return the number of bytes used in the heap after garbage collection
+	 * @throws InterruptedException
+	 */
+	public static long getUsedHeap() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < GC_COUNT_; i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * #%L
+ * ELK Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.microbenchmark.saturation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.ContextImpl;
+import org.semanticweb.elk.reasoner.saturation.conclusions.visitors.ConclusionCounter;
+import org.semanticweb.elk.reasoner.saturation.conclusions.visitors.CountingConclusionVisitor;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.saturation.conclusions.implementation.ComposedSubsumerImpl;
+import org.semanticweb.elk.reasoner.saturation.conclusions.implementation.DecomposedSubsumerImpl;
+import org.semanticweb.elk.reasoner.saturation.conclusions.interfaces.Conclusion;
+import org.semanticweb.elk.reasoner.saturation.conclusions.visitors.ConclusionVisitor;
+
+/**
+ * Measures the dispatch of {@link Conclusion}s to the data structures of
+ * {@link ContextImpl} through the {@link ConclusionVisitor}s used in
+ * {@link ContextImpl#addConclusion(Conclusion)},
+ * {@link ContextImpl#containsConclusion(Conclusion)} and
+ * {@link ContextImpl#removeConclusion(Conclusion)}. The conclusions are the
+ * composed and decomposed subsumers for all classes of a
+ * {@link SyntheticOntology} of a fixed size. The counting of conclusions
+ * recorded in the metrics of the reasoner is measured in the same way by
+ * {@link #addRemoveCounted()}, which additionally dispatches every added
+ * conclusion to a {@link CountingConclusionVisitor}, as done for every
+ * processed conclusion during saturation.
+ * 
+ * @author agent
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConclusionDispatchBenchmark {
+
+	/**
+	 * the number of classes in the fixture ontology
+	 */
+	static final int ONTOLOGY_SIZE = 512;
+
+	Reasoner reasoner;
+
+	Conclusion[] conclusions;
+
+	/**
+	 * an empty context
+	 */
+	ContextImpl empty;
+
+	/**
+	 * a context containing all {@link #conclusions}
+	 */
+	ContextImpl full;
+
+	final ConclusionCounter counter = new ConclusionCounter();
+
+	final ConclusionVisitor<Context, Boolean> countingVisitor = new CountingConclusionVisitor<Context>(
+			counter);
+
+	@Setup
+	public void setUp() throws ElkException {
+		reasoner = SyntheticOntology.load(ONTOLOGY_SIZE);
+		List<IndexedClassExpression> classes = SyntheticOntology
+				.getClasses(reasoner);
+		conclusions = new Conclusion[2 * classes.size()];
+		int i = 0;
+		for (IndexedClassExpression ice : classes) {
+			conclusions[i++] = new DecomposedSubsumerImpl<IndexedClassExpression>(
+					ice);
+			conclusions[i++] = new ComposedSubsumerImpl<IndexedClassExpression>(
+					ice);
+		}
+		IndexedClassExpression root = classes.get(0);
+		empty = new ContextImpl(root);
+		full = new ContextImpl(root);
+		for (Conclusion conclusion : conclusions) {
+			full.addConclusion(conclusion);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		reasoner.shutdown();
+	}
+
+	@Benchmark
+	public int addRemove() {
+		int changed = 0;
+		for (Conclusion conclusion : conclusions) {
+			if (empty.addConclusion(conclusion))
+				changed++;
+		}
+		for (Conclusion conclusion : conclusions) {
+			if (empty.removeConclusion(conclusion))
+				changed++;
+		}
+		return changed;
+	}
+
+	@Benchmark
+	public int addRemoveCounted() {
+		int changed = 0;
+		for (Conclusion conclusion : conclusions) {
+			conclusion.accept(countingVisitor, empty);
+			if (empty.addConclusion(conclusion))
+				changed++;
+		}
+		for (Conclusion conclusion : conclusions) {
+			if (empty.removeConclusion(conclusion))
+				changed++;
+		}
+		return changed;
+	}
+
+	@Benchmark
+	public int contains() {
+		int found = 0;
+		for (Conclusion conclusion : conclusions) {
+			if (full.containsConclusion(conclusion))
+				found++;
+		}
+		return found;
+	}
+
+}
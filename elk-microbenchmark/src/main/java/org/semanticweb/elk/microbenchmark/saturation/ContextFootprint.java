@@ -0,0 +1,104 @@
+/*
+ * #%L
+ * ELK Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.microbenchmark.saturation;
+
+import org.semanticweb.elk.microbenchmark.indexing.IndexedObjectCacheFootprint;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.CompactContextFactory;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+
+/**
+ * Measures the heap retained by the {@link Context}s of the {@link Reasoner}
+ * for the {@link SyntheticOntology}, once with the subsumers stored as
+ * references and once as identifiers using {@link CompactContextFactory}, see
+ * {@link ReasonerConfiguration#COMPACT_SUBSUMERS}. The ontology is loaded
+ * before the heap is measured, so the difference includes the contexts and the
+ * class taxonomy, which is the same in both cases. The time of the
+ * classification is also printed, but it is measured only once and without
+ * warm-up. Run it with
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar org.semanticweb.elk.microbenchmark.saturation.ContextFootprint [sizes]
+ * </pre>
+ * 
+ * where the sizes are the numbers of atomic classes of the generated
+ * ontologies. The values are more stable if the heap is fixed, e.g., using
+ * {@code -Xms4g -Xmx4g}.
+ * 
+ * @author agent
+ * 
+ */
+public class ContextFootprint {
+
+	public static void main(String[] args) throws ElkException,
+			InterruptedException {
+		if (args.length == 0)
+			args = new String[] { "20000", "200000" };
+		for (String arg : args) {
+			int size = Integer.parseInt(arg);
+			System.out.println("classes: " + size);
+			measure(size, false);
+			measure(size, true);
+		}
+	}
+
+	static void measure(int size, boolean compact) throws ElkException,
+			InterruptedException {
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.COMPACT_SUBSUMERS,
+				String.valueOf(compact));
+		Reasoner reasoner = SyntheticOntology.create(size, config);
+		try {
+			reasoner.forceLoading();
+			long before = IndexedObjectCacheFootprint.getUsedHeap();
+			long start = System.nanoTime();
+			reasoner.getTaxonomy();
+			long millis = (System.nanoTime() - start) / 1000000;
+			long after = IndexedObjectCacheFootprint.getUsedHeap();
+			int contextCount = 0;
+			long subsumerCount = 0;
+			for (IndexedClassExpression ice : reasoner
+					.getIndexedClassExpressions()) {
+				Context context = ice.getContext();
+				if (context == null)
+					continue;
+				// else
+				contextCount++;
+				subsumerCount += context.getSubsumers().size();
+			}
+			long retained = after - before;
+			System.out.println("  compact subsumers: " + compact
+					+ ", contexts: " + contextCount + ", subsumers: "
+					+ subsumerCount + ", saturation heap: "
+					+ (retained >> 20) + " MB, per subsumer: "
+					+ (retained / subsumerCount) + " bytes, classification: "
+					+ millis + " ms");
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * #%L
+ * ELK Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.microbenchmark.saturation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.ContextImpl;
+import org.semanticweb.elk.reasoner.saturation.conclusions.implementation.DecomposedSubsumerImpl;
+import org.semanticweb.elk.reasoner.saturation.conclusions.interfaces.Conclusion;
+import org.semanticweb.elk.reasoner.saturation.rules.BasicRuleVisitor;
+import org.semanticweb.elk.reasoner.saturation.rules.ConclusionProducer;
+import org.semanticweb.elk.reasoner.saturation.rules.RuleCounter;
+import org.semanticweb.elk.reasoner.saturation.rules.RuleCounterVisitor;
+import org.semanticweb.elk.reasoner.saturation.rules.RuleVisitor;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.LinkedSubsumerRule;
+
+/**
+ * Measures the traversal of the chains of {@link LinkedSubsumerRule}s stored
+ * in {@link IndexedClassExpression}s and the application of these rules by a
+ * {@link RuleVisitor}, as done when processing subsumers during saturation.
+ * The rules are applied to the classes of a {@link SyntheticOntology} of a
+ * fixed size within a context that contains all these classes as subsumers;
+ * the produced conclusions are only counted. {@link #applyCounted()} applies
+ * the rules in the same way using a {@link RuleCounterVisitor}, which counts
+ * the rule applications recorded in the metrics of the reasoner.
+ * 
+ * @author agent
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleChainBenchmark {
+
+	/**
+	 * the number of classes in the fixture ontology
+	 */
+	static final int ONTOLOGY_SIZE = 512;
+
+	/**
+	 * A {@link ConclusionProducer} that only counts the produced
+	 * {@link Conclusion}s
+	 */
+	static class CountingProducer implements ConclusionProducer {
+
+		int count = 0;
+
+		@Override
+		public void produce(IndexedClassExpression root, Conclusion conclusion) {
+			count++;
+		}
+
+	}
+
+	Reasoner reasoner;
+
+	IndexedClassExpression[] premises;
+
+	ContextImpl context;
+
+	final RuleVisitor visitor = new BasicRuleVisitor();
+
+	final RuleVisitor countingVisitor = new RuleCounterVisitor(
+			new BasicRuleVisitor(), new RuleCounter());
+
+	final CountingProducer producer = new CountingProducer();
+
+	@Setup
+	public void setUp() throws ElkException {
+		reasoner = SyntheticOntology.load(ONTOLOGY_SIZE);
+		List<IndexedClassExpression> classes = SyntheticOntology
+				.getClasses(reasoner);
+		premises = classes.toArray(new IndexedClassExpression[classes.size()]);
+		context = new ContextImpl(premises[0]);
+		for (IndexedClassExpression ice : premises) {
+			context.addConclusion(new DecomposedSubsumerImpl<IndexedClassExpression>(
+					ice));
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		reasoner.shutdown();
+	}
+
+	@Benchmark
+	public int traverse() {
+		int length = 0;
+		for (IndexedClassExpression premise : premises) {
+			for (LinkedSubsumerRule rule = premise.getCompositionRuleHead(); rule != null; rule = rule
+					.next()) {
+				length++;
+			}
+		}
+		return length;
+	}
+
+	@Benchmark
+	public int apply() {
+		producer.count = 0;
+		for (IndexedClassExpression premise : premises) {
+			for (LinkedSubsumerRule rule = premise.getCompositionRuleHead(); rule != null; rule = rule
+					.next()) {
+				rule.accept(visitor, premise, context, producer);
+			}
+		}
+		return producer.count;
+	}
+
+	@Benchmark
+	public int applyCounted() {
+		producer.count = 0;
+		for (IndexedClassExpression premise : premises) {
+			for (LinkedSubsumerRule rule = premise.getCompositionRuleHead(); rule != null; rule = rule
+					.next()) {
+				rule.accept(countingVisitor, premise, context, producer);
+			}
+		}
+		return producer.count;
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * #%L
+ * ELK Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.microbenchmark.saturation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.semanticweb.elk.loading.Owl2StreamLoader;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.ReasonerFactory;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.stages.SimpleStageExecutor;
+
+/**
+ * A generated ontology of a fixed size that is used as a fixture for the
+ * saturation benchmarks. The told subsumptions between atomic classes form a
+ * binary tree, and every atomic class has an existential super-class and
+ * occurs in a conjunction and as a filler of a negative existential, so that
+ * the rule chains of the indexed classes contain all common kinds of
+ * composition rules.
+ * 
+ * @author agent
+ * 
+ */
+class SyntheticOntology {
+
+	private static final String PREFIX_ = "http://example.org/";
+
+	/**
+	 * @param size
+	 *            the number of atomic classes in the tree of told
+	 *            subsumptions
+	 * @return the text of the generated ontology in the OWL 2 functional-style
+	 *         syntax
+	 */
+	static String generate(int size) {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Prefix(:=<").append(PREFIX_).append(">)\n");
+		builder.append("Ontology(\n");
+		for (int i = 0; i < size; i++) {
+			String a = "A" + i;
+			if (i > 0)
+				builder.append("SubClassOf(:").append(a).append(" :A")
+						.append((i - 1) / 2).append(")\n");
+			builder.append("SubClassOf(:").append(a)
+					.append(" ObjectSomeValuesFrom(:R :A")
+					.append((7 * i + 1) % size).append("))\n");
+			builder.append("SubClassOf(ObjectIntersectionOf(:").append(a)
+					.append(" :A").append((i + 3) % size).append(") :B")
+					.append(i).append(")\n");
+			builder.append("SubClassOf(ObjectSomeValuesFrom(:R :").append(a)
+					.append(") :C").append(i).append(")\n");
+		}
+		builder.append(")\n");
+		return builder.toString();
+	}
+
+	/**
+	 * Creates a {@link Reasoner} for the generated ontology of the given size
+	 * and computes the class taxonomy, so that the index and the saturation
+	 * of properties, which are used by the rules, are fully initialized.
+	 * 
+	 * @param size
+	 *            the number of atomic classes in the tree of told
+	 *            subsumptions
+	 * @return the created {@link Reasoner}
+	 * @throws ElkException
+	 *             if the ontology cannot be loaded or classified
+	 */
+	static Reasoner load(int size) throws ElkException {
+		Reasoner reasoner = create(size,
+				ReasonerConfiguration.getConfiguration());
+		reasoner.getTaxonomy();
+		return reasoner;
+	}
+
+	/**
+	 * @param size
+	 *            the number of atomic classes in the tree of told
+	 *            subsumptions
+	 * @param config
+	 *            the {@link ReasonerConfiguration} of the created
+	 *            {@link Reasoner}
+	 * @return a {@link Reasoner} for the generated ontology of the given size
+	 *         that has not loaded it yet
+	 */
+	static Reasoner create(int size, ReasonerConfiguration config) {
+		return new ReasonerFactory().createReasoner(new Owl2StreamLoader(
+				new Owl2FunctionalStyleParserFactory(), generate(size)),
+				new SimpleStageExecutor(), config);
+	}
+
+	/**
+	 * @param reasoner
+	 *            a {@link Reasoner} for the generated ontology
+	 * @return the {@link IndexedClass}es of the ontology, excluding the
+	 *         built-in classes, in the order of their IRIs
+	 */
+	static List<IndexedClassExpression> getClasses(Reasoner reasoner) {
+		List<IndexedClassExpression> result = new ArrayList<IndexedClassExpression>();
+		for (IndexedClassExpression ice : reasoner.getIndexedClassExpressions()) {
+			if (ice instanceof IndexedClass
+					&& ((IndexedClass) ice).getElkEntity().getIri()
+							.getFullIriAsString().startsWith(PREFIX_))
+				result.add(ice);
+		}
+		Collections.sort(result,
+				new Comparator<IndexedClassExpression>() {
+					@Override
+					public int compare(IndexedClassExpression o1,
+							IndexedClassExpression o2) {
+						return o1.toString().compareTo(o2.toString());
+					}
+				});
+		return result;
+	}
+
+}
@@ -0,0 +1,178 @@
+/*
+ * #%L
+ * ELK OWL Model Implementation
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.managers;
+
+import java.lang.ref.ReferenceQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.semanticweb.elk.owl.interfaces.ElkAnnotationProperty;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkDataProperty;
+import org.semanticweb.elk.owl.interfaces.ElkDatatype;
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkIri;
+import org.semanticweb.elk.owl.visitors.ElkEntityVisitor;
+
+/**
+ * A thread-safe {@link ElkObjectRecycler} that reuses {@link ElkEntity}s and
+ * {@link ElkIri}s. Like {@link ElkEntityRecycler}, it returns the same object
+ * for structurally equivalent entities (of the same type and with equal
+ * {@link ElkIri}s) or equal {@link ElkIri}s as long as this object is used
+ * somewhere else; other {@link ElkObject}s are returned unchanged. Unlike
+ * {@link ElkEntityRecycler}, it can be used by several threads at the same
+ * time, e.g., by several parsers loading the same ontology, because the
+ * canonical objects are kept in a {@link ConcurrentHashMap}, which is
+ * internally split into independently locked segments.
+ * 
+ * The objects are referenced only weakly and are evicted once they are
+ * garbage collected; all objects can also be evicted explicitly using
+ * {@link #clear()}. The entries of collected objects are removed only when
+ * new objects are added, so that looking up objects that can be reused does
+ * not pay for the cleanup.
+ * 
+ * There is no shared instance: a recycler should be created for every group
+ * of components that need to share objects, e.g., by the parsers of one
+ * ontology, and passed to their {@link ElkObjectFactory}.
+ * 
+ * @author agent
+ * 
+ */
+public class ConcurrentElkEntityRecycler implements ElkObjectRecycler {
+
+	private static final int INITIAL_CAPACITY_ = 1024;
+
+	/**
+	 * the estimated number of threads using the recycler at the same time
+	 */
+	private static final int CONCURRENCY_LEVEL_ = 32;
+
+	private final ConcurrentMap<WeakWrapper<?>, WeakWrapper<?>> cache_ = new ConcurrentHashMap<WeakWrapper<?>, WeakWrapper<?>>(
+			INITIAL_CAPACITY_, 0.75f, CONCURRENCY_LEVEL_);
+
+	private final ReferenceQueue<Object> referenceQueue_ = new ReferenceQueue<Object>();
+
+	private final ElkEntityVisitor<WeakWrapper<? extends ElkEntity>> wrapper_ = new ElkEntityVisitor<WeakWrapper<? extends ElkEntity>>() {
+
+		@Override
+		public WeakWrapper<? extends ElkEntity> visit(ElkClass elkClass) {
+			return new WeakElkClassWrapper(elkClass, referenceQueue_);
+		}
+
+		@Override
+		public WeakWrapper<? extends ElkEntity> visit(ElkDatatype elkDatatype) {
+			return new WeakElkDatatypeWrapper(elkDatatype, referenceQueue_);
+		}
+
+		@Override
+		public WeakWrapper<? extends ElkEntity> visit(
+				ElkObjectProperty elkObjectProperty) {
+			return new WeakElkObjectPropertyWrapper(elkObjectProperty,
+					referenceQueue_);
+		}
+
+		@Override
+		public WeakWrapper<? extends ElkEntity> visit(
+				ElkDataProperty elkDataProperty) {
+			return new WeakElkDataPropertyWrapper(elkDataProperty,
+					referenceQueue_);
+		}
+
+		@Override
+		public WeakWrapper<? extends ElkEntity> visit(
+				ElkNamedIndividual elkNamedIndividual) {
+			return new WeakElkNamedIndividualWrapper(elkNamedIndividual,
+					referenceQueue_);
+		}
+
+		@Override
+		public WeakWrapper<? extends ElkEntity> visit(
+				ElkAnnotationProperty elkAnnotationProperty) {
+			return new WeakElkAnnotationPropertyWrapper(elkAnnotationProperty,
+					referenceQueue_);
+		}
+
+	};
+
+	@Override
+	public ElkObject recycle(ElkObject object) {
+		if (object instanceof ElkEntity)
+			return getCanonical(object, ((ElkEntity) object).accept(wrapper_));
+		if (object instanceof ElkIri)
+			return getCanonical(object, new WeakElkIriWrapper((ElkIri) object,
+					referenceQueue_));
+		// else
+		return object;
+	}
+
+	/**
+	 * @param iri
+	 * @return the canonical {@link ElkIri} equal to the given one
+	 */
+	public ElkIri recycle(ElkIri iri) {
+		return (ElkIri) recycle((ElkObject) iri);
+	}
+
+	private ElkObject getCanonical(ElkObject object, WeakWrapper<?> key) {
+		for (;;) {
+			WeakWrapper<?> previous = cache_.putIfAbsent(key, key);
+			if (previous == null) {
+				// the cache grows only here
+				processQueue();
+				return object;
+			}
+			Object result = previous.get();
+			if (result != null)
+				return (ElkObject) result;
+			// else the previous object has been just collected; try again
+		}
+	}
+
+	/**
+	 * Evicts all objects; the objects recycled afterwards will not be
+	 * identical to the objects recycled before
+	 */
+	public void clear() {
+		cache_.clear();
+	}
+
+	/**
+	 * @return the number of objects that can be currently reused; some of
+	 *         these objects may have been already garbage collected
+	 */
+	public int size() {
+		processQueue();
+		return cache_.size();
+	}
+
+	private void processQueue() {
+		Object wrapper;
+		while ((wrapper = referenceQueue_.poll()) != null) {
+			cache_.remove(wrapper);
+		}
+	}
+
+}
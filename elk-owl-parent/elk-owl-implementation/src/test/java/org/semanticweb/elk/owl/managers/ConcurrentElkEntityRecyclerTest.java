@@ -0,0 +1,122 @@
+/*
+ * #%L
+ * ELK OWL Model Implementation
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.junit.Test;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.interfaces.ElkSubClassOfAxiom;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.iris.ElkIri;
+
+/**
+ * Tests for {@link ConcurrentElkEntityRecycler}
+ * 
+ * @author agent
+ * 
+ */
+public class ConcurrentElkEntityRecyclerTest {
+
+	private static final int THREADS_ = 4;
+
+	private static final int ENTITIES_ = 1000;
+
+	private final ConcurrentElkEntityRecycler recycler_ = new ConcurrentElkEntityRecycler();
+
+	private final ElkObjectFactory factory_ = new ElkObjectFactoryImpl(
+			recycler_);
+
+	private static ElkIri iri(int i) {
+		return new ElkFullIri("http://example.org/E" + i);
+	}
+
+	@Test
+	public void sameEntities() {
+		ElkClass a = factory_.getClass(iri(1));
+		assertSame(a, factory_.getClass(iri(1)));
+		assertNotSame(a, factory_.getClass(iri(2)));
+		// punning: the same IRI used for entities of different types
+		ElkObjectProperty r = factory_.getObjectProperty(iri(1));
+		assertSame(r, factory_.getObjectProperty(iri(1)));
+		assertEquals(a.getIri(), r.getIri());
+	}
+
+	@Test
+	public void sameIris() {
+		ElkIri iri = recycler_.recycle(iri(1));
+		assertSame(iri, recycler_.recycle(iri(1)));
+		assertNotSame(iri, recycler_.recycle(iri(2)));
+	}
+
+	@Test
+	public void otherObjectsUnchanged() {
+		ElkClass a = factory_.getClass(iri(1));
+		ElkSubClassOfAxiom axiom = factory_.getSubClassOfAxiom(a, a);
+		assertNotSame(axiom, factory_.getSubClassOfAxiom(a, a));
+	}
+
+	@Test
+	public void clear() {
+		ElkClass a = factory_.getClass(iri(1));
+		recycler_.clear();
+		assertEquals(0, recycler_.size());
+		assertNotSame(a, factory_.getClass(iri(1)));
+	}
+
+	@Test
+	public void concurrentRecycling() throws InterruptedException {
+		final AtomicReferenceArray<ElkClass> first = new AtomicReferenceArray<ElkClass>(
+				ENTITIES_);
+		final AtomicReferenceArray<String> error = new AtomicReferenceArray<String>(
+				1);
+		Thread[] workers = new Thread[THREADS_];
+		for (int t = 0; t < THREADS_; t++) {
+			final int offset = t * ENTITIES_ / THREADS_;
+			workers[t] = new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < ENTITIES_; i++) {
+						int id = (offset + i) % ENTITIES_;
+						ElkClass c = factory_.getClass(iri(id));
+						if (!first.compareAndSet(id, null, c)
+								&& first.get(id) != c)
+							error.set(0, "different objects for " + c.getIri());
+					}
+				}
+			};
+			workers[t].start();
+		}
+		for (Thread worker : workers)
+			worker.join();
+		assertEquals(null, error.get(0));
+		assertEquals(ENTITIES_, recycler_.size());
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * #%L
+ * ELK OWL JavaCC Parser
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.parsing.javacc;
+
+import java.io.Reader;
+
+/**
+ * A {@link SimpleCharStream} that reuses the images of recently read tokens.
+ * The image of a token is looked up in a small direct-mapped cache by
+ * comparing the characters in the buffer of the stream, and a new
+ * {@link String} is created only if the cache does not contain an equal
+ * image. Since the same IRIs usually occur many times in an ontology, this
+ * avoids creating many equal strings for them. The cache has a fixed size,
+ * so unique tokens, such as long literals, do not accumulate.
+ * 
+ * @author agent
+ * 
+ */
+class InterningCharStream extends SimpleCharStream {
+
+	/**
+	 * the number of entries in the cache, must be a power of two
+	 */
+	private static final int CACHE_SIZE_ = 1 << 14;
+
+	/**
+	 * images longer than this are not cached
+	 */
+	private static final int MAX_CACHED_LENGTH_ = 1024;
+
+	private final String[] images_ = new String[CACHE_SIZE_];
+
+	InterningCharStream(Reader stream) {
+		super(stream);
+	}
+
+	@Override
+	public String GetImage() {
+		if (bufpos < tokenBegin)
+			// the image wraps around the buffer
+			return super.GetImage();
+		int length = bufpos - tokenBegin + 1;
+		if (length > MAX_CACHED_LENGTH_)
+			return super.GetImage();
+		// the same as String.hashCode()
+		int hash = 0;
+		for (int i = tokenBegin; i <= bufpos; i++)
+			hash = 31 * hash + buffer[i];
+		int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE_ - 1);
+		String image = images_[slot];
+		if (image != null && image.hashCode() == hash && matches(image, length))
+			return image;
+		image = new String(buffer, tokenBegin, length);
+		images_[slot] = image;
+		return image;
+	}
+
+	private boolean matches(String image, int length) {
+		if (image.length() != length)
+			return false;
+		for (int i = 0; i < length; i++) {
+			if (image.charAt(i) != buffer[tokenBegin + i])
+				return false;
+		}
+		return true;
+	}
+
+}
@@ -102,11 +102,16 @@ public class Owl2FunctionalStyleParserFactory implements Owl2ParserFactory {
 					lexerFactory);
 		}
 
+		/*
+		 * readers are lexed using an InterningCharStream, so that repeated
+		 * IRIs share their strings
+		 */
 		Owl2FunctionalStyleParser(Reader reader,
 				ElkObjectFactory objectFactory,
 				ElkPrefixDeclarations prefixDeclarations,
 				JavaCCLexerFactory<AbstractOwl2FunctionalStyleParserTokenManager> factory) {
-			super(reader);
+			super(new AbstractOwl2FunctionalStyleParserTokenManager(
+					new InterningCharStream(reader)));
 			this.objectFactory_ = objectFactory;
 			this.prefixDeclarations_ = prefixDeclarations;
 			this.lexerFactory_ = factory;
@@ -146,9 +151,8 @@ public class Owl2FunctionalStyleParserFactory implements Owl2ParserFactory {
 
 		@Override
 		public void ReInit(Reader stream) {
-			super.ReInit(stream);
-
-			wrapLexer();
+			ReInit(new AbstractOwl2FunctionalStyleParserTokenManager(
+					new InterningCharStream(stream)));
 		}
 
 		@Override
@@ -33,6 +33,7 @@ import org.semanticweb.elk.owl.exceptions.ElkRuntimeException;
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
 import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.NodeVisitor;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLRuntimeException;
@@ -109,6 +110,39 @@ public class ElkConverter {
 		return new OWLNamedIndividualNodeSet(owlNodes);
 	}
 
+	/**
+	 * @param visitor
+	 *            the {@link OwlNodeVisitor} for {@link OWLClass} nodes
+	 * @return the {@link NodeVisitor} for {@link ElkClass} nodes that passes
+	 *         the converted nodes to the given {@link OwlNodeVisitor}
+	 */
+	public NodeVisitor<ElkClass> convertClassNodeVisitor(
+			final OwlNodeVisitor<OWLClass> visitor) {
+		return new NodeVisitor<ElkClass>() {
+			@Override
+			public boolean visit(Node<ElkClass> node) {
+				return visitor.visit(convertClassNode(node));
+			}
+		};
+	}
+
+	/**
+	 * @param visitor
+	 *            the {@link OwlNodeVisitor} for {@link OWLNamedIndividual}
+	 *            nodes
+	 * @return the {@link NodeVisitor} for {@link ElkNamedIndividual} nodes that
+	 *         passes the converted nodes to the given {@link OwlNodeVisitor}
+	 */
+	public NodeVisitor<ElkNamedIndividual> convertIndividualNodeVisitor(
+			final OwlNodeVisitor<OWLNamedIndividual> visitor) {
+		return new NodeVisitor<ElkNamedIndividual>() {
+			@Override
+			public boolean visit(Node<ElkNamedIndividual> node) {
+				return visitor.visit(convertIndividualNode(node));
+			}
+		};
+	}
+
 	@SuppressWarnings("static-method")
 	public OWLRuntimeException convert(ElkException e) {
 		return ELK_EXCEPTION_CONVERTER.convert(e);
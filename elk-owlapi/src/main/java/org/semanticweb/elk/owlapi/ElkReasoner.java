@@ -25,16 +25,20 @@
  */
 package org.semanticweb.elk.owlapi;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.semanticweb.elk.loading.AxiomLoader;
 import org.semanticweb.elk.loading.ElkLoadingException;
 import org.semanticweb.elk.owl.exceptions.ElkException;
 import org.semanticweb.elk.owl.exceptions.ElkRuntimeException;
 import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.managers.ConcurrentElkEntityRecycler;
 import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
 import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
 import org.semanticweb.elk.owlapi.wrapper.OwlConverter;
 import org.semanticweb.elk.reasoner.DummyProgressMonitor;
@@ -43,6 +47,7 @@ import org.semanticweb.elk.reasoner.ProgressMonitor;
 import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.elk.reasoner.ReasonerFactory;
 import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.modularity.ModuleAxiomLoader;
 import org.semanticweb.elk.reasoner.stages.LoggingStageExecutor;
 import org.semanticweb.elk.reasoner.stages.ReasonerStageExecutor;
 import org.semanticweb.elk.util.logging.LogLevel;
@@ -53,6 +58,7 @@ import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataProperty;
 import org.semanticweb.owlapi.model.OWLDataPropertyExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLException;
 import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
@@ -127,9 +133,32 @@ public class ElkReasoner implements OWLReasoner {
 	/** configurations required for ELK reasoner */
 	private final ReasonerConfiguration config_;
 	private final boolean isAllowFreshEntities;
+	/**
+	 * the number of pending changes after which the changes are loaded by
+	 * {@link #changesLoadingThread_} and the registration of new changes waits
+	 * until they are taken for loading; if not positive, there is no limit
+	 */
+	private final int maxPendingChanges_;
+	/**
+	 * the time in milliseconds after which pending changes are loaded by
+	 * {@link #changesLoadingThread_}; if not positive, there is no limit
+	 */
+	private final int maxChangesDelay_;
+	/**
+	 * the thread that loads the pending changes in the non-buffering mode
+	 * when this is due according to {@link #maxPendingChanges_} and
+	 * {@link #maxChangesDelay_}, or {@code null} if there are no such limits,
+	 * in which case the changes are loaded only with the next query
+	 */
+	private final Thread changesLoadingThread_;
+	/**
+	 * {@code true} if {@link #changesLoadingThread_} is stopped because this
+	 * reasoner is disposed or the loading failed
+	 */
+	private volatile boolean changesLoadingStopped_ = false;
 	private final ReasonerStageExecutor stageExecutor_;
 	/** the ELK reasoner instance used for reasoning */
-	private Reasoner reasoner_;
+	private volatile Reasoner reasoner_;
 
 	/**
 	 * {@code true} if the ontology should be loaded before any changes are
@@ -141,6 +170,11 @@ public class ElkReasoner implements OWLReasoner {
 	 * changes should be flushed
 	 */
 	private boolean ontologyReloadRequired_;
+	/**
+	 * if not {@code null}, only the axioms in the module of the ontology for
+	 * these entities are loaded into the reasoner
+	 */
+	private List<ElkEntity> moduleSignature_ = null;
 
 	ElkReasoner(OWLOntology ontology, boolean isBufferingMode,
 			ElkReasonerConfiguration elkConfig,
@@ -157,13 +191,18 @@ public class ElkReasoner implements OWLReasoner {
 		this.ontologyChangeProgressListener_ = new OntologyChangeProgressListener();
 		this.owlOntologymanager_
 				.addOntologyChangeProgessListener(ontologyChangeProgressListener_);
-		this.objectFactory_ = new ElkObjectFactoryImpl();
+		this.objectFactory_ = new ElkObjectFactoryImpl(
+				new ConcurrentElkEntityRecycler());
 		this.owlConverter_ = OwlConverter.getInstance();
 		this.elkConverter_ = ElkConverter.getInstance();
 
 		this.config_ = elkConfig.getElkConfiguration();
 		this.stageExecutor_ = stageExecutor;
 		this.isAllowFreshEntities = elkConfig.getFreshEntityPolicy() == FreshEntityPolicy.ALLOW;
+		this.maxPendingChanges_ = config_
+				.getParameterAsInt(ReasonerConfiguration.CHANGES_MAX_PENDING);
+		this.maxChangesDelay_ = config_
+				.getParameterAsInt(ReasonerConfiguration.CHANGES_MAX_DELAY);
 
 		reCreateReasoner();
 		this.bufferedChangesLoader_ = new OwlChangesLoader(
@@ -175,6 +214,15 @@ public class ElkReasoner implements OWLReasoner {
 			reasoner_.registerAxiomLoader(bufferedChangesLoader_);
 		}
 		this.ontologyReloadRequired_ = false;
+		if (!isBufferingMode_
+				&& (maxPendingChanges_ > 0 || maxChangesDelay_ > 0)) {
+			this.changesLoadingThread_ = new Thread(new ChangesLoading(),
+					"elk-changes-loading-thread");
+			changesLoadingThread_.setDaemon(true);
+			changesLoadingThread_.start();
+		} else {
+			this.changesLoadingThread_ = null;
+		}
 	}
 
 	ElkReasoner(OWLOntology ontology, boolean isBufferingMode,
@@ -207,8 +255,12 @@ public class ElkReasoner implements OWLReasoner {
 	 * once
 	 */
 	private void reCreateReasoner() {
-		this.reasoner_ = new ReasonerFactory().createReasoner(
-				new OwlOntologyLoader(owlOntology_, this.mainProgressMonitor_),
+		AxiomLoader ontologyLoader = new OwlOntologyLoader(owlOntology_,
+				this.mainProgressMonitor_);
+		if (moduleSignature_ != null)
+			ontologyLoader = new ModuleAxiomLoader(ontologyLoader,
+					moduleSignature_);
+		this.reasoner_ = new ReasonerFactory().createReasoner(ontologyLoader,
 				stageExecutor_, config_);
 		this.reasoner_.setAllowFreshEntities(isAllowFreshEntities);
 		// use the secondary progress monitor by default, when necessary, we
@@ -217,6 +269,31 @@ public class ElkReasoner implements OWLReasoner {
 		this.reasoner_.setProgressMonitor(this.secondaryProgressMonitor_);
 	}
 
+	/**
+	 * Restricts reasoning to the entailments over the given entities: the
+	 * ontology is reloaded and only the axioms from its {@code ⊥}-locality
+	 * based module for these entities are indexed. The results of queries
+	 * about the given entities, such as their super-classes and sub-classes
+	 * within the signature, remain the same, but can be computed faster if
+	 * the module is small. While a signature is set, every change of the
+	 * ontology causes the module to be extracted again.
+	 * 
+	 * @param signature
+	 *            the entities to which reasoning should be restricted, or
+	 *            {@code null} to reason with the whole ontology
+	 */
+	public void setModuleSignature(Set<? extends OWLEntity> signature) {
+		if (signature == null) {
+			moduleSignature_ = null;
+		} else {
+			moduleSignature_ = new ArrayList<ElkEntity>(signature.size());
+			for (OWLEntity entity : signature)
+				moduleSignature_.add(owlConverter_.convert(entity));
+		}
+		ontologyReloadRequired_ = true;
+		flush();
+	}
+
 	/**
 	 * Exposes the ELK reasoner used internally in this OWL API wrapper.
 	 */
@@ -303,6 +380,8 @@ public class ElkReasoner implements OWLReasoner {
 				.removeOntologyChangeListener(ontologyChangeListener_);
 		owlOntologymanager_
 				.removeOntologyChangeProgessListener(ontologyChangeProgressListener_);
+		changesLoadingStopped_ = true;
+		bufferedChangesLoader_.close();
 		try {
 			for (;;) {
 				try {
@@ -327,10 +406,15 @@ public class ElkReasoner implements OWLReasoner {
 
 		try {
 			if (ontologyReloadRequired_) {
+				OwlChangesLoader previousChangesLoader = bufferedChangesLoader_;
 				reCreateReasoner();
 				bufferedChangesLoader_ = new OwlChangesLoader(
 						this.secondaryProgressMonitor_);
+				if (!isBufferingMode_)
+					reasoner_.registerAxiomLoader(bufferedChangesLoader_);
 				ontologyReloadRequired_ = false;
+				// the changes loading thread should switch to the new loader
+				previousChangesLoader.close();
 			} else if (!bufferedChangesLoader_.isLoadingFinished()) {
 				// there is something new in the buffer
 				if (isBufferingMode_) {
@@ -345,7 +429,12 @@ public class ElkReasoner implements OWLReasoner {
 					// in non-buffering node the changes loader is already
 					// registered, so we just need to
 					// notify the reasoner about new axioms
-					reasoner_.resetAxiomLoading();
+					if (changesLoadingThread_ == null)
+						reasoner_.resetAxiomLoading();
+					else
+						// do not wait until the changes loading thread
+						// finishes loading the previous changes
+						reasoner_.scheduleAxiomLoading();
 				}
 			}
 		} catch (ElkRuntimeException e) {
@@ -615,6 +704,15 @@ public class ElkReasoner implements OWLReasoner {
 		return bufferedChangesLoader_.getPendingChanges();
 	}
 
+	/**
+	 * @return the number of ontology changes that are not yet loaded into the
+	 *         reasoner; the changes that cancel each other, such as an addition
+	 *         of an axiom followed by its removal, are not counted
+	 */
+	public int getPendingChangesCount() {
+		return bufferedChangesLoader_.getPendingChangesCount();
+	}
+
 	@Override
 	public Set<InferenceType> getPrecomputableInferenceTypes() {
 		LOGGER_.debug("getPrecomputableInferenceTypes()");
@@ -809,6 +907,126 @@ public class ElkReasoner implements OWLReasoner {
 		}
 	}
 
+	/**
+	 * Passes the (direct or indirect) subclasses of the given class
+	 * expression to the given {@link OwlNodeVisitor} one node at a time,
+	 * without creating the {@link NodeSet} returned by
+	 * {@link #getSubClasses(OWLClassExpression, boolean)}. The enumeration
+	 * stops as soon as the {@link OwlNodeVisitor} returns {@code false}.
+	 * 
+	 * @return {@code false} if the enumeration was stopped by the
+	 *         {@link OwlNodeVisitor} and {@code true} otherwise
+	 */
+	public boolean visitSubClasses(OWLClassExpression ce, boolean direct,
+			OwlNodeVisitor<OWLClass> visitor)
+			throws InconsistentOntologyException, FreshEntitiesException,
+			ReasonerInterruptedException, TimeOutException {
+		LOGGER_.debug("visitSubClasses(OWLClassExpression, boolean, OwlNodeVisitor)");
+		checkInterrupted();
+		try {
+			return reasoner_.visitSubClasses(owlConverter_.convert(ce), direct,
+					elkConverter_.convertClassNodeVisitor(visitor));
+		} catch (ElkUnsupportedReasoningTaskException e) {
+			throw unsupportedOwlApiMethod(
+					"visitSubClasses(OWLClassExpression, boolean, OwlNodeVisitor)",
+					e.getMessage());
+		} catch (ElkException e) {
+			throw elkConverter_.convert(e);
+		} catch (ElkRuntimeException e) {
+			throw elkConverter_.convert(e);
+		}
+	}
+
+	/**
+	 * Passes the (direct or indirect) superclasses of the given class
+	 * expression to the given {@link OwlNodeVisitor} one node at a time,
+	 * without creating the {@link NodeSet} returned by
+	 * {@link #getSuperClasses(OWLClassExpression, boolean)}. The enumeration
+	 * stops as soon as the {@link OwlNodeVisitor} returns {@code false}.
+	 * 
+	 * @return {@code false} if the enumeration was stopped by the
+	 *         {@link OwlNodeVisitor} and {@code true} otherwise
+	 */
+	public boolean visitSuperClasses(OWLClassExpression ce, boolean direct,
+			OwlNodeVisitor<OWLClass> visitor)
+			throws InconsistentOntologyException, FreshEntitiesException,
+			ReasonerInterruptedException, TimeOutException {
+		LOGGER_.debug("visitSuperClasses(OWLClassExpression, boolean, OwlNodeVisitor)");
+		checkInterrupted();
+		try {
+			return reasoner_.visitSuperClasses(owlConverter_.convert(ce), direct,
+					elkConverter_.convertClassNodeVisitor(visitor));
+		} catch (ElkUnsupportedReasoningTaskException e) {
+			throw unsupportedOwlApiMethod(
+					"visitSuperClasses(OWLClassExpression, boolean, OwlNodeVisitor)",
+					e.getMessage());
+		} catch (ElkException e) {
+			throw elkConverter_.convert(e);
+		} catch (ElkRuntimeException e) {
+			throw elkConverter_.convert(e);
+		}
+	}
+
+	/**
+	 * Passes the (direct or indirect) instances of the given class
+	 * expression to the given {@link OwlNodeVisitor} one node at a time,
+	 * without creating the {@link NodeSet} returned by
+	 * {@link #getInstances(OWLClassExpression, boolean)}. The enumeration
+	 * stops as soon as the {@link OwlNodeVisitor} returns {@code false}.
+	 * 
+	 * @return {@code false} if the enumeration was stopped by the
+	 *         {@link OwlNodeVisitor} and {@code true} otherwise
+	 */
+	public boolean visitInstances(OWLClassExpression ce, boolean direct,
+			OwlNodeVisitor<OWLNamedIndividual> visitor)
+			throws InconsistentOntologyException, FreshEntitiesException,
+			ReasonerInterruptedException, TimeOutException {
+		LOGGER_.debug("visitInstances(OWLClassExpression, boolean, OwlNodeVisitor)");
+		checkInterrupted();
+		try {
+			return reasoner_.visitInstances(owlConverter_.convert(ce), direct,
+					elkConverter_.convertIndividualNodeVisitor(visitor));
+		} catch (ElkUnsupportedReasoningTaskException e) {
+			throw unsupportedOwlApiMethod(
+					"visitInstances(OWLClassExpression, boolean, OwlNodeVisitor)",
+					e.getMessage());
+		} catch (ElkException e) {
+			throw elkConverter_.convert(e);
+		} catch (ElkRuntimeException e) {
+			throw elkConverter_.convert(e);
+		}
+	}
+
+	/**
+	 * Passes the (direct or indirect) types of the given individual to the
+	 * given {@link OwlNodeVisitor} one node at a time, without creating the
+	 * {@link NodeSet} returned by
+	 * {@link #getTypes(OWLNamedIndividual, boolean)}. The enumeration stops
+	 * as soon as the {@link OwlNodeVisitor} returns {@code false}.
+	 * 
+	 * @return {@code false} if the enumeration was stopped by the
+	 *         {@link OwlNodeVisitor} and {@code true} otherwise
+	 */
+	public boolean visitTypes(OWLNamedIndividual ind, boolean direct,
+			OwlNodeVisitor<OWLClass> visitor)
+			throws InconsistentOntologyException, FreshEntitiesException,
+			ReasonerInterruptedException, TimeOutException {
+		LOGGER_.debug("visitTypes(OWLNamedIndividual, boolean, OwlNodeVisitor)");
+		checkInterrupted();
+		try {
+			return reasoner_.visitTypes(owlConverter_.convert(ind), direct,
+					elkConverter_.convertClassNodeVisitor(visitor));
+		} catch (ElkUnsupportedReasoningTaskException e) {
+			throw unsupportedOwlApiMethod(
+					"visitTypes(OWLNamedIndividual, boolean, OwlNodeVisitor)",
+					e.getMessage());
+		} catch (ElkException e) {
+			throw elkConverter_.convert(e);
+		} catch (ElkRuntimeException e) {
+			throw elkConverter_.convert(e);
+		}
+	}
+
 	@Override
 	public Node<OWLClass> getUnsatisfiableClasses()
 			throws ReasonerInterruptedException, TimeOutException,
@@ -962,7 +1180,21 @@ public class ElkReasoner implements OWLReasoner {
 							change);
 					// cannot handle non-axiom changes incrementally
 					ontologyReloadRequired_ = true;
+				} else if (moduleSignature_ != null) {
+					// the module may change in either direction
+					ontologyReloadRequired_ = true;
 				} else {
+					if (changesLoadingThread_ != null
+							&& !changesLoadingStopped_) {
+						try {
+							bufferedChangesLoader_
+									.awaitCapacity(maxPendingChanges_);
+						} catch (InterruptedException e) {
+							// the change should be registered anyway; restore
+							// the interrupt status
+							Thread.currentThread().interrupt();
+						}
+					}
 					bufferedChangesLoader_.registerChange(change);
 				}
 			}
@@ -972,6 +1204,58 @@ public class ElkReasoner implements OWLReasoner {
 
 	}
 
+	/**
+	 * Loads the pending changes when there are too many of them or they are
+	 * pending for too long; this way the changes are processed in batches of
+	 * bounded size even if no queries are asked, and the thread registering
+	 * the changes does not wait until they are loaded. If the loading fails
+	 * or is interrupted, the thread stops and the remaining changes are
+	 * loaded with the next query.
+	 */
+	private class ChangesLoading implements Runnable {
+		@Override
+		public void run() {
+			for (;;) {
+				OwlChangesLoader changesLoader = bufferedChangesLoader_;
+				try {
+					if (!changesLoader.awaitLoadingDue(maxPendingChanges_,
+							maxChangesDelay_)) {
+						if (changesLoadingStopped_)
+							return;
+						// else the loader is replaced
+						continue;
+					}
+				} catch (InterruptedException e) {
+					return;
+				}
+				LOGGER_.trace("loading {} pending changes",
+						changesLoader.getPendingChangesCount());
+				try {
+					Reasoner reasoner = reasoner_;
+					reasoner.scheduleAxiomLoading();
+					reasoner.forceLoading();
+				} catch (ElkException e) {
+					stop(changesLoader, e);
+					return;
+				} catch (RuntimeException e) {
+					stop(changesLoader, e);
+					return;
+				}
+			}
+		}
+
+		private void stop(OwlChangesLoader changesLoader, Exception e) {
+			boolean disposed = changesLoadingStopped_;
+			changesLoadingStopped_ = true;
+			// the registration of changes should not wait for this thread
+			changesLoader.close();
+			bufferedChangesLoader_.close();
+			if (!disposed)
+				LOGGER_.error("Stopped loading of changes in the background: "
+						+ e.getMessage(), e);
+		}
+	}
+
 	private class OntologyChangeProgressListener implements
 			OWLOntologyChangeProgressListener {
 
@@ -22,9 +22,11 @@
  */
 package org.semanticweb.elk.owlapi;
 
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -37,12 +39,23 @@ import org.semanticweb.elk.owlapi.wrapper.OwlConverter;
 import org.semanticweb.elk.reasoner.ProgressMonitor;
 import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.RemoveAxiom;
 
 /**
  * An {@link AxiomLoader} that accumulates the {@link OWLOntologyChange} and
- * provides them by converting through {@link OwlConverter}
+ * provides them by converting through {@link OwlConverter}.
+ * 
+ * The changes are coalesced when they are registered: an addition of an axiom
+ * followed by its removal from the same ontology (or the other way around)
+ * cancel each other, so only the net changes are kept. The registration of
+ * changes is cheap and does not wait until the changes are loaded: the
+ * conversion of the changes happens only in {@link #load}, which works on a
+ * snapshot of the pending changes. A separate thread can wait until the
+ * loading of the pending changes is due using {@link #awaitLoadingDue}, and
+ * the registration of changes can wait until there is room for them using
+ * {@link #awaitCapacity}.
  * 
  * @author "Yevgeny Kazakov"
  * 
@@ -56,31 +69,47 @@ public class OwlChangesLoader extends AbstractAxiomLoader implements
 
 	private final ProgressMonitor progressMonitor;
 
-	/** list to accumulate the unprocessed changes to the ontology */
-	private final LinkedList<OWLOntologyChange> pendingChanges_;
+	/**
+	 * the unprocessed changes to the ontology in the order of their
+	 * registration, indexed by the changed axioms and ontologies
+	 */
+	private LinkedHashMap<ChangeKey, OWLOntologyChange> pendingChanges_;
+
+	/**
+	 * the value of {@link System#nanoTime()} when the oldest of the pending
+	 * changes was registered
+	 */
+	private long pendingSince_;
+
+	/**
+	 * {@code true} if the threads waiting for this loader should not wait
+	 * anymore
+	 */
+	private boolean closed_ = false;
 
 	OwlChangesLoader(ProgressMonitor progressMonitor) {
 		this.progressMonitor = progressMonitor;
-		this.pendingChanges_ = new LinkedList<OWLOntologyChange>();
+		this.pendingChanges_ = new LinkedHashMap<ChangeKey, OWLOntologyChange>();
 	}
 
 	@Override
-	public synchronized void load(final ElkAxiomProcessor axiomInserter,
+	public void load(final ElkAxiomProcessor axiomInserter,
 			final ElkAxiomProcessor axiomDeleter) throws ElkLoadingException {
-		if (!pendingChanges_.isEmpty()) {
-			String status = "Loading of Changes";
-			progressMonitor.start(status);
-			int changesCount = pendingChanges_.size();
-			
-			LOGGER_.trace("{}: {}", status, changesCount);
-			
-			int currentAxiom = 0;
-			for (;;) {
+		List<OWLOntologyChange> changes = takePendingChanges();
+		if (changes.isEmpty())
+			return;
+		String status = "Loading of Changes";
+		progressMonitor.start(status);
+		int changesCount = changes.size();
+
+		LOGGER_.trace("{}: {}", status, changesCount);
+
+		int currentAxiom = 0;
+		try {
+			while (currentAxiom < changesCount) {
 				if (isInterrupted())
 					break;
-				OWLOntologyChange change = pendingChanges_.poll();
-				if (change == null)
-					break;
+				OWLOntologyChange change = changes.get(currentAxiom++);
 				if (!change.isAxiomChange()) {
 					ElkLoadingException exception = new ElkLoadingException(
 							"Cannot apply non-axiom change!");
@@ -97,9 +126,13 @@ public class OwlChangesLoader extends AbstractAxiomLoader implements
 					throw error;
 				}
 
-				currentAxiom++;
 				progressMonitor.report(currentAxiom, changesCount);
 			}
+		} finally {
+			if (currentAxiom < changesCount)
+				// the changes that were not loaded should be loaded next time
+				restorePendingChanges(changes.subList(currentAxiom,
+						changesCount));
 			progressMonitor.finish();
 		}
 	}
@@ -112,12 +145,106 @@ public class OwlChangesLoader extends AbstractAxiomLoader implements
 	synchronized void registerChange(OWLOntologyChange change) {
 		LOGGER_.trace("Registering change: {}", change);
 
-		pendingChanges_.add(change);
+		if (pendingChanges_.isEmpty())
+			pendingSince_ = System.nanoTime();
+		addPendingChange(pendingChanges_, change);
+		// the loading may be due now
+		notifyAll();
+	}
+
+	/**
+	 * Waits until the number of pending changes is below the given capacity
+	 * or this loader is closed
+	 * 
+	 * @param capacity
+	 *            the number of pending changes after which new changes should
+	 *            not be registered; if not positive, there is no limit
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting
+	 */
+	synchronized void awaitCapacity(int capacity) throws InterruptedException {
+		while (!closed_ && capacity > 0 && pendingChanges_.size() >= capacity)
+			wait();
+	}
+
+	/**
+	 * @return the number of registered changes that are not yet loaded; the
+	 *         changes that cancel each other are not counted
+	 */
+	synchronized int getPendingChangesCount() {
+		return pendingChanges_.size();
 	}
 
-	Set<OWLAxiom> getPendingAxiomAdditions() {
+	/**
+	 * Checks if the pending changes should be loaded without waiting for
+	 * further changes
+	 * 
+	 * @param maxPending
+	 *            the number of pending changes that should not be exceeded;
+	 *            if not positive, the number of pending changes is not checked
+	 * @param maxDelayMillis
+	 *            the time in milliseconds for which the changes can stay
+	 *            pending; if not positive, the time is not checked
+	 * @return {@code true} if there are pending changes and either their
+	 *         number or the time since the oldest of them was registered
+	 *         exceeds the respective limit
+	 */
+	synchronized boolean isLoadingDue(int maxPending, long maxDelayMillis) {
+		if (pendingChanges_.isEmpty())
+			return false;
+		if (maxPending > 0 && pendingChanges_.size() >= maxPending)
+			return true;
+		return maxDelayMillis > 0
+				&& System.nanoTime() - pendingSince_ >= maxDelayMillis * 1000000L;
+	}
+
+	/**
+	 * Waits until the loading of the pending changes is due or this loader is
+	 * closed
+	 * 
+	 * @param maxPending
+	 *            the number of pending changes that should not be exceeded;
+	 *            if not positive, the number of pending changes is not checked
+	 * @param maxDelayMillis
+	 *            the time in milliseconds for which the changes can stay
+	 *            pending; if not positive, the time is not checked
+	 * @return {@code true} if the loading is due and {@code false} if this
+	 *         loader is closed
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting
+	 * @see #isLoadingDue(int, long)
+	 */
+	synchronized boolean awaitLoadingDue(int maxPending, long maxDelayMillis)
+			throws InterruptedException {
+		for (;;) {
+			if (closed_)
+				return false;
+			if (isLoadingDue(maxPending, maxDelayMillis))
+				return true;
+			if (pendingChanges_.isEmpty() || maxDelayMillis <= 0) {
+				wait();
+				continue;
+			}
+			// wait until the oldest pending change stays for too long
+			long delay = maxDelayMillis - (System.nanoTime() - pendingSince_)
+					/ 1000000L;
+			wait(Math.max(delay, 1));
+		}
+	}
+
+	/**
+	 * Wakes up the threads waiting for this loader and makes sure that they
+	 * do not wait for it anymore; the changes can still be registered and
+	 * loaded as before
+	 */
+	synchronized void close() {
+		closed_ = true;
+		notifyAll();
+	}
+
+	synchronized Set<OWLAxiom> getPendingAxiomAdditions() {
 		Set<OWLAxiom> added = new HashSet<OWLAxiom>();
-		for (OWLOntologyChange change : pendingChanges_) {
+		for (OWLOntologyChange change : pendingChanges_.values()) {
 			if (change instanceof AddAxiom) {
 				added.add(change.getAxiom());
 			}
@@ -125,9 +252,9 @@ public class OwlChangesLoader extends AbstractAxiomLoader implements
 		return added;
 	}
 
-	Set<OWLAxiom> getPendingAxiomRemovals() {
+	synchronized Set<OWLAxiom> getPendingAxiomRemovals() {
 		Set<OWLAxiom> removed = new HashSet<OWLAxiom>();
-		for (OWLOntologyChange change : pendingChanges_) {
+		for (OWLOntologyChange change : pendingChanges_.values()) {
 			if (change instanceof RemoveAxiom) {
 				removed.add(change.getAxiom());
 			}
@@ -135,8 +262,95 @@ public class OwlChangesLoader extends AbstractAxiomLoader implements
 		return removed;
 	}
 
-	List<OWLOntologyChange> getPendingChanges() {
-		return pendingChanges_;
+	synchronized List<OWLOntologyChange> getPendingChanges() {
+		return new ArrayList<OWLOntologyChange>(pendingChanges_.values());
+	}
+
+	/**
+	 * Removes all pending changes so that they can be loaded without
+	 * blocking the registration of new changes
+	 * 
+	 * @return the list of removed changes in the order of their registration
+	 */
+	private synchronized List<OWLOntologyChange> takePendingChanges() {
+		if (pendingChanges_.isEmpty())
+			return new ArrayList<OWLOntologyChange>(0);
+		List<OWLOntologyChange> result = new ArrayList<OWLOntologyChange>(
+				pendingChanges_.values());
+		pendingChanges_.clear();
+		// there is room for new changes
+		notifyAll();
+		return result;
+	}
+
+	/**
+	 * Puts back the changes that were taken for loading but have not been
+	 * loaded; the changes registered in the meantime are kept after them
+	 * 
+	 * @param changes
+	 *            the changes to be put back
+	 */
+	private synchronized void restorePendingChanges(
+			List<OWLOntologyChange> changes) {
+		LinkedHashMap<ChangeKey, OWLOntologyChange> registered = pendingChanges_;
+		pendingChanges_ = new LinkedHashMap<ChangeKey, OWLOntologyChange>();
+		for (OWLOntologyChange change : changes) {
+			addPendingChange(pendingChanges_, change);
+		}
+		for (OWLOntologyChange change : registered.values()) {
+			addPendingChange(pendingChanges_, change);
+		}
+		pendingSince_ = System.nanoTime();
+	}
+
+	private void addPendingChange(Map<ChangeKey, OWLOntologyChange> pending,
+			OWLOntologyChange change) {
+		if (!change.isAxiomChange()) {
+			// cannot be coalesced; will be reported when loading
+			pending.put(new ChangeKey(change.getOntology(), change), change);
+			return;
+		}
+		ChangeKey key = new ChangeKey(change.getOntology(), change.getAxiom());
+		OWLOntologyChange previous = pending.get(key);
+		if (previous == null) {
+			pending.put(key, change);
+		} else if ((previous instanceof AddAxiom) != (change instanceof AddAxiom)) {
+			// the changes cancel each other
+			pending.remove(key);
+		}
+		// else a repeated change, which has no effect
+	}
+
+	/**
+	 * The key by which the pending changes are coalesced: the changes of the
+	 * same axiom in the same ontology have the same key
+	 */
+	private static class ChangeKey {
+
+		private final OWLOntology ontology_;
+
+		private final Object subject_;
+
+		ChangeKey(OWLOntology ontology, Object subject) {
+			this.ontology_ = ontology;
+			this.subject_ = subject;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * ontology_.hashCode() + subject_.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof ChangeKey))
+				return false;
+			ChangeKey other = (ChangeKey) o;
+			return ontology_.equals(other.ontology_)
+					&& subject_.equals(other.subject_);
+		}
 	}
 
 }
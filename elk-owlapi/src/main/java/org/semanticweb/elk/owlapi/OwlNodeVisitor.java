@@ -0,0 +1,54 @@
+/*
+ * #%L
+ * ELK OWL API Binding
+ * 
+ * $Id$
+ * $HeadURL$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owlapi;
+
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.reasoner.Node;
+
+/**
+ * An object that receives the {@link Node}s enumerated by the streaming query
+ * methods of {@link ElkReasoner}, such as
+ * {@link ElkReasoner#visitSubClasses}. Unlike the corresponding methods
+ * returning a {@link org.semanticweb.owlapi.reasoner.NodeSet}, the
+ * {@link Node}s are passed one by one, and the enumeration can be stopped at
+ * any point. The {@link Node}s are passed while the reasoner is locked, so the
+ * {@link OwlNodeVisitor} must not call the methods of the reasoner.
+ * 
+ * @author agent
+ * 
+ * @param <E>
+ *            the type of the members of the visited {@link Node}s
+ */
+public interface OwlNodeVisitor<E extends OWLObject> {
+
+	/**
+	 * Receives the next {@link Node} of the enumeration
+	 * 
+	 * @param node
+	 *            the {@link Node} to be processed
+	 * @return {@code true} if the enumeration should continue and
+	 *         {@code false} if no further {@link Node}s should be visited
+	 */
+	boolean visit(Node<E> node);
+
+}
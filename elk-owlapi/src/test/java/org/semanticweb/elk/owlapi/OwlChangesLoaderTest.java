@@ -0,0 +1,178 @@
+package org.semanticweb.elk.owlapi;
+
+/*
+ * #%L
+ * ELK OWL API Binding
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2012 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.elk.reasoner.DummyProgressMonitor;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+
+/**
+ * Tests coalescing and batching of changes by {@link OwlChangesLoader}
+ * 
+ * @author agent
+ * 
+ */
+public class OwlChangesLoaderTest {
+
+	private OWLOntologyManager manager_;
+
+	private OWLDataFactory factory_;
+
+	private OWLOntology ontology_;
+
+	private OWLClass a_, b_, c_, d_;
+
+	@Before
+	public void setUp() throws Exception {
+		manager_ = OWLManager.createOWLOntologyManager();
+		factory_ = manager_.getOWLDataFactory();
+		ontology_ = manager_.createOntology(IRI
+				.create("http://www.example.com/test"));
+		a_ = factory_.getOWLClass(IRI.create("http://www.example.com/test#A"));
+		b_ = factory_.getOWLClass(IRI.create("http://www.example.com/test#B"));
+		c_ = factory_.getOWLClass(IRI.create("http://www.example.com/test#C"));
+		d_ = factory_.getOWLClass(IRI.create("http://www.example.com/test#D"));
+	}
+
+	@Test
+	public void oppositeChangesCancel() {
+		OwlChangesLoader loader = new OwlChangesLoader(
+				new DummyProgressMonitor());
+		OWLAxiom ab = factory_.getOWLSubClassOfAxiom(a_, b_);
+		OWLAxiom bc = factory_.getOWLSubClassOfAxiom(b_, c_);
+
+		loader.registerChange(new AddAxiom(ontology_, ab));
+		loader.registerChange(new RemoveAxiom(ontology_, ab));
+		assertTrue(loader.isLoadingFinished());
+		assertEquals(0, loader.getPendingChangesCount());
+
+		loader.registerChange(new RemoveAxiom(ontology_, bc));
+		loader.registerChange(new AddAxiom(ontology_, ab));
+		loader.registerChange(new AddAxiom(ontology_, bc));
+		assertEquals(Arrays.<OWLOntologyChange> asList(new AddAxiom(
+				ontology_, ab)), loader.getPendingChanges());
+		assertTrue(loader.getPendingAxiomAdditions().contains(ab));
+		assertTrue(loader.getPendingAxiomRemovals().isEmpty());
+	}
+
+	@Test
+	public void loadingDue() {
+		OwlChangesLoader loader = new OwlChangesLoader(
+				new DummyProgressMonitor());
+		assertFalse(loader.isLoadingDue(1, 0));
+		loader.registerChange(new AddAxiom(ontology_, factory_
+				.getOWLSubClassOfAxiom(a_, b_)));
+		assertFalse(loader.isLoadingDue(2, 0));
+		assertFalse(loader.isLoadingDue(0, 0));
+		assertTrue(loader.isLoadingDue(1, 0));
+		loader.registerChange(new AddAxiom(ontology_, factory_
+				.getOWLSubClassOfAxiom(b_, c_)));
+		assertTrue(loader.isLoadingDue(2, 0));
+	}
+
+	@Test
+	public void awaitLoadingDue() throws Exception {
+		OwlChangesLoader loader = new OwlChangesLoader(
+				new DummyProgressMonitor());
+		loader.registerChange(new AddAxiom(ontology_, factory_
+				.getOWLSubClassOfAxiom(a_, b_)));
+		// the delay should pass without further changes
+		assertTrue(loader.awaitLoadingDue(0, 10));
+		loader.close();
+		assertFalse(loader.awaitLoadingDue(0, 0));
+		// the closed loader should not limit the registration of changes
+		loader.awaitCapacity(1);
+	}
+
+	@Test
+	public void changesLoadedAfterDelay() throws Exception {
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.CHANGES_MAX_DELAY, "10");
+		ElkReasoner reasoner = createReasoner(config);
+		try {
+			manager_.addAxiom(ontology_, factory_.getOWLSubClassOfAxiom(a_, b_));
+			// the change should be loaded without queries
+			awaitNoPendingChanges(reasoner);
+			assertTrue(reasoner.getSuperClasses(a_, false).containsEntity(b_));
+		} finally {
+			reasoner.dispose();
+		}
+	}
+
+	@Test
+	public void changesLoadedInBatches() throws Exception {
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.CHANGES_MAX_PENDING, "2");
+		ElkReasoner reasoner = createReasoner(config);
+		try {
+			manager_.addAxiom(ontology_, factory_.getOWLSubClassOfAxiom(a_, b_));
+			assertFalse(reasoner.getSuperClasses(a_, false).containsEntity(c_));
+
+			manager_.addAxiom(ontology_, factory_.getOWLSubClassOfAxiom(b_, c_));
+			assertEquals(1, reasoner.getPendingChangesCount());
+			manager_.addAxiom(ontology_, factory_.getOWLSubClassOfAxiom(c_, d_));
+			// two pending changes should be loaded without queries
+			awaitNoPendingChanges(reasoner);
+			assertTrue(reasoner.getSuperClasses(a_, false).containsEntity(c_));
+			assertTrue(reasoner.getSuperClasses(a_, false).containsEntity(d_));
+		} finally {
+			reasoner.dispose();
+		}
+	}
+
+	private ElkReasoner createReasoner(ReasonerConfiguration config) {
+		return new ElkReasonerFactory().createElkReasoner(ontology_, false,
+				new ElkReasonerConfiguration(ElkReasonerConfiguration
+						.getDefaultOwlReasonerConfiguration(null), config));
+	}
+
+	private static void awaitNoPendingChanges(ElkReasoner reasoner)
+			throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (reasoner.getPendingChangesCount() > 0) {
+			assertTrue("the changes are not loaded",
+					System.currentTimeMillis() < deadline);
+			Thread.sleep(5);
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * 
+ * $Id$
+ * $HeadURL$
+ * %%
+ * Copyright (C) 2011 - 2012 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.semanticweb.elk.owl.exceptions.ElkRuntimeException;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+
+/**
+ * Keeps a fingerprint of the multiset of loaded {@link ElkAxiom}s: every
+ * axiom is hashed using its functional-style representation, and the hashes
+ * of added axioms are added to the fingerprint and the hashes of removed
+ * axioms are subtracted from it. The fingerprint therefore does not depend on
+ * the order in which the axioms are loaded or on the axioms that were added
+ * and removed later. Different sets of axioms have the same fingerprint only
+ * by chance.
+ * 
+ * @author agent
+ * 
+ */
+public class AxiomFingerprint {
+
+	private final AtomicLong value_ = new AtomicLong();
+
+	/**
+	 * @return the current value of this {@link AxiomFingerprint}
+	 */
+	public long getValue() {
+		return value_.get();
+	}
+
+	/**
+	 * @param processor
+	 *            the {@link ElkAxiomProcessor} that inserts axioms
+	 * @return the {@link ElkAxiomProcessor} that adds the axioms to this
+	 *         {@link AxiomFingerprint} and passes them to the given one
+	 */
+	public ElkAxiomProcessor getInserter(final ElkAxiomProcessor processor) {
+		return new ElkAxiomProcessor() {
+			@Override
+			public void visit(ElkAxiom elkAxiom) {
+				value_.addAndGet(hash(elkAxiom));
+				processor.visit(elkAxiom);
+			}
+		};
+	}
+
+	/**
+	 * @param processor
+	 *            the {@link ElkAxiomProcessor} that deletes axioms
+	 * @return the {@link ElkAxiomProcessor} that removes the axioms from this
+	 *         {@link AxiomFingerprint} and passes them to the given one
+	 */
+	public ElkAxiomProcessor getDeleter(final ElkAxiomProcessor processor) {
+		return new ElkAxiomProcessor() {
+			@Override
+			public void visit(ElkAxiom elkAxiom) {
+				value_.addAndGet(-hash(elkAxiom));
+				processor.visit(elkAxiom);
+			}
+		};
+	}
+
+	/**
+	 * @param axiom
+	 * @return the 64-bit hash of the functional-style representation of the
+	 *         given {@link ElkAxiom}
+	 */
+	static long hash(ElkAxiom axiom) {
+		HashingAppendable hasher = new HashingAppendable();
+		try {
+			OwlFunctionalStylePrinter.append(hasher, axiom, true);
+		} catch (IOException e) {
+			// cannot happen since HashingAppendable does not throw it
+			throw new ElkRuntimeException(e);
+		}
+		return hasher.getHash();
+	}
+
+	/**
+	 * Computes the FNV-1a hash of the appended characters, with the final
+	 * bits mixed so that the sums of hashes are also well distributed
+	 */
+	private static class HashingAppendable implements Appendable {
+
+		private long hash_ = 0xcbf29ce484222325L;
+
+		@Override
+		public Appendable append(CharSequence csq) {
+			return append(csq, 0, csq.length());
+		}
+
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) {
+			for (int i = start; i < end; i++)
+				append(csq.charAt(i));
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) {
+			hash_ = (hash_ ^ c) * 0x100000001b3L;
+			return this;
+		}
+
+		long getHash() {
+			long h = hash_;
+			h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+			h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+			return h ^ (h >>> 33);
+		}
+
+	}
+
+}
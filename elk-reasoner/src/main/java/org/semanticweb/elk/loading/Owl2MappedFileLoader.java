@@ -0,0 +1,65 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.semanticweb.elk.io.MappedFileReader;
+import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
+
+/**
+ * A {@link AxiomLoader} which loads ontology from a file using a given
+ * {@link Owl2ParserFactory}. Unlike {@link Owl2StreamLoader}, the file is not
+ * read through an input stream, but decoded directly from its memory-mapped
+ * content using a {@link MappedFileReader}, which avoids copying the file
+ * contents between buffers. This is preferable for very large ontology files.
+ * 
+ * @author agent
+ * 
+ */
+public class Owl2MappedFileLoader extends Owl2ParserLoader implements
+		AxiomLoader {
+
+	private final MappedFileReader reader_;
+
+	public Owl2MappedFileLoader(Owl2ParserFactory parserFactory,
+			MappedFileReader reader) {
+		super(parserFactory.getParser(reader));
+		this.reader_ = reader;
+	}
+
+	public Owl2MappedFileLoader(Owl2ParserFactory parserFactory, File file)
+			throws IOException {
+		this(parserFactory, new MappedFileReader(file));
+	}
+
+	@Override
+	public void disposeParserResources() {
+		super.disposeParserResources();
+		try {
+			reader_.close();
+		} catch (IOException e) {
+			exception = new ElkLoadingException("Cannot close the file!", e);
+		}
+	}
+}
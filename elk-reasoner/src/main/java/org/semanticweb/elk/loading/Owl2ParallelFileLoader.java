@@ -0,0 +1,597 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link AxiomLoader} that parses a file in the OWL 2 functional-style
+ * syntax using several threads. The file is memory-mapped and split into
+ * chunks at the boundaries between axioms of the ontology; each chunk is
+ * parsed as a separate document consisting of the prefix declarations and the
+ * ontology header of the file, the axioms of the chunk, and the closing
+ * bracket. The chunks are parsed concurrently by the given number of parser
+ * threads, and the parsed axioms are passed to the {@link ElkAxiomProcessor}
+ * in batches, in no particular order.
+ * 
+ * The chunk boundaries are found by a light-weight scan over the bytes of the
+ * file, which keeps track of the nesting of brackets and skips full IRIs,
+ * quoted strings, and comments. This scan is performed by the parser threads
+ * on demand, so parsing of the first chunks starts right away. The file must
+ * be encoded in UTF-8, in which the bytes of non-ASCII characters never
+ * coincide with the ASCII characters used for splitting.
+ * 
+ * Positions reported in parse errors are relative to the beginning of the
+ * chunk and not of the file.
+ * 
+ * @author agent
+ * 
+ */
+public class Owl2ParallelFileLoader extends AbstractAxiomLoader implements
+		AxiomLoader {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(Owl2ParallelFileLoader.class);
+
+	/**
+	 * the default minimal number of bytes of the file in one chunk
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+
+	/**
+	 * a special batch to detect that all axioms are loaded
+	 */
+	private static final ArrayList<ElkAxiom> POISON_BATCH_ = new ArrayList<ElkAxiom>(
+			1);
+
+	/**
+	 * the maximum number of axioms in the exchange batch
+	 */
+	private static final int BATCH_LENGTH_ = 128;
+
+	private static final Charset UTF8_ = Charset.forName("UTF-8");
+
+	private static final byte[] EMPTY_ = new byte[0];
+
+	private static final byte[] CLOSING_BRACKET_ = { ')' };
+
+	private final Owl2ParserFactory parserFactory_;
+
+	private final RandomAccessFile file_;
+
+	private final FileChannel channel_;
+
+	/**
+	 * splits the file into chunks
+	 */
+	private final ChunkSplitter splitter_;
+
+	/**
+	 * a bounded queue through which batches of axioms are exchanged between the
+	 * parsers and the axiom loader
+	 */
+	private final BlockingQueue<ArrayList<ElkAxiom>> axiomExchanger_;
+
+	/**
+	 * the threads in which the parsers are running
+	 */
+	private final Thread[] parserThreads_;
+
+	/**
+	 * the number of parser threads that have not finished yet
+	 */
+	private final AtomicInteger activeParsers_;
+
+	/**
+	 * {@code true} if the parser threads have started
+	 */
+	private boolean started_;
+
+	/**
+	 * {@code true} if all parser threads have finished
+	 */
+	private volatile boolean finished_;
+
+	/**
+	 * {@code true} if this loader was disposed
+	 */
+	private volatile boolean disposed_;
+
+	/**
+	 * the exception created if something goes wrong
+	 */
+	private volatile ElkLoadingException exception_;
+
+	/**
+	 * Creates an {@link Owl2ParallelFileLoader} for the given file
+	 * 
+	 * @param parserFactory
+	 *            the {@link Owl2ParserFactory} used to create parsers for
+	 *            chunks of the file
+	 * @param file
+	 *            the file from which the ontology should be loaded
+	 * @param nParsers
+	 *            the number of threads parsing the file
+	 * @param chunkSize
+	 *            the minimal number of bytes of the file parsed at once; a
+	 *            chunk ends at the first axiom boundary after this size
+	 * @throws IOException
+	 *             if the file cannot be opened
+	 */
+	public Owl2ParallelFileLoader(Owl2ParserFactory parserFactory, File file,
+			int nParsers, int chunkSize) throws IOException {
+		this.parserFactory_ = parserFactory;
+		this.file_ = new RandomAccessFile(file, "r");
+		this.channel_ = file_.getChannel();
+		try {
+			this.splitter_ = new ChunkSplitter(channel_, chunkSize);
+		} catch (IOException e) {
+			file_.close();
+			throw e;
+		}
+		this.axiomExchanger_ = new ArrayBlockingQueue<ArrayList<ElkAxiom>>(
+				2 * nParsers);
+		this.parserThreads_ = new Thread[nParsers];
+		for (int i = 0; i < nParsers; i++) {
+			parserThreads_[i] = new Thread(new Parser(), "elk-parser-thread-"
+					+ i);
+			parserThreads_[i].setDaemon(true);
+		}
+		this.activeParsers_ = new AtomicInteger(nParsers);
+		this.started_ = false;
+		this.finished_ = false;
+		this.disposed_ = false;
+		this.exception_ = null;
+	}
+
+	/**
+	 * Creates an {@link Owl2ParallelFileLoader} for the given file that uses
+	 * as many parser threads as there are available processors
+	 * 
+	 * @param parserFactory
+	 *            the {@link Owl2ParserFactory} used to create parsers for
+	 *            chunks of the file
+	 * @param file
+	 *            the file from which the ontology should be loaded
+	 * @throws IOException
+	 *             if the file cannot be opened
+	 */
+	public Owl2ParallelFileLoader(Owl2ParserFactory parserFactory, File file)
+			throws IOException {
+		this(parserFactory, file, Runtime.getRuntime().availableProcessors(),
+				DEFAULT_CHUNK_SIZE);
+	}
+
+	@Override
+	public synchronized void load(ElkAxiomProcessor axiomInserter,
+			ElkAxiomProcessor axiomDeleter) throws ElkLoadingException {
+		if (finished_ && axiomExchanger_.isEmpty())
+			return;
+
+		if (!started_) {
+			for (Thread parserThread : parserThreads_)
+				parserThread.start();
+			started_ = true;
+		}
+
+		ArrayList<ElkAxiom> nextBatch;
+
+		for (;;) {
+			if (isInterrupted())
+				break;
+			try {
+				nextBatch = axiomExchanger_.take();
+			} catch (InterruptedException e) {
+				/*
+				 * we don't know for sure why the thread was interrupted, so we
+				 * need to obey; restore the interrupt status so that the
+				 * called methods know that there was an interrupt
+				 */
+				Thread.currentThread().interrupt();
+				break;
+			}
+			if (nextBatch == POISON_BATCH_) {
+				break;
+			}
+			for (int i = 0; i < nextBatch.size(); i++) {
+				axiomInserter.visit(nextBatch.get(i));
+			}
+		}
+		if (exception_ != null) {
+			throw exception_;
+		}
+	}
+
+	@Override
+	public boolean isLoadingFinished() {
+		return finished_ && axiomExchanger_.isEmpty();
+	}
+
+	@Override
+	public synchronized void dispose() {
+		disposed_ = true;
+		for (Thread parserThread : parserThreads_)
+			parserThread.interrupt();
+		axiomExchanger_.clear();
+		try {
+			file_.close();
+		} catch (IOException e) {
+			LOGGER_.warn("Cannot close the file: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * The worker parsing the chunks of the file
+	 * 
+	 * @author agent
+	 * 
+	 */
+	private class Parser implements Runnable {
+		@Override
+		public void run() {
+			try {
+				Owl2ParserLoader.AxiomInserter inserter = new Owl2ParserLoader.AxiomInserter(
+						axiomExchanger_, BATCH_LENGTH_);
+				for (;;) {
+					if (exception_ != null || disposed_)
+						break;
+					Chunk chunk = splitter_.next();
+					if (chunk == null)
+						break;
+					LOGGER_.trace("parsing bytes {}-{}", chunk.start, chunk.end);
+					parserFactory_.getParser(chunk.getReader(channel_))
+							.accept(inserter);
+				}
+			} catch (Throwable e) {
+				if (!disposed_)
+					exception_ = new ElkLoadingException(
+							"Cannot load the ontology!", e);
+			} finally {
+				if (activeParsers_.decrementAndGet() == 0) {
+					finished_ = true;
+					if (!disposed_) {
+						try {
+							axiomExchanger_.put(POISON_BATCH_);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * A part of the file parsed as a separate document
+	 * 
+	 * @author agent
+	 * 
+	 */
+	static class Chunk {
+
+		/**
+		 * the bytes parsed before the chunk
+		 */
+		final byte[] prefix;
+		/**
+		 * the offset of the first byte of the chunk in the file
+		 */
+		final long start;
+		/**
+		 * the offset after the last byte of the chunk in the file
+		 */
+		final long end;
+		/**
+		 * the bytes parsed after the chunk
+		 */
+		final byte[] suffix;
+
+		Chunk(byte[] prefix, long start, long end, byte[] suffix) {
+			this.prefix = prefix;
+			this.start = start;
+			this.end = end;
+			this.suffix = suffix;
+		}
+
+		Reader getReader(FileChannel channel) throws IOException {
+			MappedByteBuffer content = channel.map(
+					FileChannel.MapMode.READ_ONLY, start, end - start);
+			return new ChunkReader(ByteBuffer.wrap(prefix), content,
+					ByteBuffer.wrap(suffix));
+		}
+	}
+
+	/**
+	 * Finds the boundaries of the chunks in the file
+	 * 
+	 * @author agent
+	 * 
+	 */
+	static class ChunkSplitter {
+
+		/**
+		 * the size of the regions of the file mapped for scanning
+		 */
+		private static final int REGION_SIZE_ = 1 << 28;
+
+		private static final byte[] ONTOLOGY_KEYWORD_ = "Ontology"
+				.getBytes(UTF8_);
+
+		// the scanning states
+		private static final int DEFAULT_ = 0, IRI_ = 1, STRING_ = 2,
+				ESCAPE_ = 3, COMMENT_ = 4;
+
+		// the scanning events
+		private static final int NONE_ = 0, AXIOM_END_ = 1, ONTOLOGY_END_ = 2;
+
+		private final FileChannel channel_;
+
+		private final long size_;
+
+		private final int chunkSize_;
+
+		private MappedByteBuffer region_;
+
+		private long regionStart_;
+
+		/**
+		 * the position of the next byte to be scanned
+		 */
+		private long pos_ = 0;
+
+		/**
+		 * the current bracket nesting level
+		 */
+		private int depth_ = 0;
+
+		private int state_ = DEFAULT_;
+
+		/**
+		 * the bytes up to and including the opening bracket of the ontology,
+		 * or {@code null} if not yet found
+		 */
+		private byte[] header_ = null;
+
+		private boolean done_ = false;
+
+		ChunkSplitter(FileChannel channel, int chunkSize) throws IOException {
+			this.channel_ = channel;
+			this.size_ = channel.size();
+			this.chunkSize_ = chunkSize;
+		}
+
+		/**
+		 * @return the next {@link Chunk} of the file to be parsed or
+		 *         {@code null} if all chunks have been returned
+		 * @throws IOException
+		 *             if the file cannot be read
+		 */
+		synchronized Chunk next() throws IOException {
+			if (done_)
+				return null;
+			if (header_ == null && !scanHeader()) {
+				// something unexpected; let the parser report the error
+				done_ = true;
+				return new Chunk(EMPTY_, 0, size_, EMPTY_);
+			}
+			long start = pos_;
+			while (pos_ < size_) {
+				int event = scan(byteAt(pos_++));
+				if (event == ONTOLOGY_END_)
+					break;
+				if (event == AXIOM_END_ && pos_ - start >= chunkSize_)
+					return new Chunk(header_, start, pos_, CLOSING_BRACKET_);
+			}
+			/*
+			 * the last chunk includes the end of the ontology and everything
+			 * after it, so that the parser sees the same end of the file as
+			 * when parsing it sequentially
+			 */
+			done_ = true;
+			return new Chunk(header_, start, size_, EMPTY_);
+		}
+
+		/**
+		 * Scans the prefix declarations until the opening bracket of the
+		 * ontology
+		 * 
+		 * @return {@code true} if the ontology has been found
+		 * @throws IOException
+		 */
+		private boolean scanHeader() throws IOException {
+			// the number of matched characters of the last keyword
+			int matched = 0;
+			boolean letter = false;
+			while (pos_ < size_) {
+				byte b = byteAt(pos_++);
+				boolean wasLetter = letter;
+				letter = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+				if (state_ == DEFAULT_ && depth_ == 0) {
+					if (letter) {
+						if (!wasLetter)
+							matched = 0;
+						if (matched >= 0 && matched < ONTOLOGY_KEYWORD_.length
+								&& b == ONTOLOGY_KEYWORD_[matched])
+							matched++;
+						else
+							matched = -1;
+					} else if (b == '('
+							&& matched == ONTOLOGY_KEYWORD_.length) {
+						depth_++;
+						header_ = read(0, (int) pos_);
+						return true;
+					}
+				}
+				/*
+				 * the brackets of the prefix declarations are balanced, so
+				 * returning to the top level does not end the header
+				 */
+				scan(b);
+				if (depth_ < 0)
+					// a closing bracket without an opening bracket
+					return false;
+			}
+			return false;
+		}
+
+		private int scan(byte b) {
+			switch (state_) {
+			case IRI_:
+				if (b == '>')
+					state_ = DEFAULT_;
+				return NONE_;
+			case STRING_:
+				if (b == '\\')
+					state_ = ESCAPE_;
+				else if (b == '"')
+					state_ = DEFAULT_;
+				return NONE_;
+			case ESCAPE_:
+				state_ = STRING_;
+				return NONE_;
+			case COMMENT_:
+				if (b == '\n' || b == '\r')
+					state_ = DEFAULT_;
+				return NONE_;
+			default:
+				switch (b) {
+				case '<':
+					state_ = IRI_;
+					return NONE_;
+				case '"':
+					state_ = STRING_;
+					return NONE_;
+				case '#':
+					state_ = COMMENT_;
+					return NONE_;
+				case '(':
+					depth_++;
+					return NONE_;
+				case ')':
+					depth_--;
+					if (depth_ == 1)
+						return AXIOM_END_;
+					if (depth_ <= 0)
+						return ONTOLOGY_END_;
+					return NONE_;
+				default:
+					return NONE_;
+				}
+			}
+		}
+
+		private byte byteAt(long pos) throws IOException {
+			if (region_ == null || pos < regionStart_
+					|| pos >= regionStart_ + region_.limit()) {
+				regionStart_ = pos;
+				region_ = channel_.map(FileChannel.MapMode.READ_ONLY, pos,
+						Math.min(REGION_SIZE_, size_ - pos));
+			}
+			return region_.get((int) (pos - regionStart_));
+		}
+
+		private byte[] read(long start, int length) throws IOException {
+			byte[] result = new byte[length];
+			for (int i = 0; i < length; i++)
+				result[i] = byteAt(start + i);
+			return result;
+		}
+
+	}
+
+	/**
+	 * A {@link Reader} decoding a sequence of UTF-8 encoded
+	 * {@link ByteBuffer}s, each of which contains only complete characters
+	 * 
+	 * @author agent
+	 * 
+	 */
+	static class ChunkReader extends Reader {
+
+		private final ByteBuffer[] buffers_;
+
+		private final CharsetDecoder decoder_;
+
+		/**
+		 * the index of the buffer that is currently decoded
+		 */
+		private int current_;
+
+		ChunkReader(ByteBuffer... buffers) {
+			this.buffers_ = buffers;
+			this.decoder_ = UTF8_.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			this.current_ = 0;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			if (len == 0)
+				return 0;
+			CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+			while (current_ < buffers_.length) {
+				boolean last = current_ == buffers_.length - 1;
+				CoderResult result = decoder_.decode(buffers_[current_], out,
+						last);
+				if (result.isError())
+					result.throwException();
+				if (result.isOverflow())
+					break;
+				if (last && decoder_.flush(out).isOverflow())
+					break;
+				current_++;
+			}
+			int read = out.position() - off;
+			return read == 0 ? -1 : read;
+		}
+
+		@Override
+		public void close() {
+			current_ = buffers_.length;
+		}
+
+	}
+
+}
@@ -196,7 +196,7 @@ public class Owl2ParserLoader extends AbstractAxiomLoader implements
 	 * @author "Yevgeny Kazakov"
 	 * 
 	 */
-	private static class AxiomInserter implements Owl2ParserAxiomProcessor {
+	static class AxiomInserter implements Owl2ParserAxiomProcessor {
 
 		final private BlockingQueue<ArrayList<ElkAxiom>> axiomBuffer_;
 		private final int batchLength_;
@@ -216,10 +216,8 @@ public class Owl2ParserLoader extends AbstractAxiomLoader implements
 		@Override
 		public void visit(ElkAxiom elkAxiom) throws Owl2ParseException {
 			nextBatch_.add(elkAxiom);
-			if (nextBatch_.size() == batchLength_) {
+			if (nextBatch_.size() == batchLength_)
 				submitBatch();
-				nextBatch_ = new ArrayList<ElkAxiom>(batchLength_);
-			}
 		}
 
 		@Override
@@ -233,12 +231,20 @@ public class Owl2ParserLoader extends AbstractAxiomLoader implements
 			submitBatch();
 		}
 
+		/**
+		 * Passes the current batch to the queue unless it is empty and starts
+		 * a new one; the submitted batch must not be modified afterwards
+		 * since it is consumed by another thread
+		 */
 		private void submitBatch() throws Owl2ParseException {
+			if (nextBatch_.isEmpty())
+				return;
 			try {
 				axiomBuffer_.put(nextBatch_);
 			} catch (InterruptedException e) {
 				throw new Owl2ParseException("ELK Parser was interrupted", e);
 			}
+			nextBatch_ = new ArrayList<ElkAxiom>(batchLength_);
 		}
 	}
 
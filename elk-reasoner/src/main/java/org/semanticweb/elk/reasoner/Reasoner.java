@@ -22,8 +22,11 @@
  */
 package org.semanticweb.elk.reasoner;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 import org.semanticweb.elk.loading.AbstractAxiomLoader;
 import org.semanticweb.elk.loading.AxiomLoader;
@@ -33,6 +36,7 @@ import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
 import org.semanticweb.elk.owl.interfaces.ElkObject;
 import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
@@ -42,7 +46,12 @@ import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
 import org.semanticweb.elk.owl.util.Comparators;
 import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
 import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.hierarchy.OntologyIndex;
+import org.semanticweb.elk.reasoner.modularity.ModuleAxiomLoader;
+import org.semanticweb.elk.reasoner.modularity.ModuleExtractor;
+import org.semanticweb.elk.reasoner.saturation.conclusions.implementation.ContradictionImpl;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
 import org.semanticweb.elk.reasoner.stages.AbstractReasonerState;
 import org.semanticweb.elk.reasoner.stages.ReasonerStageExecutor;
 import org.semanticweb.elk.reasoner.taxonomy.model.AnonymousNode;
@@ -50,9 +59,14 @@ import org.semanticweb.elk.reasoner.taxonomy.model.FreshInstanceNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.FreshTaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.FreshTypeNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.InstanceNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.NodeVisitor;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNodeUtils;
 import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
 import org.semanticweb.elk.util.concurrent.computation.ComputationExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,6 +79,16 @@ import org.slf4j.LoggerFactory;
  * results of the reasoning tasks, the reasoner will ensure that all necessary
  * reasoning stages, such as consistency checking, are performed.
  * 
+ * Once the taxonomies are computed, queries about named classes and
+ * individuals, such as {@link #getSuperClasses(ElkClassExpression, boolean)},
+ * are answered without synchronizing on the reasoner, so they do not block each
+ * other. The taxonomies are withdrawn from such queries as soon as changes of
+ * the ontology are registered and until they are updated; they are also
+ * withdrawn while a complex class expression is queried, since the query is
+ * answered by temporarily adding a class for it to the taxonomy. Meanwhile,
+ * all queries synchronize on the reasoner. The returned sets of {@link Node}s
+ * are copies that do not change when the taxonomies are modified later.
+ * 
  * Reasoners are created (and pre-configured) by the {@link ReasonerFactory}.
  */
 public class Reasoner extends AbstractReasonerState {
@@ -180,6 +204,14 @@ public class Reasoner extends AbstractReasonerState {
 				.getParameterAsBoolean(ReasonerConfiguration.INCREMENTAL_MODE_ALLOWED));
 		setAllowIncrementalTaxonomy(config
 				.getParameterAsBoolean(ReasonerConfiguration.INCREMENTAL_TAXONOMY));
+		setCompactSubsumers(config
+				.getParameterAsBoolean(ReasonerConfiguration.COMPACT_SUBSUMERS));
+		setWorkStealing(config
+				.getParameterAsBoolean(ReasonerConfiguration.WORK_STEALING));
+		setOffHeapTaxonomy(config
+				.getParameterAsBoolean(ReasonerConfiguration.OFF_HEAP_TAXONOMY));
+		setMaxTracedContexts(config
+				.getParameterAsInt(ReasonerConfiguration.TRACING_MAX_CONTEXTS));
 
 		if (newWorkerNo > workerNo_) {
 			// need to re-create the executor since it may have already created
@@ -190,6 +222,27 @@ public class Reasoner extends AbstractReasonerState {
 		workerNo_ = newWorkerNo;
 	}
 
+	/**
+	 * Registers an {@link AxiomLoader} whose axioms are loaded only if they
+	 * belong to the {@code ⊥}-locality based module for the given signature.
+	 * The entailments over the signature, such as subsumptions between
+	 * classes in the signature, are the same as if all axioms were loaded,
+	 * but fewer axioms need to be indexed and saturated. The loader should
+	 * only add axioms.
+	 *
+	 * @param axiomLoader
+	 *            the {@link AxiomLoader} providing the axioms from which the
+	 *            module is extracted
+	 * @param signature
+	 *            the {@link ElkEntity}s for which the reasoning results should
+	 *            be preserved
+	 * @see ModuleExtractor
+	 */
+	public synchronized void registerModuleLoader(AxiomLoader axiomLoader,
+			Collection<? extends ElkEntity> signature) {
+		registerAxiomLoader(new ModuleAxiomLoader(axiomLoader, signature));
+	}
+
 	@Override
 	protected ComputationExecutor getProcessExecutor() {
 		if (executor_ == null)
@@ -267,7 +320,25 @@ public class Reasoner extends AbstractReasonerState {
 	}
 
 	/**
-	 * Helper method to get an {@link InstanceNode} from the taxonomy.
+	 * Helper method to get a {@link TaxonomyNode} from the published taxonomy;
+	 * should be called while holding the read lock of
+	 * {@link #getPublicationLock()}.
+	 * 
+	 * @param elkClass
+	 *            an {@link ElkClass} for which to find a {@link TaxonomyNode}
+	 * @return the {@link TaxonomyNode} for the given {@link ElkClass} or
+	 *         {@code null} if the taxonomy has not been published or does not
+	 *         contain the {@link ElkClass}
+	 */
+	private TaxonomyNode<ElkClass> getPublishedTaxonomyNode(ElkClass elkClass) {
+		Taxonomy<ElkClass> taxonomy = getPublishedTaxonomy();
+		return taxonomy == null ? null : taxonomy.getNode(elkClass);
+	}
+
+	/**
+	 * Helper method to get an {@link InstanceNode} from the taxonomy. Unless
+	 * the whole instance taxonomy is already computed, only the given
+	 * individual is realized.
 	 * 
 	 * @param elkNamedIndividual
 	 * @return the {@link InstanceNode} for the given {@link ElkNamedIndividual}
@@ -276,20 +347,23 @@ public class Reasoner extends AbstractReasonerState {
 	 */
 	protected InstanceNode<ElkClass, ElkNamedIndividual> getInstanceNode(
 			ElkNamedIndividual elkNamedIndividual) throws ElkException {
-		InstanceNode<ElkClass, ElkNamedIndividual> node = getInstanceTaxonomy()
+		InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = getInstanceTaxonomy(elkNamedIndividual);
+		InstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy
 				.getInstanceNode(elkNamedIndividual);
 		if (node != null)
 			return node;
 		// else
 		if (allowFreshEntities)
 			return new FreshInstanceNode<ElkClass, ElkNamedIndividual>(
-					elkNamedIndividual, getInstanceTaxonomy());
+					elkNamedIndividual, taxonomy);
 		// else
 		throw new ElkFreshEntitiesException(elkNamedIndividual);
 	}
 
 	/**
-	 * Helper method to get a {@link TypeNode} from the taxonomy.
+	 * Helper method to get a {@link TypeNode} from the taxonomy. Unless the
+	 * whole instance taxonomy is already computed, only the individuals that
+	 * can be instances of the given class are realized.
 	 * 
 	 * @param elkClass
 	 * @return the {@link TypeNode} for the given {@link ElkClass}
@@ -298,14 +372,15 @@ public class Reasoner extends AbstractReasonerState {
 	 */
 	protected TypeNode<ElkClass, ElkNamedIndividual> getTypeNode(
 			ElkClass elkClass) throws ElkException {
-		TypeNode<ElkClass, ElkNamedIndividual> node = getInstanceTaxonomy()
+		InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = getInstanceTaxonomy(elkClass);
+		TypeNode<ElkClass, ElkNamedIndividual> node = taxonomy
 				.getTypeNode(elkClass);
 		if (node != null)
 			return node;
 		// else
 		if (allowFreshEntities)
 			return new FreshTypeNode<ElkClass, ElkNamedIndividual>(elkClass,
-					getInstanceTaxonomy());
+					taxonomy);
 		// else
 		throw new ElkFreshEntitiesException(elkClass);
 	}
@@ -350,21 +425,37 @@ public class Reasoner extends AbstractReasonerState {
 	 * @throws ElkException
 	 *             if the result cannot be computed
 	 */
-	public synchronized Node<ElkClass> getEquivalentClasses(
+	public Node<ElkClass> getEquivalentClasses(
 			ElkClassExpression classExpression) throws ElkException {
 		if (classExpression instanceof ElkClass) {
-			return getTaxonomyNode((ElkClass) classExpression);
+			Lock lock = getPublicationLock().readLock();
+			lock.lock();
+			try {
+				TaxonomyNode<ElkClass> node = getPublishedTaxonomyNode((ElkClass) classExpression);
+				if (node != null)
+					return node;
+			} finally {
+				lock.unlock();
+			}
 		}
 		// else
-		ElkClass queryClass = elkFactory.getClass(new ElkFullIri(
-				OwlFunctionalStylePrinter.toString(classExpression)));
-		ElkAxiom materializedQuery = elkFactory.getEquivalentClassesAxiom(
-				queryClass, classExpression);
-		Node<ElkClass> queryNode = getQueryTaxonomyNode(queryClass,
-				materializedQuery);
+		synchronized (this) {
+			if (classExpression instanceof ElkClass) {
+				Node<ElkClass> result = getTaxonomyNode((ElkClass) classExpression);
+				publishTaxonomies();
+				return result;
+			}
+			// else
+			ElkClass queryClass = elkFactory.getClass(new ElkFullIri(
+					OwlFunctionalStylePrinter.toString(classExpression)));
+			ElkAxiom materializedQuery = elkFactory.getEquivalentClassesAxiom(
+					queryClass, classExpression);
+			Node<ElkClass> queryNode = getQueryTaxonomyNode(queryClass,
+					materializedQuery);
 
-		return new AnonymousNode<ElkClass>(queryClass, queryNode.getMembers(),
-				Comparators.ELK_CLASS_COMPARATOR);
+			return new AnonymousNode<ElkClass>(queryClass,
+					queryNode.getMembers(), Comparators.ELK_CLASS_COMPARATOR);
+		}
 	}
 
 	/**
@@ -385,14 +476,29 @@ public class Reasoner extends AbstractReasonerState {
 	 * @throws ElkException
 	 *             if the result cannot be computed
 	 */
-	public synchronized Set<? extends Node<ElkClass>> getSubClasses(
+	public Set<? extends Node<ElkClass>> getSubClasses(
 			ElkClassExpression classExpression, boolean direct)
 			throws ElkException {
-
-		TaxonomyNode<ElkClass> queryNode = getClassNode(classExpression);
-
-		return (direct) ? queryNode.getDirectSubNodes() : queryNode
-				.getAllSubNodes();
+		if (classExpression instanceof ElkClass) {
+			Lock lock = getPublicationLock().readLock();
+			lock.lock();
+			try {
+				TaxonomyNode<ElkClass> node = getPublishedTaxonomyNode((ElkClass) classExpression);
+				if (node != null)
+					return copyNodes(direct ? node.getDirectSubNodes() : node
+							.getAllSubNodes());
+			} finally {
+				lock.unlock();
+			}
+		}
+		// else
+		synchronized (this) {
+			TaxonomyNode<ElkClass> queryNode = getClassNode(classExpression);
+			Set<? extends Node<ElkClass>> result = copyNodes(direct ? queryNode
+					.getDirectSubNodes() : queryNode.getAllSubNodes());
+			publishTaxonomies();
+			return result;
+		}
 	}
 
 	/**
@@ -413,14 +519,29 @@ public class Reasoner extends AbstractReasonerState {
 	 * @throws ElkException
 	 *             if the result cannot be computed
 	 */
-	public synchronized Set<? extends Node<ElkClass>> getSuperClasses(
+	public Set<? extends Node<ElkClass>> getSuperClasses(
 			ElkClassExpression classExpression, boolean direct)
 			throws ElkException {
-
-		TaxonomyNode<ElkClass> queryNode = getClassNode(classExpression);
-
-		return (direct) ? queryNode.getDirectSuperNodes() : queryNode
-				.getAllSuperNodes();
+		if (classExpression instanceof ElkClass) {
+			Lock lock = getPublicationLock().readLock();
+			lock.lock();
+			try {
+				TaxonomyNode<ElkClass> node = getPublishedTaxonomyNode((ElkClass) classExpression);
+				if (node != null)
+					return copyNodes(direct ? node.getDirectSuperNodes()
+							: node.getAllSuperNodes());
+			} finally {
+				lock.unlock();
+			}
+		}
+		// else
+		synchronized (this) {
+			TaxonomyNode<ElkClass> queryNode = getClassNode(classExpression);
+			Set<? extends Node<ElkClass>> result = copyNodes(direct ? queryNode
+					.getDirectSuperNodes() : queryNode.getAllSuperNodes());
+			publishTaxonomies();
+			return result;
+		}
 	}
 
 	/**
@@ -441,24 +562,40 @@ public class Reasoner extends AbstractReasonerState {
 	 * @throws ElkException
 	 *             if the result cannot be computed
 	 */
-	public synchronized Set<? extends Node<ElkNamedIndividual>> getInstances(
+	public Set<? extends Node<ElkNamedIndividual>> getInstances(
 			ElkClassExpression classExpression, boolean direct)
 			throws ElkException {
-
-		TypeNode<ElkClass, ElkNamedIndividual> queryNode;
 		if (classExpression instanceof ElkClass) {
-			queryNode = getTypeNode((ElkClass) classExpression);
-		} else {
-			ElkClass queryClass = elkFactory.getClass(new ElkFullIri(
-					OwlFunctionalStylePrinter.toString(classExpression)));
-			ElkAxiom materializedQuery = elkFactory.getSubClassOfAxiom(
-					classExpression, queryClass);
-			queryNode = getQueryTypeNode(queryClass, materializedQuery);
+			Lock lock = getPublicationLock().readLock();
+			lock.lock();
+			try {
+				InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = getPublishedInstanceTaxonomy();
+				TypeNode<ElkClass, ElkNamedIndividual> node = taxonomy == null ? null
+						: taxonomy.getTypeNode((ElkClass) classExpression);
+				if (node != null)
+					return copyNodes(direct ? node.getDirectInstanceNodes()
+							: node.getAllInstanceNodes());
+			} finally {
+				lock.unlock();
+			}
+		}
+		// else
+		synchronized (this) {
+			TypeNode<ElkClass, ElkNamedIndividual> queryNode;
+			if (classExpression instanceof ElkClass) {
+				queryNode = getTypeNode((ElkClass) classExpression);
+			} else {
+				ElkClass queryClass = elkFactory.getClass(new ElkFullIri(
+						OwlFunctionalStylePrinter.toString(classExpression)));
+				ElkAxiom materializedQuery = elkFactory.getSubClassOfAxiom(
+						classExpression, queryClass);
+				queryNode = getQueryTypeNode(queryClass, materializedQuery);
+			}
+			Set<? extends Node<ElkNamedIndividual>> result = copyNodes(direct ? queryNode
+					.getDirectInstanceNodes() : queryNode.getAllInstanceNodes());
+			publishTaxonomies();
+			return result;
 		}
-
-		return direct ? queryNode.getDirectInstanceNodes() : queryNode
-				.getAllInstanceNodes();
-
 	}
 
 	/**
@@ -479,21 +616,278 @@ public class Reasoner extends AbstractReasonerState {
 	 * @throws ElkException
 	 *             if the result cannot be computed
 	 */
-	public synchronized Set<? extends Node<ElkClass>> getTypes(
+	public Set<? extends Node<ElkClass>> getTypes(
 			ElkNamedIndividual elkNamedIndividual, boolean direct)
 			throws ElkException {
-		InstanceNode<ElkClass, ElkNamedIndividual> node = getInstanceNode(elkNamedIndividual);
-		return direct ? node.getDirectTypeNodes() : node.getAllTypeNodes();
+		Lock lock = getPublicationLock().readLock();
+		lock.lock();
+		try {
+			InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = getPublishedInstanceTaxonomy();
+			InstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy == null ? null
+					: taxonomy.getInstanceNode(elkNamedIndividual);
+			if (node != null)
+				return copyNodes(direct ? node.getDirectTypeNodes() : node
+						.getAllTypeNodes());
+		} finally {
+			lock.unlock();
+		}
+		// else
+		synchronized (this) {
+			InstanceNode<ElkClass, ElkNamedIndividual> node = getInstanceNode(elkNamedIndividual);
+			Set<? extends Node<ElkClass>> result = copyNodes(direct ? node
+					.getDirectTypeNodes() : node.getAllTypeNodes());
+			publishTaxonomies();
+			return result;
+		}
+	}
+
+	/**
+	 * @return an unmodifiable copy of the given {@link Node}s; the sets of
+	 *         {@link Node}s provided by taxonomies can change together with
+	 *         the taxonomies, so they are not returned to the callers
+	 */
+	private static <N> Set<N> copyNodes(Set<? extends N> nodes) {
+		Set<N> result = new ArrayHashSet<N>(nodes.size());
+		result.addAll(nodes);
+		return Collections.unmodifiableSet(result);
+	}
+
+	/**
+	 * Visits the (direct or indirect) subclasses of the given
+	 * {@link ElkClassExpression} as specified by the parameter, in the same way
+	 * as they are returned by {@link #getSubClasses(ElkClassExpression, boolean)}
+	 * but without creating the set of them. The {@link Node}s are visited one
+	 * by one in the breadth-first order until the {@link NodeVisitor} stops the
+	 * enumeration, so the remaining subclasses are not traversed. Calling of
+	 * this method may trigger the computation of the taxonomy, if it has not
+	 * been done yet.
+	 * 
+	 * @param classExpression
+	 *            the {@link ElkClassExpression} for which to visit the
+	 *            subclass {@link Node}s
+	 * @param direct
+	 *            if {@code true}, only direct subclasses should be visited
+	 * @param visitor
+	 *            the {@link NodeVisitor} that receives the {@link Node}s; it
+	 *            is called while the reasoner is locked, so it must not call
+	 *            the methods of this {@link Reasoner}
+	 * @return {@code false} if the {@link NodeVisitor} has stopped the
+	 *         enumeration and {@code true} otherwise
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 */
+	public boolean visitSubClasses(ElkClassExpression classExpression,
+			boolean direct, NodeVisitor<ElkClass> visitor) throws ElkException {
+		if (classExpression instanceof ElkClass) {
+			Lock lock = getPublicationLock().readLock();
+			lock.lock();
+			try {
+				TaxonomyNode<ElkClass> node = getPublishedTaxonomyNode((ElkClass) classExpression);
+				if (node != null)
+					return visitSubNodes(node, direct, visitor);
+			} finally {
+				lock.unlock();
+			}
+		}
+		// else
+		synchronized (this) {
+			boolean result = visitSubNodes(getClassNode(classExpression),
+					direct, visitor);
+			publishTaxonomies();
+			return result;
+		}
+	}
+
+	private static boolean visitSubNodes(TaxonomyNode<ElkClass> node,
+			boolean direct, NodeVisitor<ElkClass> visitor) {
+		return direct ? TaxonomyNodeUtils.visitNodes(node.getDirectSubNodes(),
+				visitor) : TaxonomyNodeUtils.visitAllSubNodes(node, visitor);
+	}
+
+	/**
+	 * Visits the (direct or indirect) superclasses of the given
+	 * {@link ElkClassExpression} as specified by the parameter, in the same way
+	 * as they are returned by
+	 * {@link #getSuperClasses(ElkClassExpression, boolean)} but without
+	 * creating the set of them. The {@link Node}s are visited one by one in the
+	 * breadth-first order until the {@link NodeVisitor} stops the enumeration,
+	 * so the remaining superclasses are not traversed. Calling of this method
+	 * may trigger the computation of the taxonomy, if it has not been done
+	 * yet.
+	 * 
+	 * @param classExpression
+	 *            the {@link ElkClassExpression} for which to visit the
+	 *            superclass {@link Node}s
+	 * @param direct
+	 *            if {@code true}, only direct superclasses should be visited
+	 * @param visitor
+	 *            the {@link NodeVisitor} that receives the {@link Node}s; it
+	 *            is called while the reasoner is locked, so it must not call
+	 *            the methods of this {@link Reasoner}
+	 * @return {@code false} if the {@link NodeVisitor} has stopped the
+	 *         enumeration and {@code true} otherwise
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 */
+	public boolean visitSuperClasses(ElkClassExpression classExpression,
+			boolean direct, NodeVisitor<ElkClass> visitor) throws ElkException {
+		if (classExpression instanceof ElkClass) {
+			Lock lock = getPublicationLock().readLock();
+			lock.lock();
+			try {
+				TaxonomyNode<ElkClass> node = getPublishedTaxonomyNode((ElkClass) classExpression);
+				if (node != null)
+					return visitSuperNodes(node, direct, visitor);
+			} finally {
+				lock.unlock();
+			}
+		}
+		// else
+		synchronized (this) {
+			boolean result = visitSuperNodes(getClassNode(classExpression),
+					direct, visitor);
+			publishTaxonomies();
+			return result;
+		}
+	}
+
+	private static boolean visitSuperNodes(TaxonomyNode<ElkClass> node,
+			boolean direct, NodeVisitor<ElkClass> visitor) {
+		return direct ? TaxonomyNodeUtils.visitNodes(
+				node.getDirectSuperNodes(), visitor) : TaxonomyNodeUtils
+				.visitAllSuperNodes(node, visitor);
+	}
+
+	/**
+	 * Visits the (direct or indirect) instances of the given
+	 * {@link ElkClassExpression} as specified by the parameter, in the same way
+	 * as they are returned by {@link #getInstances(ElkClassExpression, boolean)}
+	 * but without creating the set of them. The {@link Node}s are visited one
+	 * by one until the {@link NodeVisitor} stops the enumeration, so the
+	 * remaining instances are not traversed. Calling of this method may
+	 * trigger the computation of the realization, if it has not been done
+	 * yet.
+	 * 
+	 * @param classExpression
+	 *            the {@link ElkClassExpression} for which to visit the
+	 *            instance {@link Node}s
+	 * @param direct
+	 *            if {@code true}, only direct instances should be visited
+	 * @param visitor
+	 *            the {@link NodeVisitor} that receives the {@link Node}s; it
+	 *            is called while the reasoner is locked, so it must not call
+	 *            the methods of this {@link Reasoner}
+	 * @return {@code false} if the {@link NodeVisitor} has stopped the
+	 *         enumeration and {@code true} otherwise
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 */
+	public boolean visitInstances(ElkClassExpression classExpression,
+			boolean direct, NodeVisitor<ElkNamedIndividual> visitor)
+			throws ElkException {
+		if (classExpression instanceof ElkClass) {
+			Lock lock = getPublicationLock().readLock();
+			lock.lock();
+			try {
+				InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = getPublishedInstanceTaxonomy();
+				TypeNode<ElkClass, ElkNamedIndividual> node = taxonomy == null ? null
+						: taxonomy.getTypeNode((ElkClass) classExpression);
+				if (node != null)
+					return visitInstanceNodes(node, direct, visitor);
+			} finally {
+				lock.unlock();
+			}
+		}
+		// else
+		synchronized (this) {
+			TypeNode<ElkClass, ElkNamedIndividual> queryNode;
+			if (classExpression instanceof ElkClass) {
+				queryNode = getTypeNode((ElkClass) classExpression);
+			} else {
+				ElkClass queryClass = elkFactory.getClass(new ElkFullIri(
+						OwlFunctionalStylePrinter.toString(classExpression)));
+				ElkAxiom materializedQuery = elkFactory.getSubClassOfAxiom(
+						classExpression, queryClass);
+				queryNode = getQueryTypeNode(queryClass, materializedQuery);
+			}
+			boolean result = visitInstanceNodes(queryNode, direct, visitor);
+			publishTaxonomies();
+			return result;
+		}
+	}
+
+	private static boolean visitInstanceNodes(
+			TypeNode<ElkClass, ElkNamedIndividual> node, boolean direct,
+			NodeVisitor<ElkNamedIndividual> visitor) {
+		return direct ? TaxonomyNodeUtils.visitNodes(
+				node.getDirectInstanceNodes(), visitor) : TaxonomyNodeUtils
+				.visitAllInstanceNodes(node, visitor);
+	}
+
+	/**
+	 * Visits the (direct or indirect) types of the given
+	 * {@link ElkNamedIndividual} as specified by the parameter, in the same way
+	 * as they are returned by {@link #getTypes(ElkNamedIndividual, boolean)}
+	 * but without creating the set of them. The {@link Node}s are visited one
+	 * by one in the breadth-first order until the {@link NodeVisitor} stops the
+	 * enumeration, so the remaining types are not traversed. Calling of this
+	 * method may trigger the computation of the realization, if it has not
+	 * been done yet.
+	 * 
+	 * @param elkNamedIndividual
+	 *            the {@link ElkNamedIndividual} for which to visit the types
+	 *            {@link Node}s
+	 * @param direct
+	 *            if {@code true}, only direct types should be visited
+	 * @param visitor
+	 *            the {@link NodeVisitor} that receives the {@link Node}s; it
+	 *            is called while the reasoner is locked, so it must not call
+	 *            the methods of this {@link Reasoner}
+	 * @return {@code false} if the {@link NodeVisitor} has stopped the
+	 *         enumeration and {@code true} otherwise
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 */
+	public boolean visitTypes(ElkNamedIndividual elkNamedIndividual,
+			boolean direct, NodeVisitor<ElkClass> visitor) throws ElkException {
+		Lock lock = getPublicationLock().readLock();
+		lock.lock();
+		try {
+			InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = getPublishedInstanceTaxonomy();
+			InstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy == null ? null
+					: taxonomy.getInstanceNode(elkNamedIndividual);
+			if (node != null)
+				return visitTypeNodes(node, direct, visitor);
+		} finally {
+			lock.unlock();
+		}
+		// else
+		synchronized (this) {
+			boolean result = visitTypeNodes(
+					getInstanceNode(elkNamedIndividual), direct, visitor);
+			publishTaxonomies();
+			return result;
+		}
+	}
+
+	private static boolean visitTypeNodes(
+			InstanceNode<ElkClass, ElkNamedIndividual> node, boolean direct,
+			NodeVisitor<ElkClass> visitor) {
+		return direct ? TaxonomyNodeUtils.visitNodes(
+				node.getDirectTypeNodes(), visitor) : TaxonomyNodeUtils
+				.visitAllTypeNodes(node, visitor);
 	}
 
 	/**
 	 * Check if the given {@link ElkClassExpression} is satisfiable, that is, if
 	 * it can possibly have instances. {@link ElkClassExpression}s are not
 	 * satisfiable if they are equivalent to {@code owl:Nothing}. A satisfiable
-	 * {@link ElkClassExpression} is also called consistent or coherent. Calling
-	 * of this method may trigger the computation of the taxonomy, if it has not
-	 * been done yet.
-	 * 
+	 * {@link ElkClassExpression} is also called consistent or coherent. If the
+	 * input is an {@link ElkClass} occurring in the ontology and the taxonomy
+	 * has not been computed yet, only the saturation of this class is
+	 * computed; otherwise calling of this method may trigger the computation of
+	 * the taxonomy.
+	 *
 	 * @param classExpression
 	 *            the {@link ElkClassExpression} for which to check
 	 *            satisfiability
@@ -504,6 +898,13 @@ public class Reasoner extends AbstractReasonerState {
 	public synchronized boolean isSatisfiable(ElkClassExpression classExpression)
 			throws ElkException {
 
+		if (classExpression instanceof ElkClass && !doneTaxonomy()) {
+			Context context = getSaturatedContext((ElkClass) classExpression);
+			if (context != null)
+				return !context.containsConclusion(ContradictionImpl
+						.getInstance());
+		}
+		// else
 		Node<ElkClass> queryNode;
 		if (classExpression instanceof ElkClass) {
 			queryNode = getClassNode(classExpression);
@@ -518,6 +919,59 @@ public class Reasoner extends AbstractReasonerState {
 		return !queryNode.getMembers().contains(PredefinedElkClass.OWL_NOTHING);
 	}
 
+	/**
+	 * Check if the given {@link ElkClass} is subsumed by (is a subclass of) the
+	 * other given {@link ElkClass}. If the taxonomy has not been computed yet,
+	 * only the saturation of the first class is computed, which is usually
+	 * much faster than the computation of the taxonomy; the results of this
+	 * saturation are reused for the subsequent queries.
+	 *
+	 * @param subClass
+	 *            the {@link ElkClass} for which to check the subsumption
+	 * @param superClass
+	 *            the {@link ElkClass} that should subsume the first one
+	 * @return {@code true} if the first {@link ElkClass} is subsumed by the
+	 *         second one
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 */
+	public synchronized boolean isSubsumedBy(ElkClass subClass,
+			ElkClass superClass) throws ElkException {
+
+		if (!doneTaxonomy()) {
+			Context context = getSaturatedContext(subClass);
+			if (context != null) {
+				if (context.containsConclusion(ContradictionImpl.getInstance())
+						|| PredefinedElkClass.OWL_THING.equals(superClass))
+					return true;
+				// else
+				IndexedClassExpression subsumer = transform(superClass);
+				if (subsumer != null)
+					return context.getSubsumers().contains(subsumer);
+				// else
+				if (allowFreshEntities
+						|| PredefinedElkClass.OWL_NOTHING.equals(superClass))
+					return false;
+				// else
+				throw new ElkFreshEntitiesException(superClass);
+			}
+		}
+		// else
+		TaxonomyNode<ElkClass> subNode = getTaxonomyNode(subClass);
+		if (subNode.getMembers().contains(superClass))
+			return true;
+		// else
+		for (Node<ElkClass> superNode : subNode.getAllSuperNodes()) {
+			if (superNode.getMembers().contains(superClass))
+				return true;
+		}
+		// else
+		if (!allowFreshEntities)
+			// check that the super class occurs in the ontology
+			getTaxonomyNode(superClass);
+		return false;
+	}
+
 	/**
 	 * @param materializedQuery
 	 *            An {@link ElkAxiom} introduced for the query
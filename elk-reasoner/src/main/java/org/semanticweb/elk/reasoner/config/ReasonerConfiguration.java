@@ -53,6 +53,45 @@ public class ReasonerConfiguration extends BaseConfiguration {
 	@Parameter(type = "java.lang.Boolean", value = "true")
 	public static final String INCREMENTAL_MODE_ALLOWED = "elk.reasoner.incremental.allowed";
 	
+	// store subsumers in contexts using identifiers of indexed class
+	// expressions instead of references to them; the identifiers of saturated
+	// contexts are kept sorted and delta-encoded, which saved about 30% of
+	// the heap used by the saturation of the ontologies generated by
+	// ContextFootprint of elk-microbenchmark
+	@Parameter(type = "java.lang.Boolean", value = "false")
+	public static final String COMPACT_SUBSUMERS = "elk.reasoner.saturation.compact_subsumers";
+
+	// keep active contexts in per-worker deques with work stealing instead of
+	// one queue shared by all workers
+	@Parameter(type = "java.lang.Boolean", value = "false")
+	public static final String WORK_STEALING = "elk.reasoner.saturation.work_stealing";
+
+	// keep the computed class taxonomy outside of the Java heap; such a
+	// taxonomy cannot be updated, so the incremental mode is not used and
+	// every change of the ontology, including the temporary axioms of complex
+	// class expression queries, causes the taxonomy to be recomputed
+	@Parameter(type = "java.lang.Boolean", value = "false")
+	public static final String OFF_HEAP_TAXONOMY = "elk.reasoner.taxonomy.off_heap";
+
+	// the number of pending ontology changes after which the changes are
+	// loaded by a background thread in the non-buffering mode, and new
+	// changes wait until they are taken for loading; 0 means no limit
+	@Parameter(type = "java.lang.Integer", value = "0")
+	public static final String CHANGES_MAX_PENDING = "elk.reasoner.changes.max_pending";
+
+	// the time in milliseconds after which pending ontology changes are
+	// loaded by a background thread in the non-buffering mode; 0 means no
+	// limit
+	@Parameter(type = "java.lang.Integer", value = "0")
+	public static final String CHANGES_MAX_DELAY = "elk.reasoner.changes.max_delay";
+
+	// the maximal number of contexts whose inferences are kept for
+	// explanations; if exceeded, the inferences are discarded before the next
+	// explanation and traced again when required; this is a soft limit, which
+	// is not checked while an explanation is traced; 0 means no limit
+	@Parameter(type = "java.lang.Integer", value = "0")
+	public static final String TRACING_MAX_CONTEXTS = "elk.reasoner.tracing.max_contexts";
+
 	public final static String REASONER_CONFIG_PREFIX = "elk.reasoner";
 
 	public static ReasonerConfiguration getConfiguration() {
@@ -49,8 +49,10 @@ public interface CachedIndexedClass extends ModifiableIndexedClass,
 			}
 			if (second instanceof CachedIndexedClass) {
 				CachedIndexedClass secondEntry = (CachedIndexedClass) second;
-				if (first.getElkEntity().getIri()
-						.equals(secondEntry.getElkEntity().getIri()))
+				// entities are often shared by a recycler
+				if (first.getElkEntity() == secondEntry.getElkEntity()
+						|| first.getElkEntity().getIri()
+								.equals(secondEntry.getElkEntity().getIri()))
 					return secondEntry;
 			}
 			return null;
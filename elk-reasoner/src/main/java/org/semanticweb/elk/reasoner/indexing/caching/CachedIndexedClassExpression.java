@@ -38,4 +38,12 @@ public interface CachedIndexedClassExpression<T extends CachedIndexedClassExpres
 
 	T accept(CachedIndexedClassExpressionFilter filter);
 
+	/**
+	 * Assigns the identifier returned by {@link #getId()}; should be called
+	 * only by the cache in which this object is stored
+	 * 
+	 * @param id
+	 */
+	void setId(int id);
+
 }
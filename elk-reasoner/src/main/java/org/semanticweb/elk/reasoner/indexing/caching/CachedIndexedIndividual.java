@@ -52,8 +52,10 @@ public interface CachedIndexedIndividual extends ModifiableIndexedIndividual,
 			}
 			if (second instanceof CachedIndexedIndividual) {
 				CachedIndexedIndividual secondEntry = (CachedIndexedIndividual) second;
-				if (first.getElkEntity().getIri()
-						.equals(secondEntry.getElkEntity().getIri()))
+				// entities are often shared by a recycler
+				if (first.getElkEntity() == secondEntry.getElkEntity()
+						|| first.getElkEntity().getIri()
+								.equals(secondEntry.getElkEntity().getIri()))
 					return secondEntry;
 			}
 			// else
@@ -56,6 +56,20 @@ public interface CachedIndexedObject<T extends CachedIndexedObject<T>> extends
 	 */
 	T accept(CachedIndexedObjectFilter filter);
 
+	/**
+	 * @param other
+	 *            the object to compare with
+	 * @return the given object of the same type as this object if it is
+	 *         structurally equal to this object, or {@code null} otherwise
+	 */
+	T structuralEquals(Object other);
+
+	/**
+	 * @return the hash code of this object that is compatible with
+	 *         {@link #structuralEquals(Object)}
+	 */
+	int structuralHashCode();
+
 	static class Helper {
 		static int combinedHashCode(Object... objects) {
 			return HashGenerator.combinedHashCode(objects);
@@ -53,8 +53,10 @@ public interface CachedIndexedObjectProperty extends
 			}
 			if (second instanceof CachedIndexedObjectProperty) {
 				CachedIndexedObjectProperty secondEntry = (CachedIndexedObjectProperty) second;
-				if (first.getElkEntity().getIri()
-						.equals(secondEntry.getElkEntity().getIri()))
+				// entities are often shared by a recycler
+				if (first.getElkEntity() == secondEntry.getElkEntity()
+						|| first.getElkEntity().getIri()
+								.equals(secondEntry.getElkEntity().getIri()))
 					return secondEntry;
 			}
 			// else
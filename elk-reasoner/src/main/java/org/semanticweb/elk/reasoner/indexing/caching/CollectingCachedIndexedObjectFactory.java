@@ -0,0 +1,61 @@
+package org.semanticweb.elk.reasoner.indexing.caching;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.semanticweb.elk.reasoner.indexing.modifiable.OccurrenceIncrement;
+
+/**
+ * A {@link CachedIndexedObjectFactory} that constructs objects using another
+ * {@link CachedIndexedObjectFactory} and reports the changes in their
+ * occurrences with the provided {@link OccurrenceIncrement} to a
+ * {@link ConcurrentOccurrenceCollector.Recorder}. The returned objects are
+ * shared with other factories using {@link ConcurrentOccurrenceCollector.Recorder}s
+ * of the same {@link ConcurrentOccurrenceCollector}.
+ * 
+ * @author agent
+ * 
+ * @see UpdatingCachedIndexedObjectFactory
+ */
+public class CollectingCachedIndexedObjectFactory extends
+		DelegatingCachedIndexedObjectFactory {
+
+	private final ConcurrentOccurrenceCollector.Recorder recorder_;
+
+	private final OccurrenceIncrement increment_;
+
+	public CollectingCachedIndexedObjectFactory(
+			CachedIndexedObjectFactory baseFactory,
+			ConcurrentOccurrenceCollector.Recorder recorder,
+			OccurrenceIncrement increment) {
+		super(baseFactory);
+		this.recorder_ = recorder;
+		this.increment_ = increment;
+	}
+
+	@Override
+	<T extends CachedIndexedObject<T>> T filter(T input) {
+		return recorder_.add(input, increment_);
+	}
+
+}
@@ -0,0 +1,319 @@
+package org.semanticweb.elk.reasoner.indexing.caching;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.semanticweb.elk.reasoner.indexing.modifiable.ModifiableIndexedAxiom;
+import org.semanticweb.elk.reasoner.indexing.modifiable.ModifiableIndexedObject;
+import org.semanticweb.elk.reasoner.indexing.modifiable.ModifiableOntologyIndex;
+import org.semanticweb.elk.reasoner.indexing.modifiable.OccurrenceIncrement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects changes in occurrences of {@link ModifiableIndexedObject}s that
+ * can be reported from several threads concurrently, and applies them to a
+ * {@link ModifiableOntologyIndex} afterwards. Every thread reports the changes
+ * through its own {@link Recorder}, which keeps the changes it has created in
+ * a list of its own.
+ * 
+ * The {@link ModifiableOntologyIndex} is only read while the changes are
+ * collected: every {@link CachedIndexedObject} is resolved in the
+ * {@link ModifiableOntologyIndex} and, if not found there, in a concurrent
+ * table of {@link CachedIndexedObject}s created since the last application,
+ * so that structurally equal objects are shared by all threads. The
+ * {@link OccurrenceIncrement}s for the same {@link CachedIndexedObject} are
+ * summed up, so every {@link CachedIndexedObject} is updated only once when
+ * the changes are applied.
+ * 
+ * Every change is assigned a position consisting of the number of the batch
+ * in which it was reported, as set by {@link Recorder#startBatch(int)}, and
+ * the number of the report within this batch. A change of a
+ * {@link CachedIndexedObject} takes the smallest position with which it was
+ * reported. The changes are applied in the order of their positions, so that
+ * every {@link ModifiableIndexedObject} is updated after all its sub-objects
+ * and the changes of {@link ModifiableIndexedAxiom}s are applied in the order
+ * of their batches.
+ * 
+ * @author agent
+ * 
+ * @see UpdatingCachedIndexedObjectFactory
+ */
+public class ConcurrentOccurrenceCollector {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(ConcurrentOccurrenceCollector.class);
+
+	private final ModifiableOntologyIndex index_;
+
+	/**
+	 * the changes of {@link CachedIndexedObject}s indexed by themselves, so
+	 * that they can be found by structurally equal objects
+	 */
+	private final ConcurrentMap<CachedObjectChange<?>, CachedObjectChange<?>> cachedObjectChanges_;
+
+	/**
+	 * the {@link Recorder}s created by this
+	 * {@link ConcurrentOccurrenceCollector}
+	 */
+	private final List<Recorder> recorders_ = new ArrayList<Recorder>();
+
+	public ConcurrentOccurrenceCollector(ModifiableOntologyIndex index,
+			int concurrencyLevel) {
+		this.index_ = index;
+		this.cachedObjectChanges_ = new ConcurrentHashMap<CachedObjectChange<?>, CachedObjectChange<?>>(
+				1024, 0.75f, concurrencyLevel);
+	}
+
+	/**
+	 * @return a new {@link Recorder} for reporting changes to this
+	 *         {@link ConcurrentOccurrenceCollector}; it should be used by one
+	 *         thread at a time
+	 */
+	public synchronized Recorder getRecorder() {
+		Recorder result = new Recorder();
+		recorders_.add(result);
+		return result;
+	}
+
+	/**
+	 * Applies all collected changes to the {@link ModifiableOntologyIndex} and
+	 * clears them; this method should not be called concurrently with other
+	 * methods of this {@link ConcurrentOccurrenceCollector} or its
+	 * {@link Recorder}s, which should not be used after this method is called
+	 */
+	public synchronized void apply() {
+		// distributing the changes by batches
+		List<List<Change>> batches = new ArrayList<List<Change>>();
+		int count = 0;
+		for (Recorder recorder : recorders_) {
+			for (Change change : recorder.changes_) {
+				int batch = (int) (change.position >>> 32);
+				while (batches.size() <= batch)
+					batches.add(null);
+				List<Change> changes = batches.get(batch);
+				if (changes == null) {
+					changes = new ArrayList<Change>();
+					batches.set(batch, changes);
+				}
+				changes.add(change);
+			}
+			count += recorder.changes_.size();
+		}
+		recorders_.clear();
+		cachedObjectChanges_.clear();
+		for (List<Change> changes : batches) {
+			if (changes == null)
+				continue;
+			Collections.sort(changes, Change.ORDER);
+			for (Change change : changes) {
+				change.applyTo(index_);
+			}
+		}
+		LOGGER_.trace("{} changes applied", count);
+	}
+
+	/**
+	 * Reports changes of occurrences to the
+	 * {@link ConcurrentOccurrenceCollector} on behalf of one thread
+	 * 
+	 * @author agent
+	 */
+	public class Recorder {
+
+		/**
+		 * the changes created by this {@link Recorder}
+		 */
+		private final List<Change> changes_ = new ArrayList<Change>();
+
+		/**
+		 * the position of the next reported change
+		 */
+		private long nextPosition_ = 0;
+
+		Recorder() {
+		}
+
+		/**
+		 * Sets the batch to which the changes reported next belong; the
+		 * changes of earlier batches are applied before the changes of later
+		 * batches
+		 * 
+		 * @param batch
+		 *            the non-negative number of the batch
+		 */
+		public void startBatch(int batch) {
+			nextPosition_ = ((long) batch) << 32;
+		}
+
+		/**
+		 * Records the change in occurrences of the given
+		 * {@link CachedIndexedObject}
+		 * 
+		 * @param input
+		 *            the {@link CachedIndexedObject} which occurrences change
+		 * @param increment
+		 *            the change in the occurrences
+		 * @return the {@link CachedIndexedObject} structurally equal to the
+		 *         input, which is either contained in the
+		 *         {@link ModifiableOntologyIndex} or, if there is no such
+		 *         object, was the first one reported to this
+		 *         {@link ConcurrentOccurrenceCollector}
+		 */
+		public <T extends CachedIndexedObject<T>> T add(T input,
+				OccurrenceIncrement increment) {
+			T result = index_.resolve(input);
+			if (result == null)
+				result = input;
+			long position = nextPosition_++;
+			CachedObjectChange<T> change = new CachedObjectChange<T>(result,
+					position);
+			CachedObjectChange<?> previous = cachedObjectChanges_
+					.putIfAbsent(change, change);
+			if (previous == null) {
+				changes_.add(change);
+				change.add(increment, position);
+				return result;
+			}
+			// else
+			previous.add(increment, position);
+			return result.structuralEquals(previous.object);
+		}
+
+		/**
+		 * Records the change in occurrences of the given
+		 * {@link ModifiableIndexedAxiom}
+		 * 
+		 * @param axiom
+		 *            the {@link ModifiableIndexedAxiom} which occurrences
+		 *            change
+		 * @param increment
+		 *            the change in the occurrences
+		 */
+		public void add(ModifiableIndexedAxiom axiom,
+				OccurrenceIncrement increment) {
+			changes_.add(new AxiomChange(axiom, increment, nextPosition_++));
+		}
+
+	}
+
+	private static abstract class Change {
+
+		static final Comparator<Change> ORDER = new Comparator<Change>() {
+			@Override
+			public int compare(Change o1, Change o2) {
+				return (o1.position < o2.position ? -1
+						: (o1.position == o2.position ? 0 : 1));
+			}
+		};
+
+		/**
+		 * the position in which this change should be applied
+		 */
+		long position;
+
+		Change(long position) {
+			this.position = position;
+		}
+
+		abstract void applyTo(ModifiableOntologyIndex index);
+
+	}
+
+	private static class CachedObjectChange<T extends CachedIndexedObject<T>>
+			extends Change {
+
+		final T object;
+
+		private int totalIncrement_ = 0, positiveIncrement_ = 0,
+				negativeIncrement_ = 0;
+
+		CachedObjectChange(T object, long position) {
+			super(position);
+			this.object = object;
+		}
+
+		synchronized void add(OccurrenceIncrement increment, long position) {
+			totalIncrement_ += increment.totalIncrement;
+			positiveIncrement_ += increment.positiveIncrement;
+			negativeIncrement_ += increment.negativeIncrement;
+			if (position < this.position)
+				this.position = position;
+		}
+
+		@Override
+		synchronized void applyTo(ModifiableOntologyIndex index) {
+			if (!object.occurs()) {
+				index.add(object);
+			}
+			object.updateOccurrenceNumbers(index, new OccurrenceIncrement(
+					totalIncrement_, positiveIncrement_, negativeIncrement_));
+			if (!object.occurs()) {
+				index.remove(object);
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return object.structuralHashCode();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (other instanceof CachedObjectChange<?>)
+				return object
+						.structuralEquals(((CachedObjectChange<?>) other).object) != null;
+			// else
+			return false;
+		}
+
+	}
+
+	private static class AxiomChange extends Change {
+
+		private final ModifiableIndexedAxiom axiom_;
+
+		private final OccurrenceIncrement increment_;
+
+		AxiomChange(ModifiableIndexedAxiom axiom,
+				OccurrenceIncrement increment, long position) {
+			super(position);
+			this.axiom_ = axiom;
+			this.increment_ = increment;
+		}
+
+		@Override
+		void applyTo(ModifiableOntologyIndex index) {
+			axiom_.updateOccurrenceNumbers(index, increment_);
+		}
+
+	}
+
+}
@@ -0,0 +1,286 @@
+package org.semanticweb.elk.reasoner.indexing.caching;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.util.collections.entryset.EntryCollection;
+
+/**
+ * A hash-consing table of {@link CachedIndexedComplexClassExpression}s: every
+ * stored object is identified by a type tag and the identifiers of its
+ * sub-expressions, which are kept in primitive arrays together with the
+ * identifier of the object. The objects themselves are obtained from their
+ * identifiers using {@link IndexedObjectCache#getClassExpression(int)}, so
+ * they must be assigned identifiers before they are added and keep them until
+ * they are removed. This is an alternative to storing the objects in an
+ * {@link EntryCollection}, which can be enabled in
+ * {@link ModifiableIndexedObjectCacheImpl} to compare the two.
+ * 
+ * @author agent
+ * 
+ */
+class HashConsingTable extends
+		AbstractCollection<CachedIndexedComplexClassExpression<?>> {
+
+	/**
+	 * the tag of empty slots
+	 */
+	private static final int EMPTY_ = 0;
+
+	/**
+	 * the number of {@code int}s used for the key of every slot: the type tag
+	 * and two numbers that identify the sub-expressions
+	 */
+	private static final int KEY_LENGTH_ = 3;
+
+	private final IndexedObjectCache cache_;
+
+	/**
+	 * the keys of the slots one after another
+	 */
+	private int[] keys_;
+
+	/**
+	 * the identifiers of the objects stored in the slots
+	 */
+	private int[] ids_;
+
+	private int size_ = 0;
+
+	/**
+	 * @param cache
+	 *            the {@link IndexedObjectCache} that assigns the identifiers
+	 *            to the stored objects
+	 * @param initialCapacity
+	 *            the expected number of stored objects
+	 */
+	HashConsingTable(IndexedObjectCache cache, int initialCapacity) {
+		this.cache_ = cache;
+		int capacity = 16;
+		while (capacity < initialCapacity)
+			capacity <<= 1;
+		this.keys_ = new int[capacity * KEY_LENGTH_];
+		this.ids_ = new int[capacity];
+	}
+
+	/**
+	 * @param tag
+	 *            the positive type tag of the object
+	 * @param first
+	 *            the number identifying the first sub-expression
+	 * @param second
+	 *            the number identifying the second sub-expression
+	 * @param element
+	 *            the object to be found
+	 * @return the stored object with the given key that is structurally equal
+	 *         to the given object, or {@code null} if there is no such object
+	 */
+	<T extends CachedIndexedComplexClassExpression<T>> T find(int tag,
+			int first, int second, T element) {
+		int slot = findSlot(tag, first, second, element);
+		if (slot < 0)
+			return null;
+		// else
+		return element.structuralEquals(getObject(slot));
+	}
+
+	/**
+	 * Stores the given object with the given key; the object should not be
+	 * stored already
+	 * 
+	 * @param tag
+	 *            the positive type tag of the object
+	 * @param first
+	 *            the number identifying the first sub-expression
+	 * @param second
+	 *            the number identifying the second sub-expression
+	 * @param element
+	 *            the object to be stored, which has an identifier
+	 */
+	void add(int tag, int first, int second,
+			CachedIndexedComplexClassExpression<?> element) {
+		if (4 * (size_ + 1) > 3 * ids_.length)
+			resize(ids_.length << 1);
+		int mask = ids_.length - 1;
+		int slot = hash(tag, first, second) & mask;
+		while (keys_[slot * KEY_LENGTH_] != EMPTY_)
+			slot = (slot + 1) & mask;
+		setSlot(slot, tag, first, second, element.getId());
+		size_++;
+	}
+
+	/**
+	 * Removes the stored object with the given key that is structurally equal
+	 * to the given object
+	 * 
+	 * @param tag
+	 *            the positive type tag of the object
+	 * @param first
+	 *            the number identifying the first sub-expression
+	 * @param second
+	 *            the number identifying the second sub-expression
+	 * @param element
+	 *            the object to be removed
+	 * @return the removed object or {@code null} if there is no such object
+	 */
+	<T extends CachedIndexedComplexClassExpression<T>> T remove(int tag,
+			int first, int second, T element) {
+		int slot = findSlot(tag, first, second, element);
+		if (slot < 0)
+			return null;
+		// else
+		T result = element.structuralEquals(getObject(slot));
+		clearSlot(slot);
+		size_--;
+		return result;
+	}
+
+	@Override
+	public int size() {
+		return size_;
+	}
+
+	@Override
+	public Iterator<CachedIndexedComplexClassExpression<?>> iterator() {
+		return new Iterator<CachedIndexedComplexClassExpression<?>>() {
+
+			private int next_ = seek(0);
+
+			private int seek(int slot) {
+				while (slot < ids_.length
+						&& keys_[slot * KEY_LENGTH_] == EMPTY_)
+					slot++;
+				return slot;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next_ < ids_.length;
+			}
+
+			@Override
+			public CachedIndexedComplexClassExpression<?> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				// else
+				CachedIndexedComplexClassExpression<?> result = getObject(next_);
+				next_ = seek(next_ + 1);
+				return result;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	/**
+	 * @return the slot containing an object with the given key that is
+	 *         structurally equal to the given object or {@code -1} if there
+	 *         is no such slot
+	 */
+	private int findSlot(int tag, int first, int second,
+			CachedIndexedComplexClassExpression<?> element) {
+		int mask = ids_.length - 1;
+		for (int slot = hash(tag, first, second) & mask;; slot = (slot + 1)
+				& mask) {
+			int pos = slot * KEY_LENGTH_;
+			if (keys_[pos] == EMPTY_)
+				return -1;
+			// else
+			if (keys_[pos] == tag && keys_[pos + 1] == first
+					&& keys_[pos + 2] == second
+					&& element.structuralEquals(getObject(slot)) != null)
+				return slot;
+		}
+	}
+
+	/**
+	 * Empties the given slot and moves the following slots of the same probe
+	 * sequence so that all stored objects can be still found
+	 */
+	private void clearSlot(int slot) {
+		int mask = ids_.length - 1;
+		for (int next = (slot + 1) & mask;; next = (next + 1) & mask) {
+			int pos = next * KEY_LENGTH_;
+			if (keys_[pos] == EMPTY_)
+				break;
+			// else
+			int home = hash(keys_[pos], keys_[pos + 1], keys_[pos + 2]) & mask;
+			// the object can be moved if its home slot is not between the
+			// emptied slot (exclusively) and the next slot (inclusively)
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				setSlot(slot, keys_[pos], keys_[pos + 1], keys_[pos + 2],
+						ids_[next]);
+				slot = next;
+			}
+		}
+		keys_[slot * KEY_LENGTH_] = EMPTY_;
+	}
+
+	private void setSlot(int slot, int tag, int first, int second, int id) {
+		int pos = slot * KEY_LENGTH_;
+		keys_[pos] = tag;
+		keys_[pos + 1] = first;
+		keys_[pos + 2] = second;
+		ids_[slot] = id;
+	}
+
+	private CachedIndexedComplexClassExpression<?> getObject(int slot) {
+		IndexedClassExpression result = cache_.getClassExpression(ids_[slot]);
+		return (CachedIndexedComplexClassExpression<?>) result;
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys_;
+		int[] oldIds = ids_;
+		keys_ = new int[capacity * KEY_LENGTH_];
+		ids_ = new int[capacity];
+		int mask = capacity - 1;
+		for (int oldSlot = 0; oldSlot < oldIds.length; oldSlot++) {
+			int pos = oldSlot * KEY_LENGTH_;
+			if (oldKeys[pos] == EMPTY_)
+				continue;
+			// else
+			int slot = hash(oldKeys[pos], oldKeys[pos + 1], oldKeys[pos + 2])
+					& mask;
+			while (keys_[slot * KEY_LENGTH_] != EMPTY_)
+				slot = (slot + 1) & mask;
+			setSlot(slot, oldKeys[pos], oldKeys[pos + 1], oldKeys[pos + 2],
+					oldIds[oldSlot]);
+		}
+	}
+
+	private static int hash(int tag, int first, int second) {
+		int h = (tag * 31 + first) * 31 + second;
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
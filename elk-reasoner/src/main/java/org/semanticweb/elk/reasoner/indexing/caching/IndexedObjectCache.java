@@ -74,6 +74,16 @@ public interface IndexedObjectCache {
 	 */
 	public Collection<? extends IndexedClassExpression> getClassExpressions();
 
+	/**
+	 * @param id
+	 *            a non-negative integer
+	 * @return the {@link IndexedClassExpression} whose
+	 *         {@link IndexedClassExpression#getId()} is the given value, or
+	 *         {@code null} if no such {@link IndexedClassExpression} was added
+	 *         to this {@link IndexedObjectCache}
+	 */
+	public IndexedClassExpression getClassExpression(int id);
+
 	/**
 	 * @return the {@link IndexedPropertyChain}s corresponding to all
 	 *         {@link ElkSubObjectPropertyExpression}s occurring in the
@@ -61,4 +61,15 @@ public interface ModifiableIndexedObjectCache extends IndexedObjectCache {
 	 */
 	void remove(CachedIndexedObject<?> input);
 
+	/**
+	 * Makes the identifiers of the {@link CachedIndexedClassExpression}s
+	 * removed from this {@link IndexedObjectCache} available for new
+	 * {@link CachedIndexedClassExpression}s. Until this method is called, the
+	 * removed objects keep their identifiers and can be retrieved using
+	 * {@link #getClassExpression(int)}. This method should be called only when
+	 * no conclusions refer to the removed objects anymore, e.g., after they
+	 * are deleted from all contexts or when all contexts are reset.
+	 */
+	void releaseRemovedIds();
+
 }
@@ -22,7 +22,10 @@ package org.semanticweb.elk.reasoner.indexing.caching;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.iris.ElkIri;
@@ -50,8 +53,24 @@ public class ModifiableIndexedObjectCacheImpl implements
 	private static final Logger LOGGER_ = LoggerFactory
 			.getLogger(ModifiableIndexedObjectCacheImpl.class);
 
+	/**
+	 * the type tags of the {@link CachedIndexedComplexClassExpression}s stored
+	 * in {@link #hashConsedClassExpressions_}
+	 */
+	private static final int COMPLEMENT_TAG_ = 1, INTERSECTION_TAG_ = 2,
+			EXISTENTIAL_TAG_ = 3;
+
 	private final EntryCollection<CachedIndexedComplexClassExpression<?>> cachedComplexClassExpressions_;
 
+	/**
+	 * the {@link CachedIndexedObjectComplementOf}s,
+	 * {@link CachedIndexedObjectIntersectionOf}s and
+	 * {@link CachedIndexedObjectSomeValuesFrom}s if hash consing is used, or
+	 * {@code null} if they are stored in
+	 * {@link #cachedComplexClassExpressions_}
+	 */
+	private final HashConsingTable hashConsedClassExpressions_;
+
 	private final EntryCollection<CachedIndexedComplexPropertyChain> cachedBinaryPropertyChains_;
 
 	private final EntryCollection<CachedIndexedAxiom<?>> cachedAxioms_;
@@ -62,14 +81,57 @@ public class ModifiableIndexedObjectCacheImpl implements
 
 	private final EntryCollection<CachedIndexedIndividual> cachedIndividuals_;
 
+	/**
+	 * the {@link CachedIndexedClassExpression}s added to this cache indexed by
+	 * their identifiers; the entries of removed objects are cleared only in
+	 * {@link #releaseRemovedIds()} so that the identifiers remain valid for
+	 * conclusions that still refer to them
+	 */
+	private CachedIndexedClassExpression<?>[] classExpressionsById_;
+
+	/**
+	 * the identifier to be assigned to the next new
+	 * {@link CachedIndexedClassExpression} if there are no free identifiers
+	 */
+	private int nextClassExpressionId_ = 0;
+
+	/**
+	 * the identifiers smaller than {@link #nextClassExpressionId_} that are
+	 * not assigned to any {@link CachedIndexedClassExpression}; the first
+	 * {@link #freeIdCount_} elements are used
+	 */
+	private int[] freeIds_ = new int[16];
+
+	private int freeIdCount_ = 0;
+
+	/**
+	 * the {@link CachedIndexedClassExpression}s removed from this cache whose
+	 * identifiers are not yet released
+	 */
+	private final List<CachedIndexedClassExpression<?>> removedClassExpressions_ = new ArrayList<CachedIndexedClassExpression<?>>();
+
 	private final CachedIndexedObjectFilter resolver_, inserter_, deleter_;
 
 	private final Entry<CachedIndexedClass, ?> owlThingResolver_,
 			owlNothingResolver_;
 
-	public ModifiableIndexedObjectCacheImpl(int initialSize) {
+	/**
+	 * @param initialSize
+	 *            the expected number of objects of every kind
+	 * @param hashConsing
+	 *            if {@code true}, the {@link CachedIndexedObjectComplementOf}s,
+	 *            {@link CachedIndexedObjectIntersectionOf}s and
+	 *            {@link CachedIndexedObjectSomeValuesFrom}s are stored in a
+	 *            {@link HashConsingTable} keyed by the identifiers of their
+	 *            sub-expressions instead of an {@link EntryCollection}; this
+	 *            is an experimental option for comparing the two
+	 */
+	public ModifiableIndexedObjectCacheImpl(int initialSize,
+			boolean hashConsing) {
 		this.cachedComplexClassExpressions_ = new EntryCollection<CachedIndexedComplexClassExpression<?>>(
 				initialSize);
+		this.hashConsedClassExpressions_ = hashConsing ? new HashConsingTable(
+				this, initialSize) : null;
 		this.cachedBinaryPropertyChains_ = new EntryCollection<CachedIndexedComplexPropertyChain>(
 				initialSize);
 		this.cachedAxioms_ = new EntryCollection<CachedIndexedAxiom<?>>(
@@ -80,6 +142,8 @@ public class ModifiableIndexedObjectCacheImpl implements
 				initialSize);
 		this.cachedIndividuals_ = new EntryCollection<CachedIndexedIndividual>(
 				initialSize);
+		this.classExpressionsById_ = new CachedIndexedClassExpression<?>[Math
+				.max(initialSize, 16)];
 		this.resolver_ = new Resolver_();
 		this.inserter_ = new Inserter_();
 		this.deleter_ = new Deleter_();
@@ -88,6 +152,10 @@ public class ModifiableIndexedObjectCacheImpl implements
 				PredefinedElkClass.OWL_NOTHING);
 	}
 
+	public ModifiableIndexedObjectCacheImpl(int initialSize) {
+		this(initialSize, false);
+	}
+
 	public ModifiableIndexedObjectCacheImpl() {
 		this(1024);
 	}
@@ -107,9 +175,25 @@ public class ModifiableIndexedObjectCacheImpl implements
 		return cachedObjectProperties_;
 	}
 
+	@Override
+	public IndexedClassExpression getClassExpression(int id) {
+		if (id < 0 || id >= nextClassExpressionId_)
+			return null;
+		// else
+		return classExpressionsById_[id];
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public Collection<? extends IndexedClassExpression> getClassExpressions() {
+		if (hashConsedClassExpressions_ != null)
+			return Operations.getCollection(Operations.concat(cachedClasses_,
+					cachedIndividuals_, cachedComplexClassExpressions_,
+					hashConsedClassExpressions_), cachedClasses_.size()
+					+ cachedIndividuals_.size()
+					+ cachedComplexClassExpressions_.size()
+					+ hashConsedClassExpressions_.size());
+		// else
 		return Operations.getCollection(Operations.concat(cachedClasses_,
 				cachedIndividuals_, cachedComplexClassExpressions_),
 				cachedClasses_.size() + cachedIndividuals_.size()
@@ -154,6 +238,63 @@ public class ModifiableIndexedObjectCacheImpl implements
 		input.accept(deleter_);
 	}
 
+	@Override
+	public void releaseRemovedIds() {
+		for (CachedIndexedClassExpression<?> removed : removedClassExpressions_) {
+			int id = removed.getId();
+			if (id < 0 || classExpressionsById_[id] != removed
+					|| removed.accept(resolver_) == removed)
+				// the identifier is already released or the object was added
+				// again
+				continue;
+			// else
+			LOGGER_.trace("{}: releasing id {}", removed, id);
+			classExpressionsById_[id] = null;
+			removed.setId(-1);
+			if (freeIdCount_ == freeIds_.length)
+				freeIds_ = Arrays.copyOf(freeIds_, freeIds_.length << 1);
+			freeIds_[freeIdCount_++] = id;
+		}
+		removedClassExpressions_.clear();
+	}
+
+	/**
+	 * Assigns a new identifier to the given {@link CachedIndexedClassExpression}
+	 * unless it already has one, e.g., if it was previously removed from this
+	 * cache and then added again before its identifier was released; the
+	 * released identifiers are reused first
+	 */
+	private void assignId(CachedIndexedClassExpression<?> element) {
+		if (element.getId() >= 0)
+			return;
+		// else
+		int id;
+		if (freeIdCount_ > 0)
+			id = freeIds_[--freeIdCount_];
+		else {
+			if (nextClassExpressionId_ == classExpressionsById_.length)
+				classExpressionsById_ = Arrays.copyOf(classExpressionsById_,
+						classExpressionsById_.length << 1);
+			id = nextClassExpressionId_++;
+		}
+		element.setId(id);
+		classExpressionsById_[id] = element;
+	}
+
+	/**
+	 * Remembers the given {@link CachedIndexedClassExpression} removed from
+	 * this cache, so that its identifier can be released later
+	 * 
+	 * @param removed
+	 *            the removed object or {@code null} if nothing was removed
+	 * @return the input
+	 */
+	private <T extends CachedIndexedClassExpression<?>> T removed(T removed) {
+		if (removed != null)
+			removedClassExpressions_.add(removed);
+		return removed;
+	}
+
 	private class Resolver_ implements CachedIndexedObjectFilter {
 
 		@Override
@@ -169,18 +310,32 @@ public class ModifiableIndexedObjectCacheImpl implements
 		@Override
 		public CachedIndexedObjectComplementOf filter(
 				CachedIndexedObjectComplementOf element) {
+			if (hashConsedClassExpressions_ != null)
+				return hashConsedClassExpressions_.find(COMPLEMENT_TAG_,
+						element.getNegated().getId(), 0, element);
+			// else
 			return cachedComplexClassExpressions_.findStructural(element);
 		}
 
 		@Override
 		public CachedIndexedObjectIntersectionOf filter(
 				CachedIndexedObjectIntersectionOf element) {
+			if (hashConsedClassExpressions_ != null)
+				return hashConsedClassExpressions_.find(INTERSECTION_TAG_,
+						element.getFirstConjunct().getId(), element
+								.getSecondConjunct().getId(), element);
+			// else
 			return cachedComplexClassExpressions_.findStructural(element);
 		}
 
 		@Override
 		public CachedIndexedObjectSomeValuesFrom filter(
 				CachedIndexedObjectSomeValuesFrom element) {
+			if (hashConsedClassExpressions_ != null)
+				return hashConsedClassExpressions_.find(EXISTENTIAL_TAG_,
+						element.getFiller().getId(), element.getProperty()
+								.hashCode(), element);
+			// else
 			return cachedComplexClassExpressions_.findStructural(element);
 		}
 
@@ -221,33 +376,52 @@ public class ModifiableIndexedObjectCacheImpl implements
 		@Override
 		public CachedIndexedClass filter(CachedIndexedClass element) {
 			cachedClasses_.addStructural(element);
+			assignId(element);
 			return null;
 		}
 
 		@Override
 		public CachedIndexedIndividual filter(CachedIndexedIndividual element) {
 			cachedIndividuals_.addStructural(element);
+			assignId(element);
 			return null;
 		}
 
 		@Override
 		public CachedIndexedObjectComplementOf filter(
 				CachedIndexedObjectComplementOf element) {
-			cachedComplexClassExpressions_.addStructural(element);
+			assignId(element);
+			if (hashConsedClassExpressions_ != null)
+				hashConsedClassExpressions_.add(COMPLEMENT_TAG_,
+						element.getNegated().getId(), 0, element);
+			else
+				cachedComplexClassExpressions_.addStructural(element);
 			return null;
 		}
 
 		@Override
 		public CachedIndexedObjectIntersectionOf filter(
 				CachedIndexedObjectIntersectionOf element) {
-			cachedComplexClassExpressions_.addStructural(element);
+			assignId(element);
+			if (hashConsedClassExpressions_ != null)
+				hashConsedClassExpressions_.add(INTERSECTION_TAG_,
+						element.getFirstConjunct().getId(), element
+						.getSecondConjunct().getId(), element);
+			else
+				cachedComplexClassExpressions_.addStructural(element);
 			return null;
 		}
 
 		@Override
 		public CachedIndexedObjectSomeValuesFrom filter(
 				CachedIndexedObjectSomeValuesFrom element) {
-			cachedComplexClassExpressions_.addStructural(element);
+			assignId(element);
+			if (hashConsedClassExpressions_ != null)
+				hashConsedClassExpressions_.add(EXISTENTIAL_TAG_,
+						element.getFiller().getId(), element.getProperty()
+						.hashCode(), element);
+			else
+				cachedComplexClassExpressions_.addStructural(element);
 			return null;
 		}
 
@@ -255,6 +429,7 @@ public class ModifiableIndexedObjectCacheImpl implements
 		public CachedIndexedObjectUnionOf filter(
 				CachedIndexedObjectUnionOf element) {
 			cachedComplexClassExpressions_.addStructural(element);
+			assignId(element);
 			return null;
 		}
 
@@ -262,6 +437,7 @@ public class ModifiableIndexedObjectCacheImpl implements
 		public CachedIndexedDataHasValue filter(
 				CachedIndexedDataHasValue element) {
 			cachedComplexClassExpressions_.addStructural(element);
+			assignId(element);
 			return null;
 		}
 
@@ -292,42 +468,61 @@ public class ModifiableIndexedObjectCacheImpl implements
 
 		@Override
 		public CachedIndexedClass filter(CachedIndexedClass element) {
-			return cachedClasses_.removeStructural(element);
+			return removed(cachedClasses_.removeStructural(element));
 		}
 
 		@Override
 		public CachedIndexedIndividual filter(CachedIndexedIndividual element) {
-			return cachedIndividuals_.removeStructural(element);
+			return removed(cachedIndividuals_.removeStructural(element));
 		}
 
 		@Override
 		public CachedIndexedObjectComplementOf filter(
 				CachedIndexedObjectComplementOf element) {
-			return cachedComplexClassExpressions_.removeStructural(element);
+			if (hashConsedClassExpressions_ != null)
+				return removed(hashConsedClassExpressions_.remove(
+						COMPLEMENT_TAG_, element.getNegated().getId(), 0, element));
+			// else
+			return removed(cachedComplexClassExpressions_
+					.removeStructural(element));
 		}
 
 		@Override
 		public CachedIndexedObjectIntersectionOf filter(
 				CachedIndexedObjectIntersectionOf element) {
-			return cachedComplexClassExpressions_.removeStructural(element);
+			if (hashConsedClassExpressions_ != null)
+				return removed(hashConsedClassExpressions_.remove(
+						INTERSECTION_TAG_, element.getFirstConjunct().getId(), element
+						.getSecondConjunct().getId(), element));
+			// else
+			return removed(cachedComplexClassExpressions_
+					.removeStructural(element));
 		}
 
 		@Override
 		public CachedIndexedObjectSomeValuesFrom filter(
 				CachedIndexedObjectSomeValuesFrom element) {
-			return cachedComplexClassExpressions_.removeStructural(element);
+			if (hashConsedClassExpressions_ != null)
+				return removed(hashConsedClassExpressions_.remove(
+						EXISTENTIAL_TAG_, element.getFiller().getId(), element.getProperty()
+						.hashCode(), element));
+			// else
+			return removed(cachedComplexClassExpressions_
+					.removeStructural(element));
 		}
 
 		@Override
 		public CachedIndexedObjectUnionOf filter(
 				CachedIndexedObjectUnionOf element) {
-			return cachedComplexClassExpressions_.removeStructural(element);
+			return removed(cachedComplexClassExpressions_
+					.removeStructural(element));
 		}
 
 		@Override
 		public CachedIndexedDataHasValue filter(
 				CachedIndexedDataHasValue element) {
-			return cachedComplexClassExpressions_.removeStructural(element);
+			return removed(cachedComplexClassExpressions_
+					.removeStructural(element));
 		}
 
 		@Override
@@ -45,6 +45,9 @@ import org.semanticweb.elk.owl.interfaces.ElkTransitiveObjectPropertyAxiom;
 import org.semanticweb.elk.owl.predefined.ElkPolarity;
 import org.semanticweb.elk.owl.predefined.PredefinedElkClass;
 import org.semanticweb.elk.reasoner.indexing.caching.CachedIndexedObjectFactory;
+import org.semanticweb.elk.reasoner.indexing.caching.CollectingModifiableIndexedObjectFactory;
+import org.semanticweb.elk.reasoner.indexing.caching.ConcurrentOccurrenceCollector;
+import org.semanticweb.elk.reasoner.indexing.caching.ConcurrentOccurrenceCollector.Recorder;
 import org.semanticweb.elk.reasoner.indexing.caching.ModifiableIndexedObjectCache;
 import org.semanticweb.elk.reasoner.indexing.caching.ResolvingModifiableIndexedObjectFactory;
 import org.semanticweb.elk.reasoner.indexing.caching.UpdatingModifiableIndexedObjectFactory;
@@ -227,6 +230,44 @@ public class ElkAxiomConverterImpl extends FailingElkAxiomConverter {
 		this(new ModifiableIndexedObjectFactoryImpl(), index, increment);
 	}
 
+	/**
+	 * Creates an {@link ElkAxiomConverter} that converts {@link ElkAxiom}s and
+	 * reports the occurrences of the created {@link ModifiableIndexedObject}s
+	 * with the given multiplicity to the provided
+	 * {@link ConcurrentOccurrenceCollector.Recorder} instead of changing the
+	 * index directly. Several such converters using {@link Recorder}s of the
+	 * same {@link ConcurrentOccurrenceCollector} can be used concurrently.
+	 * 
+	 * @param recorder
+	 *            the {@link ConcurrentOccurrenceCollector.Recorder} through
+	 *            which the changes are recorded
+	 * @param increment
+	 *            the multiplicity with which the created
+	 *            {@link ModifiableIndexedAxiom}s should be inserted; it can be
+	 *            negative for removals
+	 * 
+	 * @see #ElkAxiomConverterImpl(ModifiableOntologyIndex, int)
+	 */
+	public ElkAxiomConverterImpl(Recorder recorder, int increment) {
+		this(new ModifiableIndexedObjectFactoryImpl(), recorder, increment);
+	}
+
+	private <F extends CachedIndexedObjectFactory & ModifiableIndexedObjectFactory> ElkAxiomConverterImpl(
+			F baseFactory, Recorder recorder,
+			int increment) {
+		this(new CollectingModifiableIndexedObjectFactory(baseFactory,
+				recorder, OccurrenceIncrement.getNeutralIncrement(increment)),
+				new CollectingModifiableIndexedObjectFactory(baseFactory,
+						recorder, OccurrenceIncrement
+								.getPositiveIncrement(increment)),
+				new CollectingModifiableIndexedObjectFactory(baseFactory,
+						recorder, OccurrenceIncrement
+								.getNegativeIncrement(increment)),
+				new CollectingModifiableIndexedObjectFactory(baseFactory,
+						recorder, OccurrenceIncrement
+								.getDualIncrement(increment)));
+	}
+
 	@Override
 	public Void visit(ElkObjectPropertyDomainAxiom axiom) {
 		ModifiableIndexedClass indexedOwlThing = negativeFactory_
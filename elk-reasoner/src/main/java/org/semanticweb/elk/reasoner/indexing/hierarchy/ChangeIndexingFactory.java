@@ -0,0 +1,111 @@
+package org.semanticweb.elk.reasoner.indexing.hierarchy;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.reasoner.indexing.caching.ConcurrentOccurrenceCollector;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverter;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
+import org.semanticweb.elk.util.concurrent.computation.BaseInputProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessorFactory;
+import org.semanticweb.elk.util.concurrent.computation.SimpleInterrupter;
+
+/**
+ * A factory of engines that index batches of added or removed
+ * {@link ElkAxiom}s. Every engine uses its own {@link ElkAxiomConverter}s and
+ * its own {@link ConcurrentOccurrenceCollector.Recorder}, so the
+ * {@link ElkAxiom}s are converted concurrently; the resulting changes are
+ * collected by a shared {@link ConcurrentOccurrenceCollector}.
+ * 
+ * @author agent
+ */
+class ChangeIndexingFactory extends SimpleInterrupter implements
+		InputProcessorFactory<ChangeIndexingFactory.Batch, InputProcessor<ChangeIndexingFactory.Batch>> {
+
+	private final ConcurrentOccurrenceCollector collector_;
+
+	ChangeIndexingFactory(ConcurrentOccurrenceCollector collector) {
+		this.collector_ = collector;
+	}
+
+	@Override
+	public InputProcessor<Batch> getEngine() {
+		final ConcurrentOccurrenceCollector.Recorder recorder = collector_
+				.getRecorder();
+		final ChangeIndexingProcessor inserter = new ChangeIndexingProcessor(
+				new ElkAxiomConverterImpl(recorder, 1),
+				ChangeIndexingProcessor.ADDITION);
+		final ChangeIndexingProcessor deleter = new ChangeIndexingProcessor(
+				new ElkAxiomConverterImpl(recorder, -1),
+				ChangeIndexingProcessor.REMOVAL);
+		return new BaseInputProcessor<Batch>() {
+
+			@Override
+			protected void process(Batch batch) {
+				recorder.startBatch(batch.number);
+				ChangeIndexingProcessor processor = batch.increment > 0 ? inserter
+						: deleter;
+				for (ElkAxiom axiom : batch.axioms)
+					processor.visit(axiom);
+			}
+
+			@Override
+			protected boolean isInterrupted() {
+				return ChangeIndexingFactory.this.isInterrupted();
+			}
+		};
+	}
+
+	@Override
+	public void finish() {
+		// nothing to do
+	}
+
+	/**
+	 * {@link ElkAxiom}s that are indexed with the same multiplicity by one
+	 * worker; the changes of batches with smaller numbers are applied first
+	 */
+	static class Batch {
+
+		final int number;
+
+		/**
+		 * the multiplicity with which the axioms are inserted, negative for
+		 * deletions
+		 */
+		final int increment;
+
+		final ArrayList<ElkAxiom> axioms;
+
+		Batch(int number, int increment, int capacity) {
+			this.number = number;
+			this.increment = increment;
+			this.axioms = new ArrayList<ElkAxiom>(capacity);
+		}
+
+	}
+
+}
@@ -0,0 +1,233 @@
+package org.semanticweb.elk.reasoner.indexing.hierarchy;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.semanticweb.elk.owl.AbstractElkAxiomVisitor;
+import org.semanticweb.elk.owl.exceptions.ElkRuntimeException;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.reasoner.incremental.NonIncrementalChangeListener;
+import org.semanticweb.elk.reasoner.indexing.caching.ConcurrentOccurrenceCollector;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverter;
+import org.semanticweb.elk.reasoner.indexing.modifiable.ModifiableOntologyIndex;
+import org.semanticweb.elk.util.concurrent.computation.ComputationExecutor;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentComputationWithInputs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Indexes added and removed {@link ElkAxiom}s using several workers. The
+ * {@link ElkAxiom}s passed to the {@link ElkAxiomProcessor}s returned by
+ * {@link #getInsertionProcessor()} and {@link #getDeletionProcessor()} are
+ * collected in numbered batches, which are converted concurrently by a
+ * {@link ConcurrentComputationWithInputs}. Every batch contains only added or
+ * only removed {@link ElkAxiom}s, but additions and removals are processed by
+ * the same workers. The workers only read the {@link ModifiableOntologyIndex};
+ * the resulting changes are recorded in a
+ * {@link ConcurrentOccurrenceCollector} and applied to the index by the
+ * submitting thread after the workers are finished, which happens regularly
+ * to limit the number of recorded changes. The changes are applied in the
+ * order of the batches, so the resulting index is the same as if the
+ * {@link ElkAxiom}s were indexed one after another. The {@link ElkAxiom}s are
+ * guaranteed to be indexed only after {@link #finish()} returns.
+ * 
+ * This class is not thread safe: the {@link ElkAxiom}s should be submitted
+ * from one thread.
+ * 
+ * @author agent
+ */
+public class ConcurrentChangeIndexing {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(ConcurrentChangeIndexing.class);
+
+	/**
+	 * the number of {@link ElkAxiom}s submitted to workers at once
+	 */
+	private static final int BATCH_SIZE_ = 128;
+
+	/**
+	 * the number of {@link ElkAxiom}s after which the recorded changes are
+	 * applied to the index
+	 */
+	private static final int MAX_PENDING_AXIOMS_ = 1 << 16;
+
+	/**
+	 * records the changes produced by the workers
+	 */
+	private final ConcurrentOccurrenceCollector collector_;
+
+	/**
+	 * notifies the listener about {@link ElkAxiom}s that cannot be indexed
+	 * incrementally when they are submitted
+	 */
+	private final ElkAxiomConverter nonIncrementalChangeDetector_;
+
+	private final ComputationExecutor executor_;
+
+	private final int maxWorkers_;
+
+	/**
+	 * the computation indexing the {@link ElkAxiom}s or {@code null} if no
+	 * computation is running
+	 */
+	private ConcurrentComputationWithInputs<ChangeIndexingFactory.Batch, ChangeIndexingFactory> computation_ = null;
+
+	/**
+	 * the submitted {@link ElkAxiom}s that are not yet passed to the
+	 * computation or {@code null} if there are no such {@link ElkAxiom}s
+	 */
+	private ChangeIndexingFactory.Batch batch_ = null;
+
+	/**
+	 * the number of the next batch passed to the computation
+	 */
+	private int nextBatchNumber_ = 0;
+
+	/**
+	 * the number of {@link ElkAxiom}s submitted since the recorded changes
+	 * were last applied
+	 */
+	private int pendingAxiomCount_ = 0;
+
+	private final ElkAxiomProcessor insertionProcessor_ = new ElkAxiomProcessor() {
+		@Override
+		public void visit(ElkAxiom elkAxiom) {
+			submit(elkAxiom, 1);
+		}
+	};
+
+	private final ElkAxiomProcessor deletionProcessor_ = new ElkAxiomProcessor() {
+		@Override
+		public void visit(ElkAxiom elkAxiom) {
+			submit(elkAxiom, -1);
+		}
+	};
+
+	/**
+	 * @param index
+	 *            the {@link ModifiableOntologyIndex} to which the changes are
+	 *            applied
+	 * @param listener
+	 *            the {@link NonIncrementalChangeListener} notified about
+	 *            {@link ElkAxiom}s that cannot be indexed incrementally; it is
+	 *            called from the thread submitting such {@link ElkAxiom}s
+	 * @param executor
+	 *            the {@link ComputationExecutor} used to run the workers
+	 * @param maxWorkers
+	 *            the maximal number of workers
+	 */
+	public ConcurrentChangeIndexing(ModifiableOntologyIndex index,
+			NonIncrementalChangeListener<ElkAxiom> listener,
+			ComputationExecutor executor, int maxWorkers) {
+		this.collector_ = new ConcurrentOccurrenceCollector(index, maxWorkers);
+		this.nonIncrementalChangeDetector_ = new NonIncrementalElkAxiomVisitor(
+				new NoOpElkAxiomConverter(), listener);
+		this.executor_ = executor;
+		this.maxWorkers_ = maxWorkers;
+	}
+
+	/**
+	 * @return the {@link ElkAxiomProcessor} that schedules the given
+	 *         {@link ElkAxiom}s for insertion
+	 */
+	public ElkAxiomProcessor getInsertionProcessor() {
+		return insertionProcessor_;
+	}
+
+	/**
+	 * @return the {@link ElkAxiomProcessor} that schedules the given
+	 *         {@link ElkAxiom}s for deletion
+	 */
+	public ElkAxiomProcessor getDeletionProcessor() {
+		return deletionProcessor_;
+	}
+
+	/**
+	 * Indexes all submitted {@link ElkAxiom}s and stops the workers
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the workers
+	 */
+	public void finish() throws InterruptedException {
+		if (computation_ == null)
+			return;
+		flushBatch();
+		computation_.finish();
+		computation_ = null;
+		collector_.apply();
+		LOGGER_.trace("{} axioms in {} batches indexed", pendingAxiomCount_,
+				nextBatchNumber_);
+		pendingAxiomCount_ = 0;
+		nextBatchNumber_ = 0;
+	}
+
+	private void submit(ElkAxiom axiom, int increment) {
+		try {
+			if (computation_ == null)
+				start();
+			axiom.accept(nonIncrementalChangeDetector_);
+			if (batch_ != null && batch_.increment != increment)
+				flushBatch();
+			if (batch_ == null)
+				batch_ = new ChangeIndexingFactory.Batch(nextBatchNumber_++,
+						increment, BATCH_SIZE_);
+			batch_.axioms.add(axiom);
+			if (batch_.axioms.size() == BATCH_SIZE_)
+				flushBatch();
+			if (++pendingAxiomCount_ == MAX_PENDING_AXIOMS_)
+				finish();
+		} catch (InterruptedException e) {
+			// restore interrupt status
+			Thread.currentThread().interrupt();
+			throw new ElkRuntimeException(
+					"Indexing of changes interrupted externally!");
+		}
+	}
+
+	private void start() {
+		computation_ = new ConcurrentComputationWithInputs<ChangeIndexingFactory.Batch, ChangeIndexingFactory>(
+				new ChangeIndexingFactory(collector_), executor_, maxWorkers_);
+		if (!computation_.start()) {
+			computation_ = null;
+			String message = "Could not start workers required for indexing!";
+			LOGGER_.error(message);
+			throw new ElkRuntimeException(message);
+		}
+		LOGGER_.trace("indexing started");
+	}
+
+	private void flushBatch() throws InterruptedException {
+		if (batch_ == null)
+			return;
+		computation_.submit(batch_);
+		batch_ = null;
+	}
+
+	private static class NoOpElkAxiomConverter extends
+			AbstractElkAxiomVisitor<Void> implements ElkAxiomConverter {
+		// all methods do nothing
+	}
+
+}
@@ -107,6 +107,16 @@ public class DifferentialIndex extends DirectIndex {
 		init();
 	}
 
+	/**
+	 * @param hashConsing
+	 *            whether complex class expressions are stored in a hash
+	 *            consing table, see {@link DirectIndex#DirectIndex(boolean)}
+	 */
+	public DifferentialIndex(boolean hashConsing) {
+		super(hashConsing);
+		init();
+	}
+
 	/**
 	 * Initializes all datastructures
 	 */
@@ -59,6 +59,17 @@ public class DirectIndex extends ModifiableIndexedObjectCacheImpl implements
 			positiveOwlNothingOccurrenceNo_ = 0;
 
 	public DirectIndex() {
+		this(false);
+	}
+
+	/**
+	 * @param hashConsing
+	 *            whether complex class expressions are stored in a hash
+	 *            consing table, see
+	 *            {@link ModifiableIndexedObjectCacheImpl#ModifiableIndexedObjectCacheImpl(int, boolean)}
+	 */
+	public DirectIndex(boolean hashConsing) {
+		super(1024, hashConsing);
 		this.reflexiveObjectProperties_ = new ArrayHashSet<IndexedObjectProperty>(
 				64);
 
@@ -23,6 +23,7 @@
 package org.semanticweb.elk.reasoner.indexing.hierarchy;
 
 import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
+import org.semanticweb.elk.reasoner.indexing.caching.IndexedObjectCache;
 import org.semanticweb.elk.reasoner.indexing.visitors.IndexedClassExpressionVisitor;
 import org.semanticweb.elk.reasoner.saturation.IndexedObjectWithContext;
 import org.semanticweb.elk.reasoner.saturation.rules.LinkRule;
@@ -54,6 +55,18 @@ public interface IndexedClassExpression extends IndexedObjectWithContext {
 
 	public String printOccurrenceNumbers();
 
+	/**
+	 * @return the identifier of this {@link IndexedClassExpression} assigned
+	 *         when it was first added to the index, or {@code -1} if it has
+	 *         never been added or its identifier was released after the
+	 *         removal from the index; the identifiers of
+	 *         {@link IndexedClassExpression}s in the same index are distinct
+	 *         small non-negative integers
+	 * 
+	 * @see IndexedObjectCache#getClassExpression(int)
+	 */
+	public int getId();
+
 	public <O> O accept(IndexedClassExpressionVisitor<O> visitor);
 
 }
@@ -68,6 +68,11 @@ abstract class CachedIndexedClassExpressionImpl<T extends CachedIndexedClassExpr
 	 */
 	private volatile ExtendedContext context_ = null;
 
+	/**
+	 * the identifier assigned by the cache, or {@code -1} if not assigned
+	 */
+	private int id_ = -1;
+
 	CachedIndexedClassExpressionImpl(int structuralHash) {
 		super(structuralHash);
 	}
@@ -111,6 +116,16 @@ abstract class CachedIndexedClassExpressionImpl<T extends CachedIndexedClassExpr
 		};
 	}
 
+	@Override
+	public final int getId() {
+		return id_;
+	}
+
+	@Override
+	public final void setId(int id) {
+		this.id_ = id;
+	}
+
 	@Override
 	public final ExtendedContext getContext() {
 		return this.context_;
@@ -0,0 +1,520 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.modularity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.elk.owl.AbstractElkAxiomVisitor;
+import org.semanticweb.elk.owl.interfaces.ElkAsymmetricObjectPropertyAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkCardinalityRestriction;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
+import org.semanticweb.elk.owl.interfaces.ElkDataAllValuesFrom;
+import org.semanticweb.elk.owl.interfaces.ElkDataExactCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataExactCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataHasValue;
+import org.semanticweb.elk.owl.interfaces.ElkDataMaxCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataMaxCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataMinCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataMinCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataPropertyDomainAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkDataPropertyExpression;
+import org.semanticweb.elk.owl.interfaces.ElkDataPropertyRangeAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkDataSomeValuesFrom;
+import org.semanticweb.elk.owl.interfaces.ElkDeclarationAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkDisjointClassesAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkDisjointObjectPropertiesAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkDisjointUnionAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkEquivalentClassesAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkEquivalentObjectPropertiesAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkFunctionalDataPropertyAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkFunctionalObjectPropertyAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkInverseFunctionalObjectPropertyAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkIrreflexiveObjectPropertyAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectAllValuesFrom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectComplementOf;
+import org.semanticweb.elk.owl.interfaces.ElkObjectExactCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectExactCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectHasSelf;
+import org.semanticweb.elk.owl.interfaces.ElkObjectHasValue;
+import org.semanticweb.elk.owl.interfaces.ElkObjectIntersectionOf;
+import org.semanticweb.elk.owl.interfaces.ElkObjectMaxCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectMaxCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectMinCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectMinCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectOneOf;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyChain;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyDomainAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyExpression;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyRangeAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectSomeValuesFrom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectUnionOf;
+import org.semanticweb.elk.owl.interfaces.ElkPropertyAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkPropertyRestrictionQualified;
+import org.semanticweb.elk.owl.interfaces.ElkSubClassOfAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkSubObjectPropertyExpression;
+import org.semanticweb.elk.owl.interfaces.ElkSubObjectPropertyOfAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkSymmetricObjectPropertyAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkTransitiveObjectPropertyAxiom;
+import org.semanticweb.elk.owl.iris.ElkIri;
+import org.semanticweb.elk.owl.predefined.PredefinedElkIris;
+import org.semanticweb.elk.owl.visitors.ElkClassExpressionVisitor;
+
+/**
+ * Checks syntactic {@code ⊥}-locality of {@link ElkAxiom}s with respect to a
+ * signature: an axiom is {@code ⊥}-local if it becomes a tautology after
+ * replacing all classes and properties outside of the signature by
+ * {@code owl:Nothing} and {@code owl:bottomObjectProperty} respectively. Such
+ * axioms cannot affect the entailments over the signature and need not be
+ * loaded into the reasoner.
+ * 
+ * When visiting an {@link ElkAxiom}, the checker returns {@code true} if the
+ * axiom is local; in this case {@link #getWatched()} contains the IRIs of the
+ * symbols whose addition to the signature can make the axiom non-local. When
+ * visiting an {@link ElkClassExpression}, the checker returns {@code true} if
+ * the expression is equivalent to {@code owl:Nothing} after the replacement.
+ * 
+ * The check is incomplete: some axioms that are tautologies after the
+ * replacement are reported as non-local, which can only make the extracted
+ * module larger. In particular, assertions are never local.
+ * 
+ * @author agent
+ */
+class BottomLocalityChecker extends AbstractElkAxiomVisitor<Boolean> implements
+		ElkClassExpressionVisitor<Boolean> {
+
+	/**
+	 * the symbols that are not replaced
+	 */
+	private final Set<ElkIri> signature_;
+
+	/**
+	 * the symbols responsible for the locality of the last visited object
+	 */
+	private final List<ElkIri> watched_ = new ArrayList<ElkIri>();
+
+	private final SymbolIriVisitor iris_ = new SymbolIriVisitor();
+
+	BottomLocalityChecker(Set<ElkIri> signature) {
+		this.signature_ = signature;
+	}
+
+	/**
+	 * @return the IRIs of the symbols not in the signature which are
+	 *         responsible for the locality of the last checked axiom; the
+	 *         result can contain duplicates and is cleared when the next axiom
+	 *         is checked
+	 */
+	List<ElkIri> getWatched() {
+		return watched_;
+	}
+
+	/**
+	 * Checks locality of the given {@link ElkAxiom}
+	 * 
+	 * @param axiom
+	 * @return {@code true} if the axiom is {@code ⊥}-local
+	 */
+	boolean isLocal(ElkAxiom axiom) {
+		watched_.clear();
+		return axiom.accept(this);
+	}
+
+	private void reset(int mark) {
+		watched_.subList(mark, watched_.size()).clear();
+	}
+
+	private boolean isMissing(ElkIri iri) {
+		if (signature_.contains(iri))
+			return false;
+		// else
+		watched_.add(iri);
+		return true;
+	}
+
+	private boolean isMissing(ElkObjectPropertyExpression property) {
+		return isMissing(property.accept(iris_));
+	}
+
+	private boolean isMissing(ElkDataPropertyExpression property) {
+		return isMissing(property.accept(iris_));
+	}
+
+	/**
+	 * @return {@code true} if at least one of the given class expressions is
+	 *         equivalent to {@code owl:Nothing}
+	 */
+	private boolean someBottom(Iterable<? extends ElkClassExpression> expressions) {
+		int mark = watched_.size();
+		for (ElkClassExpression expression : expressions) {
+			if (expression.accept(this))
+				return true;
+			reset(mark);
+		}
+		return false;
+	}
+
+	/**
+	 * @return {@code true} if all of the given class expressions are
+	 *         equivalent to {@code owl:Nothing}
+	 */
+	private boolean allBottom(Iterable<? extends ElkClassExpression> expressions) {
+		int mark = watched_.size();
+		for (ElkClassExpression expression : expressions) {
+			if (!expression.accept(this)) {
+				reset(mark);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isBottom(
+			ElkPropertyRestrictionQualified<ElkObjectPropertyExpression, ElkClassExpression> restriction) {
+		return isMissing(restriction.getProperty())
+				|| restriction.getFiller().accept(this);
+	}
+
+	private boolean isBottomUnqualified(
+			ElkCardinalityRestriction<ElkObjectPropertyExpression> restriction) {
+		return restriction.getCardinality() > 0
+				&& isMissing(restriction.getProperty());
+	}
+
+	private <R extends ElkCardinalityRestriction<ElkObjectPropertyExpression> & ElkPropertyRestrictionQualified<ElkObjectPropertyExpression, ElkClassExpression>> boolean isBottomQualified(
+			R restriction) {
+		return restriction.getCardinality() > 0 && isBottom(restriction);
+	}
+
+	private boolean isBottomData(
+			ElkCardinalityRestriction<ElkDataPropertyExpression> restriction) {
+		return restriction.getCardinality() > 0
+				&& isMissing(restriction.getProperty());
+	}
+
+	private boolean isLocalObjectPropertyAxiom(
+			ElkPropertyAxiom<ElkObjectPropertyExpression> axiom) {
+		return isMissing(axiom.getProperty());
+	}
+
+	private boolean isLocalDataPropertyAxiom(
+			ElkPropertyAxiom<ElkDataPropertyExpression> axiom) {
+		return isMissing(axiom.getProperty());
+	}
+
+	/*-------------------- axioms --------------------*/
+
+	@Override
+	protected Boolean defaultLogicalVisit(ElkAxiom axiom) {
+		return false;
+	}
+
+	@Override
+	protected Boolean defaultNonLogicalVisit(ElkAxiom axiom) {
+		// annotations are never relevant for reasoning
+		return true;
+	}
+
+	@Override
+	public Boolean visit(ElkDeclarationAxiom axiom) {
+		// declarations are included once the entity is in the signature
+		ElkIri iri = axiom.getEntity().accept(iris_);
+		return iri == null || isMissing(iri);
+	}
+
+	@Override
+	public Boolean visit(ElkSubClassOfAxiom axiom) {
+		return axiom.getSubClassExpression().accept(this);
+	}
+
+	@Override
+	public Boolean visit(ElkEquivalentClassesAxiom axiom) {
+		return allBottom(axiom.getClassExpressions());
+	}
+
+	@Override
+	public Boolean visit(ElkDisjointClassesAxiom axiom) {
+		boolean seenNonBottom = false;
+		for (ElkClassExpression expression : axiom.getClassExpressions()) {
+			int mark = watched_.size();
+			if (expression.accept(this))
+				continue;
+			// else
+			reset(mark);
+			if (seenNonBottom)
+				return false;
+			seenNonBottom = true;
+		}
+		return true;
+	}
+
+	@Override
+	public Boolean visit(ElkDisjointUnionAxiom axiom) {
+		return axiom.getDefinedClass().accept(this)
+				&& allBottom(axiom.getClassExpressions());
+	}
+
+	@Override
+	public Boolean visit(ElkObjectPropertyDomainAxiom axiom) {
+		return isLocalObjectPropertyAxiom(axiom);
+	}
+
+	@Override
+	public Boolean visit(ElkObjectPropertyRangeAxiom axiom) {
+		return isLocalObjectPropertyAxiom(axiom);
+	}
+
+	@Override
+	public Boolean visit(ElkFunctionalObjectPropertyAxiom axiom) {
+		return isLocalObjectPropertyAxiom(axiom);
+	}
+
+	@Override
+	public Boolean visit(ElkInverseFunctionalObjectPropertyAxiom axiom) {
+		return isLocalObjectPropertyAxiom(axiom);
+	}
+
+	@Override
+	public Boolean visit(ElkSymmetricObjectPropertyAxiom axiom) {
+		return isLocalObjectPropertyAxiom(axiom);
+	}
+
+	@Override
+	public Boolean visit(ElkAsymmetricObjectPropertyAxiom axiom) {
+		return isLocalObjectPropertyAxiom(axiom);
+	}
+
+	@Override
+	public Boolean visit(ElkIrreflexiveObjectPropertyAxiom axiom) {
+		return isLocalObjectPropertyAxiom(axiom);
+	}
+
+	@Override
+	public Boolean visit(ElkTransitiveObjectPropertyAxiom axiom) {
+		return isLocalObjectPropertyAxiom(axiom);
+	}
+
+	@Override
+	public Boolean visit(ElkSubObjectPropertyOfAxiom axiom) {
+		ElkSubObjectPropertyExpression sub = axiom
+				.getSubObjectPropertyExpression();
+		if (sub instanceof ElkObjectPropertyChain) {
+			for (ElkObjectPropertyExpression member : ((ElkObjectPropertyChain) sub)
+					.getObjectPropertyExpressions()) {
+				if (isMissing(member))
+					return true;
+			}
+			return false;
+		}
+		// else
+		return isMissing((ElkObjectPropertyExpression) sub);
+	}
+
+	@Override
+	public Boolean visit(ElkEquivalentObjectPropertiesAxiom axiom) {
+		for (ElkObjectPropertyExpression property : axiom
+				.getObjectPropertyExpressions()) {
+			if (!isMissing(property))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public Boolean visit(ElkDisjointObjectPropertiesAxiom axiom) {
+		boolean seenPresent = false;
+		for (ElkObjectPropertyExpression property : axiom
+				.getObjectPropertyExpressions()) {
+			if (isMissing(property))
+				continue;
+			// else
+			if (seenPresent)
+				return false;
+			seenPresent = true;
+		}
+		return true;
+	}
+
+	@Override
+	public Boolean visit(ElkDataPropertyDomainAxiom axiom) {
+		return isLocalDataPropertyAxiom(axiom);
+	}
+
+	@Override
+	public Boolean visit(ElkDataPropertyRangeAxiom axiom) {
+		return isLocalDataPropertyAxiom(axiom);
+	}
+
+	@Override
+	public Boolean visit(ElkFunctionalDataPropertyAxiom axiom) {
+		return isLocalDataPropertyAxiom(axiom);
+	}
+
+	/*-------------------- class expressions --------------------*/
+
+	@Override
+	public Boolean visit(ElkClass elkClass) {
+		ElkIri iri = elkClass.getIri();
+		if (iri.equals(PredefinedElkIris.OWL_NOTHING))
+			return true;
+		if (iri.equals(PredefinedElkIris.OWL_THING))
+			return false;
+		// else
+		return isMissing(iri);
+	}
+
+	@Override
+	public Boolean visit(ElkObjectComplementOf elkObjectComplementOf) {
+		return false;
+	}
+
+	@Override
+	public Boolean visit(ElkObjectIntersectionOf elkObjectIntersectionOf) {
+		return someBottom(elkObjectIntersectionOf.getClassExpressions());
+	}
+
+	@Override
+	public Boolean visit(ElkObjectUnionOf elkObjectUnionOf) {
+		return allBottom(elkObjectUnionOf.getClassExpressions());
+	}
+
+	@Override
+	public Boolean visit(ElkObjectOneOf elkObjectOneOf) {
+		return elkObjectOneOf.getIndividuals().isEmpty();
+	}
+
+	@Override
+	public Boolean visit(ElkObjectSomeValuesFrom elkObjectSomeValuesFrom) {
+		return isBottom(elkObjectSomeValuesFrom);
+	}
+
+	@Override
+	public Boolean visit(ElkObjectAllValuesFrom elkObjectAllValuesFrom) {
+		return false;
+	}
+
+	@Override
+	public Boolean visit(ElkObjectHasValue elkObjectHasValue) {
+		return isMissing(elkObjectHasValue.getProperty());
+	}
+
+	@Override
+	public Boolean visit(ElkObjectHasSelf elkObjectHasSelf) {
+		return isMissing(elkObjectHasSelf.getProperty());
+	}
+
+	@Override
+	public Boolean visit(
+			ElkObjectExactCardinalityQualified elkObjectExactCardinalityQualified) {
+		return isBottomQualified(elkObjectExactCardinalityQualified);
+	}
+
+	@Override
+	public Boolean visit(
+			ElkObjectExactCardinalityUnqualified elkObjectExactCardinalityUnqualified) {
+		return isBottomUnqualified(elkObjectExactCardinalityUnqualified);
+	}
+
+	@Override
+	public Boolean visit(
+			ElkObjectMaxCardinalityQualified elkObjectMaxCardinalityQualified) {
+		return false;
+	}
+
+	@Override
+	public Boolean visit(
+			ElkObjectMaxCardinalityUnqualified elkObjectMaxCardinalityUnqualified) {
+		return false;
+	}
+
+	@Override
+	public Boolean visit(
+			ElkObjectMinCardinalityQualified elkObjectMinCardinalityQualified) {
+		return isBottomQualified(elkObjectMinCardinalityQualified);
+	}
+
+	@Override
+	public Boolean visit(
+			ElkObjectMinCardinalityUnqualified elkObjectMinCardinalityUnqualified) {
+		return isBottomUnqualified(elkObjectMinCardinalityUnqualified);
+	}
+
+	@Override
+	public Boolean visit(ElkDataHasValue elkDataHasValue) {
+		return isMissing(elkDataHasValue.getProperty());
+	}
+
+	@Override
+	public Boolean visit(ElkDataSomeValuesFrom elkDataSomeValuesFrom) {
+		for (ElkDataPropertyExpression property : elkDataSomeValuesFrom
+				.getDataPropertyExpressions()) {
+			if (isMissing(property))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public Boolean visit(ElkDataAllValuesFrom elkDataAllValuesFrom) {
+		return false;
+	}
+
+	@Override
+	public Boolean visit(
+			ElkDataExactCardinalityQualified elkDataExactCardinalityQualified) {
+		return isBottomData(elkDataExactCardinalityQualified);
+	}
+
+	@Override
+	public Boolean visit(
+			ElkDataExactCardinalityUnqualified elkDataExactCardinalityUnqualified) {
+		return isBottomData(elkDataExactCardinalityUnqualified);
+	}
+
+	@Override
+	public Boolean visit(
+			ElkDataMaxCardinalityQualified elkDataMaxCardinalityQualified) {
+		return false;
+	}
+
+	@Override
+	public Boolean visit(
+			ElkDataMaxCardinalityUnqualified elkDataMaxCardinalityUnqualified) {
+		return false;
+	}
+
+	@Override
+	public Boolean visit(
+			ElkDataMinCardinalityQualified elkDataMinCardinalityQualified) {
+		return isBottomData(elkDataMinCardinalityQualified);
+	}
+
+	@Override
+	public Boolean visit(
+			ElkDataMinCardinalityUnqualified elkDataMinCardinalityUnqualified) {
+		return isBottomData(elkDataMinCardinalityUnqualified);
+	}
+
+}
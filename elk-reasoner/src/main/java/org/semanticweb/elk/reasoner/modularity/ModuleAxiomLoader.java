@@ -0,0 +1,121 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.modularity;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.semanticweb.elk.loading.AxiomLoader;
+import org.semanticweb.elk.loading.ElkLoadingException;
+import org.semanticweb.elk.owl.exceptions.ElkRuntimeException;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.util.concurrent.computation.SimpleInterrupter;
+
+/**
+ * An {@link AxiomLoader} that loads only the axioms from the {@link ModuleExtractor
+ * module} of the axioms provided by another {@link AxiomLoader} for a given
+ * signature. The axioms of the other loader are loaded first, and only when
+ * this is finished, the axioms in the module are inserted. The other loader
+ * should only add axioms.
+ * 
+ * @author agent
+ */
+public class ModuleAxiomLoader extends SimpleInterrupter implements
+		AxiomLoader {
+
+	private final AxiomLoader baseLoader_;
+
+	private final ModuleExtractor extractor_;
+
+	/**
+	 * the number of axioms in the module that have been inserted
+	 */
+	private int inserted_ = 0;
+
+	private boolean finished_ = false;
+
+	/**
+	 * @param baseLoader
+	 *            the {@link AxiomLoader} from which the module is extracted
+	 * @param signature
+	 *            the {@link ElkEntity}s for which the entailments should be
+	 *            preserved
+	 */
+	public ModuleAxiomLoader(AxiomLoader baseLoader,
+			Collection<? extends ElkEntity> signature) {
+		this.baseLoader_ = baseLoader;
+		this.extractor_ = new ModuleExtractor(signature);
+	}
+
+	@Override
+	public void load(ElkAxiomProcessor axiomInserter,
+			ElkAxiomProcessor axiomDeleter) throws ElkLoadingException {
+		if (finished_)
+			return;
+		if (!baseLoader_.isLoadingFinished()) {
+			baseLoader_.load(extractor_, new ElkAxiomProcessor() {
+				@Override
+				public void visit(ElkAxiom elkAxiom) {
+					throw new ElkRuntimeException(
+							"Cannot extract a module: axiom removals are not supported");
+				}
+			});
+			if (!baseLoader_.isLoadingFinished())
+				// interrupted
+				return;
+		}
+		List<ElkAxiom> module = extractor_.getModule();
+		while (inserted_ < module.size()) {
+			if (isInterrupted())
+				return;
+			axiomInserter.visit(module.get(inserted_++));
+		}
+		finished_ = true;
+	}
+
+	@Override
+	public boolean isLoadingFinished() {
+		return finished_;
+	}
+
+	@Override
+	public void dispose() {
+		baseLoader_.dispose();
+	}
+
+	@Override
+	public void setInterrupt(boolean flag) {
+		super.setInterrupt(flag);
+		baseLoader_.setInterrupt(flag);
+	}
+
+	/**
+	 * @return the {@link ModuleExtractor} used by this loader; the module is
+	 *         complete when the loading is finished
+	 */
+	public ModuleExtractor getModuleExtractor() {
+		return extractor_;
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.modularity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.owl.iris.ElkIri;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+
+/**
+ * Extracts a {@code ⊥}-locality based module of the processed
+ * {@link ElkAxiom}s for a given signature. The module contains all axioms that
+ * are not {@code ⊥}-local with respect to the signature extended with the
+ * symbols of the axioms in the module; it preserves all entailments over the
+ * original signature, in particular, all subsumptions between classes of the
+ * signature. Typically, the module is much smaller than the ontology when the
+ * signature is small, so the reasoner can compute these entailments by loading
+ * only the axioms in the module.
+ * 
+ * The module is computed incrementally as the axioms are processed: every
+ * local axiom is associated with the symbols responsible for its locality, and
+ * is checked again only when one of these symbols is added to the signature.
+ * 
+ * @author agent
+ */
+public class ModuleExtractor implements ElkAxiomProcessor {
+
+	/**
+	 * the current signature: the original signature and the symbols of the
+	 * axioms in the module
+	 */
+	private final Set<ElkIri> signature_ = new HashSet<ElkIri>();
+
+	/**
+	 * the axioms in the module in the order of their inclusion
+	 */
+	private final List<ElkAxiom> module_ = new ArrayList<ElkAxiom>();
+
+	/**
+	 * the same axioms as in {@link #module_} for fast membership checks
+	 */
+	private final Set<ElkAxiom> included_ = Collections
+			.newSetFromMap(new IdentityHashMap<ElkAxiom, Boolean>());
+
+	/**
+	 * the local axioms indexed by the symbols responsible for their locality
+	 */
+	private final Map<ElkIri, List<ElkAxiom>> watchedAxioms_ = new HashMap<ElkIri, List<ElkAxiom>>();
+
+	/**
+	 * the symbols added to the signature for which the watched axioms have not
+	 * been checked yet
+	 */
+	private final Queue<ElkIri> toDo_ = new ArrayDeque<ElkIri>();
+
+	/**
+	 * the symbols of the last axiom included in the module
+	 */
+	private final List<ElkIri> axiomSymbols_ = new ArrayList<ElkIri>();
+
+	private final BottomLocalityChecker localityChecker_;
+
+	private final SignatureCollector signatureCollector_;
+
+	/**
+	 * Creates a new {@link ModuleExtractor} for the given signature
+	 * 
+	 * @param signature
+	 *            the {@link ElkEntity}s for which the entailments should be
+	 *            preserved by the module
+	 */
+	public ModuleExtractor(Collection<? extends ElkEntity> signature) {
+		SymbolIriVisitor iris = new SymbolIriVisitor();
+		for (ElkEntity entity : signature)
+			signature_.add(entity.accept(iris));
+		this.localityChecker_ = new BottomLocalityChecker(signature_);
+		this.signatureCollector_ = new SignatureCollector(axiomSymbols_);
+	}
+
+	@Override
+	public void visit(ElkAxiom elkAxiom) {
+		process(elkAxiom);
+		for (;;) {
+			ElkIri symbol = toDo_.poll();
+			if (symbol == null)
+				return;
+			List<ElkAxiom> watched = watchedAxioms_.remove(symbol);
+			if (watched == null)
+				continue;
+			for (ElkAxiom axiom : watched)
+				process(axiom);
+		}
+	}
+
+	private void process(ElkAxiom axiom) {
+		if (included_.contains(axiom))
+			return;
+		if (localityChecker_.isLocal(axiom)) {
+			for (ElkIri symbol : localityChecker_.getWatched()) {
+				List<ElkAxiom> watched = watchedAxioms_.get(symbol);
+				if (watched == null) {
+					watched = new ArrayList<ElkAxiom>(2);
+					watchedAxioms_.put(symbol, watched);
+				}
+				watched.add(axiom);
+			}
+			return;
+		}
+		// else the axiom belongs to the module
+		included_.add(axiom);
+		module_.add(axiom);
+		axiom.accept(signatureCollector_);
+		for (ElkIri symbol : axiomSymbols_) {
+			if (signature_.add(symbol))
+				toDo_.add(symbol);
+		}
+		axiomSymbols_.clear();
+	}
+
+	/**
+	 * @return the axioms of the module extracted from the axioms processed so
+	 *         far, in the order in which they were included
+	 */
+	public List<ElkAxiom> getModule() {
+		return Collections.unmodifiableList(module_);
+	}
+
+	/**
+	 * @return the IRIs of the symbols in the signature of the module together
+	 *         with the symbols in the original signature
+	 */
+	public Set<ElkIri> getSignature() {
+		return Collections.unmodifiableSet(signature_);
+	}
+
+}
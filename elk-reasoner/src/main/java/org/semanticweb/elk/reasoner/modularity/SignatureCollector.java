@@ -0,0 +1,392 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.modularity;
+
+import java.util.Collection;
+
+import org.semanticweb.elk.owl.AbstractElkAxiomVisitor;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkClassAssertionAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
+import org.semanticweb.elk.owl.interfaces.ElkDataAllValuesFrom;
+import org.semanticweb.elk.owl.interfaces.ElkDataExactCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataExactCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataHasValue;
+import org.semanticweb.elk.owl.interfaces.ElkDataMaxCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataMaxCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataMinCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataMinCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataPropertyExpression;
+import org.semanticweb.elk.owl.interfaces.ElkDataPropertyListRestrictionQualified;
+import org.semanticweb.elk.owl.interfaces.ElkDataSomeValuesFrom;
+import org.semanticweb.elk.owl.interfaces.ElkDeclarationAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkDifferentIndividualsAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkDisjointClassesAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkDisjointUnionAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkEquivalentClassesAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkEquivalentObjectPropertiesAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObjectAllValuesFrom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectComplementOf;
+import org.semanticweb.elk.owl.interfaces.ElkObjectExactCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectExactCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectHasSelf;
+import org.semanticweb.elk.owl.interfaces.ElkObjectHasValue;
+import org.semanticweb.elk.owl.interfaces.ElkObjectIntersectionOf;
+import org.semanticweb.elk.owl.interfaces.ElkObjectMaxCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectMaxCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectMinCardinalityQualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectMinCardinalityUnqualified;
+import org.semanticweb.elk.owl.interfaces.ElkObjectOneOf;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyAssertionAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyChain;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyDomainAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyExpression;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyRangeAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectSomeValuesFrom;
+import org.semanticweb.elk.owl.interfaces.ElkObjectUnionOf;
+import org.semanticweb.elk.owl.interfaces.ElkPropertyRestriction;
+import org.semanticweb.elk.owl.interfaces.ElkPropertyRestrictionQualified;
+import org.semanticweb.elk.owl.interfaces.ElkReflexiveObjectPropertyAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkSameIndividualAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkSubClassOfAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkSubObjectPropertyExpression;
+import org.semanticweb.elk.owl.interfaces.ElkSubObjectPropertyOfAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkTransitiveObjectPropertyAxiom;
+import org.semanticweb.elk.owl.iris.ElkIri;
+import org.semanticweb.elk.owl.visitors.ElkClassExpressionVisitor;
+
+/**
+ * Collects the {@link ElkIri}s of the symbols occurring in the visited
+ * {@link ElkAxiom}s and {@link ElkClassExpression}s. Only the axioms that can
+ * be used by the reasoner are taken into account; the symbols of other axioms
+ * are ignored since they cannot affect the reasoning results.
+ * 
+ * @author agent
+ */
+class SignatureCollector extends AbstractElkAxiomVisitor<Void> implements
+		ElkClassExpressionVisitor<Void> {
+
+	/**
+	 * the {@link ElkIri}s of the collected symbols, possibly with duplicates
+	 */
+	private final Collection<ElkIri> output_;
+
+	private final SymbolIriVisitor iris_ = new SymbolIriVisitor();
+
+	SignatureCollector(Collection<ElkIri> output) {
+		this.output_ = output;
+	}
+
+	private void add(ElkIri iri) {
+		if (iri != null)
+			output_.add(iri);
+	}
+
+	private Void collect(ElkObjectPropertyExpression property) {
+		add(property.accept(iris_));
+		return null;
+	}
+
+	private Void collect(ElkSubObjectPropertyExpression property) {
+		if (property instanceof ElkObjectPropertyChain) {
+			for (ElkObjectPropertyExpression member : ((ElkObjectPropertyChain) property)
+					.getObjectPropertyExpressions())
+				collect(member);
+			return null;
+		}
+		// else
+		return collect((ElkObjectPropertyExpression) property);
+	}
+
+	private Void collect(ElkDataPropertyExpression property) {
+		add(property.accept(iris_));
+		return null;
+	}
+
+	private Void collect(ElkIndividual individual) {
+		add(individual.accept(iris_));
+		return null;
+	}
+
+	private Void collect(Iterable<? extends ElkClassExpression> expressions) {
+		for (ElkClassExpression expression : expressions)
+			expression.accept(this);
+		return null;
+	}
+
+	private Void collectObjectRestriction(
+			ElkPropertyRestriction<ElkObjectPropertyExpression> restriction) {
+		return collect(restriction.getProperty());
+	}
+
+	private Void collectObjectRestriction(
+			ElkPropertyRestrictionQualified<ElkObjectPropertyExpression, ElkClassExpression> restriction) {
+		collect(restriction.getProperty());
+		return restriction.getFiller().accept(this);
+	}
+
+	private Void collectDataRestriction(
+			ElkPropertyRestriction<ElkDataPropertyExpression> restriction) {
+		return collect(restriction.getProperty());
+	}
+
+	private Void collectDataRestriction(
+			ElkDataPropertyListRestrictionQualified restriction) {
+		for (ElkDataPropertyExpression property : restriction
+				.getDataPropertyExpressions())
+			collect(property);
+		return null;
+	}
+
+	/*-------------------- axioms --------------------*/
+
+	@Override
+	public Void visit(ElkSubClassOfAxiom axiom) {
+		axiom.getSubClassExpression().accept(this);
+		return axiom.getSuperClassExpression().accept(this);
+	}
+
+	@Override
+	public Void visit(ElkEquivalentClassesAxiom axiom) {
+		return collect(axiom.getClassExpressions());
+	}
+
+	@Override
+	public Void visit(ElkDisjointClassesAxiom axiom) {
+		return collect(axiom.getClassExpressions());
+	}
+
+	@Override
+	public Void visit(ElkDisjointUnionAxiom axiom) {
+		axiom.getDefinedClass().accept(this);
+		return collect(axiom.getClassExpressions());
+	}
+
+	@Override
+	public Void visit(ElkClassAssertionAxiom axiom) {
+		collect(axiom.getIndividual());
+		return axiom.getClassExpression().accept(this);
+	}
+
+	@Override
+	public Void visit(ElkObjectPropertyAssertionAxiom axiom) {
+		collect(axiom.getSubject());
+		collect(axiom.getProperty());
+		return collect(axiom.getObject());
+	}
+
+	@Override
+	public Void visit(ElkSameIndividualAxiom axiom) {
+		for (ElkIndividual individual : axiom.getIndividuals())
+			collect(individual);
+		return null;
+	}
+
+	@Override
+	public Void visit(ElkDifferentIndividualsAxiom axiom) {
+		for (ElkIndividual individual : axiom.getIndividuals())
+			collect(individual);
+		return null;
+	}
+
+	@Override
+	public Void visit(ElkObjectPropertyDomainAxiom axiom) {
+		collect(axiom.getProperty());
+		return axiom.getDomain().accept(this);
+	}
+
+	@Override
+	public Void visit(ElkObjectPropertyRangeAxiom axiom) {
+		collect(axiom.getProperty());
+		return axiom.getRange().accept(this);
+	}
+
+	@Override
+	public Void visit(ElkSubObjectPropertyOfAxiom axiom) {
+		collect(axiom.getSubObjectPropertyExpression());
+		return collect(axiom.getSuperObjectPropertyExpression());
+	}
+
+	@Override
+	public Void visit(ElkEquivalentObjectPropertiesAxiom axiom) {
+		for (ElkObjectPropertyExpression property : axiom
+				.getObjectPropertyExpressions())
+			collect(property);
+		return null;
+	}
+
+	@Override
+	public Void visit(ElkTransitiveObjectPropertyAxiom axiom) {
+		return collect(axiom.getProperty());
+	}
+
+	@Override
+	public Void visit(ElkReflexiveObjectPropertyAxiom axiom) {
+		return collect(axiom.getProperty());
+	}
+
+	@Override
+	public Void visit(ElkDeclarationAxiom axiom) {
+		add(axiom.getEntity().accept(iris_));
+		return null;
+	}
+
+	/*-------------------- class expressions --------------------*/
+
+	@Override
+	public Void visit(ElkClass elkClass) {
+		add(elkClass.getIri());
+		return null;
+	}
+
+	@Override
+	public Void visit(ElkObjectComplementOf elkObjectComplementOf) {
+		return elkObjectComplementOf.getClassExpression().accept(this);
+	}
+
+	@Override
+	public Void visit(ElkObjectIntersectionOf elkObjectIntersectionOf) {
+		return collect(elkObjectIntersectionOf.getClassExpressions());
+	}
+
+	@Override
+	public Void visit(ElkObjectUnionOf elkObjectUnionOf) {
+		return collect(elkObjectUnionOf.getClassExpressions());
+	}
+
+	@Override
+	public Void visit(ElkObjectOneOf elkObjectOneOf) {
+		for (ElkIndividual individual : elkObjectOneOf.getIndividuals())
+			collect(individual);
+		return null;
+	}
+
+	@Override
+	public Void visit(ElkObjectSomeValuesFrom elkObjectSomeValuesFrom) {
+		return collectObjectRestriction(elkObjectSomeValuesFrom);
+	}
+
+	@Override
+	public Void visit(ElkObjectAllValuesFrom elkObjectAllValuesFrom) {
+		return collectObjectRestriction(elkObjectAllValuesFrom);
+	}
+
+	@Override
+	public Void visit(ElkObjectHasValue elkObjectHasValue) {
+		collect(elkObjectHasValue.getProperty());
+		return collect(elkObjectHasValue.getFiller());
+	}
+
+	@Override
+	public Void visit(ElkObjectHasSelf elkObjectHasSelf) {
+		return collectObjectRestriction(elkObjectHasSelf);
+	}
+
+	@Override
+	public Void visit(
+			ElkObjectExactCardinalityQualified elkObjectExactCardinalityQualified) {
+		return collectObjectRestriction(elkObjectExactCardinalityQualified);
+	}
+
+	@Override
+	public Void visit(
+			ElkObjectExactCardinalityUnqualified elkObjectExactCardinalityUnqualified) {
+		return collectObjectRestriction(elkObjectExactCardinalityUnqualified);
+	}
+
+	@Override
+	public Void visit(
+			ElkObjectMaxCardinalityQualified elkObjectMaxCardinalityQualified) {
+		return collectObjectRestriction(elkObjectMaxCardinalityQualified);
+	}
+
+	@Override
+	public Void visit(
+			ElkObjectMaxCardinalityUnqualified elkObjectMaxCardinalityUnqualified) {
+		return collectObjectRestriction(elkObjectMaxCardinalityUnqualified);
+	}
+
+	@Override
+	public Void visit(
+			ElkObjectMinCardinalityQualified elkObjectMinCardinalityQualified) {
+		return collectObjectRestriction(elkObjectMinCardinalityQualified);
+	}
+
+	@Override
+	public Void visit(
+			ElkObjectMinCardinalityUnqualified elkObjectMinCardinalityUnqualified) {
+		return collectObjectRestriction(elkObjectMinCardinalityUnqualified);
+	}
+
+	@Override
+	public Void visit(ElkDataHasValue elkDataHasValue) {
+		return collectDataRestriction(elkDataHasValue);
+	}
+
+	@Override
+	public Void visit(ElkDataSomeValuesFrom elkDataSomeValuesFrom) {
+		return collectDataRestriction(elkDataSomeValuesFrom);
+	}
+
+	@Override
+	public Void visit(ElkDataAllValuesFrom elkDataAllValuesFrom) {
+		return collectDataRestriction(elkDataAllValuesFrom);
+	}
+
+	@Override
+	public Void visit(
+			ElkDataExactCardinalityQualified elkDataExactCardinalityQualified) {
+		return collectDataRestriction(elkDataExactCardinalityQualified);
+	}
+
+	@Override
+	public Void visit(
+			ElkDataExactCardinalityUnqualified elkDataExactCardinalityUnqualified) {
+		return collectDataRestriction(elkDataExactCardinalityUnqualified);
+	}
+
+	@Override
+	public Void visit(
+			ElkDataMaxCardinalityQualified elkDataMaxCardinalityQualified) {
+		return collectDataRestriction(elkDataMaxCardinalityQualified);
+	}
+
+	@Override
+	public Void visit(
+			ElkDataMaxCardinalityUnqualified elkDataMaxCardinalityUnqualified) {
+		return collectDataRestriction(elkDataMaxCardinalityUnqualified);
+	}
+
+	@Override
+	public Void visit(
+			ElkDataMinCardinalityQualified elkDataMinCardinalityQualified) {
+		return collectDataRestriction(elkDataMinCardinalityQualified);
+	}
+
+	@Override
+	public Void visit(
+			ElkDataMinCardinalityUnqualified elkDataMinCardinalityUnqualified) {
+		return collectDataRestriction(elkDataMinCardinalityUnqualified);
+	}
+
+}
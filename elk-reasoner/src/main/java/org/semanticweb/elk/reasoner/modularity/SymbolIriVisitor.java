@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.modularity;
+
+import org.semanticweb.elk.owl.interfaces.ElkAnnotationProperty;
+import org.semanticweb.elk.owl.interfaces.ElkAnonymousIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkDataProperty;
+import org.semanticweb.elk.owl.interfaces.ElkDatatype;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObjectInverseOf;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkIri;
+import org.semanticweb.elk.owl.visitors.ElkDataPropertyExpressionVisitor;
+import org.semanticweb.elk.owl.visitors.ElkEntityVisitor;
+import org.semanticweb.elk.owl.visitors.ElkIndividualVisitor;
+import org.semanticweb.elk.owl.visitors.ElkObjectPropertyExpressionVisitor;
+
+/**
+ * Returns the {@link ElkIri}s by which the symbols of the ontology are
+ * identified for the purpose of module extraction: the IRIs of entities,
+ * including the IRI of the property used in an inverse property expression.
+ * Anonymous individuals do not have IRIs; for them {@code null} is returned.
+ * 
+ * @author agent
+ */
+class SymbolIriVisitor implements ElkEntityVisitor<ElkIri>,
+		ElkObjectPropertyExpressionVisitor<ElkIri>,
+		ElkDataPropertyExpressionVisitor<ElkIri>, ElkIndividualVisitor<ElkIri> {
+
+	@Override
+	public ElkIri visit(ElkAnnotationProperty elkAnnotationProperty) {
+		return elkAnnotationProperty.getIri();
+	}
+
+	@Override
+	public ElkIri visit(ElkClass elkClass) {
+		return elkClass.getIri();
+	}
+
+	@Override
+	public ElkIri visit(ElkDataProperty elkDataProperty) {
+		return elkDataProperty.getIri();
+	}
+
+	@Override
+	public ElkIri visit(ElkDatatype elkDatatype) {
+		return elkDatatype.getIri();
+	}
+
+	@Override
+	public ElkIri visit(ElkNamedIndividual elkNamedIndividual) {
+		return elkNamedIndividual.getIri();
+	}
+
+	@Override
+	public ElkIri visit(ElkObjectProperty elkObjectProperty) {
+		return elkObjectProperty.getIri();
+	}
+
+	@Override
+	public ElkIri visit(ElkObjectInverseOf elkObjectInverseOf) {
+		return elkObjectInverseOf.getObjectProperty().getIri();
+	}
+
+	@Override
+	public ElkIri visit(ElkAnonymousIndividual elkAnonymousIndividual) {
+		return null;
+	}
+
+}
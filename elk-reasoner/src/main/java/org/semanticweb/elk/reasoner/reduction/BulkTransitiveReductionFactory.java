@@ -0,0 +1,305 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.reduction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.predefined.PredefinedElkClass;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.SaturationState;
+import org.semanticweb.elk.reasoner.saturation.conclusions.implementation.ContradictionImpl;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The factory for engines that compute the transitive reduction of the
+ * subsumption hierarchy between classes when the saturations of all relevant
+ * classes have already been computed. Unlike {@link TransitiveReductionFactory},
+ * the engines never create new saturation jobs and share no queues: every root
+ * is processed completely by the engine to which it was submitted. The results
+ * are reported as the same {@link TransitiveReductionOutput}s using the given
+ * {@link TransitiveReductionListener}.
+ * 
+ * Every class of the ontology is assigned a position, and the class subsumers
+ * of every saturated class are represented by a sorted array of positions,
+ * which is computed on demand and then shared between the engines. Direct
+ * subsumers of a root are obtained by marking its strict subsumers in a bit
+ * set of the engine and unmarking the strict subsumers of every marked class;
+ * the classes that remain marked are the direct subsumers.
+ * 
+ * @author agent
+ * 
+ * @see TransitiveReductionFactory
+ */
+public class BulkTransitiveReductionFactory {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(BulkTransitiveReductionFactory.class);
+
+	/**
+	 * The listener object implementing callback functions for this engine
+	 */
+	private final TransitiveReductionListener<TransitiveReductionJob<IndexedClass>> listener_;
+
+	/**
+	 * The {@link SaturationState} keeping the information about saturation
+	 */
+	private final SaturationState<?> saturationState_;
+
+	/**
+	 * the classes of the ontology at their positions
+	 */
+	private final IndexedClass[] classes_;
+
+	/**
+	 * maps the identifiers of {@link IndexedClassExpression}s to the positions
+	 * of the corresponding classes in {@link #classes_} or to {@code -1} if
+	 * they are not classes
+	 */
+	private final int[] positions_;
+
+	/**
+	 * the sorted positions of the class subsumers of the classes; the entries
+	 * are computed on demand
+	 */
+	private final AtomicReferenceArray<int[]> subsumers_;
+
+	private final IndexedClass owlThing_;
+
+	/**
+	 * The default equivalence classes for owl:Thing to be used when there are
+	 * no (direct) subsumers
+	 */
+	private final List<ElkClass> defaultTopOutput_;
+
+	/**
+	 * Creating a new transitive reduction engine for the classes of the
+	 * ontology index of the given {@link SaturationState}
+	 * 
+	 * @param saturationState
+	 *            the saturation state of the reasoner
+	 * @param listener
+	 *            the listener object implementing callback functions for this
+	 *            engine
+	 */
+	public BulkTransitiveReductionFactory(
+			SaturationState<?> saturationState,
+			TransitiveReductionListener<TransitiveReductionJob<IndexedClass>> listener) {
+		this.listener_ = listener;
+		this.saturationState_ = saturationState;
+		Collection<? extends IndexedClass> classes = saturationState
+				.getOntologyIndex().getClasses();
+		this.classes_ = classes.toArray(new IndexedClass[classes.size()]);
+		int maxId = -1;
+		for (IndexedClass ic : classes_) {
+			maxId = Math.max(maxId, ic.getId());
+		}
+		this.positions_ = new int[maxId + 1];
+		Arrays.fill(positions_, -1);
+		for (int i = 0; i < classes_.length; i++) {
+			int id = classes_[i].getId();
+			if (id >= 0)
+				positions_[id] = i;
+		}
+		this.subsumers_ = new AtomicReferenceArray<int[]>(classes_.length);
+		this.owlThing_ = saturationState.getOntologyIndex().getOwlThing();
+		this.defaultTopOutput_ = new ArrayList<ElkClass>(1);
+		defaultTopOutput_.add(PredefinedElkClass.OWL_THING);
+	}
+
+	public Engine getEngine() {
+		return new Engine();
+	}
+
+	private int getPosition(IndexedClassExpression ice) {
+		int id = ice.getId();
+		return id >= 0 && id < positions_.length ? positions_[id] : -1;
+	}
+
+	/**
+	 * @param position
+	 *            the position of a class
+	 * @return the sorted positions of the class subsumers of the class at the
+	 *         given position or {@code null} if its saturation is not computed
+	 */
+	private int[] getSubsumers(int position) {
+		int[] result = subsumers_.get(position);
+		if (result != null)
+			return result;
+		Context context = saturationState_.getContext(classes_[position]);
+		if (context == null || !context.isInitialized()
+				|| !context.isSaturated())
+			return null;
+		Set<IndexedClassExpression> subsumers = context.getSubsumers();
+		result = new int[subsumers.size()];
+		int size = 0;
+		for (IndexedClassExpression subsumer : subsumers) {
+			int subsumerPosition = getPosition(subsumer);
+			if (subsumerPosition >= 0)
+				result[size++] = subsumerPosition;
+		}
+		if (size < result.length)
+			result = Arrays.copyOf(result, size);
+		Arrays.sort(result);
+		/*
+		 * several engines may compute the same array at the same time; it does
+		 * not matter whose array is stored
+		 */
+		subsumers_.set(position, result);
+		return result;
+	}
+
+	public class Engine {
+
+		/**
+		 * the bit set of candidate direct subsumers indexed by positions; all
+		 * bits are cleared after processing of every root
+		 */
+		private final long[] candidates_ = new long[(classes_.length + 63) >>> 6];
+
+		// don't allow creating of engines directly; only through the factory
+		private Engine() {
+		}
+
+		private boolean isCandidate(int position) {
+			return (candidates_[position >>> 6] & (1L << position)) != 0;
+		}
+
+		private void setCandidate(int position) {
+			candidates_[position >>> 6] |= 1L << position;
+		}
+
+		private void clearCandidate(int position) {
+			candidates_[position >>> 6] &= ~(1L << position);
+		}
+
+		/**
+		 * Computes the transitive reduction for the given root and reports
+		 * the result to the listener of the factory
+		 * 
+		 * @param root
+		 *            the {@link IndexedClass} for which to compute the
+		 *            transitive reduction
+		 * @return {@code true} if the output was computed and {@code false}
+		 *         if the saturation of the root or one of its subsumers is not
+		 *         yet computed, in which case nothing is reported
+		 * @throws InterruptedException
+		 *             if interrupted while notifying the listener
+		 */
+		public boolean submit(IndexedClass root) throws InterruptedException {
+			int rootPosition = getPosition(root);
+			if (rootPosition < 0)
+				return false;
+			int[] rootSubsumers = getSubsumers(rootPosition);
+			if (rootSubsumers == null)
+				return false;
+			TransitiveReductionJob<IndexedClass> job = new TransitiveReductionJob<IndexedClass>(
+					root);
+			if (saturationState_.getContext(root).containsConclusion(
+					ContradictionImpl.getInstance())) {
+				LOGGER_.trace("{}: transitive reduction finished: inconsistent",
+						root);
+				job.setOutput(new TransitiveReductionOutputUnsatisfiable<IndexedClass>(
+						root));
+				listener_.notifyFinished(job);
+				return true;
+			}
+			for (int position : rootSubsumers) {
+				if (getSubsumers(position) == null)
+					return false;
+			}
+			/*
+			 * subsumers with the same number of class subsumers as the root
+			 * are equivalent to the root; all other subsumers are candidates
+			 * for direct subsumers
+			 */
+			List<ElkClass> rootEquivalent = new ArrayList<ElkClass>(1);
+			for (int position : rootSubsumers) {
+				int subsumerCount = subsumers_.get(position).length;
+				if (subsumerCount == rootSubsumers.length) {
+					rootEquivalent.add(classes_[position].getElkEntity());
+				} else if (classes_[position] != owlThing_
+						|| subsumerCount != 1) {
+					/*
+					 * top without other subsumers is ignored; it will be
+					 * introduced if no direct subsumers are found
+					 */
+					setCandidate(position);
+				}
+			}
+			/*
+			 * removing candidates that strictly subsume other candidates; those
+			 * already removed can be skipped since their strict subsumers are
+			 * also strict subsumers of the candidate that removed them
+			 */
+			for (int position : rootSubsumers) {
+				if (!isCandidate(position))
+					continue;
+				int[] candidateSubsumers = subsumers_.get(position);
+				for (int subsumer : candidateSubsumers) {
+					if (subsumers_.get(subsumer).length < candidateSubsumers.length)
+						clearCandidate(subsumer);
+				}
+			}
+			/*
+			 * the remaining candidates are direct subsumers; those of them that
+			 * subsume each other are equivalent
+			 */
+			TransitiveReductionOutputEquivalentDirect<IndexedClass> output = new TransitiveReductionOutputEquivalentDirect<IndexedClass>(
+					root, rootEquivalent);
+			for (int position : rootSubsumers) {
+				if (!isCandidate(position))
+					continue;
+				clearCandidate(position);
+				int[] directSubsumers = subsumers_.get(position);
+				List<ElkClass> directEquivalent = new ArrayList<ElkClass>(1);
+				directEquivalent.add(classes_[position].getElkEntity());
+				for (int subsumer : directSubsumers) {
+					if (isCandidate(subsumer)) {
+						clearCandidate(subsumer);
+						directEquivalent.add(classes_[subsumer].getElkEntity());
+					}
+				}
+				output.directSubsumers.put(classes_[position], directEquivalent);
+				LOGGER_.trace("{}: new direct subsumer {} {}", root,
+						classes_[position], directEquivalent);
+			}
+			if (output.directSubsumers.isEmpty()
+					&& !rootEquivalent.contains(PredefinedElkClass.OWL_THING)) {
+				output.directSubsumers.put(owlThing_, defaultTopOutput_);
+			}
+			job.setOutput(output);
+			listener_.notifyFinished(job);
+			return true;
+		}
+	}
+
+}
@@ -55,7 +55,7 @@ public abstract class AbstractSaturationState<EC extends ExtendedContext> implem
 	 * The queue containing all activated contexts (whose todo queue is not
 	 * empty). Every activated context occurs exactly once.
 	 */
-	private final Queue<Context> activeContexts_ = new ConcurrentLinkedQueue<Context>();
+	private final Queue<Context> activeContexts_;
 
 	/**
 	 * The queue containing all {@link Context}s of this {@link SaturationState}
@@ -78,8 +78,22 @@ public abstract class AbstractSaturationState<EC extends ExtendedContext> implem
 	private final ContextFactory<EC> contextFactory;
 
 	public AbstractSaturationState(OntologyIndex index, ContextFactory<EC> factory) {
+		this(index, factory, new ConcurrentLinkedQueue<Context>());
+	}
+
+	/**
+	 * @param index
+	 * @param factory
+	 *            used to create new {@link Context}s
+	 * @param activeContexts
+	 *            the empty thread-safe {@link Queue} in which activated
+	 *            {@link Context}s will be kept until they are processed
+	 */
+	public AbstractSaturationState(OntologyIndex index,
+			ContextFactory<EC> factory, Queue<Context> activeContexts) {
 		this.ontologyIndex = index;
 		this.contextFactory = factory;
+		this.activeContexts_ = activeContexts;
 	}
 
 	@Override
@@ -87,6 +101,11 @@ public abstract class AbstractSaturationState<EC extends ExtendedContext> implem
 		return ontologyIndex;
 	}
 
+	@Override
+	public int getActiveContextCount() {
+		return activeContexts_.size();
+	}
+
 	@Override
 	public Collection<EC> getNotSaturatedContexts() {
 		return Collections
@@ -0,0 +1,51 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import org.semanticweb.elk.reasoner.indexing.caching.IndexedObjectCache;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+
+/**
+ * Creates instances of {@link CompactContextImpl}.
+ * 
+ * @author agent
+ * 
+ * @see MainContextFactory
+ */
+public class CompactContextFactory implements ContextFactory<ExtendedContext> {
+
+	/**
+	 * the index that contains the {@link IndexedClassExpression}s for which
+	 * the contexts are created
+	 */
+	private final IndexedObjectCache index_;
+
+	public CompactContextFactory(IndexedObjectCache index) {
+		this.index_ = index;
+	}
+
+	@Override
+	public ExtendedContext createContext(IndexedClassExpression root) {
+		return new CompactContextImpl(root, index_);
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import org.semanticweb.elk.reasoner.indexing.caching.IndexedObjectCache;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+
+/**
+ * A {@link ContextImpl} that stores the derived subsumers in a
+ * {@link CompactSubsumerSet}, i.e., using the identifiers of
+ * {@link IndexedClassExpression}s instead of references to them. When the
+ * context is saturated, the subsumers are frozen using
+ * {@link CompactSubsumerSet#freeze()}.
+ * 
+ * @author agent
+ * 
+ */
+public class CompactContextImpl extends ContextImpl {
+
+	private final CompactSubsumerSet subsumers_;
+
+	/**
+	 * Construct a new {@link CompactContextImpl} for the given root
+	 * {@link IndexedClassExpression}; the subsumers must be stored in the
+	 * given {@link IndexedObjectCache}.
+	 * 
+	 * @param root
+	 * @param index
+	 */
+	public CompactContextImpl(IndexedClassExpression root,
+			IndexedObjectCache index) {
+		this(root, new CompactSubsumerSet(index, 13));
+	}
+
+	private CompactContextImpl(IndexedClassExpression root,
+			CompactSubsumerSet subsumers) {
+		super(root, subsumers);
+		this.subsumers_ = subsumers;
+	}
+
+	@Override
+	public synchronized boolean setSaturated(boolean saturated) {
+		boolean previous = super.setSaturated(saturated);
+		if (saturated && !previous)
+			subsumers_.freeze();
+		return previous;
+	}
+
+}
@@ -0,0 +1,329 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.semanticweb.elk.reasoner.indexing.caching.IndexedObjectCache;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
+import org.semanticweb.elk.util.collections.IntArrayHashSet;
+import org.semanticweb.elk.util.collections.IntIterator;
+
+/**
+ * A {@link Set} of {@link IndexedClassExpression}s that stores only their
+ * identifiers {@link IndexedClassExpression#getId()} in an
+ * {@link IntArrayHashSet}. The elements are recovered from the identifiers
+ * using {@link IndexedObjectCache#getClassExpression(int)}. The
+ * {@link IndexedClassExpression}s without identifiers, which are not stored in
+ * the index, are kept in a separate set, which is normally not created.
+ * <p>
+ * When no more subsumers are expected, e.g., after the context is saturated,
+ * the set can be frozen using {@link #freeze()}: the identifiers are then
+ * sorted and stored as the differences between consecutive values using
+ * variable-length encoding, which usually takes one quarter of the memory of
+ * the hash table. The frozen set is searched sequentially and is converted
+ * back to a hash table when it is modified.
+ * 
+ * @author agent
+ * 
+ */
+class CompactSubsumerSet extends AbstractSet<IndexedClassExpression> {
+
+	/**
+	 * used to find {@link IndexedClassExpression}s by their identifiers
+	 */
+	private final IndexedObjectCache index_;
+
+	/**
+	 * the identifiers of the elements of this set, or {@code null} if this set
+	 * is frozen
+	 */
+	private volatile IntArrayHashSet ids_;
+
+	/**
+	 * the encoded identifiers of the elements of this set if it is frozen, or
+	 * {@code null} otherwise
+	 */
+	private volatile byte[] frozenIds_ = null;
+
+	/**
+	 * the number of identifiers in {@link #frozenIds_}
+	 */
+	private int frozenSize_ = 0;
+
+	/**
+	 * the elements of this set that do not have identifiers; can be
+	 * {@code null}
+	 */
+	private Set<IndexedClassExpression> unindexed_ = null;
+
+	CompactSubsumerSet(IndexedObjectCache index, int initialCapacity) {
+		this.index_ = index;
+		this.ids_ = new IntArrayHashSet(initialCapacity);
+	}
+
+	@Override
+	public int size() {
+		IntArrayHashSet ids = ids_;
+		int size = ids == null ? frozenSize_ : ids.size();
+		return unindexed_ == null ? size : size + unindexed_.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof IndexedClassExpression))
+			return false;
+		// else
+		int id = ((IndexedClassExpression) o).getId();
+		if (id >= 0) {
+			IntArrayHashSet ids = ids_;
+			return ids == null ? frozenContains(id) : ids.contains(id);
+		}
+		// else
+		return unindexed_ != null && unindexed_.contains(o);
+	}
+
+	@Override
+	public boolean add(IndexedClassExpression e) {
+		int id = e.getId();
+		if (id >= 0) {
+			if (ids_ == null) {
+				if (frozenContains(id))
+					return false;
+				// else
+				thaw();
+			}
+			return ids_.add(id);
+		}
+		// else
+		if (unindexed_ == null)
+			unindexed_ = new ArrayHashSet<IndexedClassExpression>(4);
+		return unindexed_.add(e);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!(o instanceof IndexedClassExpression))
+			return false;
+		// else
+		int id = ((IndexedClassExpression) o).getId();
+		if (id >= 0) {
+			if (ids_ == null) {
+				if (!frozenContains(id))
+					return false;
+				// else
+				thaw();
+			}
+			return ids_.remove(id);
+		}
+		// else
+		if (unindexed_ == null || !unindexed_.remove(o))
+			return false;
+		// else
+		if (unindexed_.isEmpty())
+			unindexed_ = null;
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		if (ids_ == null)
+			thaw();
+		ids_.clear();
+		unindexed_ = null;
+	}
+
+	/**
+	 * Stores the identifiers of the elements of this set in a compact form
+	 * that is suitable when no more elements are added; the set remains
+	 * modifiable, but the first modification undoes the freezing
+	 */
+	void freeze() {
+		IntArrayHashSet ids = ids_;
+		if (ids == null)
+			return;
+		// else
+		int size = ids.size();
+		int[] sorted = new int[size];
+		IntIterator iterator = ids.iterator();
+		for (int i = 0; i < size; i++)
+			sorted[i] = iterator.next();
+		Arrays.sort(sorted);
+		int length = 0, previous = 0;
+		for (int i = 0; i < size; i++) {
+			length += getEncodedLength(sorted[i] - previous);
+			previous = sorted[i];
+		}
+		byte[] encoded = new byte[length];
+		int pos = 0;
+		previous = 0;
+		for (int i = 0; i < size; i++) {
+			pos = encode(sorted[i] - previous, encoded, pos);
+			previous = sorted[i];
+		}
+		frozenSize_ = size;
+		// the readers check ids_ first, so frozenIds_ must be set before
+		frozenIds_ = encoded;
+		ids_ = null;
+	}
+
+	/**
+	 * @return {@code true} if this set is frozen, see {@link #freeze()}
+	 */
+	boolean isFrozen() {
+		return ids_ == null;
+	}
+
+	/**
+	 * Converts the frozen identifiers back to a hash table
+	 */
+	private void thaw() {
+		IntArrayHashSet ids = new IntArrayHashSet(frozenSize_);
+		IntIterator iterator = new FrozenIdIterator(frozenIds_);
+		while (iterator.hasNext())
+			ids.add(iterator.next());
+		ids_ = ids;
+		frozenIds_ = null;
+	}
+
+	private boolean frozenContains(int id) {
+		IntIterator iterator = new FrozenIdIterator(frozenIds_);
+		while (iterator.hasNext()) {
+			int next = iterator.next();
+			if (next >= id)
+				return next == id;
+		}
+		return false;
+	}
+
+	private static int getEncodedLength(int value) {
+		int result = 1;
+		while ((value >>>= 7) != 0)
+			result++;
+		return result;
+	}
+
+	/**
+	 * Writes the given non-negative value to the given position of the given
+	 * array using 7 bits per byte, the lowest bits first; the highest bit of
+	 * every byte except the last one is set
+	 * 
+	 * @return the position after the written value
+	 */
+	private static int encode(int value, byte[] target, int pos) {
+		while ((value & ~0x7F) != 0) {
+			target[pos++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		target[pos++] = (byte) value;
+		return pos;
+	}
+
+	/**
+	 * Decodes the identifiers written by {@link #freeze()}
+	 */
+	private static class FrozenIdIterator implements IntIterator {
+
+		private final byte[] encoded_;
+
+		private int pos_ = 0;
+
+		private int previous_ = 0;
+
+		FrozenIdIterator(byte[] encoded) {
+			this.encoded_ = encoded;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return pos_ < encoded_.length;
+		}
+
+		@Override
+		public int next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			// else
+			int delta = 0;
+			for (int shift = 0;; shift += 7) {
+				byte next = encoded_[pos_++];
+				delta |= (next & 0x7F) << shift;
+				if (next >= 0)
+					break;
+			}
+			previous_ += delta;
+			return previous_;
+		}
+
+	}
+
+	private IntIterator getIdIterator() {
+		IntArrayHashSet ids = ids_;
+		return ids == null ? new FrozenIdIterator(frozenIds_) : ids
+				.iterator();
+	}
+
+	@Override
+	public Iterator<IndexedClassExpression> iterator() {
+		return new Iterator<IndexedClassExpression>() {
+
+			final IntIterator ids = getIdIterator();
+
+			final Iterator<IndexedClassExpression> others = unindexed_ == null ? null
+					: unindexed_.iterator();
+
+			@Override
+			public boolean hasNext() {
+				return ids.hasNext() || (others != null && others.hasNext());
+			}
+
+			@Override
+			public IndexedClassExpression next() {
+				if (ids.hasNext())
+					return index_.getClassExpression(ids.next());
+				// else
+				if (others == null)
+					throw new NoSuchElementException();
+				// else
+				return others.next();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException(
+						"Removal not supported");
+			}
+
+		};
+	}
+
+}
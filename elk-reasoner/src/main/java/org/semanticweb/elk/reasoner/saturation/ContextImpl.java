@@ -55,7 +55,7 @@ import org.semanticweb.elk.util.collections.ArrayHashMap;
 import org.semanticweb.elk.util.collections.ArrayHashSet;
 import org.semanticweb.elk.util.collections.chains.AbstractChain;
 import org.semanticweb.elk.util.collections.chains.Chain;
-import org.semanticweb.elk.util.concurrent.collections.ActivationStack;
+import org.semanticweb.elk.util.concurrent.collections.ActivationQueue;
 
 /**
  * Context implementation that is used for EL reasoning. It provides data
@@ -127,7 +127,7 @@ public class ContextImpl implements ExtendedContext {
 	/**
 	 * the queue of unprocessed {@code Conclusion}s of this {@link Context}
 	 */
-	private final ActivationStack<Conclusion> toDo_;
+	private final ActivationQueue<Conclusion> toDo_;
 
 	/**
 	 * {@code true} if this {@link Context} is initialized, i.e., contains
@@ -142,9 +142,22 @@ public class ContextImpl implements ExtendedContext {
 	 * @param root
 	 */
 	public ContextImpl(IndexedClassExpression root) {
+		this(root, new ArrayHashSet<IndexedClassExpression>(13));
+	}
+
+	/**
+	 * Construct a new {@link Context} for the given root
+	 * {@link IndexedClassExpression} that uses the given (empty) {@link Set}
+	 * for storing the derived subsumers.
+	 * 
+	 * @param root
+	 * @param subsumers
+	 */
+	protected ContextImpl(IndexedClassExpression root,
+			Set<IndexedClassExpression> subsumers) {
 		this.root_ = root;
-		this.toDo_ = new ActivationStack<Conclusion>();
-		this.subsumers_ = new ArrayHashSet<IndexedClassExpression>(13);
+		this.toDo_ = new ActivationQueue<Conclusion>();
+		this.subsumers_ = subsumers;
 	}
 
 	@Override
@@ -29,6 +29,7 @@ import java.util.AbstractCollection;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
@@ -56,7 +57,33 @@ class ReferenceSaturationState extends AbstractSaturationState<ExtendedContext>
 	 * @param index
 	 */
 	public ReferenceSaturationState(OntologyIndex index) {
-		super(index, new MainContextFactory());
+		this(index, new MainContextFactory());
+	}
+
+	/**
+	 * 
+	 * @param index
+	 * @param factory
+	 *            used to create new {@link Context}s
+	 */
+	public ReferenceSaturationState(OntologyIndex index,
+			ContextFactory<ExtendedContext> factory) {
+		super(index, factory);
+	}
+
+	/**
+	 * 
+	 * @param index
+	 * @param factory
+	 *            used to create new {@link Context}s
+	 * @param activeContexts
+	 *            the empty thread-safe {@link Queue} in which activated
+	 *            {@link Context}s will be kept until they are processed
+	 */
+	public ReferenceSaturationState(OntologyIndex index,
+			ContextFactory<ExtendedContext> factory,
+			Queue<Context> activeContexts) {
+		super(index, factory, activeContexts);
 	}
 
 	@Override
@@ -73,6 +73,14 @@ public interface SaturationState<C extends Context> {
 	 */
 	public Collection<C> getNotSaturatedContexts();
 
+	/**
+	 * @return the number of {@link Context}s in this {@link SaturationState}
+	 *         that are active, i.e., have unprocessed conclusions and wait to
+	 *         be processed; the result may be approximate if the
+	 *         {@link Context}s are activated or processed at the same time
+	 */
+	public int getActiveContextCount();
+
 	/**
 	 * @return the total number of times a {@link Context} was marked as
 	 *         non-saturated using this {@link SaturationState}, i.e., the
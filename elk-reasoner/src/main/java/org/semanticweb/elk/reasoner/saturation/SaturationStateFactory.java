@@ -25,8 +25,13 @@ package org.semanticweb.elk.reasoner.saturation;
  * #L%
  */
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.hierarchy.OntologyIndex;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.util.concurrent.collections.WorkStealingQueue;
 
 /**
  * A simple factory for creating saturation states
@@ -48,4 +53,49 @@ public class SaturationStateFactory {
 		return new ReferenceSaturationState(ontologyIndex);
 		//return new MapSaturationState<ExtendedContext>(ontologyIndex, new MainContextFactory(), ontologyIndex.getIndexedClassExpressions().size());
 	}
+
+	/**
+	 * Creates a new {@link SaturationState} with the given type of
+	 * {@link Context}s
+	 * 
+	 * @param ontologyIndex
+	 * @param compactSubsumers
+	 *            if {@code true}, the {@link Context}s store subsumers using
+	 *            identifiers of {@link IndexedClassExpression}s
+	 *            {@link CompactContextImpl}, otherwise references to them
+	 *            {@link ContextImpl}
+	 * @return the new state
+	 */
+	public static SaturationState<? extends Context> createSaturationState(
+			OntologyIndex ontologyIndex, boolean compactSubsumers) {
+		return createSaturationState(ontologyIndex, compactSubsumers, false);
+	}
+
+	/**
+	 * Creates a new {@link SaturationState} with the given type of
+	 * {@link Context}s and the given scheduling of active {@link Context}s
+	 * 
+	 * @param ontologyIndex
+	 * @param compactSubsumers
+	 *            if {@code true}, the {@link Context}s store subsumers using
+	 *            identifiers of {@link IndexedClassExpression}s
+	 *            {@link CompactContextImpl}, otherwise references to them
+	 *            {@link ContextImpl}
+	 * @param workStealing
+	 *            if {@code true}, every worker keeps the {@link Context}s it
+	 *            has activated in its own {@link WorkStealingQueue} deque and
+	 *            takes the {@link Context}s of other workers only when it has
+	 *            none left, otherwise all workers share one queue
+	 * @return the new state
+	 */
+	public static SaturationState<? extends Context> createSaturationState(
+			OntologyIndex ontologyIndex, boolean compactSubsumers,
+			boolean workStealing) {
+		ContextFactory<ExtendedContext> contextFactory = compactSubsumers ? new CompactContextFactory(
+				ontologyIndex) : new MainContextFactory();
+		Queue<Context> activeContexts = workStealing ? new WorkStealingQueue<Context>()
+				: new ConcurrentLinkedQueue<Context>();
+		return new ReferenceSaturationState(ontologyIndex, contextFactory,
+				activeContexts);
+	}
 }
@@ -68,7 +68,15 @@ public class SaturationUtils {
 			.isDebugEnabled();
 	public static final boolean COLLECT_CONCLUSION_TIMES = LOGGER_
 			.isDebugEnabled();
-	public static final boolean COLLECT_RULE_COUNTS = LOGGER_.isDebugEnabled();
+	/*
+	 * the numbers of processed conclusions and rule applications are always
+	 * collected since they are recorded in the metrics of the reasoner; they
+	 * are counted locally by every worker, and the cost of counting is within
+	 * the measurement error of ConclusionDispatchBenchmark.addRemoveCounted
+	 * and RuleChainBenchmark.applyCounted of elk-microbenchmark
+	 */
+	public static final boolean COLLECT_PROCESSED_CONCLUSION_COUNTS = true;
+	public static final boolean COLLECT_RULE_COUNTS = true;
 	public static final boolean COLLECT_RULE_TIMES = LOGGER_.isDebugEnabled();
 	public static final boolean COLLECT_PROCESSING_TIMES = LOGGER_
 			.isDebugEnabled();
@@ -149,7 +157,10 @@ public class SaturationUtils {
 
 	public static ConclusionVisitor<? super Context, Boolean> getProcessedConclusionCountingVisitor(
 			SaturationStatistics statistics) {
-		return getCountingConclusionVisitor(statistics
+		if (!COLLECT_PROCESSED_CONCLUSION_COUNTS)
+			return null;
+		// else
+		return new CountingConclusionVisitor<Context>(statistics
 				.getConclusionStatistics().getProcessedConclusionCounts());
 	}
 
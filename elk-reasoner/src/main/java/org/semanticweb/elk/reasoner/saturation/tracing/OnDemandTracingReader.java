@@ -24,6 +24,9 @@ package org.semanticweb.elk.reasoner.saturation.tracing;
  * #L%
  */
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.saturation.ContextCreatingSaturationStateWriter;
 import org.semanticweb.elk.reasoner.saturation.ContextCreationListener;
@@ -33,6 +36,7 @@ import org.semanticweb.elk.reasoner.saturation.conclusions.interfaces.Conclusion
 import org.semanticweb.elk.reasoner.saturation.tracing.LocalTracingSaturationState.TracedContext;
 import org.semanticweb.elk.reasoner.saturation.tracing.factories.ContextTracingFactory;
 import org.semanticweb.elk.reasoner.saturation.tracing.factories.ContextTracingJob;
+import org.semanticweb.elk.reasoner.saturation.tracing.factories.ContextTracingListener;
 import org.semanticweb.elk.reasoner.saturation.tracing.inferences.visitors.InferenceVisitor;
 import org.semanticweb.elk.util.concurrent.computation.InputProcessor;
 import org.slf4j.Logger;
@@ -40,7 +44,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Non-recursively visits all inferences for a given conclusion and traces the
- * context, if necessary. This implementation is single-threaded and synchronous.
+ * context, if necessary. Several workers can use their own readers with the
+ * same {@link ContextTracingFactory} at the same time: if the context is
+ * already being traced by another worker, the reader waits until it is
+ * notified that the tracing is finished.
  * 
  * @author Pavel Klinov
  * 
@@ -50,6 +57,13 @@ public class OnDemandTracingReader extends DelegatingTraceReader {
 	
 	private static final Logger LOGGER_ = LoggerFactory.getLogger(OnDemandTracingReader.class);
 
+	/**
+	 * the time in milliseconds after which a reader waiting for a context to
+	 * be traced checks for interruption and processes the pending tracing
+	 * jobs, if any
+	 */
+	private static final long WAIT_INTERVAL_ = 10;
+
 	private final ContextCreatingSaturationStateWriter<TracedContext> tracingContextWriter_;
 	
 	private final ContextTracingFactory tracingFactory_;
@@ -68,24 +82,54 @@ public class OnDemandTracingReader extends DelegatingTraceReader {
 		IndexedClassExpression conclusionContextRoot = conclusion.getSourceRoot(root);
 		TracedContext tracedContext = tracingContextWriter_.getCreateContext(conclusionContextRoot);	
 		
-		while (!tracedContext.isInitialized() || !tracedContext.isSaturated()) {
+		if (!tracedContext.isInitialized() || !tracedContext.isSaturated()) {
 			LOGGER_.trace("Need to trace {} to read inferences for {}", tracedContext, conclusion);
 			
-			InputProcessor<ContextTracingJob> tracingEngine = tracingFactory_.getEngine();
-			//the context needs to be traced.
-			//we don't care if it is *being* traced since the factory will handle it. 
-			tracingEngine.submit(new ContextTracingJob(tracedContext.getRoot()));
-
 			try {
-				tracingEngine.process();
+				if (!trace(tracedContext)) {
+					return;
+				}
 			} catch (InterruptedException e) {
 				return;
 			}
-			finally {
-				tracingEngine.finish();
-			}
 		}
 
 		reader.accept(root, conclusion, visitor);
 	}
+
+	/**
+	 * Traces the given context and waits until it is traced
+	 * 
+	 * @param context
+	 * @return {@code true} if the context has been traced and {@code false}
+	 *         if tracing was interrupted
+	 * @throws InterruptedException
+	 */
+	private boolean trace(TracedContext context) throws InterruptedException {
+		final CountDownLatch traced = new CountDownLatch(1);
+		InputProcessor<ContextTracingJob> tracingEngine = tracingFactory_.getEngine();
+		try {
+			// we don't care if the context is *being* traced since the factory
+			// will notify us when it is finished
+			tracingEngine.submit(new ContextTracingJob(context.getRoot(),
+					new ContextTracingListener() {
+
+						@Override
+						public void notifyFinished(ContextTracingJob job) {
+							traced.countDown();
+						}
+					}));
+			tracingEngine.process();
+			while (!traced.await(WAIT_INTERVAL_, TimeUnit.MILLISECONDS)) {
+				if (tracingFactory_.isInterrupted()) {
+					return false;
+				}
+				// help with the tracing jobs of other workers, if any
+				tracingEngine.process();
+			}
+			return true;
+		} finally {
+			tracingEngine.finish();
+		}
+	}
 }
@@ -48,6 +48,21 @@ public class SimpleCentralizedTraceStore implements TraceStore {
 
 	private final ConcurrentHashMap<IndexedClassExpression, ContextTraceStore> storage_ = new ConcurrentHashMap<IndexedClassExpression, ContextTraceStore>();
 	
+	private final TraceStoreStatistics statistics_;
+	
+	public SimpleCentralizedTraceStore() {
+		this(new TraceStoreStatistics());
+	}
+	
+	/**
+	 * @param statistics
+	 *            the {@link TraceStoreStatistics} in which the reads and
+	 *            writes of this store are counted
+	 */
+	public SimpleCentralizedTraceStore(TraceStoreStatistics statistics) {
+		statistics_ = statistics;
+	}
+	
 	@Override
 	public TraceStore.Reader getReader() {
 		return new Reader();
@@ -58,6 +73,27 @@ public class SimpleCentralizedTraceStore implements TraceStore {
 		return new Writer();
 	}
 	
+	/**
+	 * @return the number of contexts whose inferences are stored
+	 */
+	public int getContextCount() {
+		return storage_.size();
+	}
+	
+	public TraceStoreStatistics getStatistics() {
+		return statistics_;
+	}
+	
+	private ContextTraceStore read(IndexedClassExpression root) {
+		ContextTraceStore tracer = storage_.get(root);
+		
+		if (tracer != null) {
+			statistics_.hit();
+		}
+		
+		return tracer;
+	}
+	
 	/**
 	 * 
 	 *
@@ -66,7 +102,7 @@ public class SimpleCentralizedTraceStore implements TraceStore {
 
 		@Override
 		public void accept(IndexedClassExpression root, Conclusion conclusion, InferenceVisitor<?,?> visitor) {
-			ContextTraceStore tracer = storage_.get(root);
+			ContextTraceStore tracer = read(root);
 			
 			if (tracer != null) {
 				tracer.accept(conclusion, visitor);
@@ -80,7 +116,7 @@ public class SimpleCentralizedTraceStore implements TraceStore {
 		
 		@Override
 		public void visitInferences(IndexedClassExpression root, InferenceVisitor<?, ?> visitor) {
-			ContextTraceStore tracer = storage_.get(root);
+			ContextTraceStore tracer = read(root);
 			
 			if (tracer != null) {
 				tracer.visitInferences(visitor);
@@ -100,8 +136,14 @@ public class SimpleCentralizedTraceStore implements TraceStore {
 			}
 			
 			if (tracer == null) {
-				tracer = new SimpleContextTraceStore();
-				storage_.putIfAbsent(root, tracer);
+				ContextTraceStore newTracer = new SimpleContextTraceStore();
+				
+				tracer = storage_.putIfAbsent(root, newTracer);
+				
+				if (tracer == null) {
+					tracer = newTracer;
+					statistics_.miss();
+				}
 			}
 			
 			return tracer.addInference(conclusion);
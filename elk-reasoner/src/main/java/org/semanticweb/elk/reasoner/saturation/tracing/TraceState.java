@@ -40,14 +40,28 @@ import org.semanticweb.elk.reasoner.saturation.tracing.factories.NonRecursiveCon
  */
 public class TraceState {
 
-	private final TraceStore traceStore_;
+	private final SimpleCentralizedTraceStore traceStore_;
 
 	private final LocalTracingSaturationState tracingSaturationState_;
 
 	private final ContextTracingFactory tracingFactory_;
 
 	public TraceState(SaturationState<?> mainState, int maxWorkers) {
-		traceStore_ = new SimpleCentralizedTraceStore();
+		this(mainState, maxWorkers, new TraceStoreStatistics());
+	}
+
+	/**
+	 * @param mainState
+	 *            the {@link SaturationState} whose inferences are traced
+	 * @param maxWorkers
+	 *            the maximal number of workers used for tracing
+	 * @param statistics
+	 *            the {@link TraceStoreStatistics} in which the use of the
+	 *            stored inferences is counted
+	 */
+	public TraceState(SaturationState<?> mainState, int maxWorkers,
+			TraceStoreStatistics statistics) {
+		traceStore_ = new SimpleCentralizedTraceStore(statistics);
 		tracingSaturationState_ = new LocalTracingSaturationState(
 				mainState.getOntologyIndex());
 		tracingFactory_ = new NonRecursiveContextTracingFactory(mainState,
@@ -58,6 +72,14 @@ public class TraceState {
 		return traceStore_;
 	}
 
+	/**
+	 * @return the number of contexts whose inferences are stored in the
+	 *         {@link TraceStore} of this {@link TraceState}
+	 */
+	public int getStoredContextCount() {
+		return traceStore_.getContextCount();
+	}
+
 	public SaturationState<TracedContext> getSaturationState() {
 		return tracingSaturationState_;
 	}
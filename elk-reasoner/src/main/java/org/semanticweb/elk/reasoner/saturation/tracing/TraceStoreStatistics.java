@@ -0,0 +1,89 @@
+package org.semanticweb.elk.reasoner.saturation.tracing;
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how often the inferences of contexts are found in a
+ * {@link TraceStore} and how often they have to be traced. The counts can be
+ * shared by several {@link TraceStore}s, e.g., when a {@link TraceState} is
+ * replaced to discard the stored inferences.
+ *
+ * @author agent
+ *
+ */
+public class TraceStoreStatistics {
+
+	/**
+	 * the number of reads of the stored inferences of a context
+	 */
+	private final AtomicLong hits_ = new AtomicLong();
+
+	/**
+	 * the number of contexts whose inferences had to be stored because they
+	 * were not stored before
+	 */
+	private final AtomicLong misses_ = new AtomicLong();
+
+	/**
+	 * the number of contexts whose stored inferences were discarded
+	 */
+	private final AtomicLong evictions_ = new AtomicLong();
+
+	void hit() {
+		hits_.incrementAndGet();
+	}
+
+	void miss() {
+		misses_.incrementAndGet();
+	}
+
+	/**
+	 * Records that the stored inferences of the given number of contexts have
+	 * been discarded
+	 *
+	 * @param contextCount
+	 */
+	public void evicted(int contextCount) {
+		evictions_.addAndGet(contextCount);
+	}
+
+	public long getHitCount() {
+		return hits_.get();
+	}
+
+	public long getMissCount() {
+		return misses_.get();
+	}
+
+	public long getEvictionCount() {
+		return evictions_.get();
+	}
+
+	@Override
+	public String toString() {
+		return hits_.get() + " hits, " + misses_.get() + " misses, "
+				+ evictions_.get() + " evictions";
+	}
+
+}
@@ -0,0 +1,54 @@
+package org.semanticweb.elk.reasoner.saturation.tracing;
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collection;
+
+import org.semanticweb.elk.reasoner.ProgressMonitor;
+import org.semanticweb.elk.reasoner.ReasonerComputationWithInputs;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.conclusions.interfaces.Conclusion;
+import org.semanticweb.elk.util.collections.Pair;
+import org.semanticweb.elk.util.concurrent.computation.ComputationExecutor;
+
+/**
+ * Concurrently unwinds the traces of several {@link Conclusion}s, each given
+ * together with the root of the context where it is stored. The contexts
+ * required for the unwinding are traced on demand in the given
+ * {@link TraceState}.
+ *
+ * @author agent
+ *
+ */
+public class TraceUnwindingComputation
+		extends
+		ReasonerComputationWithInputs<Pair<Conclusion, IndexedClassExpression>, TraceUnwindingFactory> {
+
+	public TraceUnwindingComputation(
+			Collection<? extends Pair<Conclusion, IndexedClassExpression>> inputs,
+			TraceState traceState, ComputationExecutor executor,
+			int maxWorkers, ProgressMonitor progressMonitor) {
+		super(inputs, new TraceUnwindingFactory(traceState), executor,
+				maxWorkers, progressMonitor);
+	}
+
+}
@@ -0,0 +1,115 @@
+package org.semanticweb.elk.reasoner.saturation.tracing;
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.conclusions.interfaces.Conclusion;
+import org.semanticweb.elk.reasoner.saturation.conclusions.visitors.DummyConclusionVisitor;
+import org.semanticweb.elk.util.collections.Pair;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessorFactory;
+import org.semanticweb.elk.util.concurrent.computation.SimpleInterrupter;
+
+/**
+ * The factory of engines that unwind the traces of given {@link Conclusion}s
+ * stored in given contexts, tracing the contexts on demand. All engines share
+ * the same {@link TraceState}, so each context is traced only once even if it
+ * is needed for several {@link Conclusion}s; if a context is being traced by
+ * another engine, the engine waits until the tracing is finished.
+ *
+ * @author agent
+ *
+ */
+public class TraceUnwindingFactory extends SimpleInterrupter
+		implements
+		InputProcessorFactory<Pair<Conclusion, IndexedClassExpression>, TraceUnwindingFactory.Engine> {
+
+	private final TraceState traceState_;
+
+	/**
+	 * @param traceState
+	 *            the {@link TraceState} in which the contexts are traced and
+	 *            the inferences are stored
+	 */
+	public TraceUnwindingFactory(TraceState traceState) {
+		this.traceState_ = traceState;
+	}
+
+	@Override
+	public Engine getEngine() {
+		return new Engine();
+	}
+
+	@Override
+	public void finish() {
+		// nothing to do
+	}
+
+	/**
+	 * The engine for unwinding the traces of the submitted pairs of a
+	 * {@link Conclusion} and the root of the context where it is stored. Each
+	 * engine is used by one worker only.
+	 *
+	 * @author agent
+	 *
+	 */
+	public class Engine implements
+			InputProcessor<Pair<Conclusion, IndexedClassExpression>> {
+
+		private final Queue<Pair<Conclusion, IndexedClassExpression>> toDo_ = new ArrayDeque<Pair<Conclusion, IndexedClassExpression>>();
+
+		private final RecursiveTraceUnwinder unwinder_ = new RecursiveTraceUnwinder(
+				new OnDemandTracingReader(traceState_.getSaturationState(),
+						traceState_.getTraceStore().getReader(),
+						traceState_.getContextTracingFactory()));
+
+		private final DummyConclusionVisitor<IndexedClassExpression> conclusionVisitor_ = new DummyConclusionVisitor<IndexedClassExpression>();
+
+		@Override
+		public void submit(Pair<Conclusion, IndexedClassExpression> job) {
+			toDo_.add(job);
+		}
+
+		@Override
+		public void process() throws InterruptedException {
+			for (;;) {
+				if (isInterrupted())
+					return;
+				Pair<Conclusion, IndexedClassExpression> next = toDo_.poll();
+				if (next == null)
+					return;
+				unwinder_.accept(next.getSecond(), next.getFirst(),
+						conclusionVisitor_);
+			}
+		}
+
+		@Override
+		public void finish() {
+			// nothing to do
+		}
+
+	}
+
+}
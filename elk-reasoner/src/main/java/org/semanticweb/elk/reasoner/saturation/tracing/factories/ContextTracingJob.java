@@ -37,11 +37,26 @@ import org.semanticweb.elk.reasoner.saturation.SaturationJob;
  */
 public class ContextTracingJob extends SaturationJob<IndexedClassExpression> {
 
+	private final ContextTracingListener callback_;
+
 	public ContextTracingJob(IndexedClassExpression input) {
+		this(input, ContextTracingListener.DUMMY);
+	}
+
+	/**
+	 * @param input
+	 *            the root of the context to be traced
+	 * @param callback
+	 *            the {@link ContextTracingListener} notified when the context
+	 *            has been traced, possibly by another job for the same root
+	 */
+	public ContextTracingJob(IndexedClassExpression input,
+			ContextTracingListener callback) {
 		super(input);
+		this.callback_ = callback;
 	}
 
-	public static ContextTracingListener getCallback() {
-		return ContextTracingListener.DUMMY;
+	public ContextTracingListener getCallback() {
+		return callback_;
 	}
 }
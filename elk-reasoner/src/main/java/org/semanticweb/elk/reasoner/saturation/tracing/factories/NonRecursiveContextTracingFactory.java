@@ -96,6 +96,7 @@ public class NonRecursiveContextTracingFactory extends SimpleInterrupter
 
 	@Override
 	public void setInterrupt(boolean flag) {
+		super.setInterrupt(flag);
 		tracingFactory_.setInterrupt(flag);
 	}
 
@@ -107,8 +108,14 @@ public class NonRecursiveContextTracingFactory extends SimpleInterrupter
 	void notifyCallers(IndexedClassExpression root) {
 		Collection<ContextTracingJob> jobs = removePendingJobs(root);
 
+		if (jobs == null) {
+			// the jobs have been already notified by another worker which
+			// has traced the same root at the same time
+			return;
+		}
+
 		for (ContextTracingJob job : jobs) {
-			ContextTracingJob.getCallback().notifyFinished(job);
+			job.getCallback().notifyFinished(job);
 		}
 	}
 
@@ -161,7 +168,7 @@ public class NonRecursiveContextTracingFactory extends SimpleInterrupter
 			} else {
 				// if the context has been traced before, notify the caller
 				// immediately
-				ContextTracingJob.getCallback().notifyFinished(job);
+				job.getCallback().notifyFinished(job);
 			}
 		}
 
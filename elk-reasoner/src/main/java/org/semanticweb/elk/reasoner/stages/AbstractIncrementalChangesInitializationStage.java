@@ -24,6 +24,10 @@ package org.semanticweb.elk.reasoner.stages;
 
 import org.semanticweb.elk.reasoner.incremental.IncrementalChangesInitialization;
 import org.semanticweb.elk.reasoner.incremental.IncrementalStages;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedIndividual;
+import org.semanticweb.elk.reasoner.indexing.visitors.IndexedClassExpressionVisitor;
+import org.semanticweb.elk.reasoner.indexing.visitors.NoOpIndexedClassExpressionVisitor;
 import org.semanticweb.elk.reasoner.saturation.SaturationStatistics;
 
 /**
@@ -64,12 +68,44 @@ abstract class AbstractIncrementalChangesInitializationStage extends
 		if (!super.postExecute())
 			return false;
 
-		reasoner.ruleAndConclusionStats.add(stageStatistics_);
+		reasoner.addRuleAndConclusionStatistics(stageStatistics_);
 		stageStatistics_.reset();
 
 		return true;
 	}
 
+	/**
+	 * Marks the individuals among the given {@link IndexedClassExpression}s
+	 * for which no context exists for recomputing their instance nodes. The
+	 * types of such individuals are obtained from other individuals with the
+	 * same told subsumers, so changes in their rules cannot be detected using
+	 * the saturation.
+	 * 
+	 * @param changed
+	 *            the {@link IndexedClassExpression}s whose rules are changed
+	 */
+	protected void markIndividualsWithChangedRules(
+			Iterable<? extends IndexedClassExpression> changed) {
+		if (reasoner.instanceTaxonomyState.getTaxonomy() == null)
+			return;
+		// else
+		final InstanceTaxonomyState.Writer instanceTaxStateWriter = reasoner.instanceTaxonomyState
+				.getWriter();
+		IndexedClassExpressionVisitor<Object> individualVisitor = new NoOpIndexedClassExpressionVisitor<Object>() {
+
+			@Override
+			public Object visit(IndexedIndividual element) {
+				if (reasoner.saturationState.getContext(element) == null)
+					// the node is recomputed like for removed individuals
+					instanceTaxStateWriter.markRemovedIndividual(element);
+				return null;
+			}
+		};
+		for (IndexedClassExpression ice : changed) {
+			ice.accept(individualVisitor);
+		}
+	}
+
 	@Override
 	public void printInfo() {
 		// TODO
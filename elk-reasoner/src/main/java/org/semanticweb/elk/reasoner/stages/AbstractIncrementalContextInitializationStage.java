@@ -113,7 +113,7 @@ abstract class AbstractIncrementalContextInitializationStage extends
 	public boolean postExecute() {
 		if (!super.postExecute())
 			return false;
-		reasoner.ruleAndConclusionStats.add(stageStatistics_);
+		reasoner.addRuleAndConclusionStatistics(stageStatistics_);
 		return true;
 	}
 
@@ -157,12 +157,14 @@ abstract class AbstractReasonerStage extends SimpleInterrupter implements
 			LOGGER_.info("=== " + getName() + " using " + workerNo + " workers"
 					+ " ===");
 		progressMonitor.start(getName());
+		long start = System.nanoTime();
 
 		try {
 			executeStage();
 			checkInterrupt();
 		} finally {
 			progressMonitor.finish();
+			reasoner.metrics.recordStage(getName(), System.nanoTime() - start);
 		}
 	}
 
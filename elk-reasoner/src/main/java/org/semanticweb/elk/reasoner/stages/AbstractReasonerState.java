@@ -22,10 +22,21 @@
  */
 package org.semanticweb.elk.reasoner.stages;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.semanticweb.elk.loading.AxiomFingerprint;
 import org.semanticweb.elk.loading.AxiomLoader;
 import org.semanticweb.elk.loading.ComposedAxiomLoader;
 import org.semanticweb.elk.owl.exceptions.ElkException;
@@ -55,18 +66,30 @@ import org.semanticweb.elk.reasoner.saturation.tracing.OnDemandTracingReader;
 import org.semanticweb.elk.reasoner.saturation.tracing.RecursiveTraceUnwinder;
 import org.semanticweb.elk.reasoner.saturation.tracing.TraceState;
 import org.semanticweb.elk.reasoner.saturation.tracing.TraceStore;
+import org.semanticweb.elk.reasoner.saturation.tracing.TraceStoreStatistics;
+import org.semanticweb.elk.reasoner.taxonomy.ClassTaxonomyCache;
 import org.semanticweb.elk.reasoner.taxonomy.ConcurrentClassTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.ConcurrentInstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.InstanceCandidates;
+import org.semanticweb.elk.reasoner.taxonomy.OffHeapClassTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.OrphanInstanceNode;
 import org.semanticweb.elk.reasoner.taxonomy.OrphanNode;
 import org.semanticweb.elk.reasoner.taxonomy.OrphanTypeNode;
 import org.semanticweb.elk.reasoner.taxonomy.SingletoneInstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.SingletoneTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.SimpleTaxonomyDelta;
 import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyDelta;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyDeltaListener;
+import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomy;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
 import org.semanticweb.elk.util.collections.ArrayHashSet;
+import org.semanticweb.elk.util.collections.Pair;
 import org.semanticweb.elk.util.concurrent.computation.ComputationExecutor;
 import org.semanticweb.elk.util.concurrent.computation.SimpleInterrupter;
+import org.semanticweb.elk.util.logging.metrics.InMemoryMetricRegistry;
+import org.semanticweb.elk.util.logging.metrics.MetricRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,7 +120,7 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 	 */
 	final boolean REDUNDANT_RULES = false;
 
-	final SaturationState<? extends Context> saturationState;
+	SaturationState<? extends Context> saturationState;
 
 	/**
 	 * Accumulated statistics regarding produced conclusions and rule
@@ -109,10 +132,19 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 	 * computations across multiple stages
 	 */
 	final SaturationStatistics ruleAndConclusionStats;
+	/**
+	 * the metrics of the reasoning stages and computations, which are
+	 * recorded all the time
+	 */
+	final ReasonerMetrics metrics;
 	/**
 	 * the (differential) index for loading of axioms and changes
 	 */
 	final DifferentialIndex ontologyIndex;
+	/**
+	 * the fingerprint of the axioms loaded into {@link #ontologyIndex}
+	 */
+	final AxiomFingerprint axiomFingerprint = new AxiomFingerprint();
 	/**
 	 * {@code true} if the current ontology is inconsistent
 	 */
@@ -130,6 +162,10 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 	 * of individuals
 	 */
 	final InstanceTaxonomyState instanceTaxonomyState = new InstanceTaxonomyState();
+	/**
+	 * used to find the individuals to be realized for instance queries
+	 */
+	final InstanceCandidates instanceCandidates;
 	/**
 	 * The source where axioms and changes in ontology can be loaded
 	 */
@@ -144,12 +180,76 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 	 * if the property hierarchy correspond to the loading axioms
 	 */
 	boolean propertyHierarchyUpToDate_ = true;
+	/**
+	 * {@code true} if the class taxonomy was read from a cache and the
+	 * saturation state does not contain the contexts from which it was
+	 * computed; in this case changes cannot be processed incrementally
+	 */
+	private boolean classTaxonomyFromCache_ = false;
+	/**
+	 * if {@code true}, the subsumers in contexts are stored using identifiers
+	 * of indexed class expressions instead of references to them
+	 */
+	private boolean compactSubsumers_ = false;
+	/**
+	 * if {@code true}, active contexts are scheduled using per-worker deques
+	 * with work stealing instead of one shared queue
+	 */
+	private boolean workStealing_ = false;
+	/**
+	 * if {@code true}, the computed class taxonomy is kept outside of the Java
+	 * heap until it needs to be modified
+	 */
+	private boolean offHeapTaxonomy_ = false;
+	/**
+	 * the maximal number of contexts whose traced inferences are kept for
+	 * explanations; 0 means no limit
+	 */
+	private int maxTracedContexts_ = 0;
+
+	/**
+	 * guards the published taxonomies: they are read under the read lock and
+	 * are withdrawn under the write lock before they can be modified
+	 */
+	private final ReadWriteLock publicationLock_ = new ReentrantReadWriteLock();
+	/**
+	 * the class taxonomy of the current ontology that can be queried without
+	 * synchronizing on this reasoner, or {@code null} if there is none
+	 */
+	private Taxonomy<ElkClass> publishedTaxonomy_ = null;
+	/**
+	 * the instance taxonomy of the current ontology that can be queried
+	 * without synchronizing on this reasoner, or {@code null} if there is none
+	 */
+	private InstanceTaxonomy<ElkClass, ElkNamedIndividual> publishedInstanceTaxonomy_ = null;
+	/**
+	 * {@code true} if the registered {@link AxiomLoader} may have new axioms
+	 * since the axiom loading stage was reset last time
+	 * 
+	 * @see #scheduleAxiomLoading()
+	 */
+	private volatile boolean axiomLoadingScheduled_ = false;
+
+	/**
+	 * the listeners notified about the changes of the class taxonomy
+	 */
+	private final List<TaxonomyDeltaListener<ElkClass>> taxonomyDeltaListeners_ = new CopyOnWriteArrayList<TaxonomyDeltaListener<ElkClass>>();
+	/**
+	 * the class taxonomy about which the listeners were notified last time,
+	 * or {@code null} if they were not notified
+	 */
+	private Taxonomy<ElkClass> notifiedTaxonomy_ = null;
 
 	/**
 	 * Keeps relevant information about tracing
 	 */
 	TraceState traceState;
 
+	/**
+	 * counts the use of the traced inferences by all {@link TraceState}s
+	 */
+	final TraceStoreStatistics traceStoreStatistics = new TraceStoreStatistics();
+
 	private final ElkPolarityExpressionConverter expressionConverter_;
 
 	protected AbstractReasonerState() {
@@ -157,9 +257,11 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 		this.saturationState = SaturationStateFactory
 				.createSaturationState(ontologyIndex);
 		this.ruleAndConclusionStats = new SaturationStatistics();
+		this.metrics = new ReasonerMetrics(this);
 		this.stageManager = new ReasonerStageManager(this);
 		this.expressionConverter_ = new ElkPolarityExpressionConverterImpl(
 				ontologyIndex);
+		this.instanceCandidates = new InstanceCandidates(ontologyIndex);
 	}
 
 	protected AbstractReasonerState(AxiomLoader axiomLoader) {
@@ -168,6 +270,9 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 	}
 
 	protected void complete(ReasonerStage stage) throws ElkException {
+		if (!stage.isCompleted())
+			// the taxonomies may be modified
+			withdrawTaxonomies();
 		try {
 			getStageExecutor().complete(stage);
 		} catch (ElkInterruptedException e) {
@@ -193,6 +298,164 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 		}
 	}
 
+	/**
+	 * Sets whether the subsumers of contexts should be stored using the
+	 * identifiers of {@link IndexedClassExpression}s rather than references to
+	 * them; the identifiers of saturated contexts are stored in a compressed
+	 * form. Changing this setting discards the current saturation, which will
+	 * be recomputed non-incrementally when required.
+	 * 
+	 * @param compact
+	 */
+	public synchronized void setCompactSubsumers(boolean compact) {
+		if (compactSubsumers_ == compact)
+			return;
+		compactSubsumers_ = compact;
+		resetSaturationState();
+
+		if (LOGGER_.isInfoEnabled()) {
+			LOGGER_.info("Subsumers are stored using "
+					+ (compact ? "identifiers" : "references"));
+		}
+	}
+
+	public synchronized boolean isCompactSubsumers() {
+		return compactSubsumers_;
+	}
+
+	/**
+	 * Sets whether the workers applying the inference rules should keep the
+	 * contexts they activate in their own deques and steal contexts from other
+	 * workers when they have none left, instead of using one queue shared by
+	 * all workers. Changing this setting discards the current saturation,
+	 * which will be recomputed non-incrementally when required.
+	 * 
+	 * @param workStealing
+	 */
+	public synchronized void setWorkStealing(boolean workStealing) {
+		if (workStealing_ == workStealing)
+			return;
+		workStealing_ = workStealing;
+		resetSaturationState();
+
+		if (LOGGER_.isInfoEnabled()) {
+			LOGGER_.info("Active contexts are scheduled using "
+					+ (workStealing ? "work stealing" : "a shared queue"));
+		}
+	}
+
+	public synchronized boolean isWorkStealing() {
+		return workStealing_;
+	}
+
+	/**
+	 * Sets whether the computed class taxonomy should be stored outside of the
+	 * Java heap using {@link OffHeapClassTaxonomy}, so that it is not traversed
+	 * by the garbage collector. Such a taxonomy cannot be modified, so the
+	 * changes of the ontology are not processed incrementally while this
+	 * setting is on: the taxonomy is computed from scratch on the heap and
+	 * then moved off-heap. The taxonomy is copied back to the heap for
+	 * computing the instance taxonomy; the class taxonomy shared with the
+	 * instance taxonomy stays on the heap.
+	 * 
+	 * @param offHeap
+	 */
+	public synchronized void setOffHeapTaxonomy(boolean offHeap) {
+		if (offHeapTaxonomy_ == offHeap)
+			return;
+		offHeapTaxonomy_ = offHeap;
+		if (offHeap)
+			setNonIncrementalMode();
+		else
+			classTaxonomyState.getWriter().moveTaxonomyOnHeap();
+
+		if (LOGGER_.isInfoEnabled()) {
+			LOGGER_.info("The class taxonomy is stored "
+					+ (offHeap ? "off-heap" : "on the heap"));
+		}
+	}
+
+	public synchronized boolean isOffHeapTaxonomy() {
+		return offHeapTaxonomy_;
+	}
+
+	/**
+	 * Sets the maximal number of contexts whose traced inferences are kept for
+	 * explaining subsumptions. This is a soft limit: it is checked only when
+	 * an explanation starts, so a single explanation can store inferences of
+	 * any number of contexts. When the inferences of more contexts are
+	 * stored, all of them are discarded before the next explanation and
+	 * traced again when they are required. The inferences cannot be discarded
+	 * for individual contexts since tracing of one context can store
+	 * inferences in other contexts. The discarded inferences are freed only
+	 * when the {@link TraceStore.Reader}s returned by the previous
+	 * explanations are no longer used.
+	 * 
+	 * @param maxContexts
+	 *            the maximal number of contexts; 0 means no limit
+	 */
+	public synchronized void setMaxTracedContexts(int maxContexts) {
+		if (maxTracedContexts_ == maxContexts)
+			return;
+		maxTracedContexts_ = maxContexts;
+
+		if (LOGGER_.isInfoEnabled()) {
+			LOGGER_.info("Traced inferences are kept for "
+					+ (maxContexts > 0 ? "at most " + maxContexts : "all")
+					+ " contexts");
+		}
+	}
+
+	public synchronized int getMaxTracedContexts() {
+		return maxTracedContexts_;
+	}
+
+	/**
+	 * Sets the {@link MetricRegistry} in which the metrics of this reasoner
+	 * are recorded, such as durations of reasoning stages and the numbers of
+	 * processed conclusions, rule applications and context activations. By
+	 * default, the metrics are recorded in an {@link InMemoryMetricRegistry}.
+	 * 
+	 * @param registry
+	 */
+	public void setMetricRegistry(MetricRegistry registry) {
+		metrics.setRegistry(registry);
+	}
+
+	/**
+	 * @return the {@link MetricRegistry} in which the metrics of this reasoner
+	 *         are recorded
+	 */
+	public MetricRegistry getMetricRegistry() {
+		return metrics.getRegistry();
+	}
+
+	/**
+	 * Adds the statistics of a finished computation to the accumulated
+	 * statistics and records them in the metrics
+	 * 
+	 * @param statistics
+	 */
+	void addRuleAndConclusionStatistics(SaturationStatistics statistics) {
+		ruleAndConclusionStats.add(statistics);
+		metrics.recordSaturation(statistics);
+	}
+
+	/**
+	 * Replaces the saturation state by a new one created according to the
+	 * current settings, so that the saturation is recomputed from scratch
+	 */
+	private void resetSaturationState() {
+		// contexts of the previous state are still assigned to the roots
+		saturationState.getContextModifyingWriter().resetContexts();
+		saturationState = SaturationStateFactory.createSaturationState(
+				ontologyIndex, compactSubsumers_, workStealing_);
+		traceState = null;
+		setNonIncrementalMode();
+		stageManager.contextInitializationStage.invalidate();
+		stageManager.incrementalCompletionStage.invalidate();
+	}
+
 	public synchronized boolean isAllowIncrementalMode() {
 		return allowIncrementalMode_;
 	}
@@ -210,6 +473,12 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 		if (!allowIncrementalMode_)
 			// switching to incremental mode not allowed
 			return false;
+		if (classTaxonomyFromCache_)
+			// no saturation to update incrementally
+			return false;
+		if (offHeapTaxonomy_)
+			// the off-heap taxonomy cannot be updated
+			return false;
 
 		ontologyIndex.setIncrementalMode(true);
 		return true;
@@ -217,20 +486,39 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 	}
 
 	/**
-	 * Reset the axiom loading stage and all subsequent stages
+	 * Reset the axiom loading stage and all subsequent stages; the published
+	 * taxonomies are withdrawn since they may not correspond to the ontology
+	 * anymore
 	 */
 	public synchronized void resetAxiomLoading() {
 		LOGGER_.trace("Reset axiom loading");
 		stageManager.axiomLoadingStage.invalidate();
 		stageManager.incrementalCompletionStage.invalidate();
+		withdrawTaxonomies();
 	}
 
 	/**
-	 * Reset the property saturation stage and all subsequent stages
+	 * Notifies the reasoner that the registered {@link AxiomLoader} has new
+	 * axioms. Unlike {@link #resetAxiomLoading()}, does not wait until the
+	 * running reasoning tasks are finished: the published taxonomies are
+	 * withdrawn right away, and the axiom loading stage is reset by the next
+	 * task that loads axioms.
+	 */
+	public void scheduleAxiomLoading() {
+		LOGGER_.trace("Schedule axiom loading");
+		axiomLoadingScheduled_ = true;
+		withdrawTaxonomies();
+	}
+
+	/**
+	 * Reset the property saturation stage and all subsequent stages; the
+	 * published taxonomies are withdrawn since they may not correspond to the
+	 * ontology anymore
 	 */
 	public synchronized void resetPropertySaturation() {
 		LOGGER_.trace("Reset property saturation");
 		stageManager.propertyInitializationStage.invalidate();
+		withdrawTaxonomies();
 	}
 
 	public synchronized void registerAxiomLoader(AxiomLoader newAxiomLoader) {
@@ -259,6 +547,10 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 	 * @throws ElkException
 	 */
 	public synchronized void forceLoading() throws ElkException {
+		if (axiomLoadingScheduled_) {
+			axiomLoadingScheduled_ = false;
+			resetAxiomLoading();
+		}
 		if (classTaxonomyState.getTaxonomy() != null)
 			trySetIncrementalMode();
 		complete(stageManager.axiomLoadingStage);
@@ -324,6 +616,40 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 		return inconsistentOntology;
 	}
 
+	/**
+	 * Computes the saturation of the given {@link ElkClass} if it has not been
+	 * done yet. Only the saturation of the class expressions required for this
+	 * class is computed, which is usually much faster than the computation of
+	 * the whole taxonomy. The results are kept and reused by subsequent
+	 * queries and by the computation of the taxonomy.
+	 *
+	 * @param elkClass
+	 *            the {@link ElkClass} to saturate
+	 * @return the saturated {@link Context} for the given {@link ElkClass} or
+	 *         {@code null} if this class does not occur in the ontology
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 */
+	protected synchronized Context getSaturatedContext(ElkClass elkClass)
+			throws ElkInconsistentOntologyException, ElkException {
+
+		if (isInconsistent())
+			throw new ElkInconsistentOntologyException();
+
+		IndexedClassExpression root = transform(elkClass);
+		if (root == null)
+			return null;
+		// else
+		Context context = saturationState.getContext(root);
+		if (context == null || !context.isSaturated()) {
+			complete(new QuerySaturationStage(this, root));
+			context = saturationState.getContext(root);
+		}
+		return context;
+	}
+
 	/**
 	 * Compute the inferred taxonomy of the named classes for the given ontology
 	 * if it has not been done yet.
@@ -350,6 +676,15 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 			stageManager.incrementalClassTaxonomyComputationStage
 					.setCompleted();
 		}
+		notifyTaxonomyDeltaListeners();
+		if (offHeapTaxonomy_ && instanceTaxonomyState.getTaxonomy() == null) {
+			boolean notified = notifiedTaxonomy_ == classTaxonomyState
+					.getTaxonomy();
+			classTaxonomyState.getWriter().moveTaxonomyOffHeap();
+			// the same taxonomy, but its changes are no longer recorded
+			if (notified)
+				notifiedTaxonomy_ = classTaxonomyState.getTaxonomy();
+		}
 
 		return classTaxonomyState.getTaxonomy();
 	}
@@ -399,6 +734,10 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 			throw new ElkInconsistentOntologyException();
 
 		if (isIncrementalMode() && instanceTaxonomyState.getTaxonomy() != null) {
+			if (!instanceTaxonomyState.isComplete())
+				// the remaining individuals should be realized
+				stageManager.incrementalInstanceTaxonomyComputationStage
+						.invalidate();
 			complete(stageManager.incrementalInstanceTaxonomyComputationStage);
 		} else {
 			setNonIncrementalMode();
@@ -406,10 +745,132 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 			stageManager.incrementalInstanceTaxonomyComputationStage
 					.setCompleted();
 		}
+		notifyTaxonomyDeltaListeners();
 
 		return instanceTaxonomyState.getTaxonomy();
 	}
 
+	/**
+	 * Computes the instance taxonomy only partially so that it contains the
+	 * node of the given {@link ElkNamedIndividual}, if it has not been done
+	 * yet. The nodes computed by this method are kept and reused by subsequent
+	 * queries and by the computation of the whole instance taxonomy.
+	 * 
+	 * @param elkNamedIndividual
+	 *            the {@link ElkNamedIndividual} whose types are required
+	 * @return the instance taxonomy of the current ontology that contains the
+	 *         node of the given {@link ElkNamedIndividual}, unless this
+	 *         individual does not occur in the ontology
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 */
+	protected synchronized InstanceTaxonomy<ElkClass, ElkNamedIndividual> getInstanceTaxonomy(
+			ElkNamedIndividual elkNamedIndividual) throws ElkException {
+		if (!initPartialInstanceTaxonomy())
+			return getInstanceTaxonomy();
+		// else
+		IndexedIndividual individual = elkNamedIndividual
+				.accept(expressionConverter_);
+		if (individual == null || !individual.occurs())
+			return instanceTaxonomyState.getTaxonomy();
+		// else
+		return realizeIndividuals(Collections.singleton(individual));
+	}
+
+	/**
+	 * Computes the instance taxonomy only partially so that it contains all
+	 * instances of the given {@link ElkClass}, if it has not been done yet.
+	 * Only the individuals that can be instances of this {@link ElkClass}
+	 * according to the told axioms are realized; if every individual can be
+	 * its instance, the whole instance taxonomy is computed.
+	 * 
+	 * @param elkClass
+	 *            the {@link ElkClass} whose instances are required
+	 * @return the instance taxonomy of the current ontology that contains all
+	 *         instances of the given {@link ElkClass}
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 * @see #getInstanceTaxonomy(ElkNamedIndividual)
+	 */
+	protected synchronized InstanceTaxonomy<ElkClass, ElkNamedIndividual> getInstanceTaxonomy(
+			ElkClass elkClass) throws ElkException {
+		if (!initPartialInstanceTaxonomy())
+			return getInstanceTaxonomy();
+		// else
+		IndexedClassExpression type = transform(elkClass);
+		if (type == null || !type.occurs())
+			return instanceTaxonomyState.getTaxonomy();
+		// else
+		Collection<IndexedIndividual> candidates = instanceCandidates
+				.getCandidates(type);
+		if (candidates == null)
+			return getInstanceTaxonomy();
+		// else
+		return realizeIndividuals(candidates);
+	}
+
+	/**
+	 * Computes the class taxonomy and prepares the instance taxonomy for
+	 * realization of individuals used in queries
+	 * 
+	 * @return {@code false} if the whole instance taxonomy is (or was) already
+	 *         computed, in which case it should be updated as usual, and
+	 *         {@code true} otherwise
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 */
+	private boolean initPartialInstanceTaxonomy() throws ElkException {
+		if (instanceTaxonomyState.isComplete())
+			return false;
+		// else
+		// removes the outdated nodes of the instance taxonomy, if necessary
+		getTaxonomy();
+		if (instanceTaxonomyState.isComplete())
+			return false;
+		// else
+		if (instanceTaxonomyState.getTaxonomy() == null)
+			initInstanceTaxonomy();
+		return true;
+	}
+
+	private InstanceTaxonomy<ElkClass, ElkNamedIndividual> realizeIndividuals(
+			Collection<? extends IndexedIndividual> individuals)
+			throws ElkException {
+		Collection<IndexedIndividual> unrealized = getUnrealizedIndividuals(individuals);
+		if (unrealized.isEmpty())
+			return instanceTaxonomyState.getTaxonomy();
+		// else
+		complete(new IndividualRealizationStage(this, unrealized));
+		if (instanceTaxonomyState.getTaxonomy().getInstanceCount() < ontologyIndex
+				.getIndividuals().size())
+			return instanceTaxonomyState.getTaxonomy();
+		// else all individuals are likely realized; if not, the remaining
+		// ones are realized before the taxonomy is published
+		return getInstanceTaxonomy();
+	}
+
+	/**
+	 * @param individuals
+	 * @return the given {@link IndexedIndividual}s that do not have nodes in
+	 *         the current instance taxonomy
+	 */
+	Collection<IndexedIndividual> getUnrealizedIndividuals(
+			Collection<? extends IndexedIndividual> individuals) {
+		InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = instanceTaxonomyState
+				.getTaxonomy();
+		Collection<IndexedIndividual> result = new ArrayList<IndexedIndividual>(
+				individuals.size());
+		for (IndexedIndividual individual : individuals) {
+			if (taxonomy.getInstanceNode(individual.getElkEntity()) == null)
+				result.add(individual);
+		}
+		return result;
+	}
+
 	/**
 	 * Compute the inferred taxonomy of the named classes with instances if this
 	 * has not been done yet.
@@ -528,13 +989,240 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 	}
 
 	public synchronized void initClassTaxonomy() {
+		classTaxonomyFromCache_ = false;
+		// the instance taxonomy refers to the nodes of the old class taxonomy
+		instanceTaxonomyState.getWriter().clearTaxonomy();
 		classTaxonomyState.getWriter().setTaxonomy(
 				new ConcurrentClassTaxonomy());
 	}
 
+	/**
+	 * Writes the class taxonomy of the current ontology to the given cache
+	 * file so that it can be read later using
+	 * {@link #readClassTaxonomyCache(File)}. Calling of this method may
+	 * trigger the computation of the taxonomy, if it has not been done yet.
+	 * 
+	 * @param file
+	 *            the file to which the taxonomy should be written
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 * @throws IOException
+	 *             if the taxonomy cannot be written
+	 */
+	public synchronized void writeClassTaxonomyCache(File file) throws ElkException,
+			IOException {
+		ClassTaxonomyCache.write(getTaxonomy(), axiomFingerprint.getValue(),
+				file);
+	}
+
+	/**
+	 * Reads the class taxonomy of the current ontology from the given file
+	 * previously written by {@link #writeClassTaxonomyCache(File)} for the
+	 * same ontology. The axioms are loaded and the properties are saturated as
+	 * usual, and the consistency of the ontology is checked, but the classes
+	 * are not saturated. After this method returns, the reasoner answers class
+	 * taxonomy queries from the cached taxonomy without classifying the
+	 * ontology. The file is rejected if it was written for different axioms,
+	 * which is detected using the {@link AxiomFingerprint} of the loaded
+	 * axioms stored in the file.
+	 * 
+	 * The cache is read-only: neither the saturation nor the index is cached,
+	 * so the cached taxonomy cannot be updated. The first change of the
+	 * ontology discards it and the changed ontology is classified from
+	 * scratch, as if no cache was used; only the following changes are
+	 * processed incrementally. The cache is thus useful only for ontologies
+	 * that are queried without changes.
+	 * 
+	 * @param file
+	 *            the file from which the taxonomy should be read
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the ontology cannot be loaded
+	 * @throws IOException
+	 *             if the taxonomy cannot be read or does not correspond to the
+	 *             current ontology
+	 */
+	public synchronized void readClassTaxonomyCache(File file)
+			throws ElkException, IOException {
+		forceLoading();
+		setNonIncrementalMode();
+		// discard all previous results
+		stageManager.contextInitializationStage.invalidate();
+		complete(stageManager.contextInitializationStage);
+
+		Map<String, ElkClass> classesByIri = new ArrayHashMap<String, ElkClass>(
+				ontologyIndex.getClasses().size());
+		for (IndexedClass ic : ontologyIndex.getClasses()) {
+			ElkClass elkClass = ic.getElkEntity();
+			if (elkClass != PredefinedElkClass.OWL_NOTHING)
+				classesByIri.put(elkClass.getIri().getFullIriAsString(),
+						elkClass);
+		}
+		UpdateableTaxonomy<ElkClass> taxonomy = ClassTaxonomyCache.read(
+				file, classesByIri, axiomFingerprint.getValue());
+		// taxonomies are saved only for consistent ontologies, but the
+		// consistency is cheaper to check than to classify the ontology
+		if (isInconsistent())
+			throw new ElkInconsistentOntologyException();
+
+		classTaxonomyState.getWriter().clear();
+		classTaxonomyState.getWriter().setTaxonomy(taxonomy);
+		instanceTaxonomyState.getWriter().clearTaxonomy();
+		classTaxonomyFromCache_ = true;
+		stageManager.classTaxonomyComputationStage.setCompleted();
+		stageManager.incrementalClassTaxonomyComputationStage.setCompleted();
+		LOGGER_.info("Class taxonomy read from {}", file);
+	}
+
+	/**
+	 * Makes the class taxonomy and the instance taxonomy, if they have been
+	 * computed for the current ontology, available for queries that do not
+	 * synchronize on this reasoner. The published taxonomies are used until
+	 * they are withdrawn because new changes are registered or some reasoning
+	 * stage needs to be executed.
+	 * 
+	 * @see #getPublicationLock()
+	 * @see #getPublishedTaxonomy()
+	 * @see #getPublishedInstanceTaxonomy()
+	 */
+	protected synchronized void publishTaxonomies() {
+		if (doneTaxonomy())
+			notifyTaxonomyDeltaListeners();
+		Lock lock = publicationLock_.writeLock();
+		lock.lock();
+		try {
+			if (axiomLoadingScheduled_) {
+				// the taxonomies may not correspond to the ontology anymore
+				publishedTaxonomy_ = null;
+				publishedInstanceTaxonomy_ = null;
+				return;
+			}
+			publishedTaxonomy_ = doneTaxonomy() ? classTaxonomyState
+					.getTaxonomy() : null;
+			publishedInstanceTaxonomy_ = instanceTaxonomyState.isComplete()
+					&& (stageManager.instanceTaxonomyComputationStage.isCompleted || stageManager.incrementalInstanceTaxonomyComputationStage.isCompleted) ? instanceTaxonomyState
+					.getTaxonomy() : null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Withdraws the published taxonomies; returns only after all queries that
+	 * use them have finished
+	 */
+	void withdrawTaxonomies() {
+		Lock lock = publicationLock_.writeLock();
+		lock.lock();
+		try {
+			publishedTaxonomy_ = null;
+			publishedInstanceTaxonomy_ = null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the {@link ReadWriteLock} whose read lock should be held while
+	 *         the published taxonomies are queried
+	 */
+	protected ReadWriteLock getPublicationLock() {
+		return publicationLock_;
+	}
+
+	/**
+	 * @return the class taxonomy of the current ontology that can be queried
+	 *         while holding the read lock of {@link #getPublicationLock()}, or
+	 *         {@code null} if it has not been published
+	 */
+	protected Taxonomy<ElkClass> getPublishedTaxonomy() {
+		return publishedTaxonomy_;
+	}
+
+	/**
+	 * @return the instance taxonomy of the current ontology that can be
+	 *         queried while holding the read lock of
+	 *         {@link #getPublicationLock()}, or {@code null} if it has not been
+	 *         published
+	 */
+	protected InstanceTaxonomy<ElkClass, ElkNamedIndividual> getPublishedInstanceTaxonomy() {
+		return publishedInstanceTaxonomy_;
+	}
+
+	/**
+	 * Registers a listener that is notified about the changes of the class
+	 * taxonomy after it has been computed or updated. The first notification
+	 * after the class taxonomy is computed from scratch reports a
+	 * {@link TaxonomyDelta#isReset() reset}; after incremental updates the
+	 * listener receives the changed nodes and edges.
+	 * 
+	 * @param listener
+	 *            the {@link TaxonomyDeltaListener} to be registered
+	 */
+	public synchronized void addTaxonomyDeltaListener(
+			TaxonomyDeltaListener<ElkClass> listener) {
+		taxonomyDeltaListeners_.add(listener);
+	}
+
+	/**
+	 * Unregisters a listener previously registered using
+	 * {@link #addTaxonomyDeltaListener(TaxonomyDeltaListener)}
+	 * 
+	 * @param listener
+	 *            the {@link TaxonomyDeltaListener} to be unregistered
+	 */
+	public synchronized void removeTaxonomyDeltaListener(
+			TaxonomyDeltaListener<ElkClass> listener) {
+		taxonomyDeltaListeners_.remove(listener);
+		if (taxonomyDeltaListeners_.isEmpty()) {
+			if (notifiedTaxonomy_ instanceof ConcurrentClassTaxonomy)
+				((ConcurrentClassTaxonomy) notifiedTaxonomy_)
+						.stopRecordingDelta();
+			notifiedTaxonomy_ = null;
+		}
+	}
+
+	/**
+	 * Notifies the registered listeners about the changes of the class
+	 * taxonomy since the previous notification; should be called only when
+	 * the class taxonomy is computed
+	 */
+	private synchronized void notifyTaxonomyDeltaListeners() {
+		if (taxonomyDeltaListeners_.isEmpty())
+			return;
+		Taxonomy<ElkClass> taxonomy = classTaxonomyState.getTaxonomy();
+		if (taxonomy == null)
+			return;
+		TaxonomyDelta<ElkClass> delta = null;
+		if (taxonomy == notifiedTaxonomy_) {
+			if (taxonomy instanceof ConcurrentClassTaxonomy)
+				delta = ((ConcurrentClassTaxonomy) taxonomy).nextDelta();
+		} else {
+			if (notifiedTaxonomy_ instanceof ConcurrentClassTaxonomy)
+				((ConcurrentClassTaxonomy) notifiedTaxonomy_)
+						.stopRecordingDelta();
+			// start recording the changes of the new taxonomy
+			if (taxonomy instanceof ConcurrentClassTaxonomy)
+				((ConcurrentClassTaxonomy) taxonomy).nextDelta();
+			notifiedTaxonomy_ = taxonomy;
+			delta = SimpleTaxonomyDelta.reset();
+		}
+		if (delta == null || delta.isEmpty())
+			return;
+		LOGGER_.trace("class taxonomy changed: {}", delta);
+		for (TaxonomyDeltaListener<ElkClass> listener : taxonomyDeltaListeners_) {
+			listener.taxonomyChanged(delta);
+		}
+	}
+
 	public synchronized void initInstanceTaxonomy() {
+		// the instance taxonomy modifies the nodes of the class taxonomy
+		classTaxonomyState.getWriter().moveTaxonomyOnHeap();
 		instanceTaxonomyState.initTaxonomy(new ConcurrentInstanceTaxonomy(
-				classTaxonomyState.getTaxonomy()));
+				classTaxonomyState.getUpdateableTaxonomy()));
 	}
 
 	/*---------------------------------------------------
@@ -548,12 +1236,11 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 
 	public TraceStore.Reader explainSubsumption(ElkClassExpression sub,
 			ElkClassExpression sup) throws ElkException {
-		if (traceState == null) {
-			resetTraceState();
-		}
+		prepareTraceState();
 
 		IndexedClassExpression subsumee = sub.accept(expressionConverter_);
-		IndexedClassExpression subsumer = sup.accept(expressionConverter_);
+		Conclusion conclusion = getConclusionToExplain(sub, subsumee,
+				sup.accept(expressionConverter_));
 
 		TraceStore.Reader onDemandTracer = new OnDemandTracingReader(
 				traceState.getSaturationState(), traceState.getTraceStore()
@@ -563,31 +1250,93 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 		TraceStore.Reader inferenceReader = onDemandTracer;
 		RecursiveTraceUnwinder unwinder = new RecursiveTraceUnwinder(
 				inferenceReader);
-		Context subsumeeContext = saturationState.getContext(subsumee);
 
-		if (subsumeeContext != null) {
-			Conclusion conclusion = null;
-
-			if (subsumeeContext.containsConclusion(ContradictionImpl
-					.getInstance())) {
-				// the subsumee is unsatisfiable so we explain the
-				// unsatisfiability
-				conclusion = ContradictionImpl.getInstance();
-			} else {
-				conclusion = new DecomposedSubsumerImpl<IndexedClassExpression>(
-						subsumer);
-			}
+		unwinder.accept(subsumee, conclusion,
+				new DummyConclusionVisitor<IndexedClassExpression>());
 
-			unwinder.accept(subsumee, conclusion,
-					new DummyConclusionVisitor<IndexedClassExpression>());
-		} else {
-			throw new IllegalArgumentException("Unknown class: " + sub);
+		return traceState.getTraceStore().getReader();
+	}
+
+	/**
+	 * Explains several subsumptions at once. The explanations are traced
+	 * concurrently using the available workers; the contexts required for
+	 * several explanations are traced only once.
+	 * 
+	 * @param subsumptions
+	 *            the pairs of a sub-class and a super-class of the
+	 *            subsumptions to be explained
+	 * @return the {@link TraceStore.Reader} for the inferences of all given
+	 *         subsumptions
+	 * @throws ElkException
+	 *             if tracing cannot be completed
+	 * 
+	 * @see #explainSubsumption(ElkClassExpression, ElkClassExpression)
+	 */
+	public synchronized TraceStore.Reader explainSubsumptions(
+			Collection<? extends Pair<? extends ElkClassExpression, ? extends ElkClassExpression>> subsumptions)
+			throws ElkException {
+		prepareTraceState();
+
+		List<Pair<Conclusion, IndexedClassExpression>> inputs = new ArrayList<Pair<Conclusion, IndexedClassExpression>>(
+				subsumptions.size());
+		for (Pair<? extends ElkClassExpression, ? extends ElkClassExpression> subsumption : subsumptions) {
+			ElkClassExpression sub = subsumption.getFirst();
+			IndexedClassExpression subsumee = sub.accept(expressionConverter_);
+			inputs.add(new Pair<Conclusion, IndexedClassExpression>(
+					getConclusionToExplain(sub, subsumee, subsumption
+							.getSecond().accept(expressionConverter_)),
+					subsumee));
+		}
+
+		try {
+			getStageExecutor().complete(
+					new SubsumptionTracingStage(this, inputs));
+		} catch (ElkInterruptedException e) {
+			// clear the interrupt flag
+			setInterrupt(false);
+			throw e;
 		}
 
 		return traceState.getTraceStore().getReader();
 	}
 
-	IndexedClassExpression transform(ElkClassExpression ce) {
+	/**
+	 * Creates the {@link TraceState} if it does not exist or discards it if it
+	 * keeps inferences of too many contexts; the limit is not checked during
+	 * tracing since the inferences are needed until the explanation is
+	 * finished
+	 */
+	private void prepareTraceState() {
+		if (traceState == null) {
+			resetTraceState();
+		} else if (maxTracedContexts_ > 0
+				&& traceState.getStoredContextCount() > maxTracedContexts_) {
+			// the readers of previous explanations keep the old inferences
+			traceStoreStatistics.evicted(traceState.getStoredContextCount());
+			resetTraceState();
+		}
+	}
+
+	/**
+	 * @return the {@link Conclusion} that should be traced in the context of
+	 *         the given subsumee to explain that it is subsumed by the given
+	 *         subsumer
+	 */
+	private Conclusion getConclusionToExplain(ElkClassExpression sub,
+			IndexedClassExpression subsumee, IndexedClassExpression subsumer) {
+		Context subsumeeContext = saturationState.getContext(subsumee);
+
+		if (subsumeeContext == null)
+			throw new IllegalArgumentException("Unknown class: " + sub);
+		if (subsumeeContext.containsConclusion(ContradictionImpl.getInstance()))
+			// the subsumee is unsatisfiable so we explain the
+			// unsatisfiability
+			return ContradictionImpl.getInstance();
+		// else
+		return new DecomposedSubsumerImpl<IndexedClassExpression>(subsumer);
+	}
+
+	protected IndexedClassExpression transform(ElkClassExpression ce) {
 		return ce.accept(expressionConverter_);
 	}
 
@@ -596,7 +1345,8 @@ public abstract class AbstractReasonerState extends SimpleInterrupter {
 	}
 
 	private void createTraceState(SaturationState<?> mainState) {
-		traceState = new TraceState(mainState, getNumberOfWorkers());
+		traceState = new TraceState(mainState, getNumberOfWorkers(),
+				traceStoreStatistics);
 	}
 
 	TraceState getTraceState() {
@@ -22,8 +22,10 @@
  */
 package org.semanticweb.elk.reasoner.stages;
 
+import org.semanticweb.elk.loading.AxiomFingerprint;
 import org.semanticweb.elk.loading.AxiomLoader;
 import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.owl.exceptions.ElkRuntimeException;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
 import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
@@ -31,6 +33,7 @@ import org.semanticweb.elk.reasoner.incremental.NonIncrementalChangeListener;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
 import org.semanticweb.elk.reasoner.indexing.hierarchy.ChangeIndexingProcessor;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.ConcurrentChangeIndexing;
 import org.semanticweb.elk.reasoner.indexing.hierarchy.NonIncrementalElkAxiomVisitor;
 import org.semanticweb.elk.reasoner.indexing.modifiable.ModifiableOntologyIndex;
 import org.slf4j.Logger;
@@ -52,6 +55,10 @@ public class AxiomLoadingStage extends AbstractReasonerStage {
 	private volatile AxiomLoader loader_;
 	private ElkAxiomProcessor axiomInsertionProcessor_,
 			axiomDeletionProcessor_;
+	/**
+	 * used for indexing of the loaded axioms if several workers are available
+	 */
+	private ConcurrentChangeIndexing concurrentIndexing_;
 
 	public AxiomLoadingStage(AbstractReasonerState reasoner,
 			AbstractReasonerStage... preStages) {
@@ -71,19 +78,12 @@ public class AxiomLoadingStage extends AbstractReasonerStage {
 		if (loader_ == null || loader_.isLoadingFinished()) {
 			return true;
 		}
+		// the index is going to be modified
+		reasoner.instanceCandidates.invalidate();
 
 		ModifiableOntologyIndex ontologyIndex = reasoner
 				.getModifiableOntologyIndex();
 
-		ElkAxiomConverter axiomInserter = new ElkAxiomConverterImpl(
-				ontologyIndex, 1);
-		ElkAxiomConverter axiomDeleter = new ElkAxiomConverterImpl(
-				ontologyIndex, -1);
-
-		/*
-		 * wrapping both the inserter and the deleter to receive notifications
-		 * if some axiom change can't be incorporated incrementally
-		 */
 		/**
 		 * The listener used to detect if the axiom has an impact on the role
 		 * hierarchy
@@ -106,26 +106,69 @@ public class AxiomLoadingStage extends AbstractReasonerStage {
 			}
 		};
 
+		if (workerNo > 1) {
+			this.concurrentIndexing_ = new ConcurrentChangeIndexing(
+					ontologyIndex, listener, reasoner.getProcessExecutor(),
+					workerNo);
+			setProcessors(concurrentIndexing_.getInsertionProcessor(),
+					concurrentIndexing_.getDeletionProcessor());
+			return true;
+		}
+		// else index the axioms as they are loaded
+		ElkAxiomConverter axiomInserter = new ElkAxiomConverterImpl(
+				ontologyIndex, 1);
+		ElkAxiomConverter axiomDeleter = new ElkAxiomConverterImpl(
+				ontologyIndex, -1);
+
+		/*
+		 * wrapping both the inserter and the deleter to receive notifications
+		 * if some axiom change can't be incorporated incrementally
+		 */
 		axiomInserter = new NonIncrementalElkAxiomVisitor(axiomInserter,
 				listener);
 		axiomDeleter = new NonIncrementalElkAxiomVisitor(axiomDeleter, listener);
 
-		this.axiomInsertionProcessor_ = new ChangeIndexingProcessor(
-				axiomInserter, ChangeIndexingProcessor.ADDITION);
-		this.axiomDeletionProcessor_ = new ChangeIndexingProcessor(
-				axiomDeleter, ChangeIndexingProcessor.REMOVAL);
+		setProcessors(new ChangeIndexingProcessor(axiomInserter,
+				ChangeIndexingProcessor.ADDITION), new ChangeIndexingProcessor(
+				axiomDeleter, ChangeIndexingProcessor.REMOVAL));
 		return true;
 	}
 
+	/**
+	 * Sets the processors of the loaded axioms so that they also update the
+	 * {@link AxiomFingerprint} of the reasoner
+	 */
+	private void setProcessors(ElkAxiomProcessor inserter,
+			ElkAxiomProcessor deleter) {
+		AxiomFingerprint fingerprint = reasoner.axiomFingerprint;
+		this.axiomInsertionProcessor_ = fingerprint.getInserter(inserter);
+		this.axiomDeletionProcessor_ = fingerprint.getDeleter(deleter);
+	}
+
 	@Override
 	public void executeStage() throws ElkException {
-		loader_.load(axiomInsertionProcessor_, axiomDeletionProcessor_);
+		try {
+			loader_.load(axiomInsertionProcessor_, axiomDeletionProcessor_);
+		} finally {
+			if (concurrentIndexing_ != null) {
+				try {
+					// the loaded axioms must be indexed even if interrupted
+					concurrentIndexing_.finish();
+				} catch (InterruptedException e) {
+					// restore interrupt status
+					Thread.currentThread().interrupt();
+					throw new ElkRuntimeException(
+							"Indexing of axioms interrupted externally!");
+				}
+			}
+		}
 	}
 
 	@Override
 	public boolean postExecute() {
 		if (!super.postExecute())
 			return false;
+		this.concurrentIndexing_ = null;
 		return true;
 	}
 
@@ -103,9 +103,9 @@ public class ClassSaturationStage extends AbstractReasonerStage {
 	public boolean postExecute() {
 		if (!super.postExecute())
 			return false;
-		this.computation_ = null;
-		reasoner.ruleAndConclusionStats.add(computation_
+		reasoner.addRuleAndConclusionStatistics(computation_
 				.getRuleAndConclusionStatistics());
+		this.computation_ = null;
 		return true;
 	}
 
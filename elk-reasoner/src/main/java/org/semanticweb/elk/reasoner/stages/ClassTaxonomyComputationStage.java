@@ -61,7 +61,7 @@ class ClassTaxonomyComputationStage extends AbstractReasonerStage {
 				reasoner.ontologyIndex.getClasses(), 64),
 				reasoner.getProcessExecutor(), workerNo, progressMonitor,
 				reasoner.saturationState,
-				reasoner.classTaxonomyState.getTaxonomy());
+				reasoner.classTaxonomyState.getUpdateableTaxonomy(), true);
 		return true;
 	}
 
@@ -76,7 +76,7 @@ class ClassTaxonomyComputationStage extends AbstractReasonerStage {
 			return false;
 		reasoner.classTaxonomyState.getWriter().setTaxonomy(
 				computation_.getTaxonomy());
-		reasoner.ruleAndConclusionStats.add(computation_
+		reasoner.addRuleAndConclusionStatistics(computation_
 				.getRuleAndConclusionStatistics());
 		return true;
 	}
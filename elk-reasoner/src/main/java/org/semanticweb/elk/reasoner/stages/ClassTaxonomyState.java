@@ -34,7 +34,9 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClass;
+import org.semanticweb.elk.reasoner.taxonomy.OffHeapClassTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomy;
 
 /**
@@ -46,14 +48,38 @@ import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomy;
  */
 public class ClassTaxonomyState {
 
+	/**
+	 * the taxonomy that can be modified or {@code null} if there is no
+	 * taxonomy or it is stored in {@link #offHeapTaxonomy_}
+	 */
 	private UpdateableTaxonomy<ElkClass> taxonomy_ = null;
 
+	/**
+	 * the read-only copy of the taxonomy stored off-heap or {@code null} if
+	 * there is no such copy
+	 */
+	private OffHeapClassTaxonomy offHeapTaxonomy_ = null;
+
 	private final Set<ElkClass> classesForModifiedNodes_ = Collections
 			.newSetFromMap(new ConcurrentHashMap<ElkClass, Boolean>());
 
 	private final List<IndexedClass> removedClasses_ = new LinkedList<IndexedClass>();
 
-	public UpdateableTaxonomy<ElkClass> getTaxonomy() {
+	/**
+	 * @return the current class taxonomy, which is either stored on the heap
+	 *         or off-heap, or {@code null} if there is no taxonomy
+	 */
+	public Taxonomy<ElkClass> getTaxonomy() {
+		return taxonomy_ == null ? offHeapTaxonomy_ : taxonomy_;
+	}
+
+	/**
+	 * @return the current class taxonomy if it is stored on the heap and can
+	 *         be modified, or {@code null} otherwise
+	 * 
+	 * @see Writer#moveTaxonomyOnHeap()
+	 */
+	public UpdateableTaxonomy<ElkClass> getUpdateableTaxonomy() {
 		return taxonomy_;
 	}
 
@@ -80,10 +106,35 @@ public class ClassTaxonomyState {
 
 		void setTaxonomy(UpdateableTaxonomy<ElkClass> classTaxonomy) {
 			taxonomy_ = classTaxonomy;
+			offHeapTaxonomy_ = null;
 		}
 
 		public void clearTaxonomy() {
 			taxonomy_ = null;
+			offHeapTaxonomy_ = null;
+		}
+
+		/**
+		 * Replaces the taxonomy, if it exists, by an equivalent read-only
+		 * {@link OffHeapClassTaxonomy}
+		 */
+		void moveTaxonomyOffHeap() {
+			if (taxonomy_ == null)
+				return;
+			offHeapTaxonomy_ = new OffHeapClassTaxonomy(taxonomy_);
+			taxonomy_ = null;
+		}
+
+		/**
+		 * Replaces the taxonomy, if it is an {@link OffHeapClassTaxonomy}, by
+		 * an equivalent taxonomy that can be modified; this copies the whole
+		 * taxonomy to the heap
+		 */
+		void moveTaxonomyOnHeap() {
+			if (offHeapTaxonomy_ == null)
+				return;
+			taxonomy_ = offHeapTaxonomy_.toConcurrentClassTaxonomy();
+			offHeapTaxonomy_ = null;
 		}
 
 		public void markClassForModifiedNode(final ElkClass elkClass) {
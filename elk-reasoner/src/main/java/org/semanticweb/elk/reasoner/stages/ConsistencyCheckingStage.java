@@ -69,7 +69,7 @@ class ConsistencyCheckingStage extends AbstractReasonerStage {
 		if (!super.postExecute())
 			return false;
 		reasoner.inconsistentOntology = computation.isInconsistent();
-		reasoner.ruleAndConclusionStats.add(computation
+		reasoner.addRuleAndConclusionStatistics(computation
 				.getRuleAndConclusionStatistics());
 
 		// FIXME Obviously needed a better clean-up after inconsistency
@@ -68,6 +68,8 @@ class ContextAssignmentResetStage extends AbstractReasonerStage {
 		SaturationStateWriter<?> writer = reasoner.saturationState
 				.getContextModifyingWriter();
 		writer.resetContexts();
+		// no context refers to removed class expressions anymore
+		reasoner.ontologyIndex.releaseRemovedIds();
 	}
 
 	@Override
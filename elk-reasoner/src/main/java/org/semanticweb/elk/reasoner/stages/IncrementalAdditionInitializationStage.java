@@ -149,6 +149,7 @@ public class IncrementalAdditionInitializationStage extends
 
 		changedInitRules = diffIndex.getAddedContextInitRules();
 		changedRulesByCE = diffIndex.getAddedContextRulesByClassExpressions();
+		markIndividualsWithChangedRules(changedRulesByCE.keySet());
 
 		if (changedInitRules != null || !changedRulesByCE.isEmpty()) {
 			inputs = Operations.split(reasoner.saturationState.getContexts(),
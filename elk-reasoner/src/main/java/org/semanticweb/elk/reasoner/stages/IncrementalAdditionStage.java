@@ -75,7 +75,7 @@ public class IncrementalAdditionStage extends AbstractReasonerStage {
 	public boolean postExecute() {
 		if (!super.postExecute())
 			return false;
-		reasoner.ruleAndConclusionStats.add(saturation_
+		reasoner.addRuleAndConclusionStatistics(saturation_
 				.getRuleAndConclusionStatistics());
 		saturation_ = null;
 		return true;
@@ -97,7 +97,7 @@ public class IncrementalClassTaxonomyComputationStage extends
 		this.computation_ = new ClassTaxonomyComputation(Operations.split(
 				modified, 64), reasoner.getProcessExecutor(), workerNo,
 				progressMonitor, reasoner.saturationState,
-				reasoner.classTaxonomyState.getTaxonomy());
+				reasoner.classTaxonomyState.getUpdateableTaxonomy());
 
 		return true;
 	}
@@ -114,7 +114,7 @@ public class IncrementalClassTaxonomyComputationStage extends
 		}
 		reasoner.classTaxonomyState.getWriter().clearModifiedNodeObjects();
 		reasoner.ontologyIndex.initClassChanges();
-		reasoner.ruleAndConclusionStats.add(computation_
+		reasoner.addRuleAndConclusionStatistics(computation_
 				.getRuleAndConclusionStatistics());
 		return true;
 	}
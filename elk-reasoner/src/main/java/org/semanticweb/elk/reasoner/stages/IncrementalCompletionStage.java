@@ -79,7 +79,7 @@ public class IncrementalCompletionStage extends AbstractReasonerStage {
 	public boolean postExecute() {
 		if (!super.postExecute())
 			return false;
-		reasoner.ruleAndConclusionStats.add(completion_
+		reasoner.addRuleAndConclusionStatistics(completion_
 				.getRuleAndConclusionStatistics());
 		completion_ = null;
 		return true;
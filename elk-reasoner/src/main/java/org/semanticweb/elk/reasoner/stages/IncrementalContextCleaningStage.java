@@ -72,7 +72,7 @@ public class IncrementalContextCleaningStage extends AbstractReasonerStage {
 	public boolean postExecute() {
 		if (!super.postExecute())
 			return false;
-		reasoner.ruleAndConclusionStats.add(cleaning_
+		reasoner.addRuleAndConclusionStatistics(cleaning_
 				.getRuleAndConclusionStatistics());
 		return true;
 	}
@@ -73,6 +73,7 @@ public class IncrementalDeletionInitializationStage extends
 
 		changedInitRules = diffIndex.getRemovedContextInitRules();
 		changedRulesByCE = diffIndex.getRemovedContextRulesByClassExpressions();
+		markIndividualsWithChangedRules(changedRulesByCE.keySet());
 
 		if (changedInitRules != null || !changedRulesByCE.isEmpty()) {
 
@@ -73,13 +73,15 @@ public class IncrementalDeletionStage extends AbstractReasonerStage {
 	public boolean postExecute() {
 		if (!super.postExecute())
 			return false;
-		reasoner.ruleAndConclusionStats.add(desaturation_
+		reasoner.addRuleAndConclusionStatistics(desaturation_
 				.getRuleAndConclusionStatistics());
 		if (LOGGER_.isTraceEnabled()) {
 			LOGGER_.trace("Number of modified contexts "
 					+ reasoner.saturationState.getNotSaturatedContexts().size());
 		}
 		desaturation_ = null;
+		// the conclusions for removed class expressions are now deleted
+		reasoner.ontologyIndex.releaseRemovedIds();
 		return true;
 	}
 
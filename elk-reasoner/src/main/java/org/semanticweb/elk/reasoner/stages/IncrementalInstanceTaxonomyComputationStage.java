@@ -90,15 +90,20 @@ public class IncrementalInstanceTaxonomyComputationStage extends
 				return indexedindividual.occurs() ? indexedindividual : null;
 			}
 		};
-		Collection<IndexedIndividual> modified = Operations.getCollection(
+		Collection<IndexedIndividual> modified = reasoner.instanceTaxonomyState
+				.isComplete() ? Operations.getCollection(
 				Operations.map(modifiedIndividuals, transformation),
 				// an upper bound
-				modifiedIndividuals.size());
+				modifiedIndividuals.size())
+				// only some individuals were realized by previous queries
+				: reasoner.getUnrealizedIndividuals(reasoner.ontologyIndex
+						.getIndividuals());
 
 		this.computation_ = new InstanceTaxonomyComputation(modified,
 				reasoner.getProcessExecutor(), workerNo, progressMonitor,
 				reasoner.saturationState,
-				reasoner.instanceTaxonomyState.getTaxonomy());
+				reasoner.instanceTaxonomyState.getTaxonomy(),
+				reasoner.instanceTaxonomyState.getBucketMembers());
 		return true;
 	}
 
@@ -114,6 +119,7 @@ public class IncrementalInstanceTaxonomyComputationStage extends
 		}
 
 		reasoner.instanceTaxonomyState.getWriter().clearModifiedNodeObjects();
+		reasoner.instanceTaxonomyState.setComplete();
 		reasoner.ontologyIndex.initIndividualChanges();
 		// reasoner.ruleAndConclusionStats.add(computation_.getRuleAndConclusionStatistics());
 		this.computation_ = null;
@@ -93,7 +93,7 @@ public class IncrementalOverdeletionPruningStage extends AbstractReasonerStage {
 		if (!super.postExecute()) {
 			return false;
 		}
-		reasoner.ruleAndConclusionStats.add(completion_
+		reasoner.addRuleAndConclusionStatistics(completion_
 				.getRuleAndConclusionStatistics());
 		return true;
 	}
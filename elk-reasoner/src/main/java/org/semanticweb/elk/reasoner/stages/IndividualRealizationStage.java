@@ -0,0 +1,101 @@
+package org.semanticweb.elk.reasoner.stages;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collection;
+
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedIndividual;
+import org.semanticweb.elk.reasoner.taxonomy.InstanceTaxonomyComputation;
+
+/**
+ * A {@link ReasonerStage} which creates the nodes of the instance taxonomy
+ * only for the given {@link IndexedIndividual}s used in a query. The nodes are
+ * added to the current instance taxonomy, which is thus computed only
+ * partially; they are reused by other queries and by the computation of the
+ * whole instance taxonomy. Unlike other stages, this stage is not managed by
+ * the {@link ReasonerStageManager}; a new stage is created for every query
+ * after the class taxonomy is computed.
+ *
+ * @author agent
+ */
+class IndividualRealizationStage extends AbstractReasonerStage {
+
+	/**
+	 * the {@link IndexedIndividual}s to be realized
+	 */
+	private final Collection<IndexedIndividual> individuals_;
+
+	/**
+	 * the computation used for this stage
+	 */
+	private InstanceTaxonomyComputation computation_ = null;
+
+	public IndividualRealizationStage(AbstractReasonerState reasoner,
+			Collection<IndexedIndividual> individuals) {
+		super(reasoner);
+		this.individuals_ = individuals;
+	}
+
+	@Override
+	public String getName() {
+		return "Individual Realization";
+	}
+
+	@Override
+	public boolean preExecute() {
+		if (!super.preExecute())
+			return false;
+		this.computation_ = new InstanceTaxonomyComputation(individuals_,
+				reasoner.getProcessExecutor(), workerNo,
+				reasoner.getProgressMonitor(), reasoner.saturationState,
+				reasoner.instanceTaxonomyState.getTaxonomy(),
+				reasoner.instanceTaxonomyState.getBucketMembers());
+		return true;
+	}
+
+	@Override
+	public void executeStage() throws ElkInterruptedException {
+		computation_.process();
+	}
+
+	@Override
+	public boolean postExecute() {
+		if (!super.postExecute())
+			return false;
+		this.computation_ = null;
+		return true;
+	}
+
+	@Override
+	public void printInfo() {
+		if (computation_ != null)
+			computation_.printStatistics();
+	}
+
+	@Override
+	public void setInterrupt(boolean flag) {
+		super.setInterrupt(flag);
+		setInterrupt(computation_, flag);
+	}
+
+}
@@ -60,13 +60,17 @@ class InstanceTaxonomyComputationStage extends AbstractReasonerStage {
 			return false;
 
 		if (reasoner.doneTaxonomy()) {
-			reasoner.initInstanceTaxonomy();
+			// the nodes of individuals realized by previous queries are kept
+			if (reasoner.instanceTaxonomyState.getTaxonomy() == null)
+				reasoner.initInstanceTaxonomy();
 
 			computation_ = new InstanceTaxonomyComputation(
-					reasoner.ontologyIndex.getIndividuals(),
+					reasoner.getUnrealizedIndividuals(reasoner.ontologyIndex
+							.getIndividuals()),
 					reasoner.getProcessExecutor(), workerNo, progressMonitor,
 					reasoner.saturationState,
-					reasoner.instanceTaxonomyState.getTaxonomy());
+					reasoner.instanceTaxonomyState.getTaxonomy(),
+					reasoner.instanceTaxonomyState.getBucketMembers());
 		}
 
 		if (LOGGER_.isInfoEnabled()) {
@@ -86,6 +90,7 @@ class InstanceTaxonomyComputationStage extends AbstractReasonerStage {
 		if (!super.postExecute())
 			return false;
 
+		reasoner.instanceTaxonomyState.setComplete();
 		this.computation_ = null;
 
 		return true;
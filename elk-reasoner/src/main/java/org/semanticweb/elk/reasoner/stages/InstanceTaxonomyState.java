@@ -31,6 +31,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
@@ -48,15 +49,36 @@ public class InstanceTaxonomyState {
 
 	private UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy_ = null;
 
+	/**
+	 * {@code true} if the taxonomy contains the nodes of all individuals
+	 * except for those whose nodes were removed because of changes; otherwise
+	 * only the individuals used in queries may have been realized
+	 */
+	private boolean complete_ = false;
+
 	private final Set<ElkNamedIndividual> individualsForModifiedNodes_ = Collections
 			.newSetFromMap(new ConcurrentHashMap<ElkNamedIndividual, Boolean>());
 
 	private final List<IndexedIndividual> removedIndividuals_ = new LinkedList<IndexedIndividual>();
 
+	/**
+	 * the individuals whose types were obtained from other individuals with
+	 * the same told subsumers, indexed by these other individuals
+	 */
+	private final ConcurrentMap<IndexedIndividual, Collection<IndexedIndividual>> bucketMembers_ = new ConcurrentHashMap<IndexedIndividual, Collection<IndexedIndividual>>();
+
 	public UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> getTaxonomy() {
 		return taxonomy_;
 	}
 
+	boolean isComplete() {
+		return complete_;
+	}
+
+	void setComplete() {
+		complete_ = true;
+	}
+
 	Set<ElkNamedIndividual> getIndividualsWithModifiedNodes() {
 		return individualsForModifiedNodes_;
 	}
@@ -65,9 +87,15 @@ public class InstanceTaxonomyState {
 		return removedIndividuals_;
 	}
 
+	ConcurrentMap<IndexedIndividual, Collection<IndexedIndividual>> getBucketMembers() {
+		return bucketMembers_;
+	}
+
 	void initTaxonomy(
 			UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> instanceTaxonomy) {
 		taxonomy_ = instanceTaxonomy;
+		complete_ = false;
+		bucketMembers_.clear();
 	}
 
 	public Writer getWriter() {
@@ -85,6 +113,8 @@ public class InstanceTaxonomyState {
 
 		public void clearTaxonomy() {
 			taxonomy_ = null;
+			complete_ = false;
+			bucketMembers_.clear();
 		}
 
 		public void markIndividualsForModifiedNode(
@@ -96,6 +126,21 @@ public class InstanceTaxonomyState {
 			removedIndividuals_.add(individual);
 		}
 
+		/**
+		 * Removes the record of the individuals whose types were obtained from
+		 * the given individual
+		 * 
+		 * @param representative
+		 *            the individual whose types were used for other
+		 *            individuals
+		 * @return the individuals whose types were obtained from the given
+		 *         individual, or {@code null} if there are no such individuals
+		 */
+		public Collection<IndexedIndividual> removeBucketMembers(
+				IndexedIndividual representative) {
+			return bucketMembers_.remove(representative);
+		}
+
 		public void clearModifiedNodeObjects() {
 			individualsForModifiedNodes_.clear();
 		}
@@ -0,0 +1,103 @@
+package org.semanticweb.elk.reasoner.stages;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.ClassExpressionSaturation;
+import org.semanticweb.elk.reasoner.saturation.rules.factories.RuleApplicationAdditionFactory;
+
+/**
+ * A {@link ReasonerStage} which computes the saturation of a single
+ * {@link IndexedClassExpression} used in a query. Only the contexts that are
+ * required for this saturation are computed; they are stored in the main
+ * saturation state and reused by other queries and by the saturation of all
+ * classes. Unlike other stages, this stage is not managed by the
+ * {@link ReasonerStageManager}; a new stage is created for every query after
+ * the consistency of the ontology is checked.
+ *
+ * @author agent
+ */
+class QuerySaturationStage extends AbstractReasonerStage {
+
+	/**
+	 * the {@link IndexedClassExpression} to be saturated
+	 */
+	private final IndexedClassExpression root_;
+
+	/**
+	 * the computation used for this stage
+	 */
+	private ClassExpressionSaturation<IndexedClassExpression> computation_ = null;
+
+	public QuerySaturationStage(AbstractReasonerState reasoner,
+			IndexedClassExpression root) {
+		super(reasoner);
+		this.root_ = root;
+	}
+
+	@Override
+	public String getName() {
+		return "Query Saturation";
+	}
+
+	@Override
+	public boolean preExecute() {
+		if (!super.preExecute())
+			return false;
+		this.computation_ = new ClassExpressionSaturation<IndexedClassExpression>(
+				Collections.singleton(root_), reasoner.getProcessExecutor(),
+				workerNo, reasoner.getProgressMonitor(),
+				new RuleApplicationAdditionFactory(reasoner.saturationState));
+		return true;
+	}
+
+	@Override
+	public void executeStage() throws ElkInterruptedException {
+		computation_.process();
+	}
+
+	@Override
+	public boolean postExecute() {
+		if (!super.postExecute())
+			return false;
+		reasoner.addRuleAndConclusionStatistics(computation_
+				.getRuleAndConclusionStatistics());
+		this.computation_ = null;
+		return true;
+	}
+
+	@Override
+	public void printInfo() {
+		if (computation_ != null)
+			computation_.printStatistics();
+	}
+
+	@Override
+	public void setInterrupt(boolean flag) {
+		super.setInterrupt(flag);
+		setInterrupt(computation_, flag);
+	}
+
+}
@@ -0,0 +1,192 @@
+package org.semanticweb.elk.reasoner.stages;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Locale;
+
+import org.semanticweb.elk.reasoner.saturation.SaturationStatistics;
+import org.semanticweb.elk.reasoner.saturation.conclusions.visitors.ConclusionCounter;
+import org.semanticweb.elk.reasoner.saturation.context.ContextStatistics;
+import org.semanticweb.elk.reasoner.saturation.tracing.TraceState;
+import org.semanticweb.elk.util.logging.metrics.Gauge;
+import org.semanticweb.elk.util.logging.metrics.InMemoryMetricRegistry;
+import org.semanticweb.elk.util.logging.metrics.MetricRegistry;
+
+/**
+ * Records the metrics of a reasoner in a {@link MetricRegistry}: the durations
+ * of the executed {@link ReasonerStage}s, the numbers of processed
+ * conclusions, rule applications and context activations, the sizes of the
+ * queues of the saturation state, and the hits and misses of the store of
+ * traced inferences used for explanations. The counts are collected by every
+ * worker without synchronization and added to the metrics when the
+ * computation of a stage is finished.
+ * 
+ * @author agent
+ * 
+ */
+class ReasonerMetrics {
+
+	static final String STAGE_PREFIX = "reasoner.stage.";
+
+	static final String CONCLUSIONS_PREFIX = "saturation.conclusions.";
+
+	static final String RULE_APPLICATIONS = "saturation.rule_applications";
+
+	static final String CONTEXTS_CREATED = "saturation.contexts.created";
+
+	static final String CONTEXTS_ACTIVATED = "saturation.contexts.activated";
+
+	static final String ACTIVE_CONTEXTS = "saturation.queue.active_contexts";
+
+	static final String NOT_SATURATED_CONTEXTS = "saturation.queue.not_saturated_contexts";
+
+	static final String TRACE_STORE_PREFIX = "tracing.store.";
+
+	private final AbstractReasonerState reasoner_;
+
+	private volatile MetricRegistry registry_;
+
+	ReasonerMetrics(AbstractReasonerState reasoner) {
+		this.reasoner_ = reasoner;
+		setRegistry(new InMemoryMetricRegistry());
+	}
+
+	MetricRegistry getRegistry() {
+		return registry_;
+	}
+
+	/**
+	 * Sets the {@link MetricRegistry} in which the subsequent measurements
+	 * are recorded and registers the gauges of the reasoner in it
+	 * 
+	 * @param registry
+	 */
+	void setRegistry(MetricRegistry registry) {
+		registry.registerGauge(ACTIVE_CONTEXTS, new Gauge() {
+			@Override
+			public long getValue() {
+				return reasoner_.saturationState.getActiveContextCount();
+			}
+		});
+		registry.registerGauge(NOT_SATURATED_CONTEXTS, new Gauge() {
+			@Override
+			public long getValue() {
+				return reasoner_.saturationState.getNotSaturatedContexts()
+						.size();
+			}
+		});
+		registry.registerGauge(TRACE_STORE_PREFIX + "contexts", new Gauge() {
+			@Override
+			public long getValue() {
+				TraceState traceState = reasoner_.traceState;
+				return traceState == null ? 0 : traceState
+						.getStoredContextCount();
+			}
+		});
+		registry.registerGauge(TRACE_STORE_PREFIX + "hits", new Gauge() {
+			@Override
+			public long getValue() {
+				return reasoner_.traceStoreStatistics.getHitCount();
+			}
+		});
+		registry.registerGauge(TRACE_STORE_PREFIX + "misses", new Gauge() {
+			@Override
+			public long getValue() {
+				return reasoner_.traceStoreStatistics.getMissCount();
+			}
+		});
+		registry.registerGauge(TRACE_STORE_PREFIX + "evictions", new Gauge() {
+			@Override
+			public long getValue() {
+				return reasoner_.traceStoreStatistics.getEvictionCount();
+			}
+		});
+		this.registry_ = registry;
+	}
+
+	/**
+	 * Records the duration of the execution of a {@link ReasonerStage}
+	 * 
+	 * @param stageName
+	 *            the name of the executed {@link ReasonerStage}
+	 * @param nanos
+	 *            the duration of the execution in nanoseconds
+	 */
+	void recordStage(String stageName, long nanos) {
+		registry_.getHistogram(STAGE_PREFIX + toMetricName(stageName)
+				+ ".millis").record(nanos / 1000000);
+	}
+
+	/**
+	 * Records the counts of a finished computation of a
+	 * {@link ReasonerStage}
+	 * 
+	 * @param statistics
+	 *            the {@link SaturationStatistics} accumulated by the workers
+	 *            of the computation
+	 */
+	void recordSaturation(SaturationStatistics statistics) {
+		MetricRegistry registry = registry_;
+		ConclusionCounter processed = statistics.getConclusionStatistics()
+				.getProcessedConclusionCounts();
+		add(registry, CONCLUSIONS_PREFIX + "decomposed_subsumers",
+				processed.getCountDecomposedSubsumers());
+		add(registry, CONCLUSIONS_PREFIX + "composed_subsumers",
+				processed.getCountComposedSubsumers());
+		add(registry, CONCLUSIONS_PREFIX + "backward_links",
+				processed.getCountBackwardLinks());
+		add(registry, CONCLUSIONS_PREFIX + "forward_links",
+				processed.getCountForwardLinks());
+		add(registry, CONCLUSIONS_PREFIX + "contradictions",
+				processed.getCountBottoms());
+		add(registry, CONCLUSIONS_PREFIX + "propagations",
+				processed.getCountPropagations());
+		add(registry, CONCLUSIONS_PREFIX + "disjoint_subsumers",
+				processed.getCountDisjointSubsumers());
+		add(registry, CONCLUSIONS_PREFIX + "context_initializations",
+				processed.getCountContextInitializations());
+		add(registry, CONCLUSIONS_PREFIX + "subcontext_initializations",
+				processed.getCountSubContextInitializations());
+		add(registry, RULE_APPLICATIONS, statistics.getRuleStatistics()
+				.ruleCounter.getTotalRuleAppCount());
+		ContextStatistics contexts = statistics.getContextStatistics();
+		add(registry, CONTEXTS_CREATED, contexts.countCreatedContexts);
+		add(registry, CONTEXTS_ACTIVATED, contexts.countProcessedContexts);
+	}
+
+	private static void add(MetricRegistry registry, String name, long value) {
+		if (value != 0)
+			registry.getCounter(name).add(value);
+	}
+
+	/**
+	 * @param stageName
+	 * @return the name of the stage in lower case with words separated by
+	 *         underscores, e.g., "class_taxonomy_computation"
+	 */
+	static String toMetricName(String stageName) {
+		return stageName.trim().toLowerCase(Locale.ENGLISH)
+				.replaceAll("[^a-z0-9]+", "_");
+	}
+
+}
@@ -0,0 +1,109 @@
+package org.semanticweb.elk.reasoner.stages;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collection;
+
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.conclusions.interfaces.Conclusion;
+import org.semanticweb.elk.reasoner.saturation.tracing.TraceState;
+import org.semanticweb.elk.reasoner.saturation.tracing.TraceUnwindingComputation;
+import org.semanticweb.elk.util.collections.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ReasonerStage} which traces the inferences of several
+ * {@link Conclusion}s used to explain subsumptions. The traces are unwound
+ * concurrently and the contexts required for them are traced in the current
+ * {@link TraceState}, so that the contexts shared by several explanations are
+ * traced only once. Unlike other stages, this stage is not managed by the
+ * {@link ReasonerStageManager}; a new stage is created for every request of
+ * explanations.
+ *
+ * @author agent
+ */
+class SubsumptionTracingStage extends AbstractReasonerStage {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(SubsumptionTracingStage.class);
+
+	/**
+	 * the {@link Conclusion}s to be traced together with the roots of the
+	 * contexts in which they are stored
+	 */
+	private final Collection<Pair<Conclusion, IndexedClassExpression>> inputs_;
+
+	/**
+	 * the computation used for this stage
+	 */
+	private TraceUnwindingComputation computation_ = null;
+
+	public SubsumptionTracingStage(AbstractReasonerState reasoner,
+			Collection<Pair<Conclusion, IndexedClassExpression>> inputs) {
+		super(reasoner);
+		this.inputs_ = inputs;
+	}
+
+	@Override
+	public String getName() {
+		return "Subsumption Tracing";
+	}
+
+	@Override
+	public boolean preExecute() {
+		if (!super.preExecute())
+			return false;
+		this.computation_ = new TraceUnwindingComputation(inputs_,
+				reasoner.getTraceState(), reasoner.getProcessExecutor(),
+				workerNo, reasoner.getProgressMonitor());
+		return true;
+	}
+
+	@Override
+	public void executeStage() throws ElkInterruptedException {
+		computation_.process();
+	}
+
+	@Override
+	public boolean postExecute() {
+		if (!super.postExecute())
+			return false;
+		this.computation_ = null;
+		return true;
+	}
+
+	@Override
+	public void printInfo() {
+		if (LOGGER_.isDebugEnabled())
+			LOGGER_.debug("Trace store: " + reasoner.traceStoreStatistics);
+	}
+
+	@Override
+	public void setInterrupt(boolean flag) {
+		super.setInterrupt(flag);
+		setInterrupt(computation_, flag);
+	}
+
+}
@@ -0,0 +1,278 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.elk.io.IOUtils;
+import org.semanticweb.elk.loading.AxiomFingerprint;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.predefined.PredefinedElkClass;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomyNode;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes a class {@link Taxonomy} to a compact binary cache file and reads it
+ * back. The file consists of a header with the fingerprint of the ontology,
+ * a table of class IRIs, and the nodes of the taxonomy and their direct
+ * super-nodes, all referring to the entries of the table by their positions. The file is read using a memory-mapped
+ * buffer, so the taxonomy is assembled without copying the file contents.
+ *
+ * Only the taxonomy is cached, not the saturation or the index from which it
+ * was computed. The cache is therefore read-only: it can be used only for
+ * the ontology for which it was written, and only until this ontology is
+ * changed. The fingerprint, e.g., an {@link AxiomFingerprint} of the loaded
+ * axioms, is used to reject the cache files written for other ontologies.
+ *
+ * The classes of the cached taxonomy are looked up by their IRIs in the
+ * provided map, which normally contains the classes of the currently loaded
+ * ontology; this ensures that the taxonomy read from the cache uses the same
+ * {@link ElkClass} objects as the reasoner.
+ *
+ * @author agent
+ *
+ */
+public class ClassTaxonomyCache {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(ClassTaxonomyCache.class);
+
+	/**
+	 * the first bytes of every cache file: "ELKT"
+	 */
+	static final int MAGIC = 0x454C4B54;
+
+	/**
+	 * the version of the file format; should be increased after every
+	 * incompatible change
+	 */
+	static final int FORMAT_VERSION = 2;
+
+	private static final Charset UTF8_ = Charset.forName("UTF-8");
+
+	/**
+	 * Writes the given class {@link Taxonomy} to the given file
+	 *
+	 * @param taxonomy
+	 *            the {@link Taxonomy} to be saved
+	 * @param fingerprint
+	 *            the fingerprint of the ontology for which the
+	 *            {@link Taxonomy} was computed
+	 * @param file
+	 *            the file to which the {@link Taxonomy} should be written; if
+	 *            the file exists, it will be overwritten
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public static void write(Taxonomy<ElkClass> taxonomy, long fingerprint,
+			File file) throws IOException {
+		TaxonomyNode<ElkClass> bottomNode = taxonomy.getBottomNode();
+		List<TaxonomyNode<ElkClass>> nodes = new ArrayList<TaxonomyNode<ElkClass>>(
+				taxonomy.getNodes().size());
+		Map<TaxonomyNode<ElkClass>, Integer> nodeIds = new ArrayHashMap<TaxonomyNode<ElkClass>, Integer>(
+				taxonomy.getNodes().size());
+		List<ElkClass> classes = new ArrayList<ElkClass>();
+
+		for (TaxonomyNode<ElkClass> node : taxonomy.getNodes()) {
+			if (node == bottomNode)
+				continue;
+			nodeIds.put(node, nodes.size());
+			nodes.add(node);
+			classes.addAll(node.getMembers());
+		}
+		int firstUnsatisfiable = classes.size();
+		for (ElkClass member : bottomNode.getMembers()) {
+			if (member != PredefinedElkClass.OWL_NOTHING)
+				classes.add(member);
+		}
+
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(file)));
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeLong(fingerprint);
+			// the class table
+			out.writeInt(classes.size());
+			for (ElkClass member : classes) {
+				byte[] iri = member.getIri().getFullIriAsString()
+						.getBytes(UTF8_);
+				out.writeInt(iri.length);
+				out.write(iri);
+			}
+			// the satisfiable nodes; members are listed in the same order as
+			// in the class table, so only their number is stored
+			out.writeInt(nodes.size());
+			for (TaxonomyNode<ElkClass> node : nodes) {
+				out.writeInt(node.getMembers().size());
+			}
+			// the direct super-nodes of satisfiable nodes
+			for (TaxonomyNode<ElkClass> node : nodes) {
+				out.writeInt(node.getDirectSuperNodes().size());
+				for (TaxonomyNode<ElkClass> superNode : node
+						.getDirectSuperNodes()) {
+					out.writeInt(nodeIds.get(superNode));
+				}
+			}
+			// the unsatisfiable classes are the rest of the class table
+			out.writeInt(classes.size() - firstUnsatisfiable);
+		} finally {
+			IOUtils.closeQuietly(out);
+		}
+
+		LOGGER_.debug("{}: saved {} classes in {} nodes", file,
+				classes.size(), nodes.size());
+	}
+
+	/**
+	 * Reads a class {@link Taxonomy} previously saved using
+	 * {@link #write(Taxonomy, File)} from the given file.
+	 *
+	 * @param file
+	 *            the file from which the taxonomy should be read
+	 * @param classesByIri
+	 *            the {@link ElkClass}es that can be used in the cached
+	 *            {@link Taxonomy} indexed by their full IRIs; should contain
+	 *            exactly the classes of the saved {@link Taxonomy}
+	 * @param fingerprint
+	 *            the fingerprint of the current ontology, which must be equal
+	 *            to the one with which the {@link Taxonomy} was saved
+	 * @return the {@link Taxonomy} read from the file
+	 * @throws IOException
+	 *             if an I/O error occurs, the file is not a valid cache, or
+	 *             the cache does not correspond to the given fingerprint or
+	 *             classes
+	 */
+	public static UpdateableTaxonomy<ElkClass> read(File file,
+			Map<String, ? extends ElkClass> classesByIri, long fingerprint)
+			throws IOException {
+		RandomAccessFile input = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = input.getChannel();
+			MappedByteBuffer buffer = channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return read(buffer, classesByIri, fingerprint, file.toString());
+		} catch (BufferUnderflowException e) {
+			throw new IOException(file + ": unexpected end of file");
+		} finally {
+			input.close();
+		}
+	}
+
+	private static UpdateableTaxonomy<ElkClass> read(ByteBuffer buffer,
+			Map<String, ? extends ElkClass> classesByIri, long fingerprint,
+			String source) throws IOException {
+		if (buffer.getInt() != MAGIC)
+			throw new IOException(source + ": not a taxonomy cache");
+		int version = buffer.getInt();
+		if (version != FORMAT_VERSION)
+			throw new IOException(source + ": unsupported format version "
+					+ version);
+		if (buffer.getLong() != fingerprint)
+			throw new IOException(source
+					+ ": the cache was written for a different ontology");
+		// the class table
+		int classCount = buffer.getInt();
+		if (classCount != classesByIri.size())
+			throw new IOException(source + ": the cache contains "
+					+ classCount + " classes but " + classesByIri.size()
+					+ " are expected");
+		ElkClass[] classes = new ElkClass[classCount];
+		byte[] iri = new byte[64];
+		for (int i = 0; i < classCount; i++) {
+			int length = buffer.getInt();
+			if (length > iri.length)
+				iri = new byte[Math.max(length, 2 * iri.length)];
+			buffer.get(iri, 0, length);
+			String key = new String(iri, 0, length, UTF8_);
+			ElkClass member = classesByIri.get(key);
+			if (member == null)
+				throw new IOException(source + ": unknown class <" + key
+						+ ">");
+			classes[i] = member;
+		}
+		// the satisfiable nodes
+		ConcurrentClassTaxonomy taxonomy = new ConcurrentClassTaxonomy();
+		int nodeCount = buffer.getInt();
+		List<UpdateableTaxonomyNode<ElkClass>> nodes = new ArrayList<UpdateableTaxonomyNode<ElkClass>>(
+				nodeCount);
+		int next = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			int memberCount = buffer.getInt();
+			List<ElkClass> members = new ArrayList<ElkClass>(memberCount);
+			for (int j = 0; j < memberCount; j++) {
+				members.add(classes[next++]);
+			}
+			UpdateableTaxonomyNode<ElkClass> node = taxonomy
+					.getCreateNode(members);
+			node.trySetModified(false);
+			nodes.add(node);
+		}
+		// the direct super-nodes
+		for (UpdateableTaxonomyNode<ElkClass> node : nodes) {
+			int superCount = buffer.getInt();
+			for (int j = 0; j < superCount; j++) {
+				int superId = buffer.getInt();
+				if (superId < 0 || superId >= nodeCount)
+					throw new IOException(source + ": invalid node reference "
+							+ superId);
+				UpdateableTaxonomyNode<ElkClass> superNode = nodes
+						.get(superId);
+				node.addDirectSuperNode(superNode);
+				superNode.addDirectSubNode(node);
+			}
+		}
+		// the unsatisfiable classes
+		int unsatisfiableCount = buffer.getInt();
+		if (next + unsatisfiableCount != classCount)
+			throw new IOException(source + ": inconsistent class count");
+		while (next < classCount) {
+			taxonomy.addToBottomNode(classes[next++]);
+		}
+
+		LOGGER_.debug("{}: read {} classes in {} nodes", source,
+				classCount, nodeCount);
+
+		return taxonomy;
+	}
+
+}
@@ -56,6 +56,24 @@ public class ClassTaxonomyComputation
 				progressMonitor);
 	}
 
+	/**
+	 * Creates a computation for classes whose saturations are already
+	 * computed; the direct subsumers of such classes are found without
+	 * creating new saturation jobs
+	 * 
+	 * @see ClassTaxonomyComputationFactory#ClassTaxonomyComputationFactory(SaturationState,
+	 *      int, UpdateableTaxonomy, boolean)
+	 */
+	public ClassTaxonomyComputation(
+			Collection<? extends Collection<IndexedClass>> inputs,
+			ComputationExecutor executor, int maxWorkers,
+			ProgressMonitor progressMonitor, SaturationState<?> saturationState,
+			UpdateableTaxonomy<ElkClass> partialTaxonomy, boolean saturated) {
+		super(inputs, new ClassTaxonomyComputationFactory(saturationState,
+				maxWorkers, partialTaxonomy, saturated), executor, maxWorkers,
+				progressMonitor);
+	}
+
 	/**
 	 * @return the taxonomy computed by this computation; the method
 	 *         {@link #process()} should be called first to compute the taxonomy
@@ -22,11 +22,14 @@
  */
 package org.semanticweb.elk.reasoner.taxonomy;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClass;
+import org.semanticweb.elk.reasoner.reduction.BulkTransitiveReductionFactory;
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionFactory;
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionJob;
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionListener;
@@ -72,6 +75,12 @@ public class ClassTaxonomyComputationFactory extends SimpleInterrupter
 	 * construction
 	 */
 	private final TransitiveReductionFactory<IndexedClass, TransitiveReductionJob<IndexedClass>> transitiveReductionShared_;
+	/**
+	 * The transitive reduction structures used for classes whose saturation is
+	 * already computed, or {@code null} if all classes should be processed
+	 * using {@link #transitiveReductionShared_}
+	 */
+	private final BulkTransitiveReductionFactory bulkTransitiveReduction_;
 	/**
 	 * The objects creating or update the nodes from the result of the
 	 * transitive reduction
@@ -91,16 +100,44 @@ public class ClassTaxonomyComputationFactory extends SimpleInterrupter
 	 * @param partialTaxonomy
 	 *            the (partially pre-computed) class taxonomy object to store
 	 *            results in
+	 * @param saturated
+	 *            if {@code true}, the saturations of the classes are expected
+	 *            to be already computed, so that the transitive reduction can
+	 *            be computed using {@link BulkTransitiveReductionFactory}; the
+	 *            classes for which it is not the case are still processed
+	 *            correctly, but less efficiently
 	 */
 	public ClassTaxonomyComputationFactory(SaturationState<?> saturationState,
-			int maxWorkers, UpdateableTaxonomy<ElkClass> partialTaxonomy) {
+			int maxWorkers, UpdateableTaxonomy<ElkClass> partialTaxonomy,
+			boolean saturated) {
 		this.taxonomy_ = partialTaxonomy;
+		ThisTransitiveReductionListener listener = new ThisTransitiveReductionListener();
 		this.transitiveReductionShared_ = new TransitiveReductionFactory<IndexedClass, TransitiveReductionJob<IndexedClass>>(
-				saturationState, maxWorkers,
-				new ThisTransitiveReductionListener());
+				saturationState, maxWorkers, listener);
+		this.bulkTransitiveReduction_ = saturated ? new BulkTransitiveReductionFactory(
+				saturationState, listener) : null;
 		this.outputProcessor_ = new TransitiveReductionOutputProcessor();
 	}
 
+	/**
+	 * Create a shared engine for the input ontology index and a partially
+	 * pre-computed taxonomy object. The taxonomy is used to avoid computations
+	 * that have been made before. For this to work, the taxonomy object must
+	 * originate from an earlier run of this engine on the same ontology.
+	 * 
+	 * @param saturationState
+	 *            the saturation state of the reasoner
+	 * @param maxWorkers
+	 *            the maximum number of workers that can use this factory
+	 * @param partialTaxonomy
+	 *            the (partially pre-computed) class taxonomy object to store
+	 *            results in
+	 */
+	public ClassTaxonomyComputationFactory(SaturationState<?> saturationState,
+			int maxWorkers, UpdateableTaxonomy<ElkClass> partialTaxonomy) {
+		this(saturationState, maxWorkers, partialTaxonomy, false);
+	}
+
 	/**
 	 * Create a new class taxonomy engine for the input ontology index.
 	 * 
@@ -254,6 +291,19 @@ public class ClassTaxonomyComputationFactory extends SimpleInterrupter
 		protected final TransitiveReductionFactory<IndexedClass, TransitiveReductionJob<IndexedClass>>.Engine transitiveReductionEngine = transitiveReductionShared_
 				.getEngine();
 
+		/**
+		 * The engine used for the classes whose saturation is already
+		 * computed, or {@code null} if not used
+		 */
+		private final BulkTransitiveReductionFactory.Engine bulkTransitiveReductionEngine_ = bulkTransitiveReduction_ == null ? null
+				: bulkTransitiveReduction_.getEngine();
+
+		/**
+		 * The classes submitted to this engine to be processed by
+		 * {@link #bulkTransitiveReductionEngine_}
+		 */
+		private final Queue<IndexedClass> bulkTodo_ = new ArrayDeque<IndexedClass>();
+
 		// don't allow creating of engines directly; only through the factory
 		private Engine() {
 		}
@@ -263,13 +313,31 @@ public class ClassTaxonomyComputationFactory extends SimpleInterrupter
 			for (IndexedClass ic : input) {
 				LOGGER_.trace("{}: taxonomy construction started", ic);
 
-				transitiveReductionEngine
-						.submit(new TransitiveReductionJob<IndexedClass>(ic));
+				if (bulkTransitiveReductionEngine_ != null)
+					bulkTodo_.add(ic);
+				else
+					transitiveReductionEngine
+							.submit(new TransitiveReductionJob<IndexedClass>(ic));
 			}
 		}
 
 		@Override
 		public final void process() throws InterruptedException {
+			/*
+			 * the classes are processed even if interrupted since this engine
+			 * may not be used after the interruption; processing of every
+			 * class takes bounded time as no saturation is computed
+			 */
+			for (;;) {
+				IndexedClass next = bulkTodo_.peek();
+				if (next == null)
+					break;
+				if (!bulkTransitiveReductionEngine_.submit(next))
+					transitiveReductionEngine
+							.submit(new TransitiveReductionJob<IndexedClass>(
+									next));
+				bulkTodo_.poll();
+			}
 			transitiveReductionEngine.process();
 		}
 
@@ -0,0 +1,280 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.reasoner.taxonomy.model.SimpleTaxonomyDelta;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyDelta;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
+
+/**
+ * Records the changes of a {@link ConcurrentClassTaxonomy}: before a node of
+ * the taxonomy is modified for the first time, its members and direct
+ * neighbors are saved, and newly created nodes are remembered. The
+ * {@link TaxonomyDelta} is then computed by comparing the saved nodes with the
+ * current state of the modified and created nodes, so the time and memory
+ * required for this are proportional to the number of modified nodes and
+ * their neighbors.
+ * 
+ * @author agent
+ */
+class ClassTaxonomyDeltaRecorder {
+
+	/**
+	 * identifies the bottom node
+	 */
+	private static final Object BOTTOM_ = new Object();
+
+	/**
+	 * the saved state of nodes modified since the recording has started
+	 */
+	private final ConcurrentMap<NonBottomClassNode, NodeState> previous_;
+
+	/**
+	 * the nodes created since the recording has started
+	 */
+	private final Set<NonBottomClassNode> created_;
+
+	/**
+	 * the members of the bottom node before it was modified, or {@code null}
+	 * if it was not modified
+	 */
+	private final AtomicReference<List<ElkClass>> previousBottomMembers_;
+
+	ClassTaxonomyDeltaRecorder() {
+		this.previous_ = new ConcurrentHashMap<NonBottomClassNode, NodeState>();
+		this.created_ = Collections
+				.newSetFromMap(new ConcurrentHashMap<NonBottomClassNode, Boolean>());
+		this.previousBottomMembers_ = new AtomicReference<List<ElkClass>>();
+	}
+
+	/**
+	 * Should be called for a new node before it can be modified
+	 * 
+	 * @param node
+	 */
+	void nodeCreated(NonBottomClassNode node) {
+		created_.add(node);
+	}
+
+	/**
+	 * Should be called before the members or the direct neighbors of the
+	 * given node change. The caller should hold the monitor of the node, and
+	 * all changes of the node should be done while holding this monitor, so
+	 * that the saved state of the node does not include any changes.
+	 * 
+	 * @param node
+	 */
+	void nodeChanging(NonBottomClassNode node) {
+		if (previous_.containsKey(node) || created_.contains(node))
+			return;
+		previous_.put(node, new NodeState(node));
+	}
+
+	/**
+	 * Should be called before the members of the bottom node change. The
+	 * caller should hold the monitor of the given set, and all changes of the
+	 * set should be done while holding this monitor.
+	 * 
+	 * @param bottomMembers
+	 *            the synchronized set of members of the bottom node
+	 */
+	void bottomChanging(Set<ElkClass> bottomMembers) {
+		if (previousBottomMembers_.get() == null)
+			previousBottomMembers_.set(new ArrayList<ElkClass>(bottomMembers));
+	}
+
+	/**
+	 * Computes the changes recorded so far; the taxonomy should not be
+	 * modified at the same time
+	 * 
+	 * @param taxonomy
+	 *            the taxonomy whose changes were recorded
+	 * @return the {@link TaxonomyDelta} between the state of the taxonomy when
+	 *         the recording has started and the current state
+	 */
+	TaxonomyDelta<ElkClass> getDelta(ConcurrentClassTaxonomy taxonomy) {
+		NodesView before = new NodesView(), after = new NodesView();
+		for (Map.Entry<NonBottomClassNode, NodeState> entry : previous_
+				.entrySet()) {
+			NodeState state = entry.getValue();
+			ElkClass canonical = state.members.get(0);
+			before.addNode(entry.getKey(), state.members);
+			for (TaxonomyNode<ElkClass> superNode : state.superNodes)
+				before.addEdge(canonical, getPreviousCanonicalMember(superNode));
+			for (TaxonomyNode<ElkClass> subNode : state.subNodes)
+				before.addEdge(getPreviousCanonicalMember(subNode), canonical);
+		}
+		Set<NonBottomClassNode> touched = new ArrayHashSet<NonBottomClassNode>(
+				previous_.size() + created_.size());
+		touched.addAll(previous_.keySet());
+		touched.addAll(created_);
+		Set<? extends TaxonomyNode<ElkClass>> present = taxonomy
+				.getUpdateableNodes();
+		for (NonBottomClassNode node : touched) {
+			if (!present.contains(node))
+				continue;
+			ElkClass canonical = node.getCanonicalMember();
+			after.addNode(node, node.getMembers());
+			for (TaxonomyNode<ElkClass> superNode : node
+					.getDirectUpdateableSuperNodes())
+				after.addEdge(canonical, superNode.getCanonicalMember());
+			for (TaxonomyNode<ElkClass> subNode : node
+					.getDirectUpdateableSubNodes())
+				after.addEdge(subNode.getCanonicalMember(), canonical);
+		}
+		List<ElkClass> previousBottomMembers = previousBottomMembers_.get();
+		if (previousBottomMembers != null) {
+			before.addNode(BOTTOM_, previousBottomMembers);
+			after.addNode(BOTTOM_, taxonomy.getBottomNode().getMembers());
+		}
+		return new SimpleTaxonomyDelta<ElkClass>(difference(
+				after.nodeOfMember.keySet(), before.nodeOfMember.keySet()),
+				difference(before.nodeOfMember.keySet(),
+						after.nodeOfMember.keySet()), getJoinedNodes(after,
+						before), getJoinedNodes(before, after), difference(
+						after.edges, before.edges), difference(before.edges,
+						after.edges));
+	}
+
+	private ElkClass getPreviousCanonicalMember(TaxonomyNode<ElkClass> node) {
+		NodeState state = previous_.get(node);
+		return state == null ? node.getCanonicalMember() : state.members
+				.get(0);
+	}
+
+	/**
+	 * @return the members of nodes in the first view that contain members of
+	 *         several nodes of the second view
+	 */
+	private static Collection<Set<ElkClass>> getJoinedNodes(NodesView first,
+			NodesView second) {
+		Map<Object, Set<Object>> joined = new ArrayHashMap<Object, Set<Object>>();
+		for (Map.Entry<ElkClass, Object> entry : first.nodeOfMember
+				.entrySet()) {
+			Object otherNode = second.nodeOfMember.get(entry.getKey());
+			if (otherNode == null)
+				continue;
+			Set<Object> otherNodes = joined.get(entry.getValue());
+			if (otherNodes == null) {
+				otherNodes = new ArrayHashSet<Object>(2);
+				joined.put(entry.getValue(), otherNodes);
+			}
+			otherNodes.add(otherNode);
+		}
+		List<Set<ElkClass>> result = new ArrayList<Set<ElkClass>>();
+		for (Map.Entry<Object, Set<Object>> entry : joined.entrySet()) {
+			if (entry.getValue().size() > 1)
+				result.add(first.membersOfNode.get(entry.getKey()));
+		}
+		return result;
+	}
+
+	private static Set<ElkClass> difference(Set<ElkClass> first,
+			Set<ElkClass> second) {
+		Set<ElkClass> result = new ArrayHashSet<ElkClass>();
+		for (ElkClass member : first) {
+			if (!second.contains(member))
+				result.add(member);
+		}
+		return result;
+	}
+
+	private static Map<ElkClass, Set<ElkClass>> difference(
+			Map<ElkClass, Set<ElkClass>> first,
+			Map<ElkClass, Set<ElkClass>> second) {
+		Map<ElkClass, Set<ElkClass>> result = new ArrayHashMap<ElkClass, Set<ElkClass>>();
+		for (Map.Entry<ElkClass, Set<ElkClass>> entry : first.entrySet()) {
+			Set<ElkClass> others = second.get(entry.getKey());
+			Set<ElkClass> edges = others == null ? entry.getValue()
+					: difference(entry.getValue(), others);
+			if (!edges.isEmpty())
+				result.put(entry.getKey(), edges);
+		}
+		return result;
+	}
+
+	/**
+	 * The members and direct neighbors of a node before its first
+	 * modification
+	 */
+	private static class NodeState {
+
+		final List<ElkClass> members;
+
+		final List<TaxonomyNode<ElkClass>> superNodes;
+
+		final List<TaxonomyNode<ElkClass>> subNodes;
+
+		NodeState(NonBottomClassNode node) {
+			// the members are sorted, so the first member is canonical
+			this.members = new ArrayList<ElkClass>(node.getMembers());
+			this.superNodes = new ArrayList<TaxonomyNode<ElkClass>>(
+					node.getDirectUpdateableSuperNodes());
+			this.subNodes = new ArrayList<TaxonomyNode<ElkClass>>(
+					node.getDirectUpdateableSubNodes());
+		}
+	}
+
+	/**
+	 * The nodes and edges of one state of the modified part of the taxonomy
+	 */
+	private static class NodesView {
+
+		final Map<ElkClass, Object> nodeOfMember = new ArrayHashMap<ElkClass, Object>();
+
+		final Map<Object, Set<ElkClass>> membersOfNode = new ArrayHashMap<Object, Set<ElkClass>>();
+
+		final Map<ElkClass, Set<ElkClass>> edges = new ArrayHashMap<ElkClass, Set<ElkClass>>();
+
+		void addNode(Object node, Collection<ElkClass> members) {
+			Set<ElkClass> memberSet = new ArrayHashSet<ElkClass>(members.size());
+			for (ElkClass member : members) {
+				memberSet.add(member);
+				nodeOfMember.put(member, node);
+			}
+			membersOfNode.put(node, memberSet);
+		}
+
+		void addEdge(ElkClass subCanonical, ElkClass superCanonical) {
+			Set<ElkClass> superCanonicals = edges.get(subCanonical);
+			if (superCanonicals == null) {
+				superCanonicals = new ArrayHashSet<ElkClass>(4);
+				edges.put(subCanonical, superCanonicals);
+			}
+			superCanonicals.add(superCanonical);
+		}
+	}
+
+}
@@ -25,12 +25,15 @@
  */
 package org.semanticweb.elk.reasoner.taxonomy;
 
+import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
@@ -40,25 +43,34 @@ import org.semanticweb.elk.owl.interfaces.ElkEntity;
 import org.semanticweb.elk.owl.iris.ElkIri;
 import org.semanticweb.elk.owl.predefined.PredefinedElkClass;
 import org.semanticweb.elk.owl.util.Comparators;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.NodeHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyNodeHasher;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyDelta;
 import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableBottomNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomyNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.VersionedTaxonomy;
 import org.semanticweb.elk.util.collections.LazySetUnion;
 import org.semanticweb.elk.util.collections.Operations;
 import org.semanticweb.elk.util.collections.Operations.Condition;
+import org.semanticweb.elk.util.hashing.HashGenerator;
 
 /**
  * Class taxonomy that is suitable for concurrent processing. Taxonomy objects
  * are only constructed for consistent ontologies, and some consequences of this
  * are hardcoded here.
  * 
+ * The taxonomy keeps track of the nodes modified during its construction and
+ * updates, and maintains its structural hash by rehashing only such nodes.
+ * 
  * @author Yevgeny Kazakov
  * @author Frantisek Simancik
  * @author Markus Kroetzsch
  * @author Pavel Klinov
  */
-public class ConcurrentClassTaxonomy implements UpdateableTaxonomy<ElkClass> {
+public class ConcurrentClassTaxonomy implements UpdateableTaxonomy<ElkClass>,
+		VersionedTaxonomy<ElkClass> {
 
 	// logger for events
 	private static final Logger LOGGER_ = LoggerFactory
@@ -78,6 +90,32 @@ public class ConcurrentClassTaxonomy implements UpdateableTaxonomy<ElkClass> {
 	 */
 	private final BottomClassNode bottomClassNode_;
 
+	/**
+	 * The modified nodes of this taxonomy; for every node two hash values are
+	 * maintained: the value of {@link TaxonomyNodeHasher}, and, if the node
+	 * has no non-bottom sub-nodes, the value of {@link NodeHasher}, which is
+	 * used to compute the hash of the bottom node
+	 */
+	private final NodeChangeLog<TaxonomyNode<ElkClass>> changes_;
+
+	/**
+	 * {@code true} if the members of the bottom node could have changed since
+	 * the last commit of {@link #changes_}
+	 */
+	private final AtomicBoolean bottomMembersChanged_;
+
+	/**
+	 * the value of {@link NodeHasher} for the bottom node at the last commit
+	 * of {@link #changes_}
+	 */
+	private int bottomMembersHash_;
+
+	/**
+	 * records the changes of this taxonomy, or {@code null} if they are not
+	 * recorded
+	 */
+	private volatile ClassTaxonomyDeltaRecorder deltaRecorder_ = null;
+
 	public ConcurrentClassTaxonomy() {
 		this.classNodeLookup_ = new ConcurrentHashMap<ElkIri, NonBottomClassNode>();
 		this.allSatisfiableClassNodes_ = Collections
@@ -88,6 +126,33 @@ public class ConcurrentClassTaxonomy implements UpdateableTaxonomy<ElkClass> {
 				.synchronizedSet(new TreeSet<ElkClass>(
 						Comparators.ELK_CLASS_COMPARATOR));
 		this.unsatisfiableClasses_.add(PredefinedElkClass.OWL_NOTHING);
+		this.bottomMembersChanged_ = new AtomicBoolean(true);
+		this.changes_ = new NodeChangeLog<TaxonomyNode<ElkClass>>(2) {
+
+			@Override
+			boolean isPresent(TaxonomyNode<ElkClass> node) {
+				return node == bottomClassNode_
+						|| allSatisfiableClassNodes_.contains(node);
+			}
+
+			@Override
+			int[] hash(TaxonomyNode<ElkClass> node) {
+				int[] result = new int[2];
+				// the bottom node is hashed separately
+				if (node == bottomClassNode_)
+					return result;
+				result[0] = TaxonomyNodeHasher.INSTANCE.hash(node);
+				if (((NonBottomClassNode) node).getDirectUpdateableSubNodes()
+						.isEmpty())
+					result[1] = NodeHasher.INSTANCE.hash(node);
+				return result;
+			}
+
+			@Override
+			Iterable<? extends TaxonomyNode<ElkClass>> getPresentNodes() {
+				return getNodes();
+			}
+		};
 	}
 
 	/**
@@ -164,6 +229,9 @@ public class ConcurrentClassTaxonomy implements UpdateableTaxonomy<ElkClass> {
 
 		// otherwise create a new node
 		NonBottomClassNode node = new NonBottomClassNode(this, members);
+		ClassTaxonomyDeltaRecorder recorder = deltaRecorder_;
+		if (recorder != null)
+			recorder.nodeCreated(node);
 
 		// we first assign the node to the canonical member to avoid
 		// concurrency problems
@@ -173,6 +241,9 @@ public class ConcurrentClassTaxonomy implements UpdateableTaxonomy<ElkClass> {
 			return previous;
 
 		allSatisfiableClassNodes_.add(node);
+		// the new node is a direct super-node of the bottom node
+		nodeChanged(node);
+		nodeChanged(bottomClassNode_);
 		
 		LOGGER_.trace("node created: {}", node);
 		
@@ -186,7 +257,15 @@ public class ConcurrentClassTaxonomy implements UpdateableTaxonomy<ElkClass> {
 
 	@Override
 	public boolean addToBottomNode(ElkClass elkClass) {
-		return unsatisfiableClasses_.add(elkClass);
+		synchronized (unsatisfiableClasses_) {
+			bottomChanging();
+			if (unsatisfiableClasses_.add(elkClass)) {
+				bottomMembersChanged_.set(true);
+				return true;
+			}
+		}
+		// else
+		return false;
 	}
 
 	@Override
@@ -199,7 +278,16 @@ public class ConcurrentClassTaxonomy implements UpdateableTaxonomy<ElkClass> {
 	public boolean removeNode(UpdateableTaxonomyNode<ElkClass> node) {
 		boolean changed = false;
 
+		ClassTaxonomyDeltaRecorder recorder = deltaRecorder_;
+		if (recorder != null && node instanceof NonBottomClassNode) {
+			synchronized (node) {
+				recorder.nodeChanging((NonBottomClassNode) node);
+			}
+		}
+
 		if (allSatisfiableClassNodes_.remove(node)) {
+			nodeChanged(node);
+			nodeChanged(bottomClassNode_);
 			// removing node assignment for members
 			for (ElkClass member : node.getMembers()) {
 				changed |= classNodeLookup_.remove(getKey(member)) != null;
@@ -228,6 +316,119 @@ public class ConcurrentClassTaxonomy implements UpdateableTaxonomy<ElkClass> {
 		return Collections.unmodifiableSet(allSatisfiableClassNodes_);
 	}
 
+	/**
+	 * Registers the given node of this taxonomy as modified; should be called
+	 * whenever the members or the direct sub-nodes or super-nodes of the node
+	 * change
+	 * 
+	 * @param node
+	 */
+	void nodeChanged(TaxonomyNode<ElkClass> node) {
+		changes_.changed(node);
+	}
+
+	/**
+	 * Should be called before the members or the direct sub-nodes or
+	 * super-nodes of the given node of this taxonomy change, while holding the
+	 * monitor of the node, which should be held until the change is done
+	 * 
+	 * @param node
+	 */
+	void nodeChanging(NonBottomClassNode node) {
+		ClassTaxonomyDeltaRecorder recorder = deltaRecorder_;
+		if (recorder != null)
+			recorder.nodeChanging(node);
+	}
+
+	private void bottomChanging() {
+		ClassTaxonomyDeltaRecorder recorder = deltaRecorder_;
+		if (recorder != null)
+			recorder.bottomChanging(unsatisfiableClasses_);
+	}
+
+	/**
+	 * Returns the changes of this taxonomy recorded since the previous call of
+	 * this method and starts recording the changes for the next call. The
+	 * taxonomy should not be modified while this method is executed.
+	 * 
+	 * @return the {@link TaxonomyDelta} since the previous call of this
+	 *         method, or {@code null} if the changes have not been recorded
+	 */
+	public synchronized TaxonomyDelta<ElkClass> nextDelta() {
+		ClassTaxonomyDeltaRecorder recorder = deltaRecorder_;
+		deltaRecorder_ = new ClassTaxonomyDeltaRecorder();
+		return recorder == null ? null : recorder.getDelta(this);
+	}
+
+	/**
+	 * Stops recording the changes of this taxonomy
+	 * 
+	 * @see #nextDelta()
+	 */
+	public synchronized void stopRecordingDelta() {
+		deltaRecorder_ = null;
+	}
+
+	private synchronized long commitChanges() {
+		changes_.startRecording();
+		if (bottomMembersChanged_.getAndSet(false)) {
+			bottomMembersHash_ = NodeHasher.INSTANCE.hash(bottomClassNode_);
+			// the hash values of nodes without non-bottom sub-nodes depend on
+			// the members of the bottom node
+			nodeChanged(bottomClassNode_);
+			for (NonBottomClassNode node : bottomClassNode_
+					.getDirectSuperNodes()) {
+				nodeChanged(node);
+			}
+		}
+		return changes_.commit();
+	}
+
+	/**
+	 * @return the sum of values of {@link NodeHasher} for the direct
+	 *         super-nodes of the bottom node
+	 */
+	int getBottomSuperNodesHash() {
+		commitChanges();
+		return changes_.getHashSum(1);
+	}
+
+	/**
+	 * @return the value of {@link NodeHasher} for the bottom node
+	 */
+	int getBottomMembersHash() {
+		commitChanges();
+		return bottomMembersHash_;
+	}
+
+	@Override
+	public long getVersion() {
+		return commitChanges();
+	}
+
+	@Override
+	public Set<? extends TaxonomyNode<ElkClass>> getNodesChangedSince(
+			long version) {
+		commitChanges();
+		Set<TaxonomyNode<ElkClass>> result = changes_
+				.getChangedSince(version);
+		if (result == null)
+			return getNodes();
+		// else
+		return result;
+	}
+
+	@Override
+	public synchronized int getStructuralHash() {
+		commitChanges();
+		// computed in the same way as by TaxonomyNodeHasher
+		int bottomHash = HashGenerator.combineListHash(bottomMembersHash_,
+				"subClassOf".hashCode(), "superClassOf".hashCode()
+						+ changes_.getHashSum(1));
+		return HashGenerator.combineListHash(changes_.getHashSum(0)
+				+ bottomHash);
+	}
+
 
 	/**
 	 * Special implementation for the bottom node in the taxonomy. Instead of
@@ -238,9 +439,69 @@ public class ConcurrentClassTaxonomy implements UpdateableTaxonomy<ElkClass> {
 	 */
 	protected class BottomClassNode implements UpdateableBottomNode<ElkClass> {
 
+		/**
+		 * the view of {@link #unsatisfiableClasses_} that registers removals
+		 */
+		private final Set<ElkClass> members_ = new AbstractSet<ElkClass>() {
+
+			@Override
+			public boolean contains(Object o) {
+				return unsatisfiableClasses_.contains(o);
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				if (!unsatisfiableClasses_.contains(o))
+					return false;
+				// else
+				synchronized (unsatisfiableClasses_) {
+					bottomChanging();
+					if (unsatisfiableClasses_.remove(o)) {
+						bottomMembersChanged_.set(true);
+						return true;
+					}
+				}
+				// else
+				return false;
+			}
+
+			@Override
+			public Iterator<ElkClass> iterator() {
+				final Iterator<ElkClass> iterator = unsatisfiableClasses_
+						.iterator();
+				return new Iterator<ElkClass>() {
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public ElkClass next() {
+						return iterator.next();
+					}
+
+					@Override
+					public void remove() {
+						synchronized (unsatisfiableClasses_) {
+							bottomChanging();
+							iterator.remove();
+						}
+						bottomMembersChanged_.set(true);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return unsatisfiableClasses_.size();
+			}
+
+		};
+
 		@Override
 		public Set<ElkClass> getMembers() {
-			return unsatisfiableClasses_;
+			return members_;
 		}
 
 		@Override
@@ -37,7 +37,11 @@ import org.semanticweb.elk.owl.interfaces.ElkEntity;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
 import org.semanticweb.elk.owl.iris.ElkIri;
 import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.InstanceNodeHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TypeNodeHasher;
 import org.semanticweb.elk.reasoner.taxonomy.model.InstanceNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
 import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNodeUtils;
 import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
@@ -46,10 +50,13 @@ import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableInstanceNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTypeNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.VersionedInstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.VersionedTaxonomy;
 import org.semanticweb.elk.util.collections.ArrayHashSet;
 import org.semanticweb.elk.util.collections.LazySetUnion;
 import org.semanticweb.elk.util.collections.Operations;
 import org.semanticweb.elk.util.collections.Operations.FunctorEx;
+import org.semanticweb.elk.util.hashing.HashGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,12 +68,17 @@ import org.slf4j.LoggerFactory;
  * This class wraps an instance of {@link UpdateableTaxonomy} and lazily
  * generates wrappers for its nodes to store direct instances.
  * 
+ * The modified type nodes are determined using the modified nodes of the
+ * wrapped taxonomy if it is a {@link VersionedTaxonomy}; otherwise all type
+ * nodes are considered modified.
+ * 
  * @author Yevgeny Kazakov
  * @author Frantisek Simancik
  * @author Markus Kroetzsch
  * @author Pavel Klinov
  */
-public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
+public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy,
+		VersionedInstanceTaxonomy<ElkClass, ElkNamedIndividual> {
 
 	// logger for events
 	private static final Logger LOGGER_ = LoggerFactory
@@ -83,6 +95,19 @@ public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
 
 	private final TypeNodeWrapper bottom_;
 
+	/**
+	 * The modified type nodes and instance nodes of this taxonomy; for every
+	 * type node the value of {@link TypeNodeHasher} is maintained and for
+	 * every instance node the value of {@link InstanceNodeHasher}
+	 */
+	private final NodeChangeLog<Node<?>> changes_;
+
+	/**
+	 * the version of the wrapped taxonomy when the modifications of its nodes
+	 * were last taken into account
+	 */
+	private long classTaxonomyVersion_ = -1;
+
 	public ConcurrentInstanceTaxonomy() {
 		this(new ConcurrentClassTaxonomy());
 	}
@@ -95,6 +120,39 @@ public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
 		this.wrapperMap_ = new ConcurrentHashMap<TaxonomyNode<ElkClass>, UpdateableTypeNodeWrapper>();
 		this.bottom_ = new BottomTypeNodeWrapper(
 				classTaxonomy_.getUpdateableBottomNode());
+		this.changes_ = new NodeChangeLog<Node<?>>(2) {
+
+			@Override
+			boolean isPresent(Node<?> node) {
+				if (node instanceof UpdateableTypeNodeWrapper)
+					return classTaxonomy_.getUpdateableNodes().contains(
+							((UpdateableTypeNodeWrapper) node).classNode_);
+				if (node == bottom_)
+					return true;
+				// else
+				return allIndividualNodes_.contains(node);
+			}
+
+			@Override
+			int[] hash(Node<?> node) {
+				int[] result = new int[2];
+				if (node instanceof UpdateableTypeNodeWrapper)
+					result[0] = TypeNodeHasher.INSTANCE
+							.hash((UpdateableTypeNodeWrapper) node);
+				else if (node instanceof IndividualNode)
+					result[1] = InstanceNodeHasher.INSTANCE
+							.hash((IndividualNode) node);
+				// the bottom node is hashed separately
+				return result;
+			}
+
+			@Override
+			Iterable<? extends Node<?>> getPresentNodes() {
+				// the type nodes are registered using the modifications of
+				// the class taxonomy
+				return allIndividualNodes_;
+			}
+		};
 	}
 
 	/**
@@ -181,6 +239,12 @@ public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
 				else
 					return previous;
 			}
+			// the hash values of the direct types depend on the members
+			changes_.changed(previous);
+			for (UpdateableTypeNode<ElkClass, ElkNamedIndividual> typeNode : previous
+					.getDirectTypeNodes()) {
+				changes_.changed(typeNode);
+			}
 			// updating the index
 			for (ElkNamedIndividual newMember : members) {
 				individualNodeLookup_.put(getKey(newMember), previous);
@@ -204,6 +268,7 @@ public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
 		}
 
 		allIndividualNodes_.add(node);
+		changes_.changed(node);
 
 		if (LOGGER_.isTraceEnabled()) {
 			LOGGER_.trace(OwlFunctionalStylePrinter.toString(canonical)
@@ -218,6 +283,11 @@ public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
 		return node;
 	}
 
+	@Override
+	public int getInstanceCount() {
+		return individualNodeLookup_.size();
+	}
+
 	@Override
 	public boolean removeInstanceNode(ElkNamedIndividual instance) {
 		IndividualNode node = individualNodeLookup_.get(getKey(instance));
@@ -235,6 +305,7 @@ public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
 				allIndividualNodes_.remove(node);
 				directTypes.addAll(node.getDirectTypeNodes());
 			}
+			changes_.changed(node);
 			// detaching the removed instance node from all its direct types
 			for (UpdateableTypeNode<ElkClass, ElkNamedIndividual> typeNode : directTypes) {
 				synchronized (typeNode) {
@@ -307,6 +378,7 @@ public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
 				synchronized (instanceNode) {
 					instanceNode.removeDirectTypeNode(wrapper);
 				}
+				changes_.changed(instanceNode);
 			}
 		}
 
@@ -341,6 +413,117 @@ public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
 		}
 	}
 
+	/**
+	 * Registers the type node for the given node of the wrapped taxonomy as
+	 * modified, as well as its direct instance nodes, whose hash values depend
+	 * on the members of the type node
+	 * 
+	 * @param classNode
+	 */
+	private void typeNodeChanged(TaxonomyNode<ElkClass> classNode) {
+		if (classNode == classTaxonomy_.getBottomNode()) {
+			changes_.changed(bottom_);
+			return;
+		}
+		// else
+		UpdateableTypeNodeWrapper wrapper = wrapperMap_.get(classNode);
+		if (wrapper == null) {
+			// equal to the wrapper that could be created later
+			wrapper = new UpdateableTypeNodeWrapper(
+					(UpdateableTaxonomyNode<ElkClass>) classNode);
+		} else {
+			for (UpdateableInstanceNode<ElkClass, ElkNamedIndividual> instanceNode : wrapper
+					.getDirectInstanceNodes()) {
+				changes_.changed(instanceNode);
+			}
+		}
+		changes_.changed(wrapper);
+	}
+
+	private synchronized long commitChanges() {
+		changes_.startRecording();
+		Set<? extends TaxonomyNode<ElkClass>> classNodesChanged;
+		if (classTaxonomy_ instanceof VersionedTaxonomy) {
+			VersionedTaxonomy<ElkClass> versionedTaxonomy = (VersionedTaxonomy<ElkClass>) classTaxonomy_;
+			long version = versionedTaxonomy.getVersion();
+			classNodesChanged = version == classTaxonomyVersion_ ? Collections
+					.<TaxonomyNode<ElkClass>> emptySet() : versionedTaxonomy
+					.getNodesChangedSince(classTaxonomyVersion_);
+			classTaxonomyVersion_ = version;
+		} else {
+			classNodesChanged = classTaxonomy_.getNodes();
+		}
+		for (TaxonomyNode<ElkClass> classNode : classNodesChanged) {
+			typeNodeChanged(classNode);
+		}
+		return changes_.commit();
+	}
+
+	@Override
+	public long getVersion() {
+		return commitChanges();
+	}
+
+	@Override
+	public Set<? extends TypeNode<ElkClass, ElkNamedIndividual>> getNodesChangedSince(
+			long version) {
+		commitChanges();
+		Set<Node<?>> changed = changes_.getChangedSince(version);
+		if (changed == null)
+			return getTypeNodes();
+		// else
+		Set<TypeNode<ElkClass, ElkNamedIndividual>> result = new ArrayHashSet<TypeNode<ElkClass, ElkNamedIndividual>>();
+		for (Node<?> node : changed) {
+			if (node instanceof TypeNodeWrapper)
+				result.add((TypeNodeWrapper) node);
+		}
+		return result;
+	}
+
+	@Override
+	public Set<? extends InstanceNode<ElkClass, ElkNamedIndividual>> getInstanceNodesChangedSince(
+			long version) {
+		commitChanges();
+		Set<Node<?>> changed = changes_.getChangedSince(version);
+		if (changed == null)
+			return getInstanceNodes();
+		// else
+		Set<InstanceNode<ElkClass, ElkNamedIndividual>> result = new ArrayHashSet<InstanceNode<ElkClass, ElkNamedIndividual>>();
+		for (Node<?> node : changed) {
+			if (node instanceof IndividualNode)
+				result.add((IndividualNode) node);
+		}
+		return result;
+	}
+
+	@Override
+	public int getStructuralHash() {
+		// the nodes are the same as in the wrapped taxonomy
+		return TaxonomyHasher.hash(classTaxonomy_);
+	}
+
+	@Override
+	public synchronized int getInstanceStructuralHash() {
+		commitChanges();
+		int bottomHash;
+		if (classTaxonomy_ instanceof ConcurrentClassTaxonomy) {
+			// computed in the same way as by TypeNodeHasher
+			ConcurrentClassTaxonomy classTaxonomy = (ConcurrentClassTaxonomy) classTaxonomy_;
+			bottomHash = HashGenerator.combineListHash(
+					classTaxonomy.getBottomMembersHash(),
+					"subClassOf".hashCode(), "superClassOf".hashCode()
+							+ classTaxonomy.getBottomSuperNodesHash(),
+					"instanceOf".hashCode());
+		} else {
+			bottomHash = TypeNodeHasher.INSTANCE.hash(bottom_);
+		}
+		int typeHash = HashGenerator.combineListHash(changes_.getHashSum(0)
+				+ bottomHash);
+		int instanceHash = HashGenerator.combineListHash(changes_
+				.getHashSum(1));
+		return HashGenerator.combineListHash(typeHash, instanceHash);
+	}
+
 	/**
 	 * Transforms updateable taxonomy nodes into updateable type nodes
 	 */
@@ -551,7 +734,10 @@ public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
 			LOGGER_.trace("{}: new direct instance-node {}", classNode_,
 					instanceNode);
 
-			directInstanceNodes_.add(instanceNode);
+			if (directInstanceNodes_.add(instanceNode)) {
+				changes_.changed(this);
+				changes_.changed(instanceNode);
+			}
 		}
 
 		/*
@@ -563,7 +749,10 @@ public class ConcurrentInstanceTaxonomy implements IndividualClassTaxonomy {
 			LOGGER_.trace("{}: direct instance node removed {}", classNode_,
 					instanceNode);
 
-			directInstanceNodes_.remove(instanceNode);
+			if (directInstanceNodes_.remove(instanceNode)) {
+				changes_.changed(this);
+				changes_.changed(instanceNode);
+			}
 		}
 
 	}
@@ -0,0 +1,179 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.semanticweb.elk.owl.predefined.PredefinedElkClass;
+import org.semanticweb.elk.reasoner.indexing.caching.IndexedObjectCache;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedDataHasValue;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedIndividual;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedObjectIntersectionOf;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedObjectSomeValuesFrom;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedObjectUnionOf;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.LinkedSubsumerRule;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.SuperClassFromSubClassRule;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
+
+/**
+ * Computes the {@link IndexedIndividual}s that can be instances of a given
+ * {@link IndexedClassExpression}, so that only these individuals need to be
+ * realized to find all instances of this {@link IndexedClassExpression}. The
+ * candidates are found by going backwards from the given
+ * {@link IndexedClassExpression} over the told subsumptions, the conjuncts of
+ * intersections, and the disjuncts of unions. If the
+ * {@link IndexedClassExpression} can be derived from an existential
+ * restriction or from {@code owl:Thing}, it can be a subsumer of any context,
+ * so all individuals are candidates.
+ *
+ * The backward edges used for the search are computed from the index once and
+ * kept until {@link #invalidate()} is called, which should be done whenever
+ * the index changes.
+ *
+ * @author agent
+ *
+ */
+public class InstanceCandidates {
+
+	/**
+	 * the {@link IndexedObjectCache} containing the indexed objects of the
+	 * current ontology
+	 */
+	private final IndexedObjectCache index_;
+
+	/**
+	 * the result of {@link #getPremises(IndexedObjectCache)} for the current
+	 * index, or {@code null} if it needs to be recomputed
+	 */
+	private Map<IndexedClassExpression, List<IndexedClassExpression>> premises_ = null;
+
+	public InstanceCandidates(IndexedObjectCache index) {
+		this.index_ = index;
+	}
+
+	/**
+	 * Discards the information computed from the index; should be called
+	 * after the index has been modified
+	 */
+	public synchronized void invalidate() {
+		premises_ = null;
+	}
+
+	/**
+	 * @param type
+	 *            the {@link IndexedClassExpression} for which to find the
+	 *            candidate instances
+	 * @return the {@link IndexedIndividual}s that can be instances of the
+	 *         given {@link IndexedClassExpression} or {@code null} if every
+	 *         individual can be its instance
+	 */
+	public synchronized Collection<IndexedIndividual> getCandidates(
+			IndexedClassExpression type) {
+		if (premises_ == null)
+			premises_ = getPremises(index_);
+		Map<IndexedClassExpression, List<IndexedClassExpression>> premises = premises_;
+		Set<IndexedClassExpression> visited = new ArrayHashSet<IndexedClassExpression>();
+		Queue<IndexedClassExpression> todo = new ArrayDeque<IndexedClassExpression>();
+		Collection<IndexedIndividual> result = new ArrayList<IndexedIndividual>();
+		visited.add(type);
+		todo.add(type);
+		for (;;) {
+			IndexedClassExpression next = todo.poll();
+			if (next == null)
+				return result;
+			// else
+			if (next instanceof IndexedObjectSomeValuesFrom
+					|| next instanceof IndexedDataHasValue
+					|| (next instanceof IndexedClass && ((IndexedClass) next)
+							.getElkEntity() == PredefinedElkClass.OWL_THING))
+				return null;
+			// else
+			if (next instanceof IndexedIndividual)
+				result.add((IndexedIndividual) next);
+			List<IndexedClassExpression> nextPremises = premises.get(next);
+			if (nextPremises != null)
+				for (IndexedClassExpression premise : nextPremises)
+					if (visited.add(premise))
+						todo.add(premise);
+			if (next instanceof IndexedObjectIntersectionOf) {
+				IndexedObjectIntersectionOf conjunction = (IndexedObjectIntersectionOf) next;
+				if (visited.add(conjunction.getFirstConjunct()))
+					todo.add(conjunction.getFirstConjunct());
+				if (visited.add(conjunction.getSecondConjunct()))
+					todo.add(conjunction.getSecondConjunct());
+			} else if (next instanceof IndexedObjectUnionOf) {
+				for (IndexedClassExpression disjunct : ((IndexedObjectUnionOf) next)
+						.getDisjuncts())
+					if (visited.add(disjunct))
+						todo.add(disjunct);
+			}
+		}
+	}
+
+	/**
+	 * @return the map from every {@link IndexedClassExpression} to the
+	 *         {@link IndexedClassExpression}s from which it is obtained by
+	 *         told subsumptions or by decomposition of intersections
+	 */
+	private static Map<IndexedClassExpression, List<IndexedClassExpression>> getPremises(
+			IndexedObjectCache index) {
+		Map<IndexedClassExpression, List<IndexedClassExpression>> result = new ArrayHashMap<IndexedClassExpression, List<IndexedClassExpression>>();
+		for (IndexedClassExpression premise : index.getClassExpressions()) {
+			LinkedSubsumerRule rule = premise.getCompositionRuleHead();
+			while (rule != null) {
+				if (rule instanceof SuperClassFromSubClassRule) {
+					for (IndexedClassExpression conclusion : ((SuperClassFromSubClassRule) rule)
+							.getToldSuperclasses())
+						addPremise(result, conclusion, premise);
+				}
+				rule = rule.next();
+			}
+			if (premise instanceof IndexedObjectIntersectionOf) {
+				IndexedObjectIntersectionOf conjunction = (IndexedObjectIntersectionOf) premise;
+				addPremise(result, conjunction.getFirstConjunct(), premise);
+				addPremise(result, conjunction.getSecondConjunct(), premise);
+			}
+		}
+		return result;
+	}
+
+	private static void addPremise(
+			Map<IndexedClassExpression, List<IndexedClassExpression>> premises,
+			IndexedClassExpression conclusion, IndexedClassExpression premise) {
+		List<IndexedClassExpression> list = premises.get(conclusion);
+		if (list == null) {
+			list = new ArrayList<IndexedClassExpression>(2);
+			premises.put(conclusion, list);
+		}
+		list.add(premise);
+	}
+
+}
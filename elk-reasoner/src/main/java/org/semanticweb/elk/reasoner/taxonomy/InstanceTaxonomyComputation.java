@@ -23,6 +23,7 @@
 package org.semanticweb.elk.reasoner.taxonomy;
 
 import java.util.Collection;
+import java.util.concurrent.ConcurrentMap;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
@@ -53,10 +54,11 @@ public class InstanceTaxonomyComputation
 			int maxWorkers,
 			ProgressMonitor progressMonitor,
 			SaturationState<?> saturationState,
-			UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> partialTaxonomy) {
+			UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> partialTaxonomy,
+			ConcurrentMap<IndexedIndividual, Collection<IndexedIndividual>> bucketMembers) {
 		super(inputs, new InstanceTaxonomyComputationFactory(saturationState,
-				maxWorkers, partialTaxonomy), executor, maxWorkers,
-				progressMonitor);
+				maxWorkers, partialTaxonomy, bucketMembers), executor,
+				maxWorkers, progressMonitor);
 	}
 
 	/**
@@ -22,11 +22,19 @@
  */
 package org.semanticweb.elk.reasoner.taxonomy;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedIndividual;
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionFactory;
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionJob;
@@ -36,6 +44,8 @@ import org.semanticweb.elk.reasoner.reduction.TransitiveReductionOutputEquivalen
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionOutputUnsatisfiable;
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionOutputVisitor;
 import org.semanticweb.elk.reasoner.saturation.SaturationState;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.LinkedSubsumerRule;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.SuperClassFromSubClassRule;
 import org.semanticweb.elk.reasoner.taxonomy.InstanceTaxonomyComputationFactory.Engine;
 import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.Node;
@@ -44,6 +54,8 @@ import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableInstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTypeNode;
 import org.semanticweb.elk.util.concurrent.computation.InputProcessor;
 import org.semanticweb.elk.util.concurrent.computation.InputProcessorFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /*
  * TODO: current implementation does not support equivalent individuals,
@@ -56,12 +68,26 @@ import org.semanticweb.elk.util.concurrent.computation.InputProcessorFactory;
  * {@link Engine#submit(IndexedIndividual)}, which require the computation of
  * the {@link Node} for the input {@link IndexedIndividual}.
  * 
+ * Individuals whose only rules produce their told subsumers (that is, which
+ * occur in the ontology only in class and property assertions and in
+ * positive existential restrictions) have the same types if their told
+ * subsumers are the same. Such individuals are grouped into buckets and only
+ * the first submitted individual of every bucket, the representative, is
+ * saturated; the other members of the bucket obtain the direct type nodes of
+ * the representative. The members of every bucket are recorded in the
+ * provided map so that their nodes can be removed when the node of the
+ * representative is removed by incremental reasoning.
+ * 
  * @author Yevgeny Kazakov
  * @author Markus Kroetzsch
  */
 public class InstanceTaxonomyComputationFactory implements
 		InputProcessorFactory<IndexedIndividual, Engine> {
 
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(InstanceTaxonomyComputationFactory.class);
+
 	/**
 	 * The class taxonomy object into which we write the result
 	 */
@@ -76,6 +102,21 @@ public class InstanceTaxonomyComputationFactory implements
 	 * transitive reduction
 	 */
 	private final TransitiveReductionOutputProcessor outputProcessor_;
+	/**
+	 * The buckets of individuals with the same told subsumers indexed by
+	 * these subsumers
+	 */
+	private final ConcurrentMap<Set<IndexedClassExpression>, IndividualBucket> buckets_;
+	/**
+	 * The members of buckets other than the representatives indexed by the
+	 * representatives
+	 */
+	private final ConcurrentMap<IndexedIndividual, Collection<IndexedIndividual>> bucketMembers_;
+	/**
+	 * The number of individuals whose types are obtained from their
+	 * representatives
+	 */
+	private final AtomicInteger sharedCount_ = new AtomicInteger(0);
 
 	/**
 	 * Create a shared engine for the input ontology index and a partially
@@ -90,12 +131,19 @@ public class InstanceTaxonomyComputationFactory implements
 	 * @param partialTaxonomy
 	 *            the (partially pre-computed) class taxonomy object to store
 	 *            results in
+	 * @param bucketMembers
+	 *            the map in which the individuals that obtain their types from
+	 *            other individuals are recorded, indexed by these other
+	 *            individuals
 	 */
 	public InstanceTaxonomyComputationFactory(
 			SaturationState<?> saturationState,
 			int maxWorkers,
-			UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> partialTaxonomy) {
+			UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> partialTaxonomy,
+			ConcurrentMap<IndexedIndividual, Collection<IndexedIndividual>> bucketMembers) {
 		this.taxonomy_ = partialTaxonomy;
+		this.buckets_ = new ConcurrentHashMap<Set<IndexedClassExpression>, IndividualBucket>();
+		this.bucketMembers_ = bucketMembers;
 		this.transitiveReductionShared_ = new TransitiveReductionFactory<IndexedIndividual, TransitiveReductionJob<IndexedIndividual>>(
 				saturationState, maxWorkers,
 				new ThisTransitiveReductionListener());
@@ -135,19 +183,32 @@ public class InstanceTaxonomyComputationFactory implements
 		public void visit(
 				TransitiveReductionOutputEquivalentDirect<IndexedIndividual> output) {
 
-			// only supports singleton individuals
-			UpdateableInstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy_
-					.getCreateInstanceNode(Collections.singleton(output
-							.getRoot().getElkEntity()));
-
+			List<UpdateableTypeNode<ElkClass, ElkNamedIndividual>> directTypeNodes = new ArrayList<UpdateableTypeNode<ElkClass, ElkNamedIndividual>>(
+					output.getDirectSubsumers().size());
 			for (List<ElkClass> directSuperEquivalent : output
 					.getDirectSubsumers()) {
-				UpdateableTypeNode<ElkClass, ElkNamedIndividual> superNode = taxonomy_
-						.getCreateTypeNode(directSuperEquivalent);
-				assignDirectTypeNode(node, superNode);
+				directTypeNodes.add(taxonomy_
+						.getCreateTypeNode(directSuperEquivalent));
+			}
+			IndexedIndividual root = output.getRoot();
+			createInstanceNode(root, directTypeNodes);
+			Set<IndexedClassExpression> key = getToldSubsumers(root);
+			if (key == null)
+				return;
+			// else
+			IndividualBucket bucket = buckets_.get(key);
+			if (bucket == null || bucket.representative != root)
+				return;
+			// else
+			List<IndexedIndividual> pending;
+			synchronized (bucket) {
+				bucket.directTypeNodes = directTypeNodes;
+				pending = bucket.pendingMembers;
+				bucket.pendingMembers = null;
+			}
+			for (IndexedIndividual member : pending) {
+				createInstanceNode(member, directTypeNodes);
 			}
-
-			node.trySetModified(false);
 		}
 
 		@Override
@@ -169,6 +230,119 @@ public class InstanceTaxonomyComputationFactory implements
 
 	}
 
+	/**
+	 * A group of individuals with the same told subsumers, whose types are
+	 * computed using the saturation of the first submitted individual
+	 * 
+	 * @author "Yevgeny Kazakov"
+	 */
+	private static class IndividualBucket {
+
+		/**
+		 * the individual that is saturated for this bucket
+		 */
+		final IndexedIndividual representative;
+
+		/**
+		 * the direct type nodes of the representative, or {@code null} if
+		 * they are not computed yet
+		 */
+		List<UpdateableTypeNode<ElkClass, ElkNamedIndividual>> directTypeNodes = null;
+
+		/**
+		 * the members of this bucket submitted before the direct type nodes of
+		 * the representative were computed
+		 */
+		List<IndexedIndividual> pendingMembers = new ArrayList<IndexedIndividual>();
+
+		/**
+		 * the members of this bucket other than the representative
+		 */
+		Collection<IndexedIndividual> members = null;
+
+		IndividualBucket(IndexedIndividual representative) {
+			this.representative = representative;
+		}
+
+	}
+
+	/**
+	 * Computes the told subsumers of the given {@link IndexedIndividual}
+	 * provided they are the only subsumers produced by its rules.
+	 * 
+	 * @param individual
+	 *            the {@link IndexedIndividual} for which to compute the told
+	 *            subsumers
+	 * @return the told subsumers of the given {@link IndexedIndividual} if
+	 *         its composition rules produce nothing else, or {@code null}
+	 *         otherwise; individuals for which the same result (other than
+	 *         {@code null}) is returned have the same types
+	 */
+	private static Set<IndexedClassExpression> getToldSubsumers(
+			IndexedIndividual individual) {
+		Set<IndexedClassExpression> result = new HashSet<IndexedClassExpression>();
+		LinkedSubsumerRule rule = individual.getCompositionRuleHead();
+		while (rule != null) {
+			if (!(rule instanceof SuperClassFromSubClassRule))
+				return null;
+			result.addAll(((SuperClassFromSubClassRule) rule)
+					.getToldSuperclasses());
+			rule = rule.next();
+		}
+		return result;
+	}
+
+	/**
+	 * Creates the instance node for the given {@link IndexedIndividual} and
+	 * connects it to the given type nodes
+	 * 
+	 * @param individual
+	 *            the {@link IndexedIndividual} for which to create the node
+	 * @param directTypeNodes
+	 *            the direct type nodes of the individual
+	 */
+	private void createInstanceNode(IndexedIndividual individual,
+			List<UpdateableTypeNode<ElkClass, ElkNamedIndividual>> directTypeNodes) {
+		// only supports singleton individuals
+		UpdateableInstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy_
+				.getCreateInstanceNode(Collections.singleton(individual
+						.getElkEntity()));
+		for (UpdateableTypeNode<ElkClass, ElkNamedIndividual> typeNode : directTypeNodes) {
+			assignDirectTypeNode(node, typeNode);
+		}
+		node.trySetModified(false);
+	}
+
+	/**
+	 * Adds the given {@link IndexedIndividual} to the given bucket; the
+	 * instance node for the individual is created as soon as the direct type
+	 * nodes of the representative of the bucket are computed
+	 * 
+	 * @param bucket
+	 *            the bucket to which the individual should be added
+	 * @param individual
+	 *            the member of the bucket
+	 */
+	private void addMember(IndividualBucket bucket, IndexedIndividual individual) {
+		List<UpdateableTypeNode<ElkClass, ElkNamedIndividual>> directTypeNodes;
+		synchronized (bucket) {
+			if (bucket.members == null) {
+				bucket.members = new ArrayList<IndexedIndividual>();
+				Collection<IndexedIndividual> previous = bucketMembers_
+						.putIfAbsent(bucket.representative, bucket.members);
+				if (previous != null)
+					bucket.members = previous;
+			}
+			bucket.members.add(individual);
+			directTypeNodes = bucket.directTypeNodes;
+			if (directTypeNodes == null) {
+				bucket.pendingMembers.add(individual);
+				return;
+			}
+		}
+		createInstanceNode(individual, directTypeNodes);
+	}
+
 	/**
 	 * Connecting the given pair of nodes in instance/type-node relation. The
 	 * method should not be called concurrently for the same first argument.
@@ -227,6 +401,9 @@ public class InstanceTaxonomyComputationFactory implements
 	 */
 	public void printStatistics() {
 		transitiveReductionShared_.printStatistics();
+		if (LOGGER_.isDebugEnabled())
+			LOGGER_.debug("individuals with types of other individuals: "
+					+ sharedCount_.get());
 	}
 
 	public class Engine implements InputProcessor<IndexedIndividual> {
@@ -243,6 +420,17 @@ public class InstanceTaxonomyComputationFactory implements
 
 		@Override
 		public final void submit(IndexedIndividual job) {
+			Set<IndexedClassExpression> key = getToldSubsumers(job);
+			if (key != null) {
+				IndividualBucket bucket = new IndividualBucket(job);
+				IndividualBucket previous = buckets_.putIfAbsent(key, bucket);
+				if (previous != null) {
+					sharedCount_.incrementAndGet();
+					addMember(previous, job);
+					return;
+				}
+			}
+			// else
 			transitiveReductionEngine
 					.submit(new TransitiveReductionJob<IndexedIndividual>(job));
 		}
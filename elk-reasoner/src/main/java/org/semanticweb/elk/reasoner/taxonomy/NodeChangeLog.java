@@ -0,0 +1,281 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.semanticweb.elk.util.collections.ArrayHashMap;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
+
+/**
+ * Keeps track of modified nodes of a taxonomy. Modified nodes can be
+ * registered concurrently using {@link #changed(Object)}; when
+ * {@link #commit()} is called, the registered nodes are rehashed, the sums of
+ * hash values of all present nodes are updated accordingly, and the nodes are
+ * recorded in the log under a new version. The log keeps the modifications for
+ * the most recent versions only, so that its size stays proportional to the
+ * number of nodes.
+ * 
+ * Nothing is recorded until the first call of {@link #commit()}, which
+ * happens only when the version or the structural hash of the taxonomy is
+ * requested; this call hashes all present nodes. Hence, taxonomies whose
+ * versions and hashes are never used do not pay for keeping the log.
+ * 
+ * Every log has its own epoch, which is stored in the upper 32 bits of its
+ * versions. Thus versions obtained from another log, e.g., of a taxonomy that
+ * has been replaced by a new one, are never mistaken for the versions of this
+ * log.
+ * 
+ * @author agent
+ * 
+ * @param <N>
+ *            the type of nodes
+ */
+abstract class NodeChangeLog<N> {
+
+	/**
+	 * the log is trimmed when it contains more entries than this number times
+	 * the number of nodes
+	 */
+	private static final int LOG_SIZE_RATIO_ = 2;
+
+	/**
+	 * the minimal number of entries of the log that are kept
+	 */
+	private static final int MIN_LOG_SIZE_ = 128;
+
+	/**
+	 * the epoch of the last created log
+	 */
+	private static final AtomicInteger LAST_EPOCH_ = new AtomicInteger(0);
+
+	/**
+	 * the mask for the bits of versions that store the epoch
+	 */
+	private static final long EPOCH_MASK_ = 0xFFFFFFFF00000000L;
+
+	/**
+	 * nodes modified since the last commit
+	 */
+	private final Set<N> changed_;
+
+	/**
+	 * the hash values of the present nodes computed during the last commit
+	 * that modified them
+	 */
+	private final Map<N, int[]> hashes_;
+
+	/**
+	 * the sums of the respective values in {@link #hashes_}
+	 */
+	private final int[] hashSums_;
+
+	/**
+	 * the nodes modified in the recent versions, the latest version is last
+	 */
+	private final LinkedList<Batch<N>> log_;
+
+	/**
+	 * the total number of nodes in {@link #log_}
+	 */
+	private int logSize_ = 0;
+
+	/**
+	 * {@code true} if the modified nodes are registered
+	 */
+	private volatile boolean recording_ = false;
+
+	/**
+	 * the current version
+	 */
+	private long version_;
+
+	/**
+	 * modifications made before and at this version are not in the log
+	 */
+	private long forgottenVersion_;
+
+	/**
+	 * @param hashCount
+	 *            the number of hash values computed for every node
+	 */
+	NodeChangeLog(int hashCount) {
+		this.changed_ = Collections
+				.newSetFromMap(new ConcurrentHashMap<N, Boolean>());
+		this.hashes_ = new ArrayHashMap<N, int[]>(128);
+		this.hashSums_ = new int[hashCount];
+		this.log_ = new LinkedList<Batch<N>>();
+		this.version_ = newEpoch();
+		this.forgottenVersion_ = version_;
+	}
+
+	/**
+	 * @return the first version of a new epoch; the versions of different
+	 *         epochs are different
+	 */
+	static long newEpoch() {
+		return ((long) LAST_EPOCH_.incrementAndGet()) << 32;
+	}
+
+	/**
+	 * @param node
+	 * @return {@code true} if the given node is currently present in the
+	 *         taxonomy
+	 */
+	abstract boolean isPresent(N node);
+
+	/**
+	 * @param node
+	 *            a node present in the taxonomy
+	 * @return the hash values of the given node; the length of the array
+	 *         should be the number of hash values given in the constructor
+	 */
+	abstract int[] hash(N node);
+
+	/**
+	 * @return the nodes currently present in the taxonomy; used when the
+	 *         recording of modifications starts
+	 */
+	abstract Iterable<? extends N> getPresentNodes();
+
+	/**
+	 * Registers the given node as modified. This method is thread safe. It
+	 * has no effect until the recording is started.
+	 * 
+	 * @param node
+	 */
+	void changed(N node) {
+		if (!recording_)
+			return;
+		// most of the time the node is already registered
+		if (!changed_.contains(node))
+			changed_.add(node);
+	}
+
+	/**
+	 * Starts registering modified nodes if this was not done yet; all present
+	 * nodes are registered as modified. Should be called before the nodes
+	 * modified since the last commit are registered by the taxonomy.
+	 */
+	synchronized void startRecording() {
+		if (recording_)
+			return;
+		// nodes modified from now on are registered
+		recording_ = true;
+		for (N node : getPresentNodes())
+			changed_.add(node);
+	}
+
+	/**
+	 * Rehashes the modified nodes and records them under a new version. Starts
+	 * the recording if it was not started yet.
+	 * 
+	 * @return the current version after the modifications are recorded
+	 */
+	synchronized long commit() {
+		startRecording();
+		if (changed_.isEmpty())
+			return version_;
+		List<N> batch = new ArrayList<N>(changed_.size());
+		Iterator<N> iterator = changed_.iterator();
+		while (iterator.hasNext()) {
+			N node = iterator.next();
+			iterator.remove();
+			batch.add(node);
+			int[] previous = hashes_.remove(node);
+			if (previous != null)
+				for (int i = 0; i < hashSums_.length; i++)
+					hashSums_[i] -= previous[i];
+			if (!isPresent(node))
+				continue;
+			int[] next = hash(node);
+			hashes_.put(node, next);
+			for (int i = 0; i < hashSums_.length; i++)
+				hashSums_[i] += next[i];
+		}
+		version_++;
+		log_.add(new Batch<N>(version_, batch));
+		logSize_ += batch.size();
+		while (log_.size() > 1
+				&& logSize_ > Math.max(MIN_LOG_SIZE_, LOG_SIZE_RATIO_
+						* hashes_.size())) {
+			Batch<N> forgotten = log_.removeFirst();
+			logSize_ -= forgotten.nodes.size();
+			forgottenVersion_ = forgotten.version;
+		}
+		return version_;
+	}
+
+	/**
+	 * @param index
+	 * @return the sum of the hash values with the given index of the nodes
+	 *         present at the last commit
+	 */
+	synchronized int getHashSum(int index) {
+		return hashSums_[index];
+	}
+
+	/**
+	 * @param version
+	 * @return the nodes recorded after the given version, or {@code null} if
+	 *         some of these modifications are no longer in the log or the
+	 *         version is not from the epoch of this log
+	 */
+	synchronized Set<N> getChangedSince(long version) {
+		if ((version & EPOCH_MASK_) != (version_ & EPOCH_MASK_)
+				|| version < forgottenVersion_)
+			return null;
+		Set<N> result = new ArrayHashSet<N>();
+		Iterator<Batch<N>> iterator = log_.descendingIterator();
+		while (iterator.hasNext()) {
+			Batch<N> batch = iterator.next();
+			if (batch.version <= version)
+				break;
+			result.addAll(batch.nodes);
+		}
+		return result;
+	}
+
+	/**
+	 * The nodes modified in one version
+	 */
+	private static class Batch<N> {
+
+		final long version;
+
+		final List<N> nodes;
+
+		Batch(long version, List<N> nodes) {
+			this.version = version;
+			this.nodes = nodes;
+		}
+	}
+
+}
@@ -115,7 +115,9 @@ class NonBottomClassNode implements UpdateableTaxonomyNode<ElkClass> {
 			UpdateableTaxonomyNode<ElkClass> superNode) {
 		LOGGER_.trace("{}: new direct super-node {}", this, superNode);
 
-		directSuperNodes_.add(superNode);
+		taxonomy_.nodeChanging(this);
+		if (directSuperNodes_.add(superNode))
+			taxonomy_.nodeChanged(this);
 	}
 
 	/**
@@ -129,11 +131,15 @@ class NonBottomClassNode implements UpdateableTaxonomyNode<ElkClass> {
 			UpdateableTaxonomyNode<ElkClass> subNode) {
 		LOGGER_.trace("{}: new direct sub-node {}", this, subNode);
 
+		taxonomy_.nodeChanging(this);
 		if (directSubNodes_.isEmpty()) {
 			this.taxonomy_.countNodesWithSubClasses.incrementAndGet();
+			// this node is no longer a direct super-node of the bottom node
+			taxonomy_.nodeChanged(taxonomy_.getBottomNode());
 		}
 
-		directSubNodes_.add(subNode);
+		if (directSubNodes_.add(subNode))
+			taxonomy_.nodeChanged(this);
 	}
 
 	// TODO: change the type of the output to SortedSet
@@ -221,11 +227,18 @@ class NonBottomClassNode implements UpdateableTaxonomyNode<ElkClass> {
 		return members_.toString();
 	}
 
-	public void setMembers(Collection<ElkClass> members) {
+	public synchronized void setMembers(Collection<ElkClass> members) {
 		LOGGER_.trace("{}: updating members to {}", this, members);
+		taxonomy_.nodeChanging(this);
 		members_.clear();
 		members_.addAll(members);
 		Collections.sort(this.members_, Comparators.ELK_CLASS_COMPARATOR);
+		// the hash values of the neighbors depend on the members
+		taxonomy_.nodeChanged(this);
+		for (TaxonomyNode<ElkClass> node : getDirectSubNodes())
+			taxonomy_.nodeChanged(node);
+		for (TaxonomyNode<ElkClass> node : directSuperNodes_)
+			taxonomy_.nodeChanged(node);
 	}
 
 	@Override
@@ -243,26 +256,36 @@ class NonBottomClassNode implements UpdateableTaxonomyNode<ElkClass> {
 	}
 
 	@Override
-	public boolean removeDirectSubNode(UpdateableTaxonomyNode<ElkClass> subNode) {
+	public synchronized boolean removeDirectSubNode(
+			UpdateableTaxonomyNode<ElkClass> subNode) {
+		taxonomy_.nodeChanging(this);
 		boolean changed = directSubNodes_.remove(subNode);
 
-		if (changed)
+		if (changed) {
 			LOGGER_.trace("{}: removed direct sub-node {}", this, subNode);
+			taxonomy_.nodeChanged(this);
+		}
 
 		if (directSubNodes_.isEmpty()) {
 			taxonomy_.countNodesWithSubClasses.decrementAndGet();
+			// this node is now a direct super-node of the bottom node
+			taxonomy_.nodeChanged(taxonomy_.getBottomNode());
 		}
 
 		return changed;
 	}
 
 	@Override
-	public boolean removeDirectSuperNode(
+	public synchronized boolean removeDirectSuperNode(
 			UpdateableTaxonomyNode<ElkClass> superNode) {
+		taxonomy_.nodeChanging(this);
 		boolean changed = directSuperNodes_.remove(superNode);
 
 		LOGGER_.trace("{}: removed direct super-node {}", this, superNode);
 
+		if (changed)
+			taxonomy_.nodeChanged(this);
+
 		return changed;
 	}
 }
@@ -0,0 +1,596 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.iris.ElkIri;
+import org.semanticweb.elk.owl.predefined.PredefinedElkClass;
+import org.semanticweb.elk.owl.util.Comparators;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyNodeHasher;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNodeUtils;
+import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomyNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.VersionedTaxonomy;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
+import org.semanticweb.elk.util.collections.LazySetUnion;
+import org.semanticweb.elk.util.hashing.HashGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A read-only class taxonomy that keeps its structure outside of the Java heap
+ * so that it is not traversed by the garbage collector. Every satisfiable
+ * node has a dense identifier, and the members of nodes and the direct
+ * super-nodes and sub-nodes of nodes are stored in direct int buffers in the
+ * compressed sparse row (CSR) form: the entries for node {@code i} are at
+ * positions from {@code offsets[i]} (inclusive) to {@code offsets[i + 1]}
+ * (exclusive) of the respective buffer. The classes are found by their IRIs
+ * using an open addressing hash table, which is stored in a direct buffer as
+ * well. The only objects kept on the heap are the array of the (shared)
+ * {@link ElkClass}es and one small object per node, which contains only the
+ * identifier of the node.
+ * 
+ * The taxonomy is created from a computed {@link Taxonomy} and cannot be
+ * modified, so it does not implement {@link UpdateableTaxonomy}. To update
+ * the taxonomy, it should be first converted back using
+ * {@link #toConcurrentClassTaxonomy()}, which copies it to the heap. Since
+ * the taxonomy never changes, it has only one {@link VersionedTaxonomy}
+ * version and its structural hash is computed once, when first requested.
+ * 
+ * @author agent
+ * 
+ */
+public class OffHeapClassTaxonomy implements VersionedTaxonomy<ElkClass> {
+
+	// logger for events
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(OffHeapClassTaxonomy.class);
+
+	/**
+	 * the members of all nodes; the members of each satisfiable node are
+	 * sorted and stored consecutively, followed by the members of the bottom
+	 * node
+	 */
+	private final ElkClass[] classes_;
+
+	/**
+	 * the number of satisfiable nodes; this is also the identifier of the
+	 * bottom node
+	 */
+	private final int nodeCount_;
+
+	/**
+	 * the positions in {@link #classes_} where the members of the node with
+	 * the given identifier start
+	 */
+	private final IntBuffer memberOffsets_;
+
+	/**
+	 * the identifiers of the nodes of the classes in {@link #classes_}
+	 */
+	private final IntBuffer classNodes_;
+
+	/**
+	 * the open addressing hash table from the {@link ElkIri}s of classes to
+	 * their positions in {@link #classes_} plus one; {@code 0} marks a free
+	 * slot
+	 */
+	private final IntBuffer classTable_;
+
+	/**
+	 * the sorted identifiers of direct super-nodes of satisfiable nodes in the
+	 * CSR form
+	 */
+	private final IntBuffer superOffsets_, superNodes_;
+
+	/**
+	 * the sorted identifiers of direct satisfiable sub-nodes of satisfiable
+	 * nodes in the CSR form; the nodes without such sub-nodes have only the
+	 * bottom node as the direct sub-node
+	 */
+	private final IntBuffer subOffsets_, subNodes_;
+
+	/**
+	 * the sorted identifiers of direct super-nodes of the bottom node
+	 */
+	private final IntBuffer bottomSuperNodes_;
+
+	/**
+	 * the satisfiable nodes indexed by their identifiers
+	 */
+	private final ClassNode[] nodes_;
+
+	private final BottomNode bottomNode_ = new BottomNode();
+
+	/**
+	 * the only version of this taxonomy
+	 */
+	private final long version_ = NodeChangeLog.newEpoch();
+
+	/**
+	 * the structural hash of this taxonomy, or {@code null} if it was not
+	 * computed yet
+	 */
+	private Integer structuralHash_ = null;
+
+	/**
+	 * Creates an {@link OffHeapClassTaxonomy} with the same nodes and
+	 * relations between them as the given class {@link Taxonomy}
+	 * 
+	 * @param taxonomy
+	 *            the class {@link Taxonomy} to be copied
+	 */
+	public OffHeapClassTaxonomy(Taxonomy<ElkClass> taxonomy) {
+		TaxonomyNode<ElkClass> bottom = taxonomy.getBottomNode();
+		List<TaxonomyNode<ElkClass>> nodes = new ArrayList<TaxonomyNode<ElkClass>>(
+				taxonomy.getNodes().size());
+		Map<TaxonomyNode<ElkClass>, Integer> nodeIds = new ArrayHashMap<TaxonomyNode<ElkClass>, Integer>(
+				taxonomy.getNodes().size());
+		int classCount = bottom.getMembers().size();
+		for (TaxonomyNode<ElkClass> node : taxonomy.getNodes()) {
+			if (node == bottom)
+				continue;
+			nodeIds.put(node, nodes.size());
+			nodes.add(node);
+			classCount += node.getMembers().size();
+		}
+		this.nodeCount_ = nodes.size();
+		this.nodes_ = new ClassNode[nodeCount_];
+		for (int i = 0; i < nodeCount_; i++) {
+			nodes_[i] = new ClassNode(i);
+		}
+		this.classes_ = new ElkClass[classCount];
+		this.memberOffsets_ = allocate(nodeCount_ + 2);
+		this.classNodes_ = allocate(classCount);
+		this.superOffsets_ = allocate(nodeCount_ + 1);
+		this.subOffsets_ = allocate(nodeCount_ + 1);
+		// members
+		int next = 0;
+		for (int i = 0; i <= nodeCount_; i++) {
+			memberOffsets_.put(i, next);
+			List<ElkClass> members = new ArrayList<ElkClass>(
+					(i < nodeCount_ ? nodes.get(i) : bottom).getMembers());
+			Collections.sort(members, Comparators.ELK_CLASS_COMPARATOR);
+			for (ElkClass member : members) {
+				classNodes_.put(next, i);
+				classes_[next++] = member;
+			}
+		}
+		memberOffsets_.put(nodeCount_ + 1, next);
+		// the hash table with at most half of the slots occupied
+		int tableSize = Integer.highestOneBit(Math.max(1, classCount)) << 2;
+		this.classTable_ = allocate(tableSize);
+		for (int i = 0; i < classCount; i++) {
+			int slot = classes_[i].getIri().hashCode() & (tableSize - 1);
+			while (classTable_.get(slot) != 0)
+				slot = (slot + 1) & (tableSize - 1);
+			classTable_.put(slot, i + 1);
+		}
+		// direct super-nodes and sub-nodes
+		int superCount = 0, subCount = 0, leafCount = 0;
+		for (TaxonomyNode<ElkClass> node : nodes) {
+			superCount += node.getDirectSuperNodes().size();
+			if (node.getDirectSubNodes().contains(bottom))
+				leafCount++;
+			else
+				subCount += node.getDirectSubNodes().size();
+		}
+		this.superNodes_ = allocate(superCount);
+		this.subNodes_ = allocate(subCount);
+		this.bottomSuperNodes_ = allocate(leafCount);
+		superCount = 0;
+		subCount = 0;
+		leafCount = 0;
+		for (int i = 0; i < nodeCount_; i++) {
+			TaxonomyNode<ElkClass> node = nodes.get(i);
+			superOffsets_.put(i, superCount);
+			superCount = putSorted(node.getDirectSuperNodes(), nodeIds,
+					superNodes_, superCount);
+			subOffsets_.put(i, subCount);
+			if (node.getDirectSubNodes().contains(bottom))
+				bottomSuperNodes_.put(leafCount++, i);
+			else
+				subCount = putSorted(node.getDirectSubNodes(), nodeIds,
+						subNodes_, subCount);
+		}
+		superOffsets_.put(nodeCount_, superCount);
+		subOffsets_.put(nodeCount_, subCount);
+
+		LOGGER_.debug("{} classes in {} nodes stored off-heap", classCount,
+				nodeCount_);
+	}
+
+	/**
+	 * @param size
+	 * @return a new {@link IntBuffer} of the given size allocated outside of
+	 *         the Java heap
+	 */
+	private static IntBuffer allocate(int size) {
+		return ByteBuffer.allocateDirect(size << 2)
+				.order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+
+	/**
+	 * Writes the sorted identifiers of the given satisfiable nodes to the
+	 * given buffer starting from the given position
+	 * 
+	 * @return the position after the last written identifier
+	 */
+	private static int putSorted(
+			Collection<? extends TaxonomyNode<ElkClass>> nodes,
+			Map<TaxonomyNode<ElkClass>, Integer> nodeIds, IntBuffer buffer,
+			int position) {
+		int[] ids = new int[nodes.size()];
+		int i = 0;
+		for (TaxonomyNode<ElkClass> node : nodes) {
+			ids[i++] = nodeIds.get(node);
+		}
+		Arrays.sort(ids);
+		for (int id : ids) {
+			buffer.put(position++, id);
+		}
+		return position;
+	}
+
+	/**
+	 * @param elkClass
+	 * @return the position of the given {@link ElkClass} in {@link #classes_}
+	 *         or {@code -1} if it does not occur in this taxonomy
+	 */
+	private int getClassId(ElkClass elkClass) {
+		ElkIri iri = elkClass.getIri();
+		int mask = classTable_.capacity() - 1;
+		for (int slot = iri.hashCode() & mask;; slot = (slot + 1) & mask) {
+			int entry = classTable_.get(slot);
+			if (entry == 0)
+				return -1;
+			if (iri.equals(classes_[entry - 1].getIri()))
+				return entry - 1;
+		}
+	}
+
+	/**
+	 * @return the satisfiable node with the given identifier
+	 */
+	ClassNode getNode(int id) {
+		return nodes_[id];
+	}
+
+	@Override
+	public TaxonomyNode<ElkClass> getNode(ElkClass elkClass) {
+		int classId = getClassId(elkClass);
+		if (classId < 0)
+			return null;
+		int nodeId = classNodes_.get(classId);
+		return nodeId == nodeCount_ ? bottomNode_ : getNode(nodeId);
+	}
+
+	@Override
+	public Set<? extends TaxonomyNode<ElkClass>> getNodes() {
+		return new LazySetUnion<TaxonomyNode<ElkClass>>(
+				getSatisfiableNodes(),
+				Collections.<TaxonomyNode<ElkClass>> singleton(bottomNode_));
+	}
+
+	@Override
+	public TaxonomyNode<ElkClass> getTopNode() {
+		return getNode(PredefinedElkClass.OWL_THING);
+	}
+
+	@Override
+	public TaxonomyNode<ElkClass> getBottomNode() {
+		return bottomNode_;
+	}
+
+	@Override
+	public long getVersion() {
+		return version_;
+	}
+
+	@Override
+	public Set<? extends TaxonomyNode<ElkClass>> getNodesChangedSince(
+			long version) {
+		if (version == version_)
+			return Collections.<TaxonomyNode<ElkClass>> emptySet();
+		// else
+		return getNodes();
+	}
+
+	@Override
+	public synchronized int getStructuralHash() {
+		if (structuralHash_ == null)
+			structuralHash_ = HashGenerator.combineMultisetHash(true,
+					getNodes(), TaxonomyNodeHasher.INSTANCE);
+		return structuralHash_;
+	}
+
+	/**
+	 * @return the satisfiable nodes of this taxonomy
+	 */
+	Set<ClassNode> getSatisfiableNodes() {
+		return new NodeSet(null, 0, nodeCount_);
+	}
+
+	/**
+	 * @return a new {@link ConcurrentClassTaxonomy} with the same nodes and
+	 *         relations between them as this taxonomy, which can be modified
+	 */
+	public ConcurrentClassTaxonomy toConcurrentClassTaxonomy() {
+		ConcurrentClassTaxonomy result = new ConcurrentClassTaxonomy();
+		List<UpdateableTaxonomyNode<ElkClass>> nodes = new ArrayList<UpdateableTaxonomyNode<ElkClass>>(
+				nodeCount_);
+		for (int i = 0; i < nodeCount_; i++) {
+			UpdateableTaxonomyNode<ElkClass> node = result
+					.getCreateNode(Arrays.asList(classes_).subList(
+							memberOffsets_.get(i), memberOffsets_.get(i + 1)));
+			node.trySetModified(false);
+			nodes.add(node);
+		}
+		for (int i = 0; i < nodeCount_; i++) {
+			UpdateableTaxonomyNode<ElkClass> node = nodes.get(i);
+			for (int j = superOffsets_.get(i); j < superOffsets_.get(i + 1); j++) {
+				UpdateableTaxonomyNode<ElkClass> superNode = nodes
+						.get(superNodes_.get(j));
+				node.addDirectSuperNode(superNode);
+				superNode.addDirectSubNode(node);
+			}
+		}
+		for (int i = memberOffsets_.get(nodeCount_); i < classes_.length; i++) {
+			result.addToBottomNode(classes_[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * An unmodifiable {@link Set} of satisfiable nodes whose identifiers are
+	 * stored in the given range of the given buffer, or, if the buffer is
+	 * {@code null}, are the numbers in the given range
+	 */
+	private class NodeSet extends AbstractSet<ClassNode> {
+
+		private final IntBuffer ids_;
+
+		private final int from_, to_;
+
+		NodeSet(IntBuffer ids, int from, int to) {
+			this.ids_ = ids;
+			this.from_ = from;
+			this.to_ = to;
+		}
+
+		int getId(int position) {
+			return ids_ == null ? position : ids_.get(position);
+		}
+
+		@Override
+		public Iterator<ClassNode> iterator() {
+			return new Iterator<ClassNode>() {
+
+				int next_ = from_;
+
+				@Override
+				public boolean hasNext() {
+					return next_ < to_;
+				}
+
+				@Override
+				public ClassNode next() {
+					if (next_ == to_)
+						throw new NoSuchElementException();
+					return getNode(getId(next_++));
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return to_ - from_;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof ClassNode))
+				return false;
+			ClassNode node = (ClassNode) o;
+			if (node.getTaxonomy() != OffHeapClassTaxonomy.this)
+				return false;
+			// the identifiers are sorted
+			int low = from_, high = to_ - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int id = getId(mid);
+				if (id < node.id_)
+					low = mid + 1;
+				else if (id > node.id_)
+					high = mid - 1;
+				else
+					return true;
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * An unmodifiable {@link Set} of members of a node stored in the given
+	 * range of {@link OffHeapClassTaxonomy#classes_}
+	 */
+	private class MemberSet extends AbstractSet<ElkClass> {
+
+		private final int from_, to_;
+
+		MemberSet(int from, int to) {
+			this.from_ = from;
+			this.to_ = to;
+		}
+
+		@Override
+		public Iterator<ElkClass> iterator() {
+			return Collections.unmodifiableList(
+					Arrays.asList(classes_).subList(from_, to_)).iterator();
+		}
+
+		@Override
+		public int size() {
+			return to_ - from_;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof ElkClass))
+				return false;
+			int classId = getClassId((ElkClass) o);
+			return classId >= from_ && classId < to_;
+		}
+
+	}
+
+	/**
+	 * A satisfiable node of this taxonomy, which is determined by its
+	 * identifier
+	 */
+	class ClassNode implements TaxonomyNode<ElkClass> {
+
+		final int id_;
+
+		ClassNode(int id) {
+			this.id_ = id;
+		}
+
+		OffHeapClassTaxonomy getTaxonomy() {
+			return OffHeapClassTaxonomy.this;
+		}
+
+		@Override
+		public Set<ElkClass> getMembers() {
+			return new MemberSet(memberOffsets_.get(id_),
+					memberOffsets_.get(id_ + 1));
+		}
+
+		@Override
+		public ElkClass getCanonicalMember() {
+			return classes_[memberOffsets_.get(id_)];
+		}
+
+		@Override
+		public Set<ClassNode> getDirectSuperNodes() {
+			return new NodeSet(superNodes_, superOffsets_.get(id_),
+					superOffsets_.get(id_ + 1));
+		}
+
+		@Override
+		public Set<? extends TaxonomyNode<ElkClass>> getAllSuperNodes() {
+			return TaxonomyNodeUtils.getAllSuperNodes(this);
+		}
+
+		@Override
+		public Set<? extends TaxonomyNode<ElkClass>> getDirectSubNodes() {
+			int from = subOffsets_.get(id_), to = subOffsets_.get(id_ + 1);
+			if (from < to)
+				return new NodeSet(subNodes_, from, to);
+			// else
+			return Collections.singleton(bottomNode_);
+		}
+
+		@Override
+		public Set<? extends TaxonomyNode<ElkClass>> getAllSubNodes() {
+			return TaxonomyNodeUtils.getAllSubNodes(this);
+		}
+
+		@Override
+		public int hashCode() {
+			return id_;
+		}
+
+		@Override
+		public String toString() {
+			return getMembers().toString();
+		}
+
+	}
+
+	/**
+	 * The bottom node of this taxonomy
+	 */
+	class BottomNode implements TaxonomyNode<ElkClass> {
+
+		@Override
+		public Set<ElkClass> getMembers() {
+			return new MemberSet(memberOffsets_.get(nodeCount_),
+					classes_.length);
+		}
+
+		@Override
+		public ElkClass getCanonicalMember() {
+			return PredefinedElkClass.OWL_NOTHING;
+		}
+
+		@Override
+		public Set<ClassNode> getDirectSuperNodes() {
+			return new NodeSet(bottomSuperNodes_, 0,
+					bottomSuperNodes_.capacity());
+		}
+
+		@Override
+		public Set<ClassNode> getAllSuperNodes() {
+			return getSatisfiableNodes();
+		}
+
+		@Override
+		public Set<TaxonomyNode<ElkClass>> getDirectSubNodes() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Set<TaxonomyNode<ElkClass>> getAllSubNodes() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public String toString() {
+			return getMembers().toString();
+		}
+
+	}
+
+}
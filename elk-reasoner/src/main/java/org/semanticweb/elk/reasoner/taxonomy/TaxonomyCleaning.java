@@ -138,7 +138,7 @@ class TaxonomyCleaningFactory extends SimpleInterrupter
 			private void submitClass(IndexedClass indexedClass) {
 				ElkClass elkClass = indexedClass.getElkEntity();
 				UpdateableTaxonomy<ElkClass> classTaxonomy = classTaxonomyState_
-						.getTaxonomy();
+						.getUpdateableTaxonomy();
 				UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> instanceTaxonomy = instanceTaxonomyState_
 						.getTaxonomy();
 
@@ -231,22 +231,17 @@ class TaxonomyCleaningFactory extends SimpleInterrupter
 			private void submitIndividual(IndexedIndividual indexedIndividual) {
 				if (instanceTaxonomyState_ != null
 						&& instanceTaxonomyState_.getTaxonomy() != null) {
-					UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = instanceTaxonomyState_
-							.getTaxonomy();
-					ElkNamedIndividual individual = indexedIndividual
-							.getElkEntity();
-					UpdateableInstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy
-							.getInstanceNode(individual);
-
-					if (node != null && node.trySetModified(true)) {
-						instanceStateWriter_
-								.markIndividualsForModifiedNode(node
-										.getMembers());
-						taxonomy.removeInstanceNode(individual);
-					} else if (node == null) {
-						instanceStateWriter_
-								.markIndividualsForModifiedNode(Collections
-										.singleton(individual));
+					removeInstanceNode(indexedIndividual.getElkEntity());
+					/*
+					 * the individuals that obtained their types from this
+					 * individual should be recomputed as well
+					 */
+					Collection<IndexedIndividual> members = instanceStateWriter_
+							.removeBucketMembers(indexedIndividual);
+					if (members != null) {
+						for (IndexedIndividual member : members) {
+							removeInstanceNode(member.getElkEntity());
+						}
 					}
 				} else {
 					/*
@@ -258,6 +253,22 @@ class TaxonomyCleaningFactory extends SimpleInterrupter
 				}
 			}
 
+			private void removeInstanceNode(ElkNamedIndividual individual) {
+				UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = instanceTaxonomyState_
+						.getTaxonomy();
+				UpdateableInstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy
+						.getInstanceNode(individual);
+
+				if (node != null && node.trySetModified(true)) {
+					instanceStateWriter_.markIndividualsForModifiedNode(node
+							.getMembers());
+					taxonomy.removeInstanceNode(individual);
+				} else if (node == null) {
+					instanceStateWriter_.markIndividualsForModifiedNode(Collections
+							.singleton(individual));
+				}
+			}
+
 			@Override
 			public void process() {
 				for (;;) {
@@ -24,6 +24,7 @@ package org.semanticweb.elk.reasoner.taxonomy.hashing;
 
 import org.semanticweb.elk.owl.interfaces.ElkEntity;
 import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.VersionedInstanceTaxonomy;
 import org.semanticweb.elk.util.hashing.HashGenerator;
 
 /**
@@ -37,12 +38,18 @@ import org.semanticweb.elk.util.hashing.HashGenerator;
 public class InstanceTaxonomyHasher {
 
 	/**
-	 * Compute the hash code of a taxonomy.
+	 * Compute the hash code of a taxonomy. For a
+	 * {@link VersionedInstanceTaxonomy} the hash code maintained by the
+	 * taxonomy is returned.
 	 * 
 	 * @param taxonomy
 	 * @return hash
 	 */
 	public static int hash(InstanceTaxonomy<? extends ElkEntity, ? extends ElkEntity> taxonomy) {
+		if (taxonomy instanceof VersionedInstanceTaxonomy)
+			return ((VersionedInstanceTaxonomy<?, ?>) taxonomy)
+					.getInstanceStructuralHash();
+		// else
 		int typeHash = HashGenerator.combineMultisetHash(true, taxonomy.getTypeNodes(), TypeNodeHasher.INSTANCE);
 		int instanceHash = HashGenerator.combineMultisetHash(true, taxonomy.getInstanceNodes(), InstanceNodeHasher.INSTANCE);
 		return HashGenerator.combineListHash(typeHash, instanceHash);
@@ -24,6 +24,7 @@ package org.semanticweb.elk.reasoner.taxonomy.hashing;
 
 import org.semanticweb.elk.owl.interfaces.ElkEntity;
 import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.VersionedTaxonomy;
 import org.semanticweb.elk.util.hashing.HashGenerator;
 
 /**
@@ -38,12 +39,16 @@ import org.semanticweb.elk.util.hashing.HashGenerator;
 public class TaxonomyHasher {
 
 	/**
-	 * Compute the hash code of a taxonomy.
+	 * Compute the hash code of a taxonomy. For a {@link VersionedTaxonomy} the
+	 * hash code maintained by the taxonomy is returned.
 	 * 
 	 * @param taxonomy
 	 * @return hash
 	 */
 	public static int hash(Taxonomy<? extends ElkEntity> taxonomy) {
+		if (taxonomy instanceof VersionedTaxonomy)
+			return ((VersionedTaxonomy<?>) taxonomy).getStructuralHash();
+		// else
 		return HashGenerator.combineMultisetHash(true, taxonomy.getNodes(), TaxonomyNodeHasher.INSTANCE);
 	}
 
@@ -0,0 +1,62 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy.model;
+
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+
+/**
+ * A {@link NodeVisitor} that counts the visited {@link Node}s and their
+ * members without storing them
+ * 
+ * @author agent
+ * 
+ * @param <T>
+ *            the type of members of the visited nodes
+ */
+public class NodeCounter<T extends ElkObject> implements NodeVisitor<T> {
+
+	private int nodeCount_ = 0;
+
+	private int memberCount_ = 0;
+
+	@Override
+	public boolean visit(Node<T> node) {
+		nodeCount_++;
+		memberCount_ += node.getMembers().size();
+		return true;
+	}
+
+	/**
+	 * @return the number of visited {@link Node}s
+	 */
+	public int getNodeCount() {
+		return nodeCount_;
+	}
+
+	/**
+	 * @return the total number of members of the visited {@link Node}s
+	 */
+	public int getMemberCount() {
+		return memberCount_;
+	}
+
+}
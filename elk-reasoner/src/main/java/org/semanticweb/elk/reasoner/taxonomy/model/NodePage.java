@@ -0,0 +1,88 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+
+/**
+ * A {@link NodeVisitor} that skips the given number of visited {@link Node}s
+ * and collects at most the given number of the following {@link Node}s, after
+ * which the enumeration stops. It can be used to retrieve the answers of a
+ * query page by page, provided the answers are enumerated in the same order,
+ * which is the case as long as the taxonomy does not change.
+ * 
+ * @author agent
+ * 
+ * @param <T>
+ *            the type of members of the visited nodes
+ */
+public class NodePage<T extends ElkObject> implements NodeVisitor<T> {
+
+	/**
+	 * the number of {@link Node}s that still need to be skipped
+	 */
+	private int skip_;
+
+	/**
+	 * the maximal number of {@link Node}s to collect
+	 */
+	private final int limit_;
+
+	private final List<Node<T>> nodes_;
+
+	/**
+	 * @param offset
+	 *            the number of the first visited {@link Node}s to skip
+	 * @param limit
+	 *            the maximal number of {@link Node}s to collect
+	 */
+	public NodePage(int offset, int limit) {
+		if (offset < 0 || limit < 0)
+			throw new IllegalArgumentException("negative offset or limit");
+		this.skip_ = offset;
+		this.limit_ = limit;
+		this.nodes_ = new ArrayList<Node<T>>(Math.min(limit, 16));
+	}
+
+	@Override
+	public boolean visit(Node<T> node) {
+		if (skip_ > 0) {
+			skip_--;
+			return true;
+		}
+		// else
+		if (nodes_.size() < limit_)
+			nodes_.add(node);
+		return nodes_.size() < limit_;
+	}
+
+	/**
+	 * @return the collected {@link Node}s in the order they were visited
+	 */
+	public List<Node<T>> getNodes() {
+		return nodes_;
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy.model;
+
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+
+/**
+ * An object that receives {@link Node}s one after another, e.g., the answers
+ * of a query, and can stop the enumeration of further {@link Node}s
+ * 
+ * @author agent
+ * 
+ * @param <T>
+ *            the type of members of the visited nodes
+ */
+public interface NodeVisitor<T extends ElkObject> {
+
+	/**
+	 * Processes the next {@link Node}
+	 * 
+	 * @param node
+	 *            the {@link Node} to be processed
+	 * @return {@code true} if the next {@link Node}s should be visited and
+	 *         {@code false} if the enumeration should stop
+	 */
+	public boolean visit(Node<T> node);
+
+}
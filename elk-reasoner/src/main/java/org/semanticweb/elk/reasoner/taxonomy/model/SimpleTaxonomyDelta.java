@@ -0,0 +1,135 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+
+/**
+ * A {@link TaxonomyDelta} that stores the given changes
+ * 
+ * @author agent
+ * 
+ * @param <T>
+ *            the type of objects in the nodes of the taxonomy
+ */
+public class SimpleTaxonomyDelta<T extends ElkObject> implements
+		TaxonomyDelta<T> {
+
+	private final boolean reset_;
+
+	private final Set<T> addedMembers_, removedMembers_;
+
+	private final Collection<Set<T>> mergedNodes_, splitNodes_;
+
+	private final Map<T, Set<T>> addedDirectEdges_, removedDirectEdges_;
+
+	public SimpleTaxonomyDelta(Set<T> addedMembers, Set<T> removedMembers,
+			Collection<Set<T>> mergedNodes, Collection<Set<T>> splitNodes,
+			Map<T, Set<T>> addedDirectEdges, Map<T, Set<T>> removedDirectEdges) {
+		this(false, addedMembers, removedMembers, mergedNodes, splitNodes,
+				addedDirectEdges, removedDirectEdges);
+	}
+
+	private SimpleTaxonomyDelta(boolean reset, Set<T> addedMembers,
+			Set<T> removedMembers, Collection<Set<T>> mergedNodes,
+			Collection<Set<T>> splitNodes, Map<T, Set<T>> addedDirectEdges,
+			Map<T, Set<T>> removedDirectEdges) {
+		this.reset_ = reset;
+		this.addedMembers_ = addedMembers;
+		this.removedMembers_ = removedMembers;
+		this.mergedNodes_ = mergedNodes;
+		this.splitNodes_ = splitNodes;
+		this.addedDirectEdges_ = addedDirectEdges;
+		this.removedDirectEdges_ = removedDirectEdges;
+	}
+
+	/**
+	 * @return the {@link TaxonomyDelta} for a {@link Taxonomy} computed from
+	 *         scratch
+	 */
+	public static <T extends ElkObject> SimpleTaxonomyDelta<T> reset() {
+		return new SimpleTaxonomyDelta<T>(true, Collections.<T> emptySet(),
+				Collections.<T> emptySet(), Collections.<Set<T>> emptyList(),
+				Collections.<Set<T>> emptyList(),
+				Collections.<T, Set<T>> emptyMap(),
+				Collections.<T, Set<T>> emptyMap());
+	}
+
+	@Override
+	public boolean isReset() {
+		return reset_;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return !reset_ && addedMembers_.isEmpty() && removedMembers_.isEmpty()
+				&& mergedNodes_.isEmpty() && splitNodes_.isEmpty()
+				&& addedDirectEdges_.isEmpty() && removedDirectEdges_.isEmpty();
+	}
+
+	@Override
+	public Set<T> getAddedMembers() {
+		return Collections.unmodifiableSet(addedMembers_);
+	}
+
+	@Override
+	public Set<T> getRemovedMembers() {
+		return Collections.unmodifiableSet(removedMembers_);
+	}
+
+	@Override
+	public Collection<Set<T>> getMergedNodes() {
+		return Collections.unmodifiableCollection(mergedNodes_);
+	}
+
+	@Override
+	public Collection<Set<T>> getSplitNodes() {
+		return Collections.unmodifiableCollection(splitNodes_);
+	}
+
+	@Override
+	public Map<T, Set<T>> getAddedDirectEdges() {
+		return Collections.unmodifiableMap(addedDirectEdges_);
+	}
+
+	@Override
+	public Map<T, Set<T>> getRemovedDirectEdges() {
+		return Collections.unmodifiableMap(removedDirectEdges_);
+	}
+
+	@Override
+	public String toString() {
+		if (reset_)
+			return "reset";
+		// else
+		return "added: " + addedMembers_ + ", removed: " + removedMembers_
+				+ ", merged: " + mergedNodes_ + ", split: " + splitNodes_
+				+ ", added edges: " + addedDirectEdges_ + ", removed edges: "
+				+ removedDirectEdges_;
+	}
+
+}
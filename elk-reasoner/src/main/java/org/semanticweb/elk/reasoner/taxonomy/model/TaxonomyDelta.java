@@ -0,0 +1,95 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy.model;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+
+/**
+ * The difference between two states of a {@link Taxonomy}, e.g., before and
+ * after an incremental update. Nodes are identified by their members and
+ * edges between nodes by the canonical members of the nodes; the bottom node
+ * is reported like other nodes, but the edges from the bottom node are not
+ * reported since they are determined by the other edges.
+ * 
+ * @author agent
+ * 
+ * @param <T>
+ *            the type of objects in the nodes of the taxonomy
+ */
+public interface TaxonomyDelta<T extends ElkObject> {
+
+	/**
+	 * @return {@code true} if the {@link Taxonomy} has been computed from
+	 *         scratch, in which case the differences are not available and the
+	 *         whole {@link Taxonomy} should be read again
+	 */
+	public boolean isReset();
+
+	/**
+	 * @return {@code true} if the two states of the {@link Taxonomy} are the
+	 *         same
+	 */
+	public boolean isEmpty();
+
+	/**
+	 * @return the objects that are members of nodes in the new state but not
+	 *         in the old state of the {@link Taxonomy}
+	 */
+	public Set<T> getAddedMembers();
+
+	/**
+	 * @return the objects that are members of nodes in the old state but not
+	 *         in the new state of the {@link Taxonomy}
+	 */
+	public Set<T> getRemovedMembers();
+
+	/**
+	 * @return the members of nodes in the new state of the {@link Taxonomy}
+	 *         that contain members of several nodes in the old state
+	 */
+	public Collection<Set<T>> getMergedNodes();
+
+	/**
+	 * @return the members of nodes in the old state of the {@link Taxonomy}
+	 *         whose members belong to several nodes in the new state
+	 */
+	public Collection<Set<T>> getSplitNodes();
+
+	/**
+	 * @return the map from the canonical member of a node to the canonical
+	 *         members of its direct super-nodes that are present in the new
+	 *         state of the {@link Taxonomy} but not in the old state
+	 */
+	public Map<T, Set<T>> getAddedDirectEdges();
+
+	/**
+	 * @return the map from the canonical member of a node to the canonical
+	 *         members of its direct super-nodes that are present in the old
+	 *         state of the {@link Taxonomy} but not in the new state
+	 */
+	public Map<T, Set<T>> getRemovedDirectEdges();
+
+}
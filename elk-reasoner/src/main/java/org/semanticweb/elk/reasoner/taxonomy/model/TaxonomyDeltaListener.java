@@ -0,0 +1,45 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy.model;
+
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+
+/**
+ * An object that is notified about changes of a {@link Taxonomy}
+ * 
+ * @author agent
+ * 
+ * @param <T>
+ *            the type of objects in the nodes of the taxonomy
+ */
+public interface TaxonomyDeltaListener<T extends ElkObject> {
+
+	/**
+	 * Called after the {@link Taxonomy} has been changed
+	 * 
+	 * @param delta
+	 *            the changes of the {@link Taxonomy} since the previous
+	 *            notification
+	 */
+	public void taxonomyChanged(TaxonomyDelta<T> delta);
+
+}
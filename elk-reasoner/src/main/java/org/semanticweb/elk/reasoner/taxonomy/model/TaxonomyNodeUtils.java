@@ -73,6 +73,155 @@ public class TaxonomyNodeUtils {
 		return Collections.unmodifiableSet(result);
 	}
 	
+	/**
+	 * Visits the nodes reachable from the given nodes using the given
+	 * successor function, each once and in the breadth-first order, until the
+	 * {@link NodeVisitor} stops the enumeration. Only the visited nodes are
+	 * remembered, so the enumeration stopped early does not traverse the
+	 * remaining nodes.
+	 * 
+	 * @return {@code false} if the {@link NodeVisitor} has stopped the
+	 *         enumeration and {@code true} otherwise
+	 */
+	private static <T extends ElkObject, O extends TaxonomyNode<T>> boolean visitAllReachable(
+			Collection<? extends O> direct, GetSuccessors<T, O> succ,
+			NodeVisitor<T> visitor) {
+		Set<O> visited = new ArrayHashSet<O>(direct.size());
+		Queue<O> todo = new LinkedList<O>();
+
+		for (O node : direct) {
+			if (visited.add(node))
+				todo.add(node);
+		}
+
+		while (!todo.isEmpty()) {
+			O next = todo.poll();
+
+			if (!visitor.visit(next))
+				return false;
+
+			for (O successor : succ.get(next)) {
+				if (visited.add(successor))
+					todo.add(successor);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Visits the given nodes until the {@link NodeVisitor} stops the
+	 * enumeration
+	 * 
+	 * @return {@code false} if the {@link NodeVisitor} has stopped the
+	 *         enumeration and {@code true} otherwise
+	 */
+	public static <T extends ElkObject> boolean visitNodes(
+			Collection<? extends Node<T>> nodes, NodeVisitor<T> visitor) {
+		for (Node<T> node : nodes) {
+			if (!visitor.visit(node))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Visits the nodes that would be returned by
+	 * {@link TaxonomyNode#getAllSuperNodes()} without creating this set
+	 * 
+	 * @return {@code false} if the {@link NodeVisitor} has stopped the
+	 *         enumeration and {@code true} otherwise
+	 */
+	public static <T extends ElkObject> boolean visitAllSuperNodes(
+			TaxonomyNode<T> tnode, NodeVisitor<T> visitor) {
+		return visitAllReachable(tnode.getDirectSuperNodes(),
+				new GetSuccessors<T, TaxonomyNode<T>>() {
+
+					@Override
+					public Set<? extends TaxonomyNode<T>> get(
+							TaxonomyNode<T> node) {
+						return node.getDirectSuperNodes();
+					}
+				}, visitor);
+	}
+
+	/**
+	 * Visits the nodes that would be returned by
+	 * {@link TaxonomyNode#getAllSubNodes()} without creating this set
+	 * 
+	 * @return {@code false} if the {@link NodeVisitor} has stopped the
+	 *         enumeration and {@code true} otherwise
+	 */
+	public static <T extends ElkObject> boolean visitAllSubNodes(
+			TaxonomyNode<T> tnode, NodeVisitor<T> visitor) {
+		return visitAllReachable(tnode.getDirectSubNodes(),
+				new GetSuccessors<T, TaxonomyNode<T>>() {
+
+					@Override
+					public Set<? extends TaxonomyNode<T>> get(
+							TaxonomyNode<T> node) {
+						return node.getDirectSubNodes();
+					}
+				}, visitor);
+	}
+
+	/**
+	 * Visits the nodes that would be returned by
+	 * {@link InstanceNode#getAllTypeNodes()} without creating this set
+	 * 
+	 * @return {@code false} if the {@link NodeVisitor} has stopped the
+	 *         enumeration and {@code true} otherwise
+	 */
+	public static <T extends ElkObject, I extends ElkObject> boolean visitAllTypeNodes(
+			InstanceNode<T, I> inode, NodeVisitor<T> visitor) {
+		return visitAllReachable(inode.getDirectTypeNodes(),
+				new GetSuccessors<T, TaxonomyNode<T>>() {
+
+					@Override
+					public Set<? extends TaxonomyNode<T>> get(
+							TaxonomyNode<T> node) {
+						return node.getDirectSuperNodes();
+					}
+				}, visitor);
+	}
+
+	/**
+	 * Visits the nodes that would be returned by
+	 * {@link TypeNode#getAllInstanceNodes()} without creating this set; the
+	 * direct instance nodes of the given node are visited first, followed by
+	 * the direct instance nodes of its sub-nodes in the breadth-first order
+	 * 
+	 * @return {@code false} if the {@link NodeVisitor} has stopped the
+	 *         enumeration and {@code true} otherwise
+	 */
+	public static <T extends ElkObject, I extends ElkObject> boolean visitAllInstanceNodes(
+			TypeNode<T, I> tnode, NodeVisitor<I> visitor) {
+		Set<TypeNode<T, I>> visitedTypes = new ArrayHashSet<TypeNode<T, I>>();
+		Set<InstanceNode<T, I>> visitedInstances = new ArrayHashSet<InstanceNode<T, I>>();
+		Queue<TypeNode<T, I>> todo = new LinkedList<TypeNode<T, I>>();
+
+		visitedTypes.add(tnode);
+		todo.add(tnode);
+
+		while (!todo.isEmpty()) {
+			TypeNode<T, I> next = todo.poll();
+
+			for (InstanceNode<T, I> instanceNode : next
+					.getDirectInstanceNodes()) {
+				if (visitedInstances.add(instanceNode)
+						&& !visitor.visit(instanceNode))
+					return false;
+			}
+
+			for (TypeNode<T, I> subNode : next.getDirectSubNodes()) {
+				if (visitedTypes.add(subNode))
+					todo.add(subNode);
+			}
+		}
+
+		return true;
+	}
+
 	public static <T extends ElkObject> Set<? extends TaxonomyNode<T>> getAllSuperNodes(TaxonomyNode<T> tnode) {
 		return getAllReachable(tnode.getDirectSuperNodes(), new GetSuccessors<T, TaxonomyNode<T>> () {
 
@@ -42,6 +42,11 @@ public interface UpdateableInstanceTaxonomy<T extends ElkObject, I extends ElkOb
 	public UpdateableTypeNode<T, I> getUpdateableTypeNode(T elkObject);
 
 	public boolean removeInstanceNode(I instance); 
+
+	/**
+	 * @return the number of instances that have nodes in this taxonomy
+	 */
+	public int getInstanceCount();
 	
 	@Override
 	public UpdateableTypeNode<T, I> getUpdateableTopNode();
@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy.model;
+
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+
+/**
+ * An {@link InstanceTaxonomy} that keeps track of modifications of its type
+ * nodes and instance nodes. The version of this taxonomy is increased when
+ * either of them is modified. The {@link TaxonomyNode}s changed after a given
+ * version are the {@link TypeNode}s of this taxonomy.
+ * 
+ * @author agent
+ * 
+ * @param <T>
+ *            the type of objects in the nodes of this taxonomy
+ * @param <I>
+ *            the type of instances of nodes of this taxonomy
+ * 
+ * @see VersionedTaxonomy
+ */
+public interface VersionedInstanceTaxonomy<T extends ElkObject, I extends ElkObject>
+		extends InstanceTaxonomy<T, I>, VersionedTaxonomy<T> {
+
+	/**
+	 * Obtain the {@link InstanceNode}s that were created, modified, or removed
+	 * after the given version of this {@link InstanceTaxonomy}. An instance
+	 * node is modified if its members or its direct type nodes have changed.
+	 * 
+	 * @param version
+	 *            the version of this {@link InstanceTaxonomy} previously
+	 *            returned by {@link #getVersion()}
+	 * @return the {@link InstanceNode}s modified after the given version; if
+	 *         the information about modifications for this version is not
+	 *         available anymore, or the version was not returned by this
+	 *         {@link InstanceTaxonomy}, all {@link InstanceNode}s of this
+	 *         {@link InstanceTaxonomy} are returned
+	 */
+	public Set<? extends InstanceNode<T, I>> getInstanceNodesChangedSince(
+			long version);
+
+	/**
+	 * @return the structural hash of this {@link InstanceTaxonomy}; it is the
+	 *         same as the value computed by
+	 *         {@link org.semanticweb.elk.reasoner.taxonomy.hashing.InstanceTaxonomyHasher#hash(InstanceTaxonomy)}
+	 *         but is obtained by rehashing only the nodes modified after the
+	 *         previous call
+	 */
+	public int getInstanceStructuralHash();
+
+}
@@ -0,0 +1,79 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy.model;
+
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+
+/**
+ * A {@link Taxonomy} that keeps track of modifications of its nodes. Every
+ * time the taxonomy is modified, its version increases, and the nodes that
+ * were modified after a given version can be retrieved. This can be used, for
+ * example, to synchronize a copy of the taxonomy by updating only the nodes
+ * that have changed. The taxonomy also maintains its structural hash, which is
+ * updated using only the modified nodes.
+ * 
+ * The values returned by the methods of this interface are meaningful only
+ * when the taxonomy is not being modified at the same time.
+ * 
+ * @author agent
+ * 
+ * @param <T>
+ *            the type of objects in the nodes of this taxonomy
+ */
+public interface VersionedTaxonomy<T extends ElkObject> extends Taxonomy<T> {
+
+	/**
+	 * @return the current version of this {@link Taxonomy}; the version is
+	 *         increased only if the {@link Taxonomy} has been modified since
+	 *         the previous call of this method; the versions of different
+	 *         {@link Taxonomy} objects are different
+	 */
+	public long getVersion();
+
+	/**
+	 * Obtain the {@link TaxonomyNode}s that were created, modified, or removed
+	 * after the given version of this {@link Taxonomy}. A node is modified if
+	 * its members, or its direct sub-nodes or super-nodes have changed.
+	 * 
+	 * @param version
+	 *            the version of this {@link Taxonomy} previously returned by
+	 *            {@link #getVersion()}
+	 * @return the {@link TaxonomyNode}s modified after the given version; if
+	 *         the information about modifications for this version is not
+	 *         available anymore, or the version was not returned by this
+	 *         {@link Taxonomy}, all {@link TaxonomyNode}s of this
+	 *         {@link Taxonomy} are returned
+	 */
+	public Set<? extends TaxonomyNode<T>> getNodesChangedSince(long version);
+
+	/**
+	 * @return the structural hash of this {@link Taxonomy}; it is the same as
+	 *         the value computed by
+	 *         {@link org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyHasher#hash(Taxonomy)}
+	 *         but is obtained by rehashing only the nodes modified after the
+	 *         previous call
+	 */
+	public int getStructuralHash();
+
+}
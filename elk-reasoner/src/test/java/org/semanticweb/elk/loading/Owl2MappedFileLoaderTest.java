@@ -0,0 +1,134 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.elk.io.MappedFileReader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+
+/**
+ * Tests that {@link Owl2MappedFileLoader} loads the same axioms as
+ * {@link Owl2ParserLoader} reading the ontology from a string
+ * 
+ * @author agent
+ */
+public class Owl2MappedFileLoaderTest {
+
+	private static final Charset UTF8_ = Charset.forName("UTF-8");
+
+	private static final String ONTOLOGY_ = ""//
+			+ "Prefix( : = <http://example.org/> )\n"//
+			+ "Prefix( owl: = <http://www.w3.org/2002/07/owl#> )\n"//
+			+ "Ontology(\n"//
+			+ "EquivalentClasses(:A :B)\n"//
+			+ "SubClassOf(:D :A)\n"//
+			+ "SubClassOf(:Ä ObjectSomeValuesFrom(:R :漢字))\n"//
+			+ "SubClassOf(:漢字 :Ä)\n"//
+			+ "SubClassOf(:Ä owl:Thing)\n"//
+			+ "AnnotationAssertion(:label :A \"été 😀\")\n"//
+			+ ")";
+
+	private final Owl2ParserFactory parserFactory_ = new Owl2FunctionalStyleParserFactory();
+
+	private File file_;
+
+	@Before
+	public void setUp() throws IOException {
+		file_ = File.createTempFile("elk-ontology", ".owl");
+		OutputStream out = new FileOutputStream(file_);
+		try {
+			out.write(ONTOLOGY_.getBytes(UTF8_));
+		} finally {
+			out.close();
+		}
+	}
+
+	@After
+	public void tearDown() {
+		file_.delete();
+		Thread.interrupted();
+	}
+
+	@Test
+	public void sameAxioms() throws Exception {
+		List<String> expected = load(new Owl2ParserLoader(
+				parserFactory_.getParser(new StringReader(ONTOLOGY_))));
+		assertEquals(6, expected.size());
+		assertEquals(expected, load(new Owl2MappedFileLoader(parserFactory_,
+				file_)));
+	}
+
+	@Test
+	public void sameAxiomsSmallRegions() throws Exception {
+		List<String> expected = load(new Owl2ParserLoader(
+				parserFactory_.getParser(new StringReader(ONTOLOGY_))));
+		// characters of different lengths should cross region boundaries
+		for (int regionSize = 16; regionSize < 24; regionSize++) {
+			assertEquals(expected, load(new Owl2MappedFileLoader(
+					parserFactory_, new MappedFileReader(file_, UTF8_,
+							regionSize))));
+		}
+	}
+
+	@Test(expected = ElkLoadingException.class)
+	public void emptyFile() throws Exception {
+		new FileOutputStream(file_).close();
+		load(new Owl2MappedFileLoader(parserFactory_, file_));
+	}
+
+	private static List<String> load(AxiomLoader loader)
+			throws ElkLoadingException {
+		final List<String> axioms = new ArrayList<String>();
+		ElkAxiomProcessor inserter = new ElkAxiomProcessor() {
+
+			@Override
+			public void visit(ElkAxiom elkAxiom) {
+				axioms.add(OwlFunctionalStylePrinter.toString(elkAxiom));
+			}
+
+		};
+		try {
+			loader.load(inserter, inserter);
+		} finally {
+			loader.dispose();
+		}
+		return axioms;
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+
+/**
+ * Tests that {@link Owl2ParallelFileLoader} loads the same axioms as
+ * {@link Owl2ParserLoader} regardless of how the file is split
+ * 
+ * @author agent
+ */
+public class Owl2ParallelFileLoaderTest {
+
+	private static final Charset UTF8_ = Charset.forName("UTF-8");
+
+	private static final String ONTOLOGY_ = ""//
+			+ "# a comment with brackets ) (\n"//
+			+ "Prefix( : = <http://example.org/> )\n"//
+			+ "Prefix( owl: = <http://www.w3.org/2002/07/owl#> )\n"//
+			+ "Ontology(<http://example.org/(ontology)>\n"//
+			+ "Annotation(:comment \"Ontology(\")\n"//
+			+ "EquivalentClasses(:A :B)\n"//
+			+ "SubClassOf(:D :A) # ) another comment\n"//
+			+ "SubClassOf(:Ä ObjectSomeValuesFrom(:R :漢字))\n"//
+			+ "SubClassOf(<http://example.org/(C)> ObjectIntersectionOf(:A ObjectSomeValuesFrom(:R :B)))\n"//
+			+ "AnnotationAssertion(:label :A \"a \\\"quoted)\\\" string\")\n"//
+			+ "AnnotationAssertion(:label :B \"été (\")\n"//
+			+ "SubObjectPropertyOf(ObjectPropertyChain(:R :S) :R)\n"//
+			+ ")\n";
+
+	private final Owl2ParserFactory parserFactory_ = new Owl2FunctionalStyleParserFactory();
+
+	private File file_;
+
+	@Before
+	public void setUp() throws IOException {
+		file_ = File.createTempFile("elk-ontology", ".owl");
+		write(ONTOLOGY_);
+	}
+
+	@After
+	public void tearDown() {
+		file_.delete();
+		Thread.interrupted();
+	}
+
+	@Test
+	public void sameAxioms() throws Exception {
+		List<String> expected = load(new Owl2ParserLoader(
+				parserFactory_.getParser(new StringReader(ONTOLOGY_))));
+		assertEquals(7, expected.size());
+		for (int nParsers = 1; nParsers <= 4; nParsers++) {
+			for (int chunkSize = 1; chunkSize < 200; chunkSize *= 3) {
+				assertEquals(expected, load(new Owl2ParallelFileLoader(
+						parserFactory_, file_, nParsers, chunkSize)));
+			}
+		}
+	}
+
+	@Test
+	public void splitAfterPrefixes() throws Exception {
+		// every top-level element of the ontology ends a chunk
+		assertEquals(9, countChunks(1));
+	}
+
+	@Test
+	public void manyChunks() throws Exception {
+		String ontology = getOntology(1000);
+		write(ontology);
+		List<String> expected = load(new Owl2StreamLoader(parserFactory_,
+				ontology));
+		assertEquals(2000, expected.size());
+		assertTrue(countChunks(512) > 50);
+		for (int nParsers = 1; nParsers <= 4; nParsers++) {
+			assertEquals(expected, load(new Owl2ParallelFileLoader(
+					parserFactory_, file_, nParsers, 512)));
+		}
+	}
+
+	@Test(expected = ElkLoadingException.class)
+	public void syntaxErrorInChunk() throws Exception {
+		write(ONTOLOGY_.replace("SubClassOf(:D :A)", "SubClassOf(:D :A :)"));
+		load(new Owl2ParallelFileLoader(parserFactory_, file_, 2, 1));
+	}
+
+	@Test(expected = ElkLoadingException.class)
+	public void noOntology() throws Exception {
+		write("Prefix( : = <http://example.org/> )");
+		load(new Owl2ParallelFileLoader(parserFactory_, file_, 2, 1));
+	}
+
+	/**
+	 * @return an ontology with prefix declarations and twice the given number
+	 *         of axioms
+	 */
+	private static String getOntology(int size) {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Prefix( : = <http://example.org/> )\n");
+		builder.append("Prefix( owl: = <http://www.w3.org/2002/07/owl#> )\n");
+		builder.append("Ontology(<http://example.org/ontology>\n");
+		for (int i = 0; i < size; i++) {
+			builder.append("SubClassOf(:A" + i + " ObjectSomeValuesFrom(:R :B"
+					+ (i % 7) + "))\n");
+			builder.append("EquivalentClasses(:A" + i + " :C" + i + ")\n");
+		}
+		builder.append(")\n");
+		return builder.toString();
+	}
+
+	/**
+	 * @return the number of {@link Owl2ParallelFileLoader.Chunk}s into which
+	 *         the file is split for the given chunk size
+	 */
+	private int countChunks(int chunkSize) throws IOException {
+		FileChannel channel = new FileInputStream(file_).getChannel();
+		try {
+			Owl2ParallelFileLoader.ChunkSplitter splitter = new Owl2ParallelFileLoader.ChunkSplitter(
+					channel, chunkSize);
+			int result = 0;
+			while (splitter.next() != null)
+				result++;
+			return result;
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void write(String ontology) throws IOException {
+		OutputStream out = new FileOutputStream(file_);
+		try {
+			out.write(ontology.getBytes(UTF8_));
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * @return the printed axioms loaded by the given {@link AxiomLoader} in
+	 *         a canonical order
+	 */
+	private static List<String> load(AxiomLoader loader)
+			throws ElkLoadingException {
+		final List<String> axioms = new ArrayList<String>();
+		ElkAxiomProcessor inserter = new ElkAxiomProcessor() {
+
+			@Override
+			public void visit(ElkAxiom elkAxiom) {
+				axioms.add(OwlFunctionalStylePrinter.toString(elkAxiom));
+			}
+
+		};
+		try {
+			loader.load(inserter, inserter);
+		} finally {
+			loader.dispose();
+		}
+		Collections.sort(axioms);
+		return axioms;
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.predefined.PredefinedElkClass;
+import org.semanticweb.elk.reasoner.incremental.TestChangesLoader;
+import org.semanticweb.elk.reasoner.stages.SimpleStageExecutor;
+
+/**
+ * Tests answering of satisfiability and subsumption queries about named
+ * classes by the {@link Reasoner} before the taxonomy is computed
+ * 
+ * @author agent
+ */
+public class GoalDirectedQueryTest {
+
+	final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+	final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+	final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+	final ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+	final ElkClass E = objectFactory.getClass(new ElkFullIri(":E"));
+	final ElkObjectProperty R = objectFactory
+			.getObjectProperty(new ElkFullIri(":R"));
+
+	Reasoner reasoner;
+
+	@Before
+	public void setUp() {
+		TestLoader loader = new TestLoader();
+		loader.add(objectFactory.getSubClassOfAxiom(A, B))
+				.add(objectFactory.getSubClassOfAxiom(B, C))
+				.add(objectFactory.getSubClassOfAxiom(D,
+						objectFactory.getObjectSomeValuesFrom(R, E)))
+				.add(objectFactory.getSubClassOfAxiom(E,
+						PredefinedElkClass.OWL_NOTHING));
+		reasoner = TestReasonerUtils.createTestReasoner(loader,
+				new SimpleStageExecutor());
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void subsumptionWithoutTaxonomy() throws Exception {
+		assertTrue(reasoner.isSubsumedBy(A, C));
+		assertTrue(reasoner.isSubsumedBy(A, A));
+		assertTrue(reasoner.isSubsumedBy(A, PredefinedElkClass.OWL_THING));
+		assertFalse(reasoner.isSubsumedBy(C, A));
+		assertFalse(reasoner.isSubsumedBy(A, D));
+		assertFalse(reasoner.doneTaxonomy());
+		// the results should not change after classification
+		reasoner.getTaxonomy();
+		assertTrue(reasoner.isSubsumedBy(A, C));
+		assertFalse(reasoner.isSubsumedBy(C, A));
+	}
+
+	@Test
+	public void satisfiabilityWithoutTaxonomy() throws Exception {
+		assertTrue(reasoner.isSatisfiable(A));
+		assertFalse(reasoner.isSatisfiable(D));
+		assertTrue(reasoner.isSubsumedBy(D, A));
+		assertFalse(reasoner.doneTaxonomy());
+		reasoner.getTaxonomy();
+		assertTrue(reasoner.isSatisfiable(A));
+		assertFalse(reasoner.isSatisfiable(D));
+	}
+
+	@Test
+	public void freshClasses() throws Exception {
+		ElkClass fresh = objectFactory.getClass(new ElkFullIri(":F"));
+		assertTrue(reasoner.isSatisfiable(fresh));
+		assertFalse(reasoner.isSubsumedBy(A, fresh));
+		assertTrue(reasoner.isSubsumedBy(fresh, fresh));
+	}
+
+	@Test
+	public void changesAreVisible() throws Exception {
+		assertTrue(reasoner.isSubsumedBy(A, B));
+
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.remove(objectFactory.getSubClassOfAxiom(A, B)).add(
+				objectFactory.getSubClassOfAxiom(A, C));
+		assertFalse(reasoner.isSubsumedBy(A, B));
+		assertTrue(reasoner.isSubsumedBy(A, C));
+		assertFalse(reasoner.doneTaxonomy());
+	}
+
+	@Test
+	public void changesAfterClassification() throws Exception {
+		reasoner.getTaxonomy();
+
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.remove(objectFactory.getSubClassOfAxiom(A, B)).add(
+				objectFactory.getSubClassOfAxiom(A, D));
+		assertFalse(reasoner.isSatisfiable(A));
+		assertTrue(reasoner.isSatisfiable(B));
+		assertFalse(reasoner.isSubsumedBy(B, A));
+		// the taxonomy should be updated consistently
+		assertTrue(reasoner.getTaxonomy().getNode(A) == reasoner.getTaxonomy()
+				.getBottomNode());
+	}
+
+}
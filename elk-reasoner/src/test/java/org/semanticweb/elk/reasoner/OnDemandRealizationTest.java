@@ -0,0 +1,146 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.reasoner.incremental.TestChangesLoader;
+import org.semanticweb.elk.reasoner.stages.SimpleStageExecutor;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+
+/**
+ * Tests answering of type and instance queries when only the individuals
+ * required for these queries are realized
+ *
+ * @author agent
+ */
+public class OnDemandRealizationTest {
+
+	final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+	final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+	final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+	final ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+	final ElkClass E = objectFactory.getClass(new ElkFullIri(":E"));
+	final ElkObjectProperty R = objectFactory
+			.getObjectProperty(new ElkFullIri(":R"));
+	final ElkNamedIndividual a = objectFactory
+			.getNamedIndividual(new ElkFullIri(":a"));
+	final ElkNamedIndividual d = objectFactory
+			.getNamedIndividual(new ElkFullIri(":d"));
+	final ElkNamedIndividual e = objectFactory
+			.getNamedIndividual(new ElkFullIri(":e"));
+
+	Reasoner reasoner;
+
+	@Before
+	public void setUp() {
+		TestLoader loader = new TestLoader();
+		loader.add(objectFactory.getSubClassOfAxiom(A, B))
+				.add(objectFactory.getSubClassOfAxiom(B, C))
+				.add(objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectSomeValuesFrom(R, B), E))
+				.add(objectFactory.getClassAssertionAxiom(A, a))
+				.add(objectFactory.getClassAssertionAxiom(D, d))
+				.add(objectFactory.getClassAssertionAxiom(
+						objectFactory.getObjectSomeValuesFrom(R, A), e));
+		reasoner = TestReasonerUtils.createTestReasoner(loader,
+				new SimpleStageExecutor());
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		reasoner.shutdown();
+	}
+
+	private static <T extends ElkObject> Set<T> members(Set<? extends Node<T>> nodes) {
+		Set<T> result = new HashSet<T>();
+		for (Node<T> node : nodes) {
+			result.addAll(node.getMembers());
+		}
+		return result;
+	}
+
+	@Test
+	public void typesOfSingleIndividual() throws Exception {
+		Set<ElkClass> types = members(reasoner.getTypes(a, false));
+		assertTrue(types.contains(A));
+		assertTrue(types.contains(C));
+		assertFalse(types.contains(D));
+		assertFalse(reasoner.doneInstanceTaxonomy());
+		assertEquals(1, reasoner.getTypes(a, true).size());
+		assertTrue(members(reasoner.getTypes(d, true)).contains(D));
+	}
+
+	@Test
+	public void instancesOfTold() throws Exception {
+		Set<ElkNamedIndividual> instances = members(reasoner.getInstances(C,
+				false));
+		assertEquals(1, instances.size());
+		assertTrue(instances.contains(a));
+		assertFalse(reasoner.doneInstanceTaxonomy());
+		assertTrue(members(reasoner.getInstances(A, true)).contains(a));
+		assertTrue(reasoner.getInstances(B, true).isEmpty());
+	}
+
+	@Test
+	public void instancesOfExistential() throws Exception {
+		Set<ElkNamedIndividual> instances = members(reasoner.getInstances(E,
+				false));
+		assertEquals(1, instances.size());
+		assertTrue(instances.contains(e));
+	}
+
+	@Test
+	public void instancesAfterChanges() throws Exception {
+		assertTrue(members(reasoner.getTypes(d, false)).contains(D));
+		assertFalse(members(reasoner.getInstances(C, false)).contains(d));
+
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.add(objectFactory.getSubClassOfAxiom(D, C));
+
+		Set<ElkNamedIndividual> instances = members(reasoner.getInstances(C,
+				false));
+		assertEquals(2, instances.size());
+		assertTrue(instances.contains(a));
+		assertTrue(instances.contains(d));
+		assertTrue(members(reasoner.getTypes(d, false)).contains(C));
+	}
+
+}
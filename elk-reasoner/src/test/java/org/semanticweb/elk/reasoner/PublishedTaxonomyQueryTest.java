@@ -0,0 +1,179 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.reasoner.incremental.TestChangesLoader;
+import org.semanticweb.elk.reasoner.stages.SimpleStageExecutor;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+
+/**
+ * Tests answering of queries from the taxonomies published by the
+ * {@link Reasoner}
+ * 
+ * @author agent
+ */
+public class PublishedTaxonomyQueryTest {
+
+	private static final long TIMEOUT_ = 10000;
+
+	final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+	final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+	final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+	final ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+	final ElkNamedIndividual a = objectFactory
+			.getNamedIndividual(new ElkFullIri(":a"));
+
+	Reasoner reasoner;
+
+	@Before
+	public void setUp() {
+		TestLoader loader = new TestLoader();
+		loader.add(objectFactory.getSubClassOfAxiom(A, B))
+				.add(objectFactory.getSubClassOfAxiom(B, C))
+				.add(objectFactory.getClassAssertionAxiom(A, a));
+		reasoner = TestReasonerUtils.createTestReasoner(loader,
+				new SimpleStageExecutor());
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		reasoner.shutdown();
+	}
+
+	private static boolean contains(Set<? extends Node<ElkClass>> nodes,
+			ElkClass member) {
+		for (Node<ElkClass> node : nodes) {
+			if (node.getMembers().contains(member))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Runs the given queries in a new thread while the reasoner is locked by
+	 * the current thread
+	 */
+	private void runWhileLocked(final Runnable queries) throws Exception {
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				try {
+					queries.run();
+				} catch (Throwable e) {
+					error.set(e);
+				}
+			}
+		};
+		synchronized (reasoner) {
+			reader.start();
+			reader.join(TIMEOUT_);
+			assertFalse("the queries are blocked", reader.isAlive());
+		}
+		assertNull(error.get());
+	}
+
+	@Test
+	public void classQueriesDoNotBlock() throws Exception {
+		assertTrue(contains(reasoner.getSuperClasses(A, true), B));
+		runWhileLocked(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					assertTrue(contains(reasoner.getSuperClasses(A, false), C));
+					assertTrue(contains(reasoner.getSubClasses(C, true), B));
+					assertTrue(reasoner.getEquivalentClasses(B).getMembers()
+							.contains(B));
+				} catch (ElkException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+	}
+
+	@Test
+	public void instanceQueriesDoNotBlock() throws Exception {
+		assertTrue(contains(reasoner.getTypes(a, true), A));
+		runWhileLocked(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					assertTrue(contains(reasoner.getTypes(a, false), C));
+					assertEquals(1, reasoner.getInstances(C, false).size());
+				} catch (ElkException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+	}
+
+	@Test
+	public void changesAreVisible() throws Exception {
+		assertTrue(contains(reasoner.getSuperClasses(A, true), B));
+		assertTrue(contains(reasoner.getTypes(a, true), A));
+
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.remove(objectFactory.getSubClassOfAxiom(A, B)).add(
+				objectFactory.getSubClassOfAxiom(A, C));
+		Set<? extends Node<ElkClass>> superClasses = reasoner.getSuperClasses(
+				A, true);
+		assertFalse(contains(superClasses, B));
+		assertTrue(contains(superClasses, C));
+		assertFalse(contains(reasoner.getTypes(a, false), B));
+	}
+
+	@Test
+	public void resetAxiomLoadingWithdrawsTaxonomies() throws Exception {
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		Set<? extends Node<ElkClass>> before = reasoner.getSuperClasses(A,
+				true);
+		assertTrue(contains(before, B));
+		// new changes of the registered loader
+		changes.add(objectFactory.getSubClassOfAxiom(A, D));
+		reasoner.resetAxiomLoading();
+		assertTrue(contains(reasoner.getSuperClasses(A, true), D));
+		// the previous answer is not affected
+		assertFalse(contains(before, D));
+	}
+
+}
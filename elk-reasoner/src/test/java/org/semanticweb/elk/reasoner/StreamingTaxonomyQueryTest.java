@@ -0,0 +1,196 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.reasoner.stages.SimpleStageExecutor;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.NodeCounter;
+import org.semanticweb.elk.reasoner.taxonomy.model.NodePage;
+import org.semanticweb.elk.reasoner.taxonomy.model.NodeVisitor;
+
+/**
+ * Tests the streaming query methods of {@link Reasoner} that pass the
+ * resulting nodes to a {@link NodeVisitor}
+ * 
+ * @author agent
+ */
+public class StreamingTaxonomyQueryTest {
+
+	final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+	final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+	final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+	final ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+	final ElkClass E = objectFactory.getClass(new ElkFullIri(":E"));
+	final ElkNamedIndividual a = objectFactory
+			.getNamedIndividual(new ElkFullIri(":a"));
+	final ElkNamedIndividual b = objectFactory
+			.getNamedIndividual(new ElkFullIri(":b"));
+
+	Reasoner reasoner;
+
+	@Before
+	public void setUp() {
+		// A -> B -> D, C -> D, E == D
+		TestLoader loader = new TestLoader();
+		loader.add(objectFactory.getSubClassOfAxiom(A, B))
+				.add(objectFactory.getSubClassOfAxiom(B, D))
+				.add(objectFactory.getSubClassOfAxiom(C, D))
+				.add(objectFactory.getEquivalentClassesAxiom(D, E))
+				.add(objectFactory.getClassAssertionAxiom(A, a))
+				.add(objectFactory.getClassAssertionAxiom(C, b));
+		reasoner = TestReasonerUtils.createTestReasoner(loader,
+				new SimpleStageExecutor());
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		reasoner.shutdown();
+	}
+
+	private static <T extends ElkObject> Set<T> members(Iterable<? extends Node<T>> nodes) {
+		Set<T> result = new HashSet<T>();
+		for (Node<T> node : nodes) {
+			result.addAll(node.getMembers());
+		}
+		return result;
+	}
+
+	@Test
+	public void countMatchesNodeSets() throws Exception {
+		for (boolean direct : new boolean[] { true, false }) {
+			NodeCounter<ElkClass> subClasses = new NodeCounter<ElkClass>();
+			assertTrue(reasoner.visitSubClasses(D, direct, subClasses));
+			assertEquals(reasoner.getSubClasses(D, direct).size(),
+					subClasses.getNodeCount());
+
+			NodeCounter<ElkClass> superClasses = new NodeCounter<ElkClass>();
+			assertTrue(reasoner.visitSuperClasses(A, direct, superClasses));
+			assertEquals(reasoner.getSuperClasses(A, direct).size(),
+					superClasses.getNodeCount());
+
+			NodeCounter<ElkNamedIndividual> instances = new NodeCounter<ElkNamedIndividual>();
+			assertTrue(reasoner.visitInstances(D, direct, instances));
+			assertEquals(reasoner.getInstances(D, direct).size(),
+					instances.getNodeCount());
+
+			NodeCounter<ElkClass> types = new NodeCounter<ElkClass>();
+			assertTrue(reasoner.visitTypes(a, direct, types));
+			assertEquals(reasoner.getTypes(a, direct).size(),
+					types.getNodeCount());
+		}
+	}
+
+	@Test
+	public void allPagesMatchNodeSet() throws Exception {
+		Set<ElkClass> expected = members(reasoner.getSuperClasses(A, false));
+		Set<ElkClass> actual = new HashSet<ElkClass>();
+		for (int offset = 0;; offset += 2) {
+			NodePage<ElkClass> page = new NodePage<ElkClass>(offset, 2);
+			reasoner.visitSuperClasses(A, false, page);
+			if (page.getNodes().isEmpty())
+				break;
+			assertTrue(page.getNodes().size() <= 2);
+			actual.addAll(members(page.getNodes()));
+		}
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void stopsEarly() throws Exception {
+		NodePage<ElkClass> first = new NodePage<ElkClass>(0, 1);
+		assertFalse(reasoner.visitSubClasses(D, false, first));
+		assertEquals(1, first.getNodes().size());
+
+		NodePage<ElkNamedIndividual> instance = new NodePage<ElkNamedIndividual>(
+				0, 1);
+		assertFalse(reasoner.visitInstances(D, false, instance));
+		assertEquals(1, instance.getNodes().size());
+	}
+
+	@Test
+	public void complexQueries() throws Exception {
+		NodePage<ElkClass> superClasses = new NodePage<ElkClass>(0, 10);
+		reasoner.visitSuperClasses(
+				objectFactory.getObjectIntersectionOf(A, C), true,
+				superClasses);
+		assertEquals(2, superClasses.getNodes().size());
+		assertEquals(new HashSet<ElkClass>(Arrays.asList(A, C)),
+				members(superClasses.getNodes()));
+
+		NodePage<ElkNamedIndividual> page = new NodePage<ElkNamedIndividual>(
+				0, 10);
+		reasoner.visitInstances(objectFactory.getObjectIntersectionOf(B, D),
+				false, page);
+		assertEquals(1, page.getNodes().size());
+		assertTrue(page.getNodes().get(0).getMembers().contains(a));
+	}
+
+	/**
+	 * @return a {@link NodeVisitor} that records in the given array whether
+	 *         it has been called while the reasoner is locked, i.e., during
+	 *         the traversal
+	 */
+	private <T extends ElkObject> NodeVisitor<T> getLockCheckingVisitor(
+			final boolean[] locked) {
+		return new NodeVisitor<T>() {
+			@Override
+			public boolean visit(Node<T> node) {
+				locked[0] = Thread.holdsLock(reasoner);
+				return false;
+			}
+		};
+	}
+
+	@Test
+	public void visitedDuringTraversal() throws Exception {
+		boolean[] locked = new boolean[1];
+		assertFalse(reasoner.visitSuperClasses(
+				objectFactory.getObjectIntersectionOf(A, C), false,
+				this.<ElkClass> getLockCheckingVisitor(locked)));
+		assertTrue(locked[0]);
+		locked[0] = false;
+		assertFalse(reasoner.visitInstances(
+				objectFactory.getObjectIntersectionOf(B, D), false,
+				this.<ElkNamedIndividual> getLockCheckingVisitor(locked)));
+		assertTrue(locked[0]);
+	}
+
+}
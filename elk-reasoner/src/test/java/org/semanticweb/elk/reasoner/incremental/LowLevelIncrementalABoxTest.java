@@ -37,6 +37,7 @@ import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
 import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
 import org.semanticweb.elk.owl.iris.ElkFullIri;
 import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.elk.reasoner.TestReasonerUtils;
@@ -211,5 +212,100 @@ public class LowLevelIncrementalABoxTest {
 		assertTrue(taxonomy.getTypeNode(A).getDirectInstanceNodes().size() == 1);
 		assertTrue(taxonomy.getTypeNode(B).getAllInstanceNodes().contains(taxonomy.getInstanceNode(ind)));
 		assertTrue(taxonomy.getTypeNode(B).getDirectInstanceNodes().contains(taxonomy.getInstanceNode(newInd)));
-	}	
+	}
+
+	@Test
+	public void testChangedIndividualWithSharedTypes() throws ElkException,
+			IOException {
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader,
+				new PostProcessingStageExecutor());
+
+		reasoner.setAllowIncrementalMode(false);
+
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkNamedIndividual first = objectFactory
+				.getNamedIndividual(new ElkFullIri(":first"));
+		ElkNamedIndividual second = objectFactory
+				.getNamedIndividual(new ElkFullIri(":second"));
+		ElkAxiom axBSubC = objectFactory.getSubClassOfAxiom(B, C);
+		ElkAxiom axFirstInstA = objectFactory.getClassAssertionAxiom(A, first);
+		ElkAxiom axSecondInstA = objectFactory
+				.getClassAssertionAxiom(A, second);
+		ElkAxiom axSecondInstB = objectFactory
+				.getClassAssertionAxiom(B, second);
+
+		loader.add(axFirstInstA).add(axSecondInstA).add(axBSubC);
+
+		InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = reasoner
+				.getInstanceTaxonomyQuietly();
+
+		assertTrue(taxonomy.getTypeNode(A).getDirectInstanceNodes().size() == 2);
+
+		reasoner.setAllowIncrementalMode(true);
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changeLoader);
+
+		// only one of the individuals with the same types is changed
+		changeLoader.add(axSecondInstB);
+
+		taxonomy = reasoner.getInstanceTaxonomyQuietly();
+
+		assertTrue(taxonomy.getTypeNode(B).getDirectInstanceNodes()
+				.contains(taxonomy.getInstanceNode(second)));
+		assertFalse(taxonomy.getTypeNode(B).getDirectInstanceNodes()
+				.contains(taxonomy.getInstanceNode(first)));
+		assertTrue(taxonomy.getTypeNode(A).getDirectInstanceNodes()
+				.contains(taxonomy.getInstanceNode(first)));
+	}
+
+	@Test
+	public void testIndirectChangeOfSharedTypes() throws ElkException,
+			IOException {
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader,
+				new PostProcessingStageExecutor());
+
+		reasoner.setAllowIncrementalMode(false);
+
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkObjectProperty R = objectFactory.getObjectProperty(new ElkFullIri(
+				":R"));
+		ElkNamedIndividual first = objectFactory
+				.getNamedIndividual(new ElkFullIri(":first"));
+		ElkNamedIndividual second = objectFactory
+				.getNamedIndividual(new ElkFullIri(":second"));
+		ElkAxiom axFirstInstRA = objectFactory.getClassAssertionAxiom(
+				objectFactory.getObjectSomeValuesFrom(R, A), first);
+		ElkAxiom axSecondInstRA = objectFactory.getClassAssertionAxiom(
+				objectFactory.getObjectSomeValuesFrom(R, A), second);
+		ElkAxiom axRCSubB = objectFactory.getSubClassOfAxiom(
+				objectFactory.getObjectSomeValuesFrom(R, C), B);
+		ElkAxiom axASubC = objectFactory.getSubClassOfAxiom(A, C);
+
+		loader.add(axFirstInstRA).add(axSecondInstRA).add(axRCSubB);
+
+		InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = reasoner
+				.getInstanceTaxonomyQuietly();
+
+		assertTrue(taxonomy.getTypeNode(B).getDirectInstanceNodes().isEmpty());
+
+		reasoner.setAllowIncrementalMode(true);
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changeLoader);
+
+		// the types of both individuals change although their axioms do not
+		changeLoader.add(axASubC);
+
+		taxonomy = reasoner.getInstanceTaxonomyQuietly();
+
+		assertTrue(taxonomy.getTypeNode(B).getDirectInstanceNodes()
+				.contains(taxonomy.getInstanceNode(first)));
+		assertTrue(taxonomy.getTypeNode(B).getDirectInstanceNodes()
+				.contains(taxonomy.getInstanceNode(second)));
+	}
 }
@@ -0,0 +1,200 @@
+package org.semanticweb.elk.reasoner.indexing.hierarchy;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.reasoner.incremental.NonIncrementalChangeListener;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
+import org.semanticweb.elk.util.concurrent.computation.ComputationExecutor;
+
+/**
+ * Tests that {@link ConcurrentChangeIndexing} produces the same index as
+ * indexing of axioms one after another
+ * 
+ * @author agent
+ */
+public class ConcurrentChangeIndexingTest {
+
+	private static final int WORKERS_ = 4;
+
+	final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	ComputationExecutor executor;
+
+	@Before
+	public void setUp() {
+		executor = new ComputationExecutor(WORKERS_, "test-indexing");
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	private ElkClass getClass(String name, int i) {
+		return objectFactory.getClass(new ElkFullIri(":" + name + i));
+	}
+
+	/**
+	 * @return axioms with many shared sub-expressions
+	 */
+	private List<ElkAxiom> getAxioms(int count) {
+		List<ElkAxiom> result = new ArrayList<ElkAxiom>(3 * count);
+		ElkObjectProperty[] properties = new ElkObjectProperty[5];
+		for (int i = 0; i < properties.length; i++)
+			properties[i] = objectFactory.getObjectProperty(new ElkFullIri(
+					":R" + i));
+		for (int i = 0; i < count; i++) {
+			ElkClass a = getClass("A", i);
+			ElkObjectProperty r = properties[i % properties.length];
+			result.add(objectFactory.getSubClassOfAxiom(a,
+					getClass("B", i % 50)));
+			result.add(objectFactory.getSubClassOfAxiom(a, objectFactory
+					.getObjectSomeValuesFrom(r, objectFactory
+							.getObjectIntersectionOf(getClass("B", i % 13),
+									getClass("B", i % 17)))));
+			result.add(objectFactory.getEquivalentClassesAxiom(
+					getClass("A", (i + 1) % count),
+					objectFactory.getObjectSomeValuesFrom(r,
+							getClass("B", i % 50))));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the string representations of the indexed classes without the
+	 *         hash codes, so that they can be compared between different
+	 *         indexes
+	 */
+	private static Set<String> getClasses(DifferentialIndex index) {
+		Set<String> result = new HashSet<String>();
+		for (IndexedClass indexedClass : index.getClasses())
+			result.add(indexedClass.toString().replaceAll("#-?[0-9]+", ""));
+		return result;
+	}
+
+	/**
+	 * Checks that the given indexes contain the same classes and the same
+	 * number of class expressions; the conjuncts of indexed intersections are
+	 * ordered by their hash codes, so complex expressions of different indexes
+	 * cannot be compared directly
+	 */
+	private static void assertSameIndex(DifferentialIndex expected,
+			DifferentialIndex actual) {
+		assertEquals(getClasses(expected), getClasses(actual));
+		assertEquals(expected.getClassExpressions().size(), actual
+				.getClassExpressions().size());
+		assertEquals(expected.getPropertyChains().size(), actual
+				.getPropertyChains().size());
+	}
+
+	private void index(DifferentialIndex index, List<ElkAxiom> axioms,
+			boolean insert) throws InterruptedException {
+		ConcurrentChangeIndexing indexing = new ConcurrentChangeIndexing(
+				index, NonIncrementalChangeListener.DUMMY, executor, WORKERS_);
+		ElkAxiomProcessor processor = insert ? indexing
+				.getInsertionProcessor() : indexing.getDeletionProcessor();
+		for (ElkAxiom axiom : axioms)
+			processor.visit(axiom);
+		indexing.finish();
+	}
+
+	@Test
+	public void sameAsSequential() throws Exception {
+		List<ElkAxiom> axioms = getAxioms(2000);
+		DifferentialIndex expected = new DifferentialIndex();
+		ElkAxiomConverterImpl inserter = new ElkAxiomConverterImpl(expected, 1);
+		for (ElkAxiom axiom : axioms)
+			axiom.accept(inserter);
+
+		DifferentialIndex index = new DifferentialIndex();
+		index(index, axioms, true);
+
+		assertSameIndex(expected, index);
+	}
+
+	@Test
+	public void removeAll() throws Exception {
+		List<ElkAxiom> axioms = getAxioms(2000);
+		DifferentialIndex index = new DifferentialIndex();
+		index(index, axioms, true);
+		index(index, axioms, false);
+
+		assertSameIndex(new DifferentialIndex(), index);
+	}
+
+	@Test
+	public void addAndRemoveTogether() throws Exception {
+		List<ElkAxiom> axioms = getAxioms(2000);
+		DifferentialIndex index = new DifferentialIndex();
+		ConcurrentChangeIndexing indexing = new ConcurrentChangeIndexing(
+				index, NonIncrementalChangeListener.DUMMY, executor, WORKERS_);
+		// the removals are indexed with the additions
+		for (ElkAxiom axiom : axioms)
+			indexing.getInsertionProcessor().visit(axiom);
+		for (ElkAxiom axiom : axioms)
+			indexing.getDeletionProcessor().visit(axiom);
+		indexing.finish();
+
+		assertSameIndex(new DifferentialIndex(), index);
+	}
+
+	@Test
+	public void alternatingChanges() throws Exception {
+		List<ElkAxiom> axioms = getAxioms(1000);
+		DifferentialIndex expected = new DifferentialIndex();
+		ElkAxiomConverterImpl inserter = new ElkAxiomConverterImpl(expected, 1);
+		for (ElkAxiom axiom : axioms)
+			axiom.accept(inserter);
+
+		DifferentialIndex index = new DifferentialIndex();
+		ConcurrentChangeIndexing indexing = new ConcurrentChangeIndexing(
+				index, NonIncrementalChangeListener.DUMMY, executor, WORKERS_);
+		// every axiom is added, removed, and added again
+		for (ElkAxiom axiom : axioms) {
+			indexing.getInsertionProcessor().visit(axiom);
+			indexing.getDeletionProcessor().visit(axiom);
+			indexing.getInsertionProcessor().visit(axiom);
+		}
+		indexing.finish();
+
+		assertSameIndex(expected, index);
+	}
+
+}
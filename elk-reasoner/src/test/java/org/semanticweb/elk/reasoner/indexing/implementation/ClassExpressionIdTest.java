@@ -0,0 +1,94 @@
+package org.semanticweb.elk.reasoner.indexing.implementation;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.reasoner.indexing.caching.ModifiableIndexedObjectCacheImpl;
+
+/**
+ * Tests the assignment of identifiers to class expressions by
+ * {@link ModifiableIndexedObjectCacheImpl}
+ *
+ * @author agent
+ */
+public class ClassExpressionIdTest {
+
+	private final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	private CachedIndexedClassImpl getIndexedClass(String name) {
+		ElkClass elkClass = objectFactory.getClass(new ElkFullIri(
+				"http://example.org/" + name));
+		return new CachedIndexedClassImpl(elkClass);
+	}
+
+	@Test
+	public void removedIdsKeptUntilReleased() {
+		ModifiableIndexedObjectCacheImpl cache = new ModifiableIndexedObjectCacheImpl();
+		CachedIndexedClassImpl a = getIndexedClass("A"), b = getIndexedClass("B");
+		cache.add(a);
+		int id = a.getId();
+		cache.remove(a);
+		// conclusions may still refer to the removed class
+		assertSame(a, cache.getClassExpression(id));
+		cache.add(b);
+		assertEquals(id + 1, b.getId());
+		cache.releaseRemovedIds();
+		assertEquals(-1, a.getId());
+		assertNull(cache.getClassExpression(id));
+	}
+
+	@Test
+	public void releasedIdsReused() {
+		ModifiableIndexedObjectCacheImpl cache = new ModifiableIndexedObjectCacheImpl();
+		CachedIndexedClassImpl a = getIndexedClass("A"), b = getIndexedClass("B");
+		cache.add(a);
+		int id = a.getId();
+		cache.remove(a);
+		cache.releaseRemovedIds();
+		cache.add(b);
+		assertEquals(id, b.getId());
+		assertSame(b, cache.getClassExpression(id));
+	}
+
+	@Test
+	public void addedAgainBeforeRelease() {
+		ModifiableIndexedObjectCacheImpl cache = new ModifiableIndexedObjectCacheImpl();
+		CachedIndexedClassImpl a = getIndexedClass("A");
+		cache.add(a);
+		int id = a.getId();
+		cache.remove(a);
+		cache.add(a);
+		cache.releaseRemovedIds();
+		assertEquals(id, a.getId());
+		assertSame(a, cache.getClassExpression(id));
+	}
+
+}
@@ -0,0 +1,140 @@
+package org.semanticweb.elk.reasoner.indexing.implementation;
+
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.reasoner.indexing.caching.CachedIndexedComplexClassExpression;
+import org.semanticweb.elk.reasoner.indexing.caching.ModifiableIndexedObjectCacheImpl;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+
+/**
+ * Tests the storage of complex class expressions in
+ * {@link ModifiableIndexedObjectCacheImpl} using hash consing
+ * 
+ * @author agent
+ */
+public class HashConsingTest {
+
+	private final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	private final ModifiableIndexedObjectCacheImpl cache = new ModifiableIndexedObjectCacheImpl(
+			16, true);
+
+	private CachedIndexedClassImpl getIndexedClass(String name) {
+		CachedIndexedClassImpl result = new CachedIndexedClassImpl(
+				objectFactory.getClass(new ElkFullIri("http://example.org/"
+						+ name)));
+		cache.add(result);
+		return result;
+	}
+
+	private CachedIndexedObjectPropertyImpl getIndexedProperty(String name) {
+		CachedIndexedObjectPropertyImpl result = new CachedIndexedObjectPropertyImpl(
+				objectFactory.getObjectProperty(new ElkFullIri(
+						"http://example.org/" + name)));
+		cache.add(result);
+		return result;
+	}
+
+	/**
+	 * @return complex class expressions over the given classes and property,
+	 *         each of which is created twice
+	 */
+	private static List<CachedIndexedComplexClassExpression<?>> getExpressions(
+			List<CachedIndexedClassImpl> classes,
+			CachedIndexedObjectPropertyImpl property) {
+		List<CachedIndexedComplexClassExpression<?>> result = new ArrayList<CachedIndexedComplexClassExpression<?>>();
+		for (int i = 0; i < classes.size(); i++) {
+			CachedIndexedClassImpl a = classes.get(i), b = classes
+					.get((i + 1) % classes.size());
+			result.add(new CachedIndexedObjectComplementOfImpl(a));
+			result.add(new CachedIndexedObjectIntersectionOfImpl(a, b));
+			result.add(new CachedIndexedObjectSomeValuesFromImpl(property, a));
+		}
+		return result;
+	}
+
+	@Test
+	public void resolveAddedExpressions() {
+		List<CachedIndexedClassImpl> classes = new ArrayList<CachedIndexedClassImpl>();
+		for (int i = 0; i < 100; i++)
+			classes.add(getIndexedClass("A" + i));
+		CachedIndexedObjectPropertyImpl r = getIndexedProperty("R");
+		List<CachedIndexedComplexClassExpression<?>> added = getExpressions(
+				classes, r);
+		List<CachedIndexedComplexClassExpression<?>> copies = getExpressions(
+				classes, r);
+		for (CachedIndexedComplexClassExpression<?> expression : added) {
+			assertNull(cache.resolve(expression));
+			cache.add(expression);
+		}
+		for (int i = 0; i < added.size(); i++) {
+			assertSame(added.get(i), cache.resolve(copies.get(i)));
+		}
+		Set<IndexedClassExpression> expressions = new HashSet<IndexedClassExpression>(
+				cache.getClassExpressions());
+		assertEquals(cache.getClassExpressions().size(), expressions.size());
+		assertTrue(expressions.containsAll(added));
+	}
+
+	@Test
+	public void resolveAfterRemovals() {
+		List<CachedIndexedClassImpl> classes = new ArrayList<CachedIndexedClassImpl>();
+		for (int i = 0; i < 100; i++)
+			classes.add(getIndexedClass("A" + i));
+		CachedIndexedObjectPropertyImpl r = getIndexedProperty("R");
+		List<CachedIndexedComplexClassExpression<?>> added = getExpressions(
+				classes, r);
+		List<CachedIndexedComplexClassExpression<?>> copies = getExpressions(
+				classes, r);
+		for (CachedIndexedComplexClassExpression<?> expression : added)
+			cache.add(expression);
+		int size = cache.getClassExpressions().size();
+		// remove every other expression
+		for (int i = 0; i < added.size(); i += 2)
+			cache.remove(copies.get(i));
+		cache.releaseRemovedIds();
+		for (int i = 0; i < added.size(); i++) {
+			if (i % 2 == 0)
+				assertNull(cache.resolve(copies.get(i)));
+			else
+				assertSame(added.get(i), cache.resolve(copies.get(i)));
+		}
+		assertEquals(size - added.size() / 2, cache.getClassExpressions()
+				.size());
+	}
+
+}
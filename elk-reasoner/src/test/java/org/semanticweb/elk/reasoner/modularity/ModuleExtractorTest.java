@@ -0,0 +1,157 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.modularity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestLoader;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.stages.SimpleStageExecutor;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+
+/**
+ * Tests extraction of {@code ⊥}-locality based modules using
+ * {@link ModuleExtractor} and reasoning with such modules
+ * 
+ * @author agent
+ */
+public class ModuleExtractorTest {
+
+	final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+	final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+	final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+	final ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+	final ElkClass E = objectFactory.getClass(new ElkFullIri(":E"));
+	final ElkClass F = objectFactory.getClass(new ElkFullIri(":F"));
+	final ElkClass G = objectFactory.getClass(new ElkFullIri(":G"));
+	final ElkClass X = objectFactory.getClass(new ElkFullIri(":X"));
+	final ElkClass Y = objectFactory.getClass(new ElkFullIri(":Y"));
+	final ElkObjectProperty R = objectFactory
+			.getObjectProperty(new ElkFullIri(":R"));
+	final ElkObjectProperty S = objectFactory
+			.getObjectProperty(new ElkFullIri(":S"));
+
+	final ElkAxiom aSubB = objectFactory.getSubClassOfAxiom(A, B);
+	final ElkAxiom bSubRC = objectFactory.getSubClassOfAxiom(B,
+			objectFactory.getObjectSomeValuesFrom(R, C));
+	final ElkAxiom cSubD = objectFactory.getSubClassOfAxiom(C, D);
+	final ElkAxiom dAndFSubG = objectFactory.getSubClassOfAxiom(
+			objectFactory.getObjectIntersectionOf(D, F), G);
+	final ElkAxiom rcSubE = objectFactory.getSubClassOfAxiom(
+			objectFactory.getObjectSomeValuesFrom(R, C), E);
+	final ElkAxiom xSubY = objectFactory.getSubClassOfAxiom(X, Y);
+	final ElkAxiom ySubSA = objectFactory.getSubClassOfAxiom(Y,
+			objectFactory.getObjectSomeValuesFrom(S, A));
+	final ElkAxiom aSubF = objectFactory.getSubClassOfAxiom(A, F);
+
+	final List<ElkAxiom> ontology = Arrays.asList(dAndFSubG, aSubB, bSubRC,
+			cSubD, rcSubE, xSubY, ySubSA);
+
+	private static Set<ElkAxiom> extract(List<ElkAxiom> axioms,
+			ElkClass... signature) {
+		ModuleExtractor extractor = new ModuleExtractor(
+				Arrays.asList(signature));
+		for (ElkAxiom axiom : axioms)
+			extractor.visit(axiom);
+		return new HashSet<ElkAxiom>(extractor.getModule());
+	}
+
+	@Test
+	public void relevantAxioms() {
+		assertEquals(new HashSet<ElkAxiom>(Arrays.asList(aSubB, bSubRC,
+				cSubD, rcSubE)), extract(ontology, A));
+		assertEquals(new HashSet<ElkAxiom>(Arrays.asList(cSubD)),
+				extract(ontology, C));
+		assertEquals(Collections.emptySet(), extract(ontology, G));
+		// D and F do not occur in the module together
+		assertEquals(new HashSet<ElkAxiom>(Arrays.asList(xSubY, ySubSA,
+				aSubB, bSubRC, cSubD, rcSubE)), extract(ontology, X));
+	}
+
+	@Test
+	public void watchedAxioms() {
+		// the first axiom becomes non-local only after the last one is
+		// included
+		List<ElkAxiom> axioms = Arrays.asList(dAndFSubG, aSubB, bSubRC, cSubD,
+				aSubF);
+		assertTrue(extract(axioms, A).contains(dAndFSubG));
+		assertFalse(extract(axioms, B).contains(dAndFSubG));
+	}
+
+	private static Set<ElkClass> getSuperClasses(Reasoner reasoner,
+			ElkClass elkClass) throws Exception {
+		Set<ElkClass> result = new HashSet<ElkClass>();
+		for (Node<ElkClass> node : reasoner.getSuperClasses(elkClass, false))
+			result.addAll(node.getMembers());
+		return result;
+	}
+
+	@Test
+	public void reasoningWithModule() throws Exception {
+		TestLoader fullLoader = new TestLoader();
+		TestLoader moduleLoader = new TestLoader();
+		for (ElkAxiom axiom : ontology) {
+			fullLoader.add(axiom);
+			moduleLoader.add(axiom);
+		}
+		fullLoader.add(aSubF);
+		moduleLoader.add(aSubF);
+		Reasoner fullReasoner = TestReasonerUtils.createTestReasoner(
+				fullLoader, new SimpleStageExecutor());
+		Reasoner moduleReasoner = TestReasonerUtils.createTestReasoner(
+				new TestLoader(), new SimpleStageExecutor());
+		moduleReasoner.registerModuleLoader(moduleLoader,
+				Arrays.asList(A, B));
+		try {
+			assertEquals(getSuperClasses(fullReasoner, A),
+					getSuperClasses(moduleReasoner, A));
+			assertEquals(getSuperClasses(fullReasoner, B),
+					getSuperClasses(moduleReasoner, B));
+			assertTrue(getSuperClasses(moduleReasoner, A).contains(E));
+			// the unrelated classes are not loaded
+			assertNull(moduleReasoner.getTaxonomy().getNode(X));
+		} finally {
+			fullReasoner.shutdown();
+			moduleReasoner.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.reduction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.elk.io.IOUtils;
+import org.semanticweb.elk.loading.Owl2StreamLoader;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClass;
+import org.semanticweb.elk.reasoner.saturation.SaturationState;
+import org.semanticweb.elk.reasoner.stages.FailingOnInterruptStageExecutor;
+import org.semanticweb.elk.reasoner.stages.ReasonerStateAccessor;
+
+/**
+ * Tests that {@link BulkTransitiveReductionFactory} computes the same outputs
+ * as {@link TransitiveReductionFactory} for the classes of saturated
+ * ontologies
+ * 
+ * @author agent
+ */
+public class BulkTransitiveReductionFactoryTest {
+
+	private static final String[] INPUTS_ = { "Bottom.owl",
+			"DeclarationsEquivalences.owl", "Disjunctions.owl", "Top.owl",
+			"TopSubclasses.owl", "endocarditis.owl" };
+
+	@Test
+	public void sameAsTransitiveReductionFactory() throws Exception {
+		for (String input : INPUTS_) {
+			Reasoner reasoner = load("classification_test_input/" + input);
+			try {
+				check(reasoner, input);
+			} finally {
+				reasoner.shutdown();
+			}
+		}
+	}
+
+	private static void check(Reasoner reasoner, String input)
+			throws Exception {
+		// saturate all classes
+		reasoner.getTaxonomy();
+		SaturationState<?> saturationState = ReasonerStateAccessor
+				.getSaturationState(reasoner);
+		Map<IndexedClass, Object> expected = computeExpected(saturationState);
+		assertFalse(input, expected.isEmpty());
+		final Map<IndexedClass, Object> actual = new HashMap<IndexedClass, Object>();
+		BulkTransitiveReductionFactory factory = new BulkTransitiveReductionFactory(
+				saturationState,
+				new TransitiveReductionListener<TransitiveReductionJob<IndexedClass>>() {
+					@Override
+					public void notifyFinished(
+							TransitiveReductionJob<IndexedClass> job) {
+						actual.put(job.getInput(), normalize(job.getOutput()));
+					}
+				});
+		BulkTransitiveReductionFactory.Engine engine = factory.getEngine();
+		for (IndexedClass ic : saturationState.getOntologyIndex()
+				.getClasses()) {
+			assertTrue(input + ": " + ic, engine.submit(ic));
+		}
+		assertEquals(input, expected.keySet(), actual.keySet());
+		for (IndexedClass ic : expected.keySet()) {
+			assertEquals(input + ": " + ic, expected.get(ic), actual.get(ic));
+		}
+	}
+
+	/**
+	 * Computes the outputs of transitive reduction for all classes using the
+	 * queue-based {@link TransitiveReductionFactory}
+	 */
+	private static Map<IndexedClass, Object> computeExpected(
+			SaturationState<?> saturationState) throws InterruptedException {
+		final Map<IndexedClass, Object> result = new HashMap<IndexedClass, Object>();
+		TransitiveReductionFactory<IndexedClass, TransitiveReductionJob<IndexedClass>> factory = new TransitiveReductionFactory<IndexedClass, TransitiveReductionJob<IndexedClass>>(
+				saturationState,
+				1,
+				new TransitiveReductionListener<TransitiveReductionJob<IndexedClass>>() {
+					@Override
+					public void notifyFinished(
+							TransitiveReductionJob<IndexedClass> job) {
+						result.put(job.getInput(), normalize(job.getOutput()));
+					}
+				});
+		TransitiveReductionFactory<IndexedClass, TransitiveReductionJob<IndexedClass>>.Engine engine = factory
+				.getEngine();
+		for (IndexedClass ic : saturationState.getOntologyIndex()
+				.getClasses()) {
+			engine.submit(new TransitiveReductionJob<IndexedClass>(ic));
+		}
+		engine.process();
+		engine.finish();
+		factory.finish();
+		return result;
+	}
+
+	/**
+	 * @return an object representing the given output, which does not depend
+	 *         on the order of the equivalent classes and direct subsumers
+	 */
+	private static Object normalize(
+			TransitiveReductionOutput<IndexedClass> output) {
+		if (output instanceof TransitiveReductionOutputUnsatisfiable)
+			return "unsatisfiable";
+		// else
+		TransitiveReductionOutputEquivalentDirect<IndexedClass> direct = (TransitiveReductionOutputEquivalentDirect<IndexedClass>) output;
+		Set<Set<ElkClass>> directSubsumers = new HashSet<Set<ElkClass>>();
+		for (List<ElkClass> superMembers : direct.getDirectSubsumers()) {
+			directSubsumers.add(new HashSet<ElkClass>(superMembers));
+		}
+		return Arrays.asList(new HashSet<ElkClass>(direct.getEquivalent()),
+				directSubsumers);
+	}
+
+	private Reasoner load(String resource) throws Exception {
+		InputStream stream = getClass().getClassLoader().getResourceAsStream(
+				resource);
+		try {
+			Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+					new Owl2StreamLoader(
+							new Owl2FunctionalStyleParserFactory(), stream),
+					new FailingOnInterruptStageExecutor(), 1);
+			reasoner.forceLoading();
+			return reasoner;
+		} finally {
+			IOUtils.closeQuietly(stream);
+		}
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.elk.io.IOUtils;
+import org.semanticweb.elk.loading.Owl2StreamLoader;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.incremental.TestChangesLoader;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverter;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.DirectIndex;
+import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.stages.FailingOnInterruptStageExecutor;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.InstanceTaxonomyHasher;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+
+/**
+ * Tests that reasoning with {@link CompactContextImpl}s gives the same results
+ * as with {@link ContextImpl}s
+ * 
+ * @author agent
+ */
+public class CompactContextTest {
+
+	private final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	@Test
+	public void sameInstanceTaxonomy() throws Exception {
+		Reasoner reference = load("io/instance_taxonomy.owl", false);
+		Reasoner compact = load("io/instance_taxonomy.owl", true);
+		assertEquals(
+				InstanceTaxonomyHasher.hash(reference.getInstanceTaxonomy()),
+				InstanceTaxonomyHasher.hash(compact.getInstanceTaxonomy()));
+		reference.shutdown();
+		compact.shutdown();
+	}
+
+	@Test
+	public void switchAfterReasoning() throws Exception {
+		Reasoner reasoner = load("io/instance_taxonomy.owl", false);
+		int expected = InstanceTaxonomyHasher.hash(reasoner
+				.getInstanceTaxonomy());
+		reasoner.setCompactSubsumers(true);
+		assertFalse(reasoner.doneTaxonomy());
+		assertEquals(expected,
+				InstanceTaxonomyHasher.hash(reasoner.getInstanceTaxonomy()));
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void incrementalChanges() throws Exception {
+		ElkClass a = objectFactory.getClass(new ElkFullIri(
+				"http://example.org/A"));
+		ElkClass d = objectFactory.getClass(new ElkFullIri(
+				"http://example.org/D"));
+		ElkClass e = objectFactory.getClass(new ElkFullIri(
+				"http://example.org/E"));
+
+		Reasoner reasoner = load("io/taxonomy.owl", true);
+		Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+		assertTrue(taxonomy.getNode(d).getDirectSuperNodes()
+				.contains(taxonomy.getNode(a)));
+
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.remove(objectFactory.getSubClassOfAxiom(d, a)).add(
+				objectFactory.getSubClassOfAxiom(d, e));
+		taxonomy = reasoner.getTaxonomy();
+		assertFalse(taxonomy.getNode(d).getAllSuperNodes()
+				.contains(taxonomy.getNode(a)));
+		assertTrue(taxonomy.getNode(d).getDirectSuperNodes()
+				.contains(taxonomy.getNode(e)));
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void removeAndAddClassExpressions() throws Exception {
+		ElkClass a = getClass("A"), c = getClass("C"), d = getClass("D");
+		ElkClass e = getClass("E"), h = getClass("H"), x = getClass("X");
+
+		Reasoner reasoner = load("io/taxonomy.owl", true);
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.add(objectFactory.getSubClassOfAxiom(d,
+				objectFactory.getObjectIntersectionOf(a, e)));
+		Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+		assertTrue(taxonomy.getNode(d).getAllSuperNodes()
+				.contains(taxonomy.getNode(e)));
+
+		// the identifier of the removed conjunction can be reused
+		changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.remove(objectFactory.getSubClassOfAxiom(d,
+				objectFactory.getObjectIntersectionOf(a, e)));
+		taxonomy = reasoner.getTaxonomy();
+		assertFalse(taxonomy.getNode(d).getAllSuperNodes()
+				.contains(taxonomy.getNode(e)));
+
+		changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.add(objectFactory.getSubClassOfAxiom(d, c)).add(
+				objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectIntersectionOf(c, h), x));
+		taxonomy = reasoner.getTaxonomy();
+		assertTrue(taxonomy.getNode(d).getAllSuperNodes()
+				.contains(taxonomy.getNode(x)));
+		assertFalse(taxonomy.getNode(d).getAllSuperNodes()
+				.contains(taxonomy.getNode(e)));
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void frozenSubsumers() {
+		DirectIndex index = new DirectIndex();
+		ElkAxiomConverter converter = new ElkAxiomConverterImpl(index, 1);
+		for (int i = 0; i < 1000; i++)
+			objectFactory.getDeclarationAxiom(getClass("A" + i)).accept(
+					converter);
+		List<IndexedClassExpression> classes = new ArrayList<IndexedClassExpression>(
+				index.getClassExpressions());
+		CompactSubsumerSet subsumers = new CompactSubsumerSet(index, 13);
+		Set<IndexedClassExpression> expected = new HashSet<IndexedClassExpression>();
+		// every third class, so the gaps between identifiers differ
+		for (int i = classes.size() - 1; i >= 0; i -= 3) {
+			subsumers.add(classes.get(i));
+			expected.add(classes.get(i));
+		}
+		subsumers.freeze();
+		assertTrue(subsumers.isFrozen());
+		assertEquals(expected, subsumers);
+		assertEquals(expected, new HashSet<IndexedClassExpression>(
+				subsumers));
+		for (IndexedClassExpression ice : classes)
+			assertEquals(expected.contains(ice), subsumers.contains(ice));
+		// adding or removing nothing keeps the set frozen
+		assertFalse(subsumers.add(classes.get(classes.size() - 1)));
+		assertFalse(subsumers.remove(classes.get(classes.size() - 2)));
+		assertTrue(subsumers.isFrozen());
+		assertTrue(subsumers.add(classes.get(0)));
+		assertFalse(subsumers.isFrozen());
+		expected.add(classes.get(0));
+		assertEquals(expected, subsumers);
+	}
+
+	@Test
+	public void subsumersFrozenWhenSaturated() throws Exception {
+		Reasoner reasoner = load("io/taxonomy.owl", true);
+		reasoner.getTaxonomy();
+		int count = 0;
+		for (IndexedClassExpression ice : reasoner
+				.getIndexedClassExpressions()) {
+			Context context = ice.getContext();
+			if (context == null)
+				continue;
+			// else
+			assertTrue(((CompactSubsumerSet) context.getSubsumers())
+					.isFrozen());
+			assertTrue(context.getSubsumers().contains(ice));
+			count++;
+		}
+		assertTrue(count > 0);
+		reasoner.shutdown();
+	}
+
+	private ElkClass getClass(String name) {
+		return objectFactory.getClass(new ElkFullIri("http://example.org/"
+				+ name));
+	}
+
+	private Reasoner load(String resource, boolean compactSubsumers)
+			throws ElkException {
+		InputStream stream = getClass().getClassLoader().getResourceAsStream(
+				resource);
+		try {
+			Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+					new Owl2StreamLoader(
+							new Owl2FunctionalStyleParserFactory(), stream),
+					new FailingOnInterruptStageExecutor(), 1);
+			reasoner.setCompactSubsumers(compactSubsumers);
+			reasoner.forceLoading();
+			return reasoner;
+		} finally {
+			IOUtils.closeQuietly(stream);
+		}
+	}
+}
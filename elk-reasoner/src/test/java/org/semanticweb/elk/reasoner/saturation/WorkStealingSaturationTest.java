@@ -0,0 +1,131 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+
+import org.junit.Test;
+import org.semanticweb.elk.io.IOUtils;
+import org.semanticweb.elk.loading.Owl2StreamLoader;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.incremental.TestChangesLoader;
+import org.semanticweb.elk.reasoner.stages.FailingOnInterruptStageExecutor;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.InstanceTaxonomyHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyHasher;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.util.concurrent.collections.WorkStealingQueue;
+
+/**
+ * Tests that reasoning with active contexts scheduled by a
+ * {@link WorkStealingQueue} gives the same results as with a shared queue
+ * 
+ * @author agent
+ */
+public class WorkStealingSaturationTest {
+
+	/**
+	 * the number of workers used in the tests
+	 */
+	private static final int WORKERS_ = 4;
+
+	private final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	@Test
+	public void sameTaxonomy() throws Exception {
+		for (String name : new String[] { "endocarditis.owl", "forest.owl",
+				"kangaroo.owl", "PropertyChains.owl" }) {
+			String resource = "classification_test_input/" + name;
+			Reasoner shared = load(resource, false);
+			Reasoner stealing = load(resource, true);
+			assertEquals(name, TaxonomyHasher.hash(shared.getTaxonomy()),
+					TaxonomyHasher.hash(stealing.getTaxonomy()));
+			shared.shutdown();
+			stealing.shutdown();
+		}
+	}
+
+	@Test
+	public void switchAfterReasoning() throws Exception {
+		Reasoner reasoner = load("io/instance_taxonomy.owl", false);
+		int expected = InstanceTaxonomyHasher.hash(reasoner
+				.getInstanceTaxonomy());
+		reasoner.setWorkStealing(true);
+		assertFalse(reasoner.doneTaxonomy());
+		assertEquals(expected,
+				InstanceTaxonomyHasher.hash(reasoner.getInstanceTaxonomy()));
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void incrementalChanges() throws Exception {
+		ElkClass a = objectFactory.getClass(new ElkFullIri(
+				"http://example.org/A"));
+		ElkClass d = objectFactory.getClass(new ElkFullIri(
+				"http://example.org/D"));
+		ElkClass e = objectFactory.getClass(new ElkFullIri(
+				"http://example.org/E"));
+
+		Reasoner reasoner = load("io/taxonomy.owl", true);
+		Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+		assertTrue(taxonomy.getNode(d).getDirectSuperNodes()
+				.contains(taxonomy.getNode(a)));
+
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.remove(objectFactory.getSubClassOfAxiom(d, a)).add(
+				objectFactory.getSubClassOfAxiom(d, e));
+		taxonomy = reasoner.getTaxonomy();
+		assertFalse(taxonomy.getNode(d).getAllSuperNodes()
+				.contains(taxonomy.getNode(a)));
+		assertTrue(taxonomy.getNode(d).getDirectSuperNodes()
+				.contains(taxonomy.getNode(e)));
+		reasoner.shutdown();
+	}
+
+	private Reasoner load(String resource, boolean workStealing)
+			throws ElkException {
+		InputStream stream = getClass().getClassLoader().getResourceAsStream(
+				resource);
+		try {
+			Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+					new Owl2StreamLoader(
+							new Owl2FunctionalStyleParserFactory(), stream),
+					new FailingOnInterruptStageExecutor(), WORKERS_);
+			reasoner.setWorkStealing(workStealing);
+			reasoner.forceLoading();
+			return reasoner;
+		} finally {
+			IOUtils.closeQuietly(stream);
+		}
+	}
+}
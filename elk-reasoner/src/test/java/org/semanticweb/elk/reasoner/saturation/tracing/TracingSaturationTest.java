@@ -25,6 +25,9 @@ package org.semanticweb.elk.reasoner.saturation.tracing;
  * #L%
  */
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -50,6 +53,7 @@ import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.elk.reasoner.TestReasonerUtils;
 import org.semanticweb.elk.reasoner.incremental.TestChangesLoader;
 import org.semanticweb.elk.reasoner.stages.LoggingStageExecutor;
+import org.semanticweb.elk.reasoner.stages.ReasonerStateAccessor;
 import org.semanticweb.elk.reasoner.stages.ReasonerStageExecutor;
 
 /**
@@ -200,6 +204,41 @@ public class TracingSaturationTest {
 		TracingTestUtils.checkTracingCompleteness(a, rSomeC, reasoner);
 	}	
 	
+	@Test
+	public void testBoundedTraceStore() throws Exception {
+		ElkObjectFactory factory = new ElkObjectFactoryImpl();
+		Reasoner reasoner = load("tracing/RecursiveExistential.owl");
+		reasoner.setMaxTracedContexts(1);
+
+		ElkClass a = factory.getClass(new ElkFullIri("http://example.org/A"));
+		ElkClass b = factory.getClass(new ElkFullIri("http://example.org/B"));
+		ElkObjectProperty r = factory.getObjectProperty(new ElkFullIri(
+				"http://example.org/R"));
+		ElkClass c = factory.getClass(new ElkFullIri("http://example.org/C"));
+		ElkClassExpression rSomeC = factory.getObjectSomeValuesFrom(r, c);
+
+		reasoner.explainSubsumption(a, rSomeC);
+		TraceState traceState = ReasonerStateAccessor.getTraceState(reasoner);
+		TraceStoreStatistics statistics = ((SimpleCentralizedTraceStore) traceState
+				.getTraceStore()).getStatistics();
+		// the inferences of A and B are kept until the next explanation
+		assertEquals(2, traceState.getStoredContextCount());
+		assertEquals(2, statistics.getMissCount());
+		assertEquals(0, statistics.getEvictionCount());
+		long hits = statistics.getHitCount();
+		assertTrue(hits > 0);
+		TracingTestUtils.checkTracingCompleteness(a, rSomeC, reasoner);
+
+		reasoner.explainSubsumption(b, c);
+		// the inferences are discarded and B is traced again
+		assertEquals(2, statistics.getEvictionCount());
+		assertEquals(1, ReasonerStateAccessor.getTraceState(reasoner)
+				.getStoredContextCount());
+		assertEquals(3, statistics.getMissCount());
+		TracingTestUtils.checkNumberOfInferences(b, c, reasoner, 1);
+		TracingTestUtils.checkTracingCompleteness(b, c, reasoner);
+	}
+
 	/*
 	 */
 	@Test
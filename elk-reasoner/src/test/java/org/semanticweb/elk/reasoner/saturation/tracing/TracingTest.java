@@ -30,6 +30,8 @@ import static org.junit.Assume.assumeTrue;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -57,6 +59,7 @@ import org.semanticweb.elk.testing.TestInput;
 import org.semanticweb.elk.testing.TestManifest;
 import org.semanticweb.elk.testing.VoidTestOutput;
 import org.semanticweb.elk.testing.io.URLTestIO;
+import org.semanticweb.elk.util.collections.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -128,6 +131,42 @@ public class TracingTest {
 		}
 	}
 
+	@Test
+	public void batchTracingTest() throws Exception {
+		AxiomLoader fileLoader = new Owl2StreamLoader(
+				new Owl2FunctionalStyleParserFactory(new ElkObjectFactoryImpl(
+						new ElkEntityRecycler())), manifest.getInput().getInputStream());
+		final Reasoner reasoner = TestReasonerUtils.createTestReasoner(fileLoader, new PostProcessingStageExecutor());
+
+		try {
+			TracingTests tests = getTracingTests(reasoner.getTaxonomy());
+			final List<Pair<ElkClassExpression, ElkClassExpression>> subsumptions = new ArrayList<Pair<ElkClassExpression, ElkClassExpression>>();
+			
+			tests.accept(new TracingTestVisitor() {
+				
+				@Override
+				public boolean visit(ElkClassExpression subsumee, 	ElkClassExpression subsumer) {
+					subsumptions.add(new Pair<ElkClassExpression, ElkClassExpression>(subsumee, subsumer));
+					
+					return true;
+				}
+			});
+			// all subsumptions are traced together
+			reasoner.explainSubsumptions(subsumptions);
+			
+			for (Pair<ElkClassExpression, ElkClassExpression> subsumption : subsumptions) {
+				TracingTestUtils.checkTracingCompleteness(subsumption.getFirst(), subsumption.getSecond(), reasoner);
+			}
+			
+			TracingTestUtils.checkInferenceAcyclicity(reasoner);
+		} catch (ElkInconsistentOntologyException e) {
+			//swallow..
+			LOGGER_.trace("The test ontology is inconsistent so tracing tests do not make sense");
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
 	@SuppressWarnings("static-method")
 	protected TracingTests getTracingTests(Taxonomy<ElkClass> taxonomy) {
 		return new ComprehensiveSubsumptionTracingTests(taxonomy);
@@ -0,0 +1,103 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.stages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestLoader;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.util.logging.metrics.InMemoryMetricRegistry;
+
+/**
+ * Tests recording of the metrics of the reasoner by {@link ReasonerMetrics}
+ * 
+ * @author agent
+ */
+public class ReasonerMetricsTest {
+
+	final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	@Test
+	public void classificationMetrics() throws Exception {
+		ElkClass a = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass b = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass c = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkObjectProperty r = objectFactory
+				.getObjectProperty(new ElkFullIri(":R"));
+		TestLoader loader = new TestLoader();
+		loader.add(objectFactory.getSubClassOfAxiom(a, b))
+				.add(objectFactory.getSubClassOfAxiom(b,
+						objectFactory.getObjectSomeValuesFrom(r, c)));
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader,
+				new SimpleStageExecutor());
+		InMemoryMetricRegistry registry = new InMemoryMetricRegistry();
+		reasoner.setMetricRegistry(registry);
+		try {
+			reasoner.getTaxonomy();
+			Map<String, Long> values = registry.getValues();
+
+			assertEquals(1, values.get(ReasonerMetrics.STAGE_PREFIX
+					+ "class_taxonomy_computation.millis.count").longValue());
+			assertEquals(1, values.get(ReasonerMetrics.STAGE_PREFIX
+					+ "consistency_checking.millis.count").longValue());
+			assertTrue(values.get(ReasonerMetrics.RULE_APPLICATIONS) > 0);
+			assertTrue(values.get(ReasonerMetrics.CONTEXTS_ACTIVATED) > 0);
+			assertTrue(values.get(ReasonerMetrics.CONCLUSIONS_PREFIX
+					+ "composed_subsumers") > 0);
+			assertTrue(values.get(ReasonerMetrics.CONCLUSIONS_PREFIX
+					+ "backward_links") > 0);
+			assertEquals(0, values.get(ReasonerMetrics.ACTIVE_CONTEXTS)
+					.longValue());
+
+			// the metrics are accumulated over subsequent computations
+			long ruleApplications = values
+					.get(ReasonerMetrics.RULE_APPLICATIONS);
+			long activations = values.get(ReasonerMetrics.CONTEXTS_ACTIVATED);
+			reasoner.isSatisfiable(objectFactory.getObjectIntersectionOf(a,
+					c));
+			values = registry.getValues();
+			assertTrue(values.get(ReasonerMetrics.RULE_APPLICATIONS) > ruleApplications);
+			assertTrue(values.get(ReasonerMetrics.CONTEXTS_ACTIVATED) > activations);
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void metricNames() {
+		assertEquals("class_taxonomy_computation",
+				ReasonerMetrics.toMetricName("Class Taxonomy Computation"));
+		assertEquals("incremental_addition",
+				ReasonerMetrics.toMetricName(" Incremental Addition"));
+	}
+
+}
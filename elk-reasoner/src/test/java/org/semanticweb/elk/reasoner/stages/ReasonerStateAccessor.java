@@ -26,6 +26,7 @@ package org.semanticweb.elk.reasoner.stages;
 
 import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
 import org.semanticweb.elk.reasoner.indexing.hierarchy.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.SaturationState;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
 import org.semanticweb.elk.reasoner.saturation.tracing.TraceState;
 
@@ -50,4 +51,8 @@ public class ReasonerStateAccessor {
 	public static Context getContext(AbstractReasonerState reasoner, IndexedClassExpression ice) {
 		return reasoner.saturationState.getContext(ice);
 	}
+
+	public static SaturationState<?> getSaturationState(AbstractReasonerState reasoner) {
+		return reasoner.saturationState;
+	}
 }
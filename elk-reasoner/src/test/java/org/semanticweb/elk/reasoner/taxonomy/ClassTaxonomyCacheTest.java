@@ -0,0 +1,218 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.elk.io.IOUtils;
+import org.semanticweb.elk.loading.Owl2StreamLoader;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.incremental.TestChangesLoader;
+import org.semanticweb.elk.reasoner.stages.FailingOnInterruptStageExecutor;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.InstanceTaxonomyHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyHasher;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+
+/**
+ * Tests writing and reading of class taxonomies using
+ * {@link ClassTaxonomyCache}
+ *
+ * @author agent
+ */
+public class ClassTaxonomyCacheTest {
+
+	private final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	private File cache_;
+
+	@Before
+	public void setUp() throws IOException {
+		cache_ = File.createTempFile("elk-taxonomy", ".bin");
+	}
+
+	@After
+	public void tearDown() {
+		cache_.delete();
+	}
+
+	@Test
+	public void classTaxonomyRoundtrip() throws Exception {
+		Reasoner original = load("io/taxonomy.owl");
+		Taxonomy<ElkClass> expected = original.getTaxonomy();
+		original.writeClassTaxonomyCache(cache_);
+		original.shutdown();
+
+		Reasoner cached = load("io/taxonomy.owl");
+		cached.readClassTaxonomyCache(cache_);
+		assertTrue(cached.doneTaxonomy());
+		assertEquals(TaxonomyHasher.hash(expected),
+				TaxonomyHasher.hash(cached.getTaxonomy()));
+		cached.shutdown();
+	}
+
+	@Test
+	public void realizationFromCache() throws Exception {
+		Reasoner original = load("io/instance_taxonomy.owl");
+		InstanceTaxonomy<ElkClass, ElkNamedIndividual> expected = original
+				.getInstanceTaxonomy();
+		original.writeClassTaxonomyCache(cache_);
+		original.shutdown();
+
+		Reasoner cached = load("io/instance_taxonomy.owl");
+		cached.readClassTaxonomyCache(cache_);
+		assertEquals(InstanceTaxonomyHasher.hash(expected),
+				InstanceTaxonomyHasher.hash(cached.getInstanceTaxonomy()));
+		cached.shutdown();
+	}
+
+	@Test
+	public void changesDiscardCache() throws Exception {
+		ElkClass a = objectFactory.getClass(new ElkFullIri(
+				"http://example.org/A"));
+		ElkClass d = objectFactory.getClass(new ElkFullIri(
+				"http://example.org/D"));
+		ElkClass e = objectFactory.getClass(new ElkFullIri(
+				"http://example.org/E"));
+
+		Reasoner original = load("io/taxonomy.owl");
+		original.writeClassTaxonomyCache(cache_);
+		original.shutdown();
+
+		Reasoner cached = load("io/taxonomy.owl");
+		cached.readClassTaxonomyCache(cache_);
+		Taxonomy<ElkClass> taxonomy = cached.getTaxonomy();
+		assertTrue(taxonomy.getNode(d).getDirectSuperNodes()
+				.contains(taxonomy.getNode(a)));
+
+		TestChangesLoader changes = new TestChangesLoader();
+		cached.registerAxiomLoader(changes);
+		changes.remove(objectFactory.getSubClassOfAxiom(d, a)).add(
+				objectFactory.getSubClassOfAxiom(d, e));
+		taxonomy = cached.getTaxonomy();
+		assertFalse(taxonomy.getNode(d).getAllSuperNodes()
+				.contains(taxonomy.getNode(a)));
+		assertTrue(taxonomy.getNode(d).getDirectSuperNodes()
+				.contains(taxonomy.getNode(e)));
+		cached.shutdown();
+	}
+
+	@Test
+	public void rejectOtherOntology() throws Exception {
+		Reasoner original = load("io/taxonomy.owl");
+		original.writeClassTaxonomyCache(cache_);
+		original.shutdown();
+
+		Reasoner other = load("io/instance_taxonomy.owl");
+		try {
+			other.readClassTaxonomyCache(cache_);
+			fail("the cache should not match the ontology");
+		} catch (IOException e) {
+			// expected
+		}
+		other.shutdown();
+	}
+
+	@Test
+	public void rejectChangedAxioms() throws Exception {
+		ElkClass a = getClass("A"), d = getClass("D"), e = getClass("E");
+
+		Reasoner original = load("io/taxonomy.owl");
+		original.writeClassTaxonomyCache(cache_);
+		original.shutdown();
+
+		// the same classes, but different subsumptions
+		Reasoner changed = load("io/taxonomy.owl");
+		TestChangesLoader changes = new TestChangesLoader();
+		changed.registerAxiomLoader(changes);
+		changes.remove(objectFactory.getSubClassOfAxiom(d, a)).add(
+				objectFactory.getSubClassOfAxiom(d, e));
+		try {
+			changed.readClassTaxonomyCache(cache_);
+			fail("the cache should not match the changed axioms");
+		} catch (IOException expected) {
+			// expected
+		}
+		changed.shutdown();
+	}
+
+	@Test
+	public void acceptRevertedChanges() throws Exception {
+		ElkClass a = getClass("A"), d = getClass("D");
+
+		Reasoner original = load("io/taxonomy.owl");
+		Taxonomy<ElkClass> expected = original.getTaxonomy();
+		original.writeClassTaxonomyCache(cache_);
+		original.shutdown();
+
+		Reasoner reverted = load("io/taxonomy.owl");
+		TestChangesLoader changes = new TestChangesLoader();
+		reverted.registerAxiomLoader(changes);
+		changes.remove(objectFactory.getSubClassOfAxiom(d, a));
+		reverted.forceLoading();
+		changes = new TestChangesLoader();
+		reverted.registerAxiomLoader(changes);
+		changes.add(objectFactory.getSubClassOfAxiom(d, a));
+		reverted.readClassTaxonomyCache(cache_);
+		assertEquals(TaxonomyHasher.hash(expected),
+				TaxonomyHasher.hash(reverted.getTaxonomy()));
+		reverted.shutdown();
+	}
+
+	private ElkClass getClass(String name) {
+		return objectFactory.getClass(new ElkFullIri("http://example.org/"
+				+ name));
+	}
+
+	private Reasoner load(String resource) throws ElkException {
+		InputStream stream = getClass().getClassLoader().getResourceAsStream(
+				resource);
+		try {
+			Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+					new Owl2StreamLoader(
+							new Owl2FunctionalStyleParserFactory(), stream),
+					new FailingOnInterruptStageExecutor(), 1);
+			reasoner.forceLoading();
+			return reasoner;
+		} finally {
+			IOUtils.closeQuietly(stream);
+		}
+	}
+}
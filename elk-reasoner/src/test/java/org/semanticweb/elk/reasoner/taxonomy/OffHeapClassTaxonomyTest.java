@@ -0,0 +1,166 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.semanticweb.elk.io.IOUtils;
+import org.semanticweb.elk.loading.Owl2StreamLoader;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.owl.predefined.PredefinedElkClass;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.incremental.TestChangesLoader;
+import org.semanticweb.elk.reasoner.stages.FailingOnInterruptStageExecutor;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.InstanceTaxonomyHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyHasher;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+
+/**
+ * Tests for {@link OffHeapClassTaxonomy}
+ * 
+ * @author agent
+ */
+public class OffHeapClassTaxonomyTest {
+
+	private final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	private ElkClass getClass(String name) {
+		return objectFactory.getClass(new ElkFullIri("http://example.org/"
+				+ name));
+	}
+
+	@Test
+	public void sameTaxonomy() throws Exception {
+		Reasoner reasoner = load("io/taxonomy.owl");
+		Taxonomy<ElkClass> expected = reasoner.getTaxonomy();
+		OffHeapClassTaxonomy taxonomy = new OffHeapClassTaxonomy(expected);
+
+		assertEquals(TaxonomyHasher.hash(expected),
+				TaxonomyHasher.hash(taxonomy));
+		assertEquals(TaxonomyHasher.hash(expected),
+				TaxonomyHasher.hash(taxonomy.toConcurrentClassTaxonomy()));
+		new BasicTaxonomyValidator<ElkClass>()
+				.add(new TaxonomyNodeDisjointnessVisitor<ElkClass>(taxonomy))
+				.add(new TaxonomyLinkConsistencyVisitor<ElkClass>())
+				.validate(taxonomy);
+		new TaxonomyAcyclicityAndReductionValidator<ElkClass>()
+				.validate(taxonomy);
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void queries() throws Exception {
+		Reasoner reasoner = load("io/taxonomy.owl");
+		OffHeapClassTaxonomy taxonomy = new OffHeapClassTaxonomy(
+				reasoner.getTaxonomy());
+		ElkClass a = getClass("A"), b = getClass("B"), d = getClass("D");
+
+		TaxonomyNode<ElkClass> node = taxonomy.getNode(a);
+		assertSame(node, taxonomy.getNode(b));
+		assertTrue(node.getMembers().contains(b));
+		assertFalse(node.getMembers().contains(d));
+		assertTrue(node.getDirectSubNodes().contains(taxonomy.getNode(d)));
+		assertTrue(taxonomy.getNode(d).getAllSuperNodes()
+				.contains(taxonomy.getTopNode()));
+		assertEquals(Collections.singleton(taxonomy.getBottomNode()),
+				taxonomy.getNode(d).getDirectSubNodes());
+		assertSame(taxonomy.getBottomNode(),
+				taxonomy.getNode(getClass("K")));
+		assertTrue(taxonomy.getBottomNode().getMembers()
+				.contains(PredefinedElkClass.OWL_NOTHING));
+		assertNull(taxonomy.getNode(getClass("Z")));
+		assertSame(taxonomy.getBottomNode(),
+				taxonomy.getNode(getClass("L")));
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void changesOffHeap() throws Exception {
+		ElkClass a = getClass("A"), d = getClass("D"), e = getClass("E");
+
+		Reasoner reasoner = load("io/taxonomy.owl");
+		reasoner.setOffHeapTaxonomy(true);
+		Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+		assertTrue(taxonomy instanceof OffHeapClassTaxonomy);
+
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.remove(objectFactory.getSubClassOfAxiom(d, a)).add(
+				objectFactory.getSubClassOfAxiom(d, e));
+		taxonomy = reasoner.getTaxonomy();
+		// the off-heap taxonomy is not updated incrementally
+		assertFalse(reasoner.isIncrementalMode());
+		assertTrue(taxonomy instanceof OffHeapClassTaxonomy);
+		assertFalse(taxonomy.getNode(d).getAllSuperNodes()
+				.contains(taxonomy.getNode(a)));
+		assertTrue(taxonomy.getNode(d).getDirectSuperNodes()
+				.contains(taxonomy.getNode(e)));
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void realizationOffHeap() throws Exception {
+		Reasoner expected = load("io/instance_taxonomy.owl");
+		InstanceTaxonomy<ElkClass, ElkNamedIndividual> instanceTaxonomy = expected
+				.getInstanceTaxonomy();
+
+		Reasoner reasoner = load("io/instance_taxonomy.owl");
+		reasoner.setOffHeapTaxonomy(true);
+		assertTrue(reasoner.getTaxonomy() instanceof OffHeapClassTaxonomy);
+		assertEquals(InstanceTaxonomyHasher.hash(instanceTaxonomy),
+				InstanceTaxonomyHasher.hash(reasoner.getInstanceTaxonomy()));
+		expected.shutdown();
+		reasoner.shutdown();
+	}
+
+	private Reasoner load(String resource) throws ElkException {
+		InputStream stream = getClass().getClassLoader().getResourceAsStream(
+				resource);
+		try {
+			Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+					new Owl2StreamLoader(
+							new Owl2FunctionalStyleParserFactory(), stream),
+					new FailingOnInterruptStageExecutor(), 1);
+			reasoner.forceLoading();
+			return reasoner;
+		} finally {
+			IOUtils.closeQuietly(stream);
+		}
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.elk.io.IOUtils;
+import org.semanticweb.elk.loading.Owl2StreamLoader;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.owl.predefined.PredefinedElkClass;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.incremental.TestChangesLoader;
+import org.semanticweb.elk.reasoner.stages.FailingOnInterruptStageExecutor;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyDelta;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyDeltaListener;
+import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomyNode;
+
+/**
+ * Tests the {@link TaxonomyDelta}s reported to {@link TaxonomyDeltaListener}s
+ * after incremental changes
+ * 
+ * @author agent
+ */
+public class TaxonomyDeltaTest {
+
+	private final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	private final ElkClass a = getClass("A"), c = getClass("C"),
+			d = getClass("D"), e = getClass("E"), k = getClass("K"),
+			l = getClass("L"), x = getClass("X"), y = getClass("Y");
+
+	private final List<TaxonomyDelta<ElkClass>> deltas_ = new ArrayList<TaxonomyDelta<ElkClass>>();
+
+	private final TaxonomyDeltaListener<ElkClass> listener_ = new TaxonomyDeltaListener<ElkClass>() {
+
+		@Override
+		public void taxonomyChanged(TaxonomyDelta<ElkClass> delta) {
+			deltas_.add(delta);
+		}
+	};
+
+	@Test
+	public void resetAfterClassification() throws Exception {
+		Reasoner reasoner = load("io/taxonomy.owl");
+		reasoner.addTaxonomyDeltaListener(listener_);
+		reasoner.getTaxonomy();
+		assertEquals(1, deltas_.size());
+		assertTrue(deltas_.get(0).isReset());
+		// nothing changed
+		reasoner.getTaxonomy();
+		assertEquals(1, deltas_.size());
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void changedEdges() throws Exception {
+		Reasoner reasoner = load("io/taxonomy.owl");
+		reasoner.addTaxonomyDeltaListener(listener_);
+		reasoner.getTaxonomy();
+
+		TaxonomyDelta<ElkClass> delta = change(reasoner,
+				Collections.<ElkAxiom> singleton(objectFactory
+						.getSubClassOfAxiom(d, e)),
+				Collections.<ElkAxiom> singleton(objectFactory
+						.getSubClassOfAxiom(d, a)));
+		assertEquals(edge(d, e), iris(delta.getAddedDirectEdges()));
+		assertEquals(edge(d, a), iris(delta.getRemovedDirectEdges()));
+		assertTrue(delta.getAddedMembers().isEmpty());
+		assertTrue(delta.getRemovedMembers().isEmpty());
+		assertTrue(delta.getMergedNodes().isEmpty());
+		assertTrue(delta.getSplitNodes().isEmpty());
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void mergedAndSplitNodes() throws Exception {
+		Reasoner reasoner = load("io/taxonomy.owl");
+		reasoner.addTaxonomyDeltaListener(listener_);
+		reasoner.getTaxonomy();
+		ElkAxiom equivalence = objectFactory.getEquivalentClassesAxiom(c, x);
+
+		TaxonomyDelta<ElkClass> delta = change(reasoner,
+				Collections.singleton(equivalence),
+				Collections.<ElkAxiom> emptySet());
+		assertEquals(nodes(c, x), iris(delta.getMergedNodes()));
+		assertTrue(delta.getSplitNodes().isEmpty());
+		assertEquals(edge(x, PredefinedElkClass.OWL_THING),
+				iris(delta.getRemovedDirectEdges()));
+		assertTrue(delta.getAddedDirectEdges().isEmpty());
+
+		delta = change(reasoner, Collections.<ElkAxiom> emptySet(),
+				Collections.singleton(equivalence));
+		assertEquals(nodes(c, x), iris(delta.getSplitNodes()));
+		assertTrue(delta.getMergedNodes().isEmpty());
+		assertEquals(edge(x, PredefinedElkClass.OWL_THING),
+				iris(delta.getAddedDirectEdges()));
+		assertTrue(delta.getRemovedDirectEdges().isEmpty());
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void unsatisfiableClass() throws Exception {
+		Reasoner reasoner = load("io/taxonomy.owl");
+		reasoner.addTaxonomyDeltaListener(listener_);
+		reasoner.getTaxonomy();
+
+		TaxonomyDelta<ElkClass> delta = change(reasoner,
+				Collections.<ElkAxiom> singleton(objectFactory
+						.getSubClassOfAxiom(y, PredefinedElkClass.OWL_NOTHING)),
+				Collections.<ElkAxiom> emptySet());
+		assertEquals(nodes(PredefinedElkClass.OWL_NOTHING, k, l, y),
+				iris(delta.getMergedNodes()));
+		assertEquals(edge(y, PredefinedElkClass.OWL_THING),
+				iris(delta.getRemovedDirectEdges()));
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void concurrentChanges() throws Exception {
+		final int threadCount = 4, classCount = 1000;
+		final ConcurrentClassTaxonomy taxonomy = new ConcurrentClassTaxonomy();
+		final UpdateableTaxonomyNode<ElkClass> top = taxonomy
+				.getCreateNode(Collections
+						.<ElkClass> singleton(PredefinedElkClass.OWL_THING));
+		// start recording
+		taxonomy.nextDelta();
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final int thread = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < classCount; j++) {
+						UpdateableTaxonomyNode<ElkClass> node = taxonomy
+								.getCreateNode(Collections
+										.singleton(TaxonomyDeltaTest.this
+												.getClass("C" + thread + "_"
+														+ j)));
+						node.addDirectSuperNode(top);
+						synchronized (top) {
+							top.addDirectSubNode(node);
+						}
+						taxonomy.addToBottomNode(TaxonomyDeltaTest.this
+								.getClass("B" + thread + "_" + j));
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		TaxonomyDelta<ElkClass> delta = taxonomy.nextDelta();
+		// no addition is lost in the saved state of the changed nodes
+		assertEquals(2 * threadCount * classCount, delta.getAddedMembers()
+				.size());
+		assertEquals(threadCount * classCount, delta.getAddedDirectEdges()
+				.size());
+	}
+
+	private TaxonomyDelta<ElkClass> change(Reasoner reasoner,
+			Iterable<ElkAxiom> additions, Iterable<ElkAxiom> deletions)
+			throws ElkException {
+		reasoner.registerAxiomLoader(new TestChangesLoader(additions,
+				deletions));
+		int count = deltas_.size();
+		reasoner.getTaxonomy();
+		assertEquals(count + 1, deltas_.size());
+		TaxonomyDelta<ElkClass> delta = deltas_.get(count);
+		assertFalse(delta.isReset());
+		return delta;
+	}
+
+	/*
+	 * the classes are compared by their IRIs since the objects created in the
+	 * test are different from the loaded ones
+	 */
+
+	private static Set<String> iris(Iterable<ElkClass> classes) {
+		Set<String> result = new HashSet<String>();
+		for (ElkClass member : classes) {
+			result.add(member.getIri().getFullIriAsString());
+		}
+		return result;
+	}
+
+	private static Set<Set<String>> iris(Collection<Set<ElkClass>> nodes) {
+		Set<Set<String>> result = new HashSet<Set<String>>();
+		for (Set<ElkClass> node : nodes) {
+			result.add(iris(node));
+		}
+		return result;
+	}
+
+	private static Map<String, Set<String>> iris(
+			Map<ElkClass, Set<ElkClass>> edges) {
+		Map<String, Set<String>> result = new HashMap<String, Set<String>>();
+		for (Map.Entry<ElkClass, Set<ElkClass>> entry : edges.entrySet()) {
+			result.put(entry.getKey().getIri().getFullIriAsString(),
+					iris(entry.getValue()));
+		}
+		return result;
+	}
+
+	private static Set<Set<String>> nodes(ElkClass... members) {
+		return Collections.singleton(iris(Arrays.asList(members)));
+	}
+
+	private static Map<String, Set<String>> edge(ElkClass subClass,
+			ElkClass superClass) {
+		return Collections.singletonMap(subClass.getIri()
+				.getFullIriAsString(), Collections.singleton(superClass
+				.getIri().getFullIriAsString()));
+	}
+
+	private ElkClass getClass(String name) {
+		return objectFactory.getClass(new ElkFullIri("http://example.org/"
+				+ name));
+	}
+
+	private Reasoner load(String resource) throws ElkException {
+		InputStream stream = getClass().getClassLoader().getResourceAsStream(
+				resource);
+		try {
+			Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+					new Owl2StreamLoader(
+							new Owl2FunctionalStyleParserFactory(), stream),
+					new FailingOnInterruptStageExecutor(), 1);
+			reasoner.forceLoading();
+			return reasoner;
+		} finally {
+			IOUtils.closeQuietly(stream);
+		}
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.elk.io.IOUtils;
+import org.semanticweb.elk.loading.Owl2StreamLoader;
+import org.semanticweb.elk.owl.exceptions.ElkException;
+import org.semanticweb.elk.owl.implementation.ElkObjectFactoryImpl;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObjectFactory;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.owl.predefined.PredefinedElkClass;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.incremental.TestChangesLoader;
+import org.semanticweb.elk.reasoner.stages.FailingOnInterruptStageExecutor;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.InstanceNodeHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyNodeHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TypeNodeHasher;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.VersionedInstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.VersionedTaxonomy;
+import org.semanticweb.elk.util.hashing.HashGenerator;
+
+/**
+ * Tests the structural hash and the modified nodes maintained by
+ * {@link VersionedTaxonomy}s during incremental changes
+ * 
+ * @author agent
+ */
+public class VersionedTaxonomyTest {
+
+	private final ElkObjectFactory objectFactory = new ElkObjectFactoryImpl();
+
+	@Test
+	public void classTaxonomyChanges() throws Exception {
+		ElkClass a = getClass("A");
+		ElkClass c = getClass("C");
+		ElkClass d = getClass("D");
+		ElkClass e = getClass("E");
+		ElkClass x = getClass("X");
+		ElkClass y = getClass("Y");
+
+		Reasoner reasoner = load("io/taxonomy.owl");
+		VersionedTaxonomy<ElkClass> taxonomy = getVersionedTaxonomy(reasoner);
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		assertEquals(hash(taxonomy), taxonomy.getStructuralHash());
+		long version = taxonomy.getVersion();
+		assertTrue(taxonomy.getNodesChangedSince(version).isEmpty());
+
+		changes.remove(objectFactory.getSubClassOfAxiom(d, a)).add(
+				objectFactory.getSubClassOfAxiom(d, e));
+		taxonomy = getVersionedTaxonomy(reasoner);
+		assertEquals(hash(taxonomy), taxonomy.getStructuralHash());
+		Set<? extends TaxonomyNode<ElkClass>> changed = taxonomy
+				.getNodesChangedSince(version);
+		assertTrue(changed.contains(taxonomy.getNode(a)));
+		assertTrue(changed.contains(taxonomy.getNode(d)));
+		assertTrue(changed.contains(taxonomy.getNode(e)));
+		assertFalse(changed.contains(taxonomy.getNode(c)));
+		assertFalse(changed.contains(taxonomy.getNode(y)));
+		version = taxonomy.getVersion();
+
+		changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		changes.add(objectFactory.getSubClassOfAxiom(x,
+				PredefinedElkClass.OWL_NOTHING));
+		taxonomy = getVersionedTaxonomy(reasoner);
+		assertEquals(hash(taxonomy), taxonomy.getStructuralHash());
+		changed = taxonomy.getNodesChangedSince(version);
+		assertTrue(changed.contains(taxonomy.getBottomNode()));
+		assertFalse(changed.contains(taxonomy.getNode(c)));
+
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void versionsOfOtherTaxonomies() throws Exception {
+		Reasoner reasoner = load("io/taxonomy.owl");
+		VersionedTaxonomy<ElkClass> taxonomy = getVersionedTaxonomy(reasoner);
+		long version = taxonomy.getVersion();
+
+		OffHeapClassTaxonomy offHeap = new OffHeapClassTaxonomy(taxonomy);
+		assertEquals(hash(taxonomy), offHeap.getStructuralHash());
+		assertTrue(offHeap.getNodesChangedSince(offHeap.getVersion())
+				.isEmpty());
+		assertEquals(offHeap.getNodes().size(), offHeap
+				.getNodesChangedSince(version).size());
+
+		// a copy of the taxonomy starts a new sequence of versions
+		ConcurrentClassTaxonomy copy = offHeap.toConcurrentClassTaxonomy();
+		assertEquals(hash(copy), copy.getStructuralHash());
+		assertEquals(copy.getNodes().size(),
+				copy.getNodesChangedSince(version).size());
+		assertTrue(copy.getNodesChangedSince(copy.getVersion()).isEmpty());
+		assertEquals(taxonomy.getNodes().size(), taxonomy
+				.getNodesChangedSince(copy.getVersion()).size());
+
+		reasoner.shutdown();
+	}
+
+	@Test
+	public void instanceTaxonomyChanges() throws Exception {
+		ElkClass b = getClass("B");
+		ElkClass c = getClass("C");
+		ElkNamedIndividual ia = getIndividual("a");
+		ElkNamedIndividual ic = getIndividual("c");
+
+		Reasoner reasoner = load("io/instance_taxonomy.owl");
+		VersionedInstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = getVersionedInstanceTaxonomy(reasoner);
+		TestChangesLoader changes = new TestChangesLoader();
+		reasoner.registerAxiomLoader(changes);
+		assertEquals(hash(taxonomy), taxonomy.getInstanceStructuralHash());
+		long version = taxonomy.getVersion();
+
+		changes.remove(objectFactory.getClassAssertionAxiom(c, ic)).add(
+				objectFactory.getClassAssertionAxiom(b, ic));
+		taxonomy = getVersionedInstanceTaxonomy(reasoner);
+		assertEquals(hash(taxonomy), taxonomy.getInstanceStructuralHash());
+		assertEquals(hash((Taxonomy<ElkClass>) taxonomy),
+				taxonomy.getStructuralHash());
+		Set<? extends InstanceNode<ElkClass, ElkNamedIndividual>> changed = taxonomy
+				.getInstanceNodesChangedSince(version);
+		assertTrue(changed.contains(taxonomy.getInstanceNode(ic)));
+		assertFalse(changed.contains(taxonomy.getInstanceNode(ia)));
+		assertTrue(taxonomy.getNodesChangedSince(version).contains(
+				taxonomy.getTypeNode(b)));
+
+		reasoner.shutdown();
+	}
+
+	private static int hash(Taxonomy<ElkClass> taxonomy) {
+		return HashGenerator.combineMultisetHash(true, taxonomy.getNodes(),
+				TaxonomyNodeHasher.INSTANCE);
+	}
+
+	private static int hash(
+			InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy) {
+		return HashGenerator.combineListHash(HashGenerator.combineMultisetHash(
+				true, taxonomy.getTypeNodes(), TypeNodeHasher.INSTANCE),
+				HashGenerator.combineMultisetHash(true,
+						taxonomy.getInstanceNodes(), InstanceNodeHasher.INSTANCE));
+	}
+
+	private static VersionedTaxonomy<ElkClass> getVersionedTaxonomy(
+			Reasoner reasoner) throws ElkException {
+		return (VersionedTaxonomy<ElkClass>) reasoner.getTaxonomy();
+	}
+
+	private static VersionedInstanceTaxonomy<ElkClass, ElkNamedIndividual> getVersionedInstanceTaxonomy(
+			Reasoner reasoner) throws ElkException {
+		return (VersionedInstanceTaxonomy<ElkClass, ElkNamedIndividual>) reasoner
+				.getInstanceTaxonomy();
+	}
+
+	private ElkClass getClass(String name) {
+		return objectFactory.getClass(new ElkFullIri("http://example.org/"
+				+ name));
+	}
+
+	private ElkNamedIndividual getIndividual(String name) {
+		return objectFactory.getNamedIndividual(new ElkFullIri(
+				"http://example.org/" + name));
+	}
+
+	private Reasoner load(String resource) throws ElkException {
+		InputStream stream = getClass().getClassLoader().getResourceAsStream(
+				resource);
+		try {
+			Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+					new Owl2StreamLoader(
+							new Owl2FunctionalStyleParserFactory(), stream),
+					new FailingOnInterruptStageExecutor(), 1);
+			reasoner.forceLoading();
+			return reasoner;
+		} finally {
+			IOUtils.closeQuietly(stream);
+		}
+	}
+}
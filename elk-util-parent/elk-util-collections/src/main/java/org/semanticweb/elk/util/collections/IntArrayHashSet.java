@@ -0,0 +1,249 @@
+/*
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * A hash set of non-negative {@code int} values using an array of primitive
+ * values and linear probing for resolving hash collisions, similarly to
+ * {@link ArrayHashSet}. Since the values are stored without boxing, every
+ * element occupies exactly 4 bytes of the table, which is never more than a
+ * reference to an element of {@link ArrayHashSet}.
+ * 
+ * @author agent
+ * 
+ * @see ArrayHashSet
+ */
+public class IntArrayHashSet {
+
+	/**
+	 * The table for the elements; every element is stored increased by one so
+	 * that {@code 0} represents an empty position; the length MUST always be a
+	 * power of two.
+	 */
+	private int[] data_;
+
+	/**
+	 * The number of elements contained in this set.
+	 */
+	private int size_;
+
+	public IntArrayHashSet(int initialCapacity) {
+		this.data_ = new int[LinearProbing.getInitialCapacity(initialCapacity)];
+		this.size_ = 0;
+	}
+
+	public IntArrayHashSet() {
+		this(LinearProbing.DEFAULT_INITIAL_CAPACITY);
+	}
+
+	public int size() {
+		return size_;
+	}
+
+	public boolean isEmpty() {
+		return size_ == 0;
+	}
+
+	/**
+	 * @return the number of positions in the table used to store the
+	 *         elements of this set
+	 */
+	public int capacity() {
+		return data_.length;
+	}
+
+	/**
+	 * Tests if the given value is contained in this set
+	 * 
+	 * @param e
+	 *            a non-negative value
+	 * @return {@code true} if the value is contained in this set
+	 */
+	public boolean contains(int e) {
+		int[] d = data_;
+		return d[getPosition(d, encode(e))] != 0;
+	}
+
+	/**
+	 * Adds the given value to this set if it is not already present
+	 * 
+	 * @param e
+	 *            a non-negative value
+	 * @return {@code true} if the set has changed
+	 */
+	public boolean add(int e) {
+		int code = encode(e);
+		int[] d = data_;
+		int pos = getPosition(d, code);
+		if (d[pos] != 0)
+			// already there
+			return false;
+		// else
+		d[pos] = code;
+		if (++size_ == LinearProbing.getUpperSize(d.length))
+			resize(d.length << 1);
+		return true;
+	}
+
+	/**
+	 * Removes the given value from this set if it is present
+	 * 
+	 * @param e
+	 *            a non-negative value
+	 * @return {@code true} if the set has changed
+	 */
+	public boolean remove(int e) {
+		int[] d = data_;
+		int pos = getPosition(d, encode(e));
+		if (d[pos] == 0)
+			return false;
+		// else
+		remove(d, pos);
+		if (--size_ == LinearProbing.getLowerSize(d.length) && d.length > 1)
+			resize(d.length >> 1);
+		return true;
+	}
+
+	public void clear() {
+		int capacity = data_.length >> 2;
+		if (capacity == 0)
+			capacity = 1;
+		size_ = 0;
+		data_ = new int[capacity];
+	}
+
+	/**
+	 * @return an {@link IntIterator} over the values of this set; the set
+	 *         should not be modified during the iteration
+	 */
+	public IntIterator iterator() {
+		return new ValueIterator();
+	}
+
+	private static int encode(int e) {
+		if (e < 0)
+			throw new IllegalArgumentException("Negative value: " + e);
+		return e + 1;
+	}
+
+	/**
+	 * Computes the position starting from which the given encoded value should
+	 * be searched in the table of the given length; since values often come
+	 * in consecutive ranges, they are first scrambled to avoid long clusters
+	 */
+	private static int getIndex(int code, int length) {
+		int h = code * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & (length - 1);
+	}
+
+	private static int getPosition(int[] d, int code) {
+		int i = getIndex(code, d.length);
+		for (;;) {
+			int probe = d[i];
+			if (probe == 0 || probe == code)
+				return i;
+			if (++i == d.length)
+				i = 0;
+		}
+	}
+
+	/**
+	 * Removes the element at the given position of the table shifting, if
+	 * necessary, other elements so that all elements can be found by linear
+	 * probing; see {@link LinearProbing#remove(Object[], int)}
+	 */
+	private static void remove(int[] d, int del) {
+		int j = del;
+		for (;;) {
+			if (++j == d.length)
+				j = 0;
+			int test = d[j];
+			if (test == 0) {
+				d[del] = 0;
+				return;
+			}
+			int k = getIndex(test, d.length);
+			// check if k is in ]del, j] (this interval can wrap over)
+			if ((del < j) ? (del < k) && (k <= j) : (del < k) || (k <= j))
+				// the test element should not be shifted
+				continue;
+			// else it should be shifted
+			d[del] = test;
+			del = j;
+		}
+	}
+
+	private void resize(int newCapacity) {
+		if (newCapacity > LinearProbing.MAXIMUM_CAPACITY)
+			throw new IllegalArgumentException(
+					"The set cannot grow beyond the capacity: "
+							+ LinearProbing.MAXIMUM_CAPACITY);
+		int[] oldData = data_;
+		int[] newData = new int[newCapacity];
+		for (int i = 0; i < oldData.length; i++) {
+			int code = oldData[i];
+			if (code != 0)
+				newData[getPosition(newData, code)] = code;
+		}
+		this.data_ = newData;
+	}
+
+	private class ValueIterator implements IntIterator {
+
+		private final int[] dataSnapshot_ = data_;
+
+		private final int expectedSize_ = size_;
+
+		// the position of the next element
+		private int cursor_ = 0;
+
+		ValueIterator() {
+			seekNext();
+		}
+
+		private void seekNext() {
+			while (cursor_ < dataSnapshot_.length
+					&& dataSnapshot_[cursor_] == 0)
+				cursor_++;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return cursor_ < dataSnapshot_.length;
+		}
+
+		@Override
+		public int next() {
+			if (expectedSize_ != size_ || dataSnapshot_ != data_)
+				throw new ConcurrentModificationException();
+			if (cursor_ == dataSnapshot_.length)
+				throw new NoSuchElementException();
+			int result = dataSnapshot_[cursor_++] - 1;
+			seekNext();
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+/**
+ * An iterator over primitive {@code int} values, which does not require
+ * boxing of the values
+ * 
+ * @author agent
+ * 
+ */
+public interface IntIterator {
+
+	/**
+	 * @return {@code true} if the iteration has more values
+	 */
+	public boolean hasNext();
+
+	/**
+	 * @return the next value in the iteration
+	 * @throws java.util.NoSuchElementException
+	 *             if the iteration has no more values
+	 */
+	public int next();
+
+}
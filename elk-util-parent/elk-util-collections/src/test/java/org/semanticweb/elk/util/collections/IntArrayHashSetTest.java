@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link IntArrayHashSet}
+ * 
+ * @author agent
+ * 
+ */
+public class IntArrayHashSetTest {
+
+	static void testSetEquality(Set<Integer> referenceSet,
+			IntArrayHashSet testSet) {
+		for (int e : referenceSet) {
+			assertTrue(testSet.contains(e));
+		}
+		assertEquals(referenceSet.size(), testSet.size());
+		int i = 0;
+		IntIterator iterator = testSet.iterator();
+		while (iterator.hasNext()) {
+			assertTrue(referenceSet.contains(iterator.next()));
+			i++;
+		}
+		assertEquals(referenceSet.size(), i);
+	}
+
+	@Test
+	public void testAddRemoveContains() {
+		Random generator = new Random(123);
+		for (int iteration = 0; iteration < 50; iteration++) {
+			int noElements = 10 + generator.nextInt(1000);
+			int range = 1 + generator.nextInt(2 * noElements);
+			Set<Integer> referenceSet = new HashSet<Integer>();
+			IntArrayHashSet testSet = new IntArrayHashSet(
+					generator.nextInt(16));
+			for (int i = 0; i < noElements; i++) {
+				int e = generator.nextInt(range);
+				assertEquals(referenceSet.add(e), testSet.add(e));
+			}
+			testSetEquality(referenceSet, testSet);
+			for (int i = 0; i < noElements; i++) {
+				int e = generator.nextInt(range);
+				assertEquals(referenceSet.remove(e), testSet.remove(e));
+				assertEquals(referenceSet.contains(e), testSet.contains(e));
+			}
+			testSetEquality(referenceSet, testSet);
+			testSet.clear();
+			assertTrue(testSet.isEmpty());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeValue() {
+		new IntArrayHashSet().add(-1);
+	}
+
+}
@@ -0,0 +1,258 @@
+/*
+ * #%L
+ * ELK Utilities for Concurrency
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.concurrent.collections;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A thread-safe queue with the same activation semantics as
+ * {@link ActivationStack}: {@link #push(Object)} returns {@code true} if the
+ * inserted element is the first element after the queue has been cleared.
+ * Unlike {@link ActivationStack}, the elements are stored in arrays
+ * (segments) of growing sizes, so that an object is allocated only for every
+ * segment and not for every inserted element. Elements can be inserted by
+ * several threads at the same time, but they should be taken using
+ * {@link #pop()} by at most one thread at a time, which is ensured when the
+ * queue is processed only by the thread that has activated it. The elements
+ * are returned in the order in which their insertion has started. This queue
+ * does not allow storing {@code null} values.
+ * 
+ * When the queue is cleared, the current segment is released so that an empty
+ * queue does not keep any segments.
+ * 
+ * @author agent
+ * 
+ * @param <E>
+ *            the type of elements in the queue
+ */
+public class ActivationQueue<E> {
+
+	/**
+	 * the size of the segment created after the queue is cleared
+	 */
+	static final int FIRST_SEGMENT_SIZE = 4;
+
+	/**
+	 * the maximal size of segments; every next segment is twice as large as
+	 * the previous one until this size is reached
+	 */
+	static final int MAX_SEGMENT_SIZE = 1024;
+
+	/**
+	 * the value of {@link Segment#writeIndex} of a closed segment; elements
+	 * cannot be inserted in such segments
+	 */
+	private static final int CLOSED_ = Integer.MAX_VALUE >> 1;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<ActivationQueue> COUNT_ = AtomicIntegerFieldUpdater
+			.newUpdater(ActivationQueue.class, "count_");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<ActivationQueue, Segment> TAIL_ = AtomicReferenceFieldUpdater
+			.newUpdater(ActivationQueue.class, Segment.class, "tail_");
+
+	/**
+	 * the number of inserted elements since the queue has been cleared; this
+	 * value is incremented after the element is stored in a segment
+	 */
+	private volatile int count_ = 0;
+
+	/**
+	 * the segment to which the elements are inserted or {@code null} if the
+	 * segment should be created
+	 */
+	private volatile Segment<E> tail_ = null;
+
+	/**
+	 * the segment from which the elements are taken; assigned by the thread
+	 * that creates the first segment after the queue has been cleared
+	 */
+	private volatile Segment<E> head_ = null;
+
+	/**
+	 * the position in {@link #head_} of the next element to take
+	 */
+	private int readIndex_ = 0;
+
+	/**
+	 * the number of elements taken since the queue has been cleared
+	 */
+	private int taken_ = 0;
+
+	/**
+	 * Inserts the given element at the end of the queue. Returns {@code true}
+	 * if this is the first element inserted after the queue has been cleared.
+	 * A queue is cleared after it has been constructed or after {@link #pop()}
+	 * returns {@code null}.
+	 * 
+	 * @param element
+	 * @return {@code true} if this is the first element inserted after the
+	 *         queue has been cleared.
+	 * @throws IllegalArgumentException
+	 *             if null element is inserted
+	 * 
+	 * @see ActivationStack#push(Object)
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean push(E element) {
+		if (element == null)
+			throw new IllegalArgumentException(
+					"Elements in the queue cannot be null");
+		for (;;) {
+			Segment<E> tail = tail_;
+			if (tail == null) {
+				Segment<E> first = new Segment<E>(FIRST_SEGMENT_SIZE, element);
+				if (TAIL_.compareAndSet(this, null, first)) {
+					head_ = first;
+					break;
+				}
+				// else
+				continue;
+			}
+			int pos = Segment.WRITE_INDEX_.getAndIncrement(tail);
+			if (pos < tail.length()) {
+				tail.set(pos, element);
+				break;
+			}
+			// else the segment is full or closed
+			if (pos >= CLOSED_) {
+				TAIL_.compareAndSet(this, tail, null);
+				continue;
+			}
+			// else
+			Segment<E> next = tail.next;
+			if (next == null) {
+				next = new Segment<E>(Math.min(tail.length() << 1,
+						MAX_SEGMENT_SIZE), element);
+				if (Segment.NEXT_.compareAndSet(tail, null, next)) {
+					TAIL_.compareAndSet(this, tail, next);
+					break;
+				}
+				// else
+				next = tail.next;
+			}
+			TAIL_.compareAndSet(this, tail, next);
+		}
+		return COUNT_.getAndIncrement(this) == 0;
+	}
+
+	/**
+	 * Takes and removes the first element of the queue. This method should
+	 * not be called by several threads at the same time.
+	 * 
+	 * @return the first element of the queue or {@code null} if there are no
+	 *         elements in the queue, in which case the queue is cleared
+	 */
+	public E pop() {
+		for (;;) {
+			Segment<E> head = head_;
+			if (head != null) {
+				int pos = readIndex_;
+				if (pos < head.length()) {
+					E result = head.get(pos);
+					if (result != null) {
+						head.lazySet(pos, null);
+						readIndex_ = pos + 1;
+						taken_++;
+						return result;
+					}
+				} else {
+					Segment<E> next = head.next;
+					if (next != null) {
+						head_ = next;
+						readIndex_ = 0;
+						continue;
+					}
+				}
+				// no element at the current position; if no other elements
+				// have been inserted to this segment, it is closed and
+				// released
+				head_ = null;
+				if (Segment.WRITE_INDEX_.compareAndSet(head, pos, CLOSED_)) {
+					TAIL_.compareAndSet(this, head, null);
+					readIndex_ = 0;
+				} else
+					head_ = head;
+			}
+			int count = count_;
+			if (count == taken_) {
+				// all inserted elements are taken; the elements that are
+				// being inserted will activate the queue again, possibly in
+				// another thread, so taken_ must be reset before that
+				taken_ = 0;
+				if (COUNT_.compareAndSet(this, count, 0))
+					return null;
+				// else
+				taken_ = count;
+			}
+			// else some element is being inserted or counted
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * An array of elements with the position for inserting the next element
+	 * and a reference to the next segment.
+	 * 
+	 * @param <E>
+	 *            the type of elements in the segment
+	 */
+	private static class Segment<E> extends AtomicReferenceArray<E> {
+
+		private static final long serialVersionUID = 7297640813306294637L;
+
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<Segment> WRITE_INDEX_ = AtomicIntegerFieldUpdater
+				.newUpdater(Segment.class, "writeIndex");
+
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<Segment, Segment> NEXT_ = AtomicReferenceFieldUpdater
+				.newUpdater(Segment.class, Segment.class, "next");
+
+		/**
+		 * the position at which the next element should be inserted; may
+		 * exceed the length of the segment if the segment is full
+		 */
+		volatile int writeIndex;
+
+		/**
+		 * the segment to which the elements are inserted when this segment is
+		 * full
+		 */
+		volatile Segment<E> next = null;
+
+		/**
+		 * Creates a new segment of the given size containing the given element
+		 * at the first position
+		 */
+		Segment(int size, E first) {
+			super(size);
+			lazySet(0, first);
+			this.writeIndex = 1;
+		}
+
+	}
+
+}
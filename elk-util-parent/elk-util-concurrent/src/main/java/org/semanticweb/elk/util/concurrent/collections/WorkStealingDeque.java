@@ -0,0 +1,211 @@
+/*
+ * #%L
+ * ELK Utilities for Concurrency
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.concurrent.collections;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A double-ended queue in which elements are inserted and taken at one end
+ * (the bottom) only by the thread that owns the queue, and taken at the other
+ * end (the top) by any thread. This is the work-stealing deque by Chase and
+ * Lev: the owner does not need to use atomic operations unless the deque
+ * contains at most one element, and other threads compete only with each
+ * other and, for the last element, with the owner. The elements are stored in
+ * a circular array, which grows when it is full. This deque does not allow
+ * storing {@code null} values.
+ * 
+ * The slots of stolen elements are not cleared, so the deque can keep
+ * references to such elements until their slots are reused.
+ * 
+ * @author agent
+ * 
+ * @param <E>
+ *            the type of elements in the deque
+ */
+class WorkStealingDeque<E> {
+
+	/**
+	 * the initial size of the array of elements; must be a power of two
+	 */
+	static final int INITIAL_CAPACITY = 32;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicLongFieldUpdater<WorkStealingDeque> TOP_ = AtomicLongFieldUpdater
+			.newUpdater(WorkStealingDeque.class, "top_");
+
+	/**
+	 * the thread that can use {@link #push(Object)} and {@link #pop()}
+	 */
+	final Thread owner;
+
+	/**
+	 * the index of the next element to be stolen; only increases
+	 */
+	private volatile long top_ = 0;
+
+	/**
+	 * the index of the next element to be inserted; the deque contains the
+	 * elements with indexes from {@link #top_} (inclusive) till this value
+	 * (exclusive)
+	 */
+	private volatile long bottom_ = 0;
+
+	/**
+	 * the array in which an element with index {@code i} is stored at position
+	 * {@code i} modulo the length of the array
+	 */
+	private volatile AtomicReferenceArray<E> elements_ = new AtomicReferenceArray<E>(
+			INITIAL_CAPACITY);
+
+	/**
+	 * the position in the list of deques from which the owner stole the last
+	 * time; used only by the owner
+	 */
+	int lastVictim = 0;
+
+	WorkStealingDeque(Thread owner) {
+		this.owner = owner;
+	}
+
+	/**
+	 * Inserts the given element at the bottom of this deque; should be called
+	 * only by the owner
+	 * 
+	 * @param element
+	 *            the element to be inserted, must not be {@code null}
+	 */
+	void push(E element) {
+		long b = bottom_;
+		long t = top_;
+		AtomicReferenceArray<E> elements = elements_;
+		if (b - t >= elements.length()) {
+			elements = grow(elements, t, b);
+			elements_ = elements;
+		}
+		elements.lazySet(index(elements, b), element);
+		// publishes the element
+		bottom_ = b + 1;
+	}
+
+	/**
+	 * Removes and returns the element at the bottom of this deque, i.e., the
+	 * element inserted last; should be called only by the owner
+	 * 
+	 * @return the removed element or {@code null} if this deque is empty
+	 */
+	E pop() {
+		long b = bottom_ - 1;
+		AtomicReferenceArray<E> elements = elements_;
+		/*
+		 * reserve the element before reading the top; since both fields are
+		 * volatile, a thief that reads the old bottom after this point will
+		 * compete for the element using the top
+		 */
+		bottom_ = b;
+		long t = top_;
+		if (t > b) {
+			// the deque was empty
+			bottom_ = t;
+			return null;
+		}
+		int index = index(elements, b);
+		E result = elements.get(index);
+		if (t == b) {
+			// the last element; compete with thieves
+			if (!TOP_.compareAndSet(this, t, t + 1))
+				result = null;
+			bottom_ = t + 1;
+		}
+		if (result != null)
+			elements.lazySet(index, null);
+		return result;
+	}
+
+	/**
+	 * Removes and returns the element at the top of this deque, i.e., the
+	 * element inserted first; can be called by any thread
+	 * 
+	 * @return the removed element or {@code null} if this deque is empty
+	 */
+	E steal() {
+		for (;;) {
+			long t = top_;
+			long b = bottom_;
+			if (t >= b)
+				return null;
+			AtomicReferenceArray<E> elements = elements_;
+			E result = elements.get(index(elements, t));
+			if (TOP_.compareAndSet(this, t, t + 1))
+				return result;
+			// else another thread has taken this element; try the next one
+		}
+	}
+
+	/**
+	 * @return the approximate number of elements in this deque
+	 */
+	int size() {
+		long t = top_;
+		long size = bottom_ - t;
+		return size > 0 ? (int) size : 0;
+	}
+
+	/**
+	 * Adds the elements that are currently in this deque to the given
+	 * {@link Collection}; the result can be inaccurate if the deque is
+	 * modified concurrently
+	 * 
+	 * @param result
+	 */
+	void copyTo(Collection<? super E> result) {
+		long t = top_;
+		long b = bottom_;
+		AtomicReferenceArray<E> elements = elements_;
+		for (long i = t; i < b; i++) {
+			E element = elements.get(index(elements, i));
+			if (element != null)
+				result.add(element);
+		}
+	}
+
+	private static int index(AtomicReferenceArray<?> elements, long i) {
+		return (int) i & (elements.length() - 1);
+	}
+
+	/**
+	 * @return a copy of the given array of twice the size that contains the
+	 *         elements with indexes from {@code top} (inclusive) till
+	 *         {@code bottom} (exclusive)
+	 */
+	private static <E> AtomicReferenceArray<E> grow(
+			AtomicReferenceArray<E> elements, long top, long bottom) {
+		AtomicReferenceArray<E> result = new AtomicReferenceArray<E>(
+				2 * elements.length());
+		for (long i = top; i < bottom; i++) {
+			result.lazySet(index(result, i), elements.get(index(elements, i)));
+		}
+		return result;
+	}
+
+}
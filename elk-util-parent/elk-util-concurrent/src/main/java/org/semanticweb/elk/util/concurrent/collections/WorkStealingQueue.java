@@ -0,0 +1,177 @@
+/*
+ * #%L
+ * ELK Utilities for Concurrency
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.concurrent.collections;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * A thread-safe {@link Queue} in which every thread inserts elements into its
+ * own {@link WorkStealingDeque}. When taking elements, a thread first takes
+ * the element it has inserted last, and if there are no such elements, takes
+ * (steals) the element inserted first by some other thread. Unlike a single
+ * shared queue, threads that insert and take their own elements do not
+ * compete with each other, which reduces contention when many threads are
+ * used.
+ * 
+ * The elements are therefore not returned in any particular order. The
+ * methods {@link #poll()} returns {@code null} only if no element was found
+ * in any deque at the moment it was examined; the elements inserted
+ * concurrently by other threads might not be found. The methods
+ * {@link #size()}, {@link #peek()}, and {@link #iterator()} are not atomic
+ * and should be used only for monitoring purposes. This queue does not allow
+ * storing {@code null} values.
+ * 
+ * The deques of threads are kept while the threads are alive or the deques
+ * contain some elements, so this queue is intended to be used by a bounded
+ * set of threads such as threads of a thread pool.
+ * 
+ * @author agent
+ * 
+ * @param <E>
+ *            the type of elements in the queue
+ */
+public class WorkStealingQueue<E> extends AbstractQueue<E> {
+
+	@SuppressWarnings("rawtypes")
+	private static final WorkStealingDeque[] NO_DEQUES_ = new WorkStealingDeque[0];
+
+	/**
+	 * the deques of all threads that have used this queue; replaced by a new
+	 * array every time a deque is added or removed
+	 */
+	@SuppressWarnings("unchecked")
+	private volatile WorkStealingDeque<E>[] deques_ = NO_DEQUES_;
+
+	/**
+	 * the deque of the current thread
+	 */
+	private final ThreadLocal<WorkStealingDeque<E>> localDeque_ = new ThreadLocal<WorkStealingDeque<E>>() {
+		@Override
+		protected WorkStealingDeque<E> initialValue() {
+			WorkStealingDeque<E> result = new WorkStealingDeque<E>(
+					Thread.currentThread());
+			register(result);
+			return result;
+		}
+	};
+
+	@Override
+	public boolean offer(E element) {
+		if (element == null)
+			throw new NullPointerException();
+		localDeque_.get().push(element);
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		WorkStealingDeque<E> local = localDeque_.get();
+		E result = local.pop();
+		if (result != null)
+			return result;
+		// else try to steal, starting from the last successful victim
+		WorkStealingDeque<E>[] deques = deques_;
+		int count = deques.length;
+		int start = local.lastVictim;
+		for (int i = 0; i < count; i++) {
+			int pos = (start + i) % count;
+			WorkStealingDeque<E> victim = deques[pos];
+			if (victim == local)
+				continue;
+			result = victim.steal();
+			if (result != null) {
+				local.lastVictim = pos;
+				return result;
+			}
+			// else
+			if (!victim.owner.isAlive() && victim.size() == 0)
+				unregister(victim);
+		}
+		return null;
+	}
+
+	@Override
+	public E peek() {
+		Iterator<E> iterator = iterator();
+		return iterator.hasNext() ? iterator.next() : null;
+	}
+
+	@Override
+	public int size() {
+		int result = 0;
+		for (WorkStealingDeque<E> deque : deques_) {
+			result += deque.size();
+		}
+		return result;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (WorkStealingDeque<E> deque : deques_) {
+			if (deque.size() > 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return an iterator over a copy of the elements in this queue; the
+	 *         iterator does not support removal of elements
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		List<E> elements = new ArrayList<E>();
+		for (WorkStealingDeque<E> deque : deques_) {
+			deque.copyTo(elements);
+		}
+		return Collections.unmodifiableList(elements).iterator();
+	}
+
+	private synchronized void register(WorkStealingDeque<E> deque) {
+		WorkStealingDeque<E>[] deques = deques_;
+		@SuppressWarnings("unchecked")
+		WorkStealingDeque<E>[] result = new WorkStealingDeque[deques.length + 1];
+		System.arraycopy(deques, 0, result, 0, deques.length);
+		result[deques.length] = deque;
+		deques_ = result;
+	}
+
+	private synchronized void unregister(WorkStealingDeque<E> deque) {
+		WorkStealingDeque<E>[] deques = deques_;
+		for (int i = 0; i < deques.length; i++) {
+			if (deques[i] != deque)
+				continue;
+			@SuppressWarnings("unchecked")
+			WorkStealingDeque<E>[] result = new WorkStealingDeque[deques.length - 1];
+			System.arraycopy(deques, 0, result, 0, i);
+			System.arraycopy(deques, i + 1, result, i, result.length - i);
+			deques_ = result;
+			return;
+		}
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * #%L
+ * ELK Utilities for Concurrency
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.concurrent.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link ActivationQueue}
+ * 
+ * @author agent
+ * 
+ */
+public class ActivationQueueTest {
+
+	/**
+	 * the number of queues used in the concurrent test
+	 */
+	private static final int QUEUES_COUNT_ = 100;
+	/**
+	 * the number of worker threads used in the concurrent test
+	 */
+	private static final int WORKER_COUNT_ = 8;
+	/**
+	 * the number of initial elements in the concurrent test
+	 */
+	private static final int ELEMENTS_COUNT_ = 10000;
+	/**
+	 * how many times every element is moved to another queue
+	 */
+	private static final int HOPS_ = 20;
+
+	@Test
+	public void testSequential() {
+		ActivationQueue<Integer> queue = new ActivationQueue<Integer>();
+		assertNull(queue.pop());
+		int size = 5 * ActivationQueue.MAX_SEGMENT_SIZE;
+		for (int round = 0; round < 3; round++) {
+			assertTrue(queue.push(0));
+			for (int i = 1; i < size; i++) {
+				assertFalse(queue.push(i));
+			}
+			// elements are returned in the order of insertion
+			for (int i = 0; i < size / 2; i++) {
+				assertEquals(Integer.valueOf(i), queue.pop());
+			}
+			assertFalse(queue.push(size));
+			for (int i = size / 2; i <= size; i++) {
+				assertEquals(Integer.valueOf(i), queue.pop());
+			}
+			assertNull(queue.pop());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNull() {
+		new ActivationQueue<Object>().push(null);
+	}
+
+	@Test
+	public void testConcurrent() throws InterruptedException {
+		final QueueMonitor[] queues = new QueueMonitor[QUEUES_COUNT_];
+		for (int i = 0; i < QUEUES_COUNT_; i++) {
+			queues[i] = new QueueMonitor();
+		}
+		final Queue<QueueMonitor> activeQueues = new ConcurrentLinkedQueue<QueueMonitor>();
+		final AtomicInteger processed = new AtomicInteger();
+		final AtomicReference<String> error = new AtomicReference<String>();
+		Random generator = new Random(123);
+		for (int i = 0; i < ELEMENTS_COUNT_; i++) {
+			QueueMonitor monitor = queues[generator.nextInt(QUEUES_COUNT_)];
+			if (monitor.queue.push(HOPS_))
+				activeQueues.add(monitor);
+		}
+		Thread[] workers = new Thread[WORKER_COUNT_];
+		for (int w = 0; w < WORKER_COUNT_; w++) {
+			final Random random = new Random(w);
+			workers[w] = new Thread() {
+				@Override
+				public void run() {
+					while (processed.get() < ELEMENTS_COUNT_ * (HOPS_ + 1)) {
+						QueueMonitor monitor = activeQueues.poll();
+						if (monitor == null) {
+							Thread.yield();
+							continue;
+						}
+						if (!monitor.lock())
+							error.set("The queue is processed by two workers");
+						for (;;) {
+							Integer hops = monitor.queue.pop();
+							if (hops == null)
+								break;
+							processed.incrementAndGet();
+							if (hops == 0)
+								continue;
+							QueueMonitor next = queues[random
+									.nextInt(QUEUES_COUNT_)];
+							if (next.queue.push(hops - 1))
+								activeQueues.add(next);
+						}
+						monitor.unlock();
+					}
+				}
+			};
+			workers[w].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		assertNull(error.get());
+		assertEquals(ELEMENTS_COUNT_ * (HOPS_ + 1), processed.get());
+		assertTrue(activeQueues.isEmpty());
+		for (QueueMonitor monitor : queues) {
+			assertTrue(monitor.queue.push(0));
+			assertEquals(Integer.valueOf(0), monitor.queue.pop());
+			assertNull(monitor.queue.pop());
+		}
+	}
+
+	/**
+	 * An {@link ActivationQueue} with a flag to detect simultaneous processing
+	 * of the queue
+	 */
+	private static class QueueMonitor {
+
+		final ActivationQueue<Integer> queue = new ActivationQueue<Integer>();
+
+		private final AtomicInteger locked_ = new AtomicInteger();
+
+		boolean lock() {
+			return locked_.compareAndSet(0, 1);
+		}
+
+		void unlock() {
+			locked_.set(0);
+		}
+
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * #%L
+ * ELK Utilities for Concurrency
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.concurrent.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link WorkStealingQueue}
+ * 
+ * @author agent
+ * 
+ */
+public class WorkStealingQueueTest {
+
+	/**
+	 * the number of worker threads used in the concurrent test
+	 */
+	private static final int WORKER_COUNT_ = 8;
+	/**
+	 * the number of initial elements in the concurrent test
+	 */
+	private static final int ELEMENTS_COUNT_ = 10000;
+	/**
+	 * how many times every element is inserted again after it is taken
+	 */
+	private static final int HOPS_ = 20;
+
+	@Test
+	public void testSequential() {
+		WorkStealingQueue<Integer> queue = new WorkStealingQueue<Integer>();
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+		int size = 5 * WorkStealingDeque.INITIAL_CAPACITY;
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < size; i++) {
+				queue.add(i);
+			}
+			assertEquals(size, queue.size());
+			int count = 0;
+			for (Iterator<Integer> iterator = queue.iterator(); iterator
+					.hasNext(); iterator.next()) {
+				count++;
+			}
+			assertEquals(size, count);
+			// own elements are returned in the reverse order
+			for (int i = size - 1; i >= 0; i--) {
+				assertEquals(Integer.valueOf(i), queue.poll());
+			}
+			assertNull(queue.poll());
+			assertTrue(queue.isEmpty());
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNull() {
+		new WorkStealingQueue<Object>().add(null);
+	}
+
+	@Test
+	public void testSteal() throws InterruptedException {
+		final WorkStealingQueue<Integer> queue = new WorkStealingQueue<Integer>();
+		final int size = 3 * WorkStealingDeque.INITIAL_CAPACITY;
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 0; i < size; i++) {
+					queue.add(i);
+				}
+			}
+		};
+		producer.start();
+		producer.join();
+		// elements of other threads are returned in the order of insertion
+		for (int i = 0; i < size; i++) {
+			assertEquals(Integer.valueOf(i), queue.poll());
+		}
+		assertNull(queue.poll());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testConcurrent() throws InterruptedException {
+		final WorkStealingQueue<Integer> queue = new WorkStealingQueue<Integer>();
+		// how many times each element is still expected to be taken
+		final AtomicIntegerArray expected = new AtomicIntegerArray(
+				ELEMENTS_COUNT_);
+		final AtomicInteger processed = new AtomicInteger();
+		final AtomicReference<String> error = new AtomicReference<String>();
+		for (int i = 0; i < ELEMENTS_COUNT_; i++) {
+			expected.set(i, HOPS_ + 1);
+			queue.add(i);
+		}
+		Thread[] workers = new Thread[WORKER_COUNT_];
+		for (int w = 0; w < WORKER_COUNT_; w++) {
+			final Random random = new Random(w);
+			workers[w] = new Thread() {
+				@Override
+				public void run() {
+					while (processed.get() < ELEMENTS_COUNT_ * (HOPS_ + 1)) {
+						Integer next = queue.poll();
+						if (next == null) {
+							Thread.yield();
+							continue;
+						}
+						int left = expected.decrementAndGet(next);
+						processed.incrementAndGet();
+						if (left < 0)
+							error.set(next + ": taken too many times");
+						if (left > 0) {
+							queue.add(next);
+							// sometimes give other workers a chance to steal
+							if (random.nextInt(8) == 0)
+								Thread.yield();
+						}
+					}
+				}
+			};
+			workers[w].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		assertNull(error.get());
+		assertEquals(ELEMENTS_COUNT_ * (HOPS_ + 1), processed.get());
+		for (int i = 0; i < ELEMENTS_COUNT_; i++) {
+			assertEquals(0, expected.get(i));
+		}
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * #%L
+ * ELK Utilities for Input-Output
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * A {@link Reader} that decodes the characters of a file directly from a
+ * memory-mapped buffer. Unlike a {@link java.io.InputStreamReader} over a
+ * {@link java.io.FileInputStream}, the bytes of the file are not copied into
+ * intermediate arrays: the decoder reads them from the mapped memory and
+ * writes the characters directly into the array supplied by the caller.
+ * 
+ * Since a single mapping cannot exceed 2GB, the file is mapped in regions of
+ * a fixed size, which are traversed sequentially. A character whose encoding
+ * crosses the end of a region is decoded after mapping the next region
+ * starting from the first byte of this character.
+ * 
+ * @author agent
+ * 
+ */
+public class MappedFileReader extends Reader {
+
+	/**
+	 * the default size of the mapped regions
+	 */
+	public static final int DEFAULT_REGION_SIZE = 1 << 28;
+
+	/**
+	 * the smallest allowed region size; should be enough to decode any
+	 * character
+	 */
+	private static final int MIN_REGION_SIZE_ = 16;
+
+	private final RandomAccessFile file_;
+
+	private final FileChannel channel_;
+
+	/**
+	 * the size of the file in bytes
+	 */
+	private final long size_;
+
+	/**
+	 * the maximal size of the mapped regions
+	 */
+	private final int regionSize_;
+
+	private final CharsetDecoder decoder_;
+
+	/**
+	 * the currently mapped region of the file
+	 */
+	private MappedByteBuffer region_;
+
+	/**
+	 * the offset in the file of the first byte of {@link #region_}
+	 */
+	private long regionStart_;
+
+	/**
+	 * {@code true} if all characters have been read
+	 */
+	private boolean finished_;
+
+	/**
+	 * Creates a {@link MappedFileReader} for the given file using the given
+	 * {@link Charset} and region size
+	 * 
+	 * @param file
+	 *            the file to be read
+	 * @param charset
+	 *            the {@link Charset} used to decode the file
+	 * @param regionSize
+	 *            the maximal number of bytes of the file mapped at once
+	 * @throws IOException
+	 *             if the file cannot be opened or mapped
+	 */
+	public MappedFileReader(File file, Charset charset, int regionSize)
+			throws IOException {
+		if (regionSize < MIN_REGION_SIZE_)
+			throw new IllegalArgumentException("Region size is too small: "
+					+ regionSize);
+		this.file_ = new RandomAccessFile(file, "r");
+		this.channel_ = file_.getChannel();
+		this.regionSize_ = regionSize;
+		this.decoder_ = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.finished_ = false;
+		try {
+			this.size_ = channel_.size();
+			map(0);
+		} catch (IOException e) {
+			file_.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Creates a {@link MappedFileReader} for the given UTF-8 encoded file
+	 * 
+	 * @param file
+	 *            the file to be read
+	 * @throws IOException
+	 *             if the file cannot be opened or mapped
+	 */
+	public MappedFileReader(File file) throws IOException {
+		this(file, Charset.forName("UTF-8"), DEFAULT_REGION_SIZE);
+	}
+
+	private void map(long start) throws IOException {
+		regionStart_ = start;
+		region_ = channel_.map(FileChannel.MapMode.READ_ONLY, start,
+				Math.min(regionSize_, size_ - start));
+	}
+
+	private boolean isLastRegion() {
+		return regionStart_ + region_.limit() == size_;
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (region_ == null)
+			throw new IOException("Stream closed");
+		if (len == 0)
+			return 0;
+		if (finished_)
+			return -1;
+		CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+		for (;;) {
+			boolean endOfInput = isLastRegion();
+			CoderResult result = decoder_.decode(region_, out, endOfInput);
+			if (result.isError())
+				result.throwException();
+			if (result.isOverflow())
+				break;
+			// underflow: all complete characters of the region are decoded
+			if (endOfInput) {
+				if (decoder_.flush(out).isOverflow())
+					break;
+				finished_ = true;
+				break;
+			}
+			// the remaining bytes, if any, start an incomplete character
+			map(regionStart_ + region_.position());
+			if (out.position() > off)
+				break;
+		}
+		int read = out.position() - off;
+		return read == 0 && finished_ ? -1 : read;
+	}
+
+	/**
+	 * Closes the file; the last mapped region will be unmapped once it is
+	 * garbage collected
+	 */
+	@Override
+	public void close() throws IOException {
+		region_ = null;
+		file_.close();
+	}
+
+}
@@ -0,0 +1,68 @@
+package org.semanticweb.elk.util.logging.metrics;
+
+/*
+ * #%L
+ * ELK Utilities for Logging
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter that can be safely incremented by many threads. The counters are
+ * updated only once per computation stage or query, e.g., with the numbers
+ * that the workers have counted locally, so they are never contended.
+ * 
+ * @author agent
+ * 
+ */
+public class Counter {
+
+	private final AtomicLong value_ = new AtomicLong();
+
+	/**
+	 * Increments the value of this {@link Counter} by one
+	 */
+	public void increment() {
+		add(1);
+	}
+
+	/**
+	 * Adds the given number to the value of this {@link Counter}
+	 * 
+	 * @param delta
+	 *            the number to be added
+	 */
+	public void add(long delta) {
+		value_.addAndGet(delta);
+	}
+
+	/**
+	 * @return the current value of this {@link Counter}
+	 */
+	public long get() {
+		return value_.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(get());
+	}
+
+}
@@ -0,0 +1,39 @@
+package org.semanticweb.elk.util.logging.metrics;
+
+/*
+ * #%L
+ * ELK Utilities for Logging
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * A metric whose value is computed on demand, such as the current size of a
+ * queue
+ * 
+ * @author agent
+ * 
+ */
+public interface Gauge {
+
+	/**
+	 * @return the current value of this {@link Gauge}
+	 */
+	public long getValue();
+
+}
@@ -0,0 +1,145 @@
+package org.semanticweb.elk.util.logging.metrics;
+
+/*
+ * #%L
+ * ELK Utilities for Logging
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the distribution of non-negative values, such as durations or sizes,
+ * using buckets of exponentially growing width: the bucket {@code 0} counts the
+ * values {@code 0} and the bucket {@code i > 0} counts the values between
+ * {@code 2^(i-1)} inclusive and {@code 2^i} exclusive. The values can be
+ * recorded by many threads at the same time.
+ * 
+ * @author agent
+ * 
+ */
+public class Histogram {
+
+	/**
+	 * the number of buckets
+	 */
+	public static final int BUCKETS = 65;
+
+	private final AtomicLongArray buckets_ = new AtomicLongArray(BUCKETS);
+
+	private final Counter sum_ = new Counter();
+
+	private final AtomicLong max_ = new AtomicLong();
+
+	/**
+	 * Records the given value in this {@link Histogram}; negative values are
+	 * recorded as {@code 0}
+	 * 
+	 * @param value
+	 *            the value to be recorded
+	 */
+	public void record(long value) {
+		if (value < 0)
+			value = 0;
+		buckets_.getAndIncrement(getBucket(value));
+		sum_.add(value);
+		for (;;) {
+			long max = max_.get();
+			if (value <= max || max_.compareAndSet(max, value))
+				break;
+		}
+	}
+
+	/**
+	 * @return the number of values recorded in every bucket of this
+	 *         {@link Histogram}
+	 */
+	public long[] getBucketCounts() {
+		long[] result = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			result[i] = buckets_.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the number of recorded values
+	 */
+	public long getCount() {
+		long result = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			result += buckets_.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the sum of recorded values
+	 */
+	public long getSum() {
+		return sum_.get();
+	}
+
+	/**
+	 * @return the maximal recorded value or {@code 0} if no values were
+	 *         recorded
+	 */
+	public long getMax() {
+		return max_.get();
+	}
+
+	/**
+	 * @param fraction
+	 *            a number between {@code 0} and {@code 1}
+	 * @return an upper bound of the smallest value such that the given
+	 *         fraction of recorded values does not exceed it; the bound is
+	 *         precise up to the width of the bucket and never exceeds
+	 *         {@link #getMax()}
+	 */
+	public long getQuantile(double fraction) {
+		long[] counts = getBucketCounts();
+		long total = 0;
+		for (long count : counts)
+			total += count;
+		if (total == 0)
+			return 0;
+		long rank = (long) Math.ceil(fraction * total);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank && counts[i] > 0)
+				return Math.min(getUpperBound(i), getMax());
+		}
+		return getMax();
+	}
+
+	static int getBucket(long value) {
+		return 64 - Long.numberOfLeadingZeros(value);
+	}
+
+	static long getUpperBound(int bucket) {
+		if (bucket == 0)
+			return 0;
+		if (bucket >= 64)
+			return Long.MAX_VALUE;
+		return (1L << bucket) - 1;
+	}
+
+}
@@ -0,0 +1,121 @@
+package org.semanticweb.elk.util.logging.metrics;
+
+/*
+ * #%L
+ * ELK Utilities for Logging
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link MetricRegistry} that keeps the metrics in memory, from where their
+ * values can be read by the same process.
+ * 
+ * @author agent
+ * 
+ */
+public class InMemoryMetricRegistry implements MetricRegistry {
+
+	private final ConcurrentMap<String, Counter> counters_ = new ConcurrentHashMap<String, Counter>();
+
+	private final ConcurrentMap<String, Histogram> histograms_ = new ConcurrentHashMap<String, Histogram>();
+
+	private final ConcurrentMap<String, Gauge> gauges_ = new ConcurrentHashMap<String, Gauge>();
+
+	@Override
+	public Counter getCounter(String name) {
+		Counter result = counters_.get(name);
+		if (result != null)
+			return result;
+		// else
+		result = new Counter();
+		Counter previous = counters_.putIfAbsent(name, result);
+		return previous == null ? result : previous;
+	}
+
+	@Override
+	public Histogram getHistogram(String name) {
+		Histogram result = histograms_.get(name);
+		if (result != null)
+			return result;
+		// else
+		result = new Histogram();
+		Histogram previous = histograms_.putIfAbsent(name, result);
+		return previous == null ? result : previous;
+	}
+
+	@Override
+	public void registerGauge(String name, Gauge gauge) {
+		gauges_.put(name, gauge);
+	}
+
+	/**
+	 * @return the registered {@link Counter}s indexed by their names
+	 */
+	public Map<String, Counter> getCounters() {
+		return Collections.unmodifiableMap(counters_);
+	}
+
+	/**
+	 * @return the registered {@link Histogram}s indexed by their names
+	 */
+	public Map<String, Histogram> getHistograms() {
+		return Collections.unmodifiableMap(histograms_);
+	}
+
+	/**
+	 * @return the registered {@link Gauge}s indexed by their names
+	 */
+	public Map<String, Gauge> getGauges() {
+		return Collections.unmodifiableMap(gauges_);
+	}
+
+	/**
+	 * @return the current values of all registered metrics sorted by their
+	 *         names; every {@link Histogram} contributes the values with
+	 *         suffixes {@code .count}, {@code .sum}, {@code .max}, {@code .p50}
+	 *         and {@code .p99}
+	 */
+	public SortedMap<String, Long> getValues() {
+		SortedMap<String, Long> result = new TreeMap<String, Long>();
+		for (Map.Entry<String, Counter> entry : counters_.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().get());
+		}
+		for (Map.Entry<String, Gauge> entry : gauges_.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().getValue());
+		}
+		for (Map.Entry<String, Histogram> entry : histograms_.entrySet()) {
+			String name = entry.getKey();
+			Histogram histogram = entry.getValue();
+			result.put(name + ".count", histogram.getCount());
+			result.put(name + ".sum", histogram.getSum());
+			result.put(name + ".max", histogram.getMax());
+			result.put(name + ".p50", histogram.getQuantile(0.5));
+			result.put(name + ".p99", histogram.getQuantile(0.99));
+		}
+		return result;
+	}
+
+}
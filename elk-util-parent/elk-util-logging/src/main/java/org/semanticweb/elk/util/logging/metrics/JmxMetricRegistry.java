@@ -0,0 +1,165 @@
+package org.semanticweb.elk.util.logging.metrics;
+
+/*
+ * #%L
+ * ELK Utilities for Logging
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SortedMap;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InvalidAttributeValueException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * An {@link InMemoryMetricRegistry} that exposes the values of its metrics as
+ * read-only attributes of an MBean, so that they can be read by JMX clients.
+ * The set of attributes changes as new metrics are registered.
+ * 
+ * @author agent
+ * 
+ */
+public class JmxMetricRegistry extends InMemoryMetricRegistry implements
+		DynamicMBean {
+
+	/**
+	 * the domain of the names under which the MBeans are registered
+	 */
+	public static final String DOMAIN = "org.semanticweb.elk";
+
+	private final ObjectName objectName_;
+
+	private final MBeanServer server_;
+
+	/**
+	 * Creates a new {@link JmxMetricRegistry} that can be registered with the
+	 * platform {@link MBeanServer} under the given name
+	 * 
+	 * @param name
+	 *            the name to distinguish this {@link JmxMetricRegistry} from
+	 *            other ones
+	 * @throws JMException
+	 *             if the MBean name cannot be created from the given name
+	 */
+	public JmxMetricRegistry(String name) throws JMException {
+		this.objectName_ = new ObjectName(DOMAIN + ":type=Metrics,name="
+				+ ObjectName.quote(name));
+		this.server_ = ManagementFactory.getPlatformMBeanServer();
+	}
+
+	/**
+	 * @return the name under which this {@link JmxMetricRegistry} is
+	 *         registered with the {@link MBeanServer}
+	 */
+	public ObjectName getObjectName() {
+		return objectName_;
+	}
+
+	/**
+	 * Registers this {@link JmxMetricRegistry} with the platform
+	 * {@link MBeanServer}
+	 * 
+	 * @throws JMException
+	 *             if the registration has failed, e.g., because another MBean
+	 *             is registered under the same name
+	 */
+	public void register() throws JMException {
+		server_.registerMBean(this, objectName_);
+	}
+
+	/**
+	 * Removes this {@link JmxMetricRegistry} from the platform
+	 * {@link MBeanServer} if it was registered
+	 * 
+	 * @throws JMException
+	 *             if the removal has failed
+	 */
+	public void unregister() throws JMException {
+		if (server_.isRegistered(objectName_))
+			server_.unregisterMBean(objectName_);
+	}
+
+	@Override
+	public Object getAttribute(String attribute)
+			throws AttributeNotFoundException, MBeanException,
+			ReflectionException {
+		Long result = getValues().get(attribute);
+		if (result == null)
+			throw new AttributeNotFoundException(attribute);
+		return result;
+	}
+
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		Map<String, Long> values = getValues();
+		AttributeList result = new AttributeList();
+		for (String attribute : attributes) {
+			Long value = values.get(attribute);
+			if (value != null)
+				result.add(new Attribute(attribute, value));
+		}
+		return result;
+	}
+
+	@Override
+	public void setAttribute(Attribute attribute)
+			throws AttributeNotFoundException, InvalidAttributeValueException,
+			MBeanException, ReflectionException {
+		throw new AttributeNotFoundException(attribute.getName()
+				+ " is read-only");
+	}
+
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		// all attributes are read-only
+		return new AttributeList();
+	}
+
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature)
+			throws MBeanException, ReflectionException {
+		throw new ReflectionException(new NoSuchMethodException(actionName));
+	}
+
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		SortedMap<String, Long> values = getValues();
+		MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+		int i = 0;
+		for (String name : values.keySet()) {
+			attributes[i++] = new MBeanAttributeInfo(name,
+					Long.class.getName(), name, true, false, false);
+		}
+		return new MBeanInfo(getClass().getName(), "ELK reasoner metrics",
+				attributes, null, null, null);
+	}
+
+}
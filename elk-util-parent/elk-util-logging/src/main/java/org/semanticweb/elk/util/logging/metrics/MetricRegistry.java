@@ -0,0 +1,62 @@
+package org.semanticweb.elk.util.logging.metrics;
+
+/*
+ * #%L
+ * ELK Utilities for Logging
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Provides the metrics under which the measurements are recorded. The
+ * implementations of this interface determine how the recorded values can be
+ * accessed, e.g., from the same process or by external monitoring tools.
+ * 
+ * @author agent
+ * 
+ */
+public interface MetricRegistry {
+
+	/**
+	 * @param name
+	 *            the name of the {@link Counter}
+	 * @return the {@link Counter} registered under the given name; the
+	 *         {@link Counter} is created if it does not exist yet
+	 */
+	public Counter getCounter(String name);
+
+	/**
+	 * @param name
+	 *            the name of the {@link Histogram}
+	 * @return the {@link Histogram} registered under the given name; the
+	 *         {@link Histogram} is created if it does not exist yet
+	 */
+	public Histogram getHistogram(String name);
+
+	/**
+	 * Registers the given {@link Gauge} under the given name, replacing the
+	 * {@link Gauge} previously registered under this name, if any
+	 * 
+	 * @param name
+	 *            the name of the {@link Gauge}
+	 * @param gauge
+	 *            the {@link Gauge} to be registered
+	 */
+	public void registerGauge(String name, Gauge gauge);
+
+}
@@ -0,0 +1,118 @@
+package org.semanticweb.elk.util.logging.metrics;
+
+/*
+ * #%L
+ * ELK Utilities for Logging
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+
+import org.junit.Test;
+
+/**
+ * Tests for the metrics and their registries
+ * 
+ * @author agent
+ * 
+ */
+public class MetricRegistryTest {
+
+	@Test
+	public void concurrentCounting() throws InterruptedException {
+		final Counter counter = new Counter();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++)
+						counter.increment();
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertEquals(40000, counter.get());
+	}
+
+	@Test
+	public void histogram() {
+		Histogram histogram = new Histogram();
+		assertEquals(0, histogram.getQuantile(0.5));
+		for (int i = 1; i <= 100; i++)
+			histogram.record(i);
+		histogram.record(-5);
+		assertEquals(101, histogram.getCount());
+		assertEquals(5050, histogram.getSum());
+		assertEquals(100, histogram.getMax());
+		// 50 is in the bucket [32, 64)
+		assertEquals(63, histogram.getQuantile(0.5));
+		assertEquals(100, histogram.getQuantile(0.99));
+		assertEquals(1, histogram.getBucketCounts()[0]);
+		assertEquals(1, histogram.getBucketCounts()[1]);
+		assertEquals(2, histogram.getBucketCounts()[2]);
+	}
+
+	@Test
+	public void inMemoryValues() {
+		InMemoryMetricRegistry registry = new InMemoryMetricRegistry();
+		registry.getCounter("c").add(3);
+		registry.getCounter("c").increment();
+		registry.getHistogram("h").record(7);
+		registry.registerGauge("g", new Gauge() {
+			@Override
+			public long getValue() {
+				return 42;
+			}
+		});
+		Map<String, Long> values = registry.getValues();
+		assertEquals(4, values.get("c").longValue());
+		assertEquals(42, values.get("g").longValue());
+		assertEquals(1, values.get("h.count").longValue());
+		assertEquals(7, values.get("h.sum").longValue());
+		assertEquals(7, values.get("h.max").longValue());
+	}
+
+	@Test
+	public void jmxAttributes() throws Exception {
+		JmxMetricRegistry registry = new JmxMetricRegistry("test");
+		registry.getCounter("c").add(5);
+		registry.register();
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertTrue(server.isRegistered(registry.getObjectName()));
+			assertEquals(5L,
+					server.getAttribute(registry.getObjectName(), "c"));
+			registry.getHistogram("h").record(2);
+			assertEquals(1L,
+					server.getAttribute(registry.getObjectName(), "h.count"));
+		} finally {
+			registry.unregister();
+		}
+	}
+
+}